@@ -71,6 +71,38 @@ class ConfigurationCacheCleanupIntegrationTest
         expected == remaining
     }
 
+    def "entry is not reused when a value it shares with other entries was removed"() {
+        given:
+        (1..4).each { file("classes$it").createDir() }
+        buildFile '''
+            buildscript {
+                dependencies {
+                    classpath files('classes1', 'classes2', 'classes3', 'classes4')
+                }
+            }
+            task run
+        '''
+        def sharingClassPaths = '-Dorg.gradle.configuration-cache.internal.shared-class-paths=true'
+        configurationCacheRun 'run', sharingClassPaths
+        def sharedValues = configurationCacheDir.listFiles().findAll { it.name.startsWith('shared-') }
+        assert !sharedValues.empty
+
+        when:
+        sharedValues*.delete()
+        def cc = newConfigurationCacheFixture()
+        configurationCacheRun 'run', sharingClassPaths
+
+        then:
+        cc.assertStateStored()
+        outputContains('Calculating task graph as configuration cache cannot be reused because a value shared with other configuration cache entries was removed.')
+
+        when:
+        configurationCacheRun 'run', sharingClassPaths
+
+        then:
+        cc.assertStateLoaded()
+    }
+
     private void configurationCacheRunNoDaemon(String task) {
         configurationCacheRun task, '--no-daemon'
     }
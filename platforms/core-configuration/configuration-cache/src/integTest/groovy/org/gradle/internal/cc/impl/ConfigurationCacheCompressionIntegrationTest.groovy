@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl
+
+class ConfigurationCacheCompressionIntegrationTest extends AbstractConfigurationCacheIntegrationTest {
+
+    private static String compress(String stateTypes) {
+        return "-Dorg.gradle.configuration-cache.internal.compress=$stateTypes"
+    }
+
+    def setup() {
+        createDirs("a", "b")
+        settingsFile << """
+            include "a", "b"
+        """
+        buildFile << """
+            abstract class Greeting implements ValueSource<String, ValueSourceParameters.None> {
+                String obtain() {
+                    println "obtaining greeting"
+                    return "hello"
+                }
+            }
+
+            abstract class Greet extends DefaultTask {
+                @Input
+                abstract Property<String> getGreeting()
+
+                @InputFiles
+                abstract ConfigurableFileCollection getSources()
+
+                @TaskAction
+                def go() {
+                    println "\$path: \${greeting.get()} \${sources.files*.name.sort()}"
+                }
+            }
+
+            def greeting = providers.of(Greeting) {}
+            subprojects {
+                tasks.register("greet", Greet) {
+                    it.greeting = greeting
+                    it.sources.from("src/one.txt", "src/two.txt")
+                }
+            }
+        """
+    }
+
+    def "stores and loads the entry with #stateTypes state compressed"() {
+        def configurationCache = newConfigurationCacheFixture()
+
+        when:
+        configurationCacheRun "greet", compress(stateTypes)
+
+        then:
+        configurationCache.assertStateStored()
+        output.count("obtaining greeting") == 1
+        ["a", "b"].each { outputContains(":$it:greet: hello [one.txt, two.txt]") }
+
+        when:
+        configurationCacheRun "greet", compress(stateTypes)
+
+        then:
+        configurationCache.assertStateLoaded()
+        output.count("obtaining greeting") == 1
+        ["a", "b"].each { outputContains(":$it:greet: hello [one.txt, two.txt]") }
+
+        where:
+        stateTypes << ["Work", "all"]
+    }
+
+    def "entries stored with and without compression are not reused by each other"() {
+        def configurationCache = newConfigurationCacheFixture()
+
+        when:
+        configurationCacheRun "greet"
+
+        then:
+        configurationCache.assertStateStored()
+
+        when:
+        configurationCacheRun "greet", compress("all")
+
+        then:
+        configurationCache.assertStateStored()
+
+        when:
+        configurationCacheRun "greet"
+
+        then:
+        configurationCache.assertStateLoaded()
+
+        when:
+        configurationCacheRun "greet", compress("all")
+
+        then:
+        configurationCache.assertStateLoaded()
+        ["a", "b"].each { outputContains(":$it:greet: hello [one.txt, two.txt]") }
+    }
+}
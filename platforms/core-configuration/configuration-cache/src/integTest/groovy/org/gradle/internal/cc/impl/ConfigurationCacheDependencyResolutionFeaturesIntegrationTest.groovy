@@ -674,7 +674,6 @@ class ConfigurationCacheDependencyResolutionFeaturesIntegrationTest extends Abst
 
         when:
         def v4 = remoteRepo.module("thing", "lib", "1.4").publish()
-        moduleMetaData.expectHead()
         moduleMetaData.expectGet()
         v4.pom.expectGet()
         v4.artifact.expectGet()
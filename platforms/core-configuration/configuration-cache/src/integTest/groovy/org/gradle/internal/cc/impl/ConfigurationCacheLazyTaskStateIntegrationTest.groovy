@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl
+
+class ConfigurationCacheLazyTaskStateIntegrationTest extends AbstractConfigurationCacheIntegrationTest {
+
+    def setup() {
+        executer.beforeExecute {
+            withArgument("-Dorg.gradle.configuration-cache.internal.lazy-task-state=true")
+        }
+        file("buildSrc/src/main/java/Probe.java") << """
+            import java.io.IOException;
+            import java.io.ObjectInputStream;
+            import java.io.Serializable;
+
+            public class Probe implements Serializable {
+                private final String name;
+                private final boolean broken;
+
+                public Probe(String name, boolean broken) {
+                    this.name = name;
+                    this.broken = broken;
+                }
+
+                public String getName() {
+                    return name;
+                }
+
+                private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+                    in.defaultReadObject();
+                    if (broken) {
+                        throw new IllegalStateException("Cannot decode probe " + name + ".");
+                    }
+                    System.out.println("decoded probe " + name);
+                }
+            }
+        """
+    }
+
+    def "tasks share build services and value sources when their state is restored separately"() {
+        given:
+        buildFile << """
+            abstract class Counter implements BuildService<BuildServiceParameters.None> {
+                int count
+                Counter() {
+                    println "creating counter"
+                }
+            }
+
+            abstract class Greeting implements ValueSource<String, ValueSourceParameters.None> {
+                String obtain() {
+                    println "obtaining greeting"
+                    return "hello"
+                }
+            }
+
+            abstract class Consumer extends DefaultTask {
+                @ServiceReference("counter")
+                abstract Property<Counter> getCounter()
+
+                @Input
+                abstract Property<String> getGreeting()
+
+                @TaskAction
+                def go() {
+                    println "\$name: \${greeting.get()} \${++counter.get().count}"
+                }
+            }
+
+            gradle.sharedServices.registerIfAbsent("counter", Counter)
+            def greeting = providers.of(Greeting) {}
+            tasks.register("first", Consumer) {
+                it.greeting = greeting
+            }
+            tasks.register("second", Consumer) {
+                it.greeting = greeting
+                mustRunAfter("first")
+            }
+        """
+        def configurationCache = newConfigurationCacheFixture()
+
+        when:
+        configurationCacheRun "first", "second"
+
+        then:
+        configurationCache.assertStateStored()
+        output.count("creating counter") == 1
+        output.count("obtaining greeting") == 1
+        outputContains("first: hello 1")
+        outputContains("second: hello 2")
+
+        when:
+        configurationCacheRun "first", "second"
+
+        then:
+        configurationCache.assertStateLoaded()
+        output.count("creating counter") == 1
+        output.count("obtaining greeting") == 1
+        outputContains("first: hello 1")
+        outputContains("second: hello 2")
+    }
+
+    def "does not restore the state of a task that does not run"() {
+        given:
+        buildFile << """
+            tasks.register("broken") {
+                doLast {
+                    throw new RuntimeException("Task failed.")
+                }
+            }
+            tasks.register("skipped") {
+                def probe = new Probe("skipped", false)
+                dependsOn("broken")
+                doLast {
+                    println "running with probe " + probe.name
+                }
+            }
+        """
+        def configurationCache = newConfigurationCacheFixture()
+
+        when:
+        configurationCacheFails "skipped"
+
+        then:
+        configurationCache.assertStateStored()
+        failureDescriptionContains("Execution failed for task ':broken'.")
+        outputDoesNotContain("decoded probe skipped")
+
+        when:
+        configurationCacheFails "skipped"
+
+        then:
+        configurationCache.assertStateLoaded()
+        failureDescriptionContains("Execution failed for task ':broken'.")
+        outputDoesNotContain("decoded probe skipped")
+        outputDoesNotContain("running with probe")
+    }
+
+    def "reports a failure to restore the state of a task as a failure of that task"() {
+        given:
+        buildFile << """
+            tasks.register("ok") {
+                def probe = new Probe("ok", false)
+                doLast {
+                    println "running with probe " + probe.name
+                }
+            }
+            tasks.register("undecodable") {
+                def probe = new Probe("undecodable", true)
+                mustRunAfter("ok")
+                doLast {
+                    println "running with probe " + probe.name
+                }
+            }
+        """
+        def configurationCache = newConfigurationCacheFixture()
+
+        when:
+        configurationCacheFails "ok", "undecodable"
+
+        then:
+        configurationCache.assertStateStored()
+        outputContains("running with probe ok")
+        failureDescriptionContains("Execution failed for task ':undecodable'.")
+        failureCauseContains("Cannot decode probe undecodable.")
+
+        when:
+        configurationCacheFails "ok", "undecodable"
+
+        then:
+        configurationCache.assertStateLoaded()
+        outputContains("running with probe ok")
+        outputDoesNotContain("running with probe undecodable")
+        failureDescriptionContains("Execution failed for task ':undecodable'.")
+        failureCauseContains("Cannot decode probe undecodable.")
+    }
+}
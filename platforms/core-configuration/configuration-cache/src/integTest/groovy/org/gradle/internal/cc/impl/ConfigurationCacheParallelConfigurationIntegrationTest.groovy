@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl
+
+import static org.hamcrest.CoreMatchers.containsString
+
+class ConfigurationCacheParallelConfigurationIntegrationTest extends AbstractConfigurationCacheIntegrationTest {
+
+    private static final String[] PARALLEL_CONFIGURATION = ["--parallel", "-Dorg.gradle.internal.configuration.parallel=true"]
+
+    def setup() {
+        createDirs("a", "b")
+        settingsFile << """
+            include "a", "b"
+        """
+    }
+
+    def "does not report reads from projects that completed their configuration"() {
+        given:
+        buildFile << """
+            version = "1.0"
+            ext.greeting = "hello"
+        """
+        file("a/build.gradle") << """
+            version = "2.0"
+            println "greeting from parent: \$greeting"
+            println "version of root: \${rootProject.version}"
+            println "file of root: \${rootProject.file('src').name}"
+        """
+        file("b/build.gradle") << """
+            println "version of a: \${project(':a').version}"
+            println "file of a: \${project(':a').file('src').name}"
+        """
+
+        when:
+        configurationCacheRun "help", *PARALLEL_CONFIGURATION
+
+        then:
+        outputContains("greeting from parent: hello")
+        outputContains("version of root: 1.0")
+        outputContains("file of root: src")
+        outputContains("version of a: 2.0")
+        outputContains("file of a: src")
+        problems.assertResultHasProblems(result)
+    }
+
+    def "reports access that mutates another project"() {
+        given:
+        file("a/build.gradle") << """
+            project(':b').plugins.apply('base')
+        """
+
+        when:
+        configurationCacheFails "help", *PARALLEL_CONFIGURATION
+
+        then:
+        problems.assertFailureHasProblems(failure) {
+            totalProblemsCount = 1
+            withProblem(containsString("Project ':a' cannot access 'Project.plugins' functionality on another project ':b'"))
+        }
+    }
+
+    def "reports access that mutates a parent project"() {
+        given:
+        file("a/build.gradle") << """
+            rootProject.description = "changed by a"
+        """
+
+        when:
+        configurationCacheFails "help", *PARALLEL_CONFIGURATION
+
+        then:
+        problems.assertFailureHasProblems(failure) {
+            totalProblemsCount = 1
+            withProblem(containsString("Project ':a' cannot access 'Project.description' functionality on another project ':'"))
+        }
+    }
+}
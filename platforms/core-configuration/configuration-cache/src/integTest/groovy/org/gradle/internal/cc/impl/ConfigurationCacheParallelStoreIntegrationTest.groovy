@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl
+
+import static org.hamcrest.CoreMatchers.containsString
+
+class ConfigurationCacheParallelStoreIntegrationTest extends AbstractConfigurationCacheIntegrationTest {
+
+    private static final String PARALLEL_STORE = "-Dorg.gradle.configuration-cache.internal.parallel-store=true"
+
+    def setup() {
+        createDirs("a", "b", "c")
+        settingsFile << """
+            include "a", "b", "c"
+        """
+        buildFile << """
+            abstract class Counter implements BuildService<BuildServiceParameters.None> {
+                int count
+                Counter() {
+                    println "creating counter"
+                }
+            }
+
+            abstract class Greeting implements ValueSource<String, ValueSourceParameters.None> {
+                String obtain() {
+                    println "obtaining greeting"
+                    return "hello"
+                }
+            }
+
+            abstract class Consumer extends DefaultTask {
+                @ServiceReference("counter")
+                abstract Property<Counter> getCounter()
+
+                @Input
+                abstract Property<String> getGreeting()
+
+                @TaskAction
+                def go() {
+                    synchronized (counter.get()) {
+                        println "\$path: \${greeting.get()} \${++counter.get().count}"
+                    }
+                }
+            }
+
+            gradle.sharedServices.registerIfAbsent("counter", Counter)
+            def greeting = providers.of(Greeting) {}
+            subprojects {
+                tasks.register("greet", Consumer) {
+                    it.greeting = greeting
+                }
+            }
+        """
+    }
+
+    def "tasks of different projects share build services and value sources"() {
+        def configurationCache = newConfigurationCacheFixture()
+
+        when:
+        configurationCacheRun "greet", PARALLEL_STORE
+
+        then:
+        configurationCache.assertStateStored()
+        output.count("creating counter") == 1
+        output.count("obtaining greeting") == 1
+        (1..3).each { outputContains("hello $it") }
+
+        when:
+        configurationCacheRun "greet", PARALLEL_STORE
+
+        then:
+        configurationCache.assertStateLoaded()
+        output.count("creating counter") == 1
+        output.count("obtaining greeting") == 1
+        ["a", "b", "c"].each { outputContains(":$it:greet: hello") }
+        (1..3).each { outputContains("hello $it") }
+    }
+
+    def "entries stored with and without parallel store are not reused by each other"() {
+        def configurationCache = newConfigurationCacheFixture()
+
+        when:
+        configurationCacheRun "greet"
+
+        then:
+        configurationCache.assertStateStored()
+
+        when:
+        configurationCacheRun "greet", PARALLEL_STORE
+
+        then:
+        configurationCache.assertStateStored()
+
+        when:
+        configurationCacheRun "greet"
+
+        then:
+        configurationCache.assertStateLoaded()
+        output.count("obtaining greeting") == 1
+
+        when:
+        configurationCacheRun "greet", PARALLEL_STORE
+
+        then:
+        configurationCache.assertStateLoaded()
+        output.count("obtaining greeting") == 1
+    }
+
+    def "problems of objects shared by the tasks of several projects are reported once"() {
+        given:
+        buildFile << """
+            abstract class Holder implements BuildService<Holder.Params> {
+                interface Params extends BuildServiceParameters {
+                    Property<Thread> getThread()
+                }
+            }
+
+            abstract class Broken extends DefaultTask {
+                @ServiceReference("holder")
+                abstract Property<Holder> getHolder()
+
+                @TaskAction
+                def go() {}
+            }
+
+            gradle.sharedServices.registerIfAbsent("holder", Holder) {
+                parameters.thread = Thread.currentThread()
+            }
+            subprojects {
+                tasks.register("broken", Broken)
+            }
+        """
+
+        when:
+        configurationCacheFails "broken", PARALLEL_STORE
+
+        then:
+        problems.assertFailureHasProblems(failure) {
+            totalProblemsCount = 1
+            withProblem(containsString("cannot serialize object of type 'java.lang.Thread'"))
+        }
+    }
+}
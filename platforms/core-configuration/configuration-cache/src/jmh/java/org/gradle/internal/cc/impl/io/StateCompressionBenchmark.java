@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.io;
+
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of storing and loading configuration cache files with and without compression.
+ *
+ * By default, a synthetic file is used. To measure with a real entry, set the {@code entry} parameter
+ * to a work state file stored without encryption, that is with {@code -Dorg.gradle.configuration-cache.internal.encryption=false}.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 7)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class StateCompressionBenchmark {
+
+    @Param({"none", "deflate"})
+    String compression;
+
+    @Param({""})
+    String entry;
+
+    private byte[] content;
+    private byte[] stored;
+    private final byte[] buffer = new byte[64 * 1024];
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        content = entry.isEmpty() ? syntheticEntry() : Files.readAllBytes(Paths.get(entry));
+        stored = store();
+    }
+
+    @Benchmark
+    public byte[] store() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length);
+        try (OutputStream stream = outputStreamFor(bytes)) {
+            stream.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public long load() throws IOException {
+        long count = 0;
+        try (InputStream stream = inputStreamFor(new ByteArrayInputStream(stored))) {
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                count += read;
+            }
+        }
+        return count;
+    }
+
+    private OutputStream outputStreamFor(OutputStream stream) {
+        return compression.equals("deflate") ? StateCompression.INSTANCE.compressing(stream) : stream;
+    }
+
+    private InputStream inputStreamFor(InputStream stream) {
+        return compression.equals("deflate") ? StateCompression.INSTANCE.decompressing(stream) : stream;
+    }
+
+    /**
+     * Writes values that resemble the content of a work state file: type names, task and file paths, and small numbers.
+     */
+    private static byte[] syntheticEntry() throws IOException {
+        Random random = new Random(42);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (KryoBackedEncoder encoder = new KryoBackedEncoder(bytes)) {
+            for (int project = 0; project < 500; project++) {
+                for (int task = 0; task < 20; task++) {
+                    encoder.writeString("org.gradle.api.tasks.compile.JavaCompile_Decorated");
+                    encoder.writeString(":project" + project);
+                    encoder.writeString("task" + task);
+                    encoder.writeLong(random.nextLong());
+                    for (int property = 0; property < 10; property++) {
+                        encoder.writeSmallInt(random.nextInt(64));
+                        encoder.writeString("/home/user/build/project" + project + "/src/main/java/File" + random.nextInt(1000) + ".java");
+                        encoder.writeBoolean(random.nextBoolean());
+                    }
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -22,6 +22,7 @@ import org.gradle.internal.buildtree.BuildTreeWorkGraph
 import org.gradle.internal.cc.impl.cacheentry.EntryDetails
 import org.gradle.internal.cc.impl.cacheentry.ModelKey
 import org.gradle.internal.cc.impl.serialize.Codecs
+import org.gradle.internal.hash.HashCode
 import org.gradle.internal.serialize.graph.CloseableWriteContext
 import org.gradle.internal.serialize.graph.MutableReadContext
 import org.gradle.util.Path
@@ -41,6 +42,11 @@ interface ConfigurationCacheBuildTreeIO : ConfigurationCacheOperationIO {
 
     fun readCacheEntryDetailsFrom(stateFile: ConfigurationCacheStateFile): EntryDetails?
 
+    /**
+     * Records that the entry being written references the given shared values of the entry being reused, see [EntryDetails.sharedValues].
+     */
+    fun reuseSharedValues(sharedValues: Collection<HashCode>)
+
     /**
      * See [ConfigurationCacheState.writeRootBuildState].
      */
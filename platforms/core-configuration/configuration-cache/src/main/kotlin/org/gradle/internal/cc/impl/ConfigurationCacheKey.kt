@@ -79,6 +79,8 @@ class ConfigurationCacheKey(
         putBoolean(encryptionConfiguration.isEncrypting)
         putHash(encryptionConfiguration.encryptionKeyHashCode)
         putBoolean(startParameter.isDeduplicatingStrings)
+        putAll(startParameter.compressedStateTypes.map { it.name })
+        putBoolean(startParameter.isParallelStore)
     }
 
     private
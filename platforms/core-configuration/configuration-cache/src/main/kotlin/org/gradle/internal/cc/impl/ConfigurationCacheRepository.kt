@@ -30,15 +30,20 @@ import org.gradle.cache.scopes.BuildTreeScopedCacheBuilderFactory
 import org.gradle.internal.cc.impl.ConfigurationCacheRepository.ReadableConfigurationCacheStateFile
 import org.gradle.internal.cc.impl.ConfigurationCacheStateStore.StateFile
 import org.gradle.internal.concurrent.Stoppable
+import org.gradle.internal.encryption.EncryptionService
 import org.gradle.internal.extensions.stdlib.toDefaultLowerCase
 import org.gradle.internal.extensions.stdlib.unsafeLazy
 import org.gradle.internal.file.FileAccessTimeJournal
 import org.gradle.internal.file.impl.SingleDepthFileAccessTracker
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.hash.Hashing
 import org.gradle.internal.nativeintegration.filesystem.FileSystem
 import org.gradle.internal.service.scopes.Scope
 import org.gradle.internal.service.scopes.ServiceScope
 import org.gradle.internal.time.TimestampSuppliers
+import java.io.ByteArrayOutputStream
 import java.io.File
+import java.io.IOException
 import java.io.InputStream
 import java.io.OutputStream
 import java.nio.file.Files
@@ -51,12 +56,21 @@ internal
 class ConfigurationCacheRepository(
     cacheBuilderFactory: BuildTreeScopedCacheBuilderFactory,
     private val fileAccessTimeJournal: FileAccessTimeJournal,
-    private val fileSystem: FileSystem
+    private val fileSystem: FileSystem,
+    private val encryptionService: EncryptionService
 ) : Stoppable {
     fun forKey(cacheKey: String): ConfigurationCacheStateStore {
         return StoreImpl(cache.baseDirFor(cacheKey))
     }
 
+    /**
+     * The values shared by all entries, stored next to the entries so that they are cleaned up the same way.
+     * Values are encrypted like the state of the entries.
+     */
+    val sharedValues: SharedValueStore by unsafeLazy {
+        SharedValueStoreImpl(cache.baseDir)
+    }
+
     abstract class Layout {
         abstract fun fileForRead(stateType: StateType): ConfigurationCacheStateFile
         abstract fun fileFor(stateType: StateType): ConfigurationCacheStateFile
@@ -119,6 +133,12 @@ class ConfigurationCacheRepository(
                 includedBuildFileFor(file, build),
                 stateType
             )
+
+        override fun relatedStateFile(name: String): ConfigurationCacheStateFile =
+            ReadableConfigurationCacheStateFile(
+                relatedFileFor(file, name),
+                stateType
+            )
     }
 
     private
@@ -155,6 +175,13 @@ class ConfigurationCacheRepository(
                 stateType,
                 onFileAccess
             )
+
+        override fun relatedStateFile(name: String): ConfigurationCacheStateFile =
+            WriteableConfigurationCacheStateFile(
+                relatedFileFor(file, name),
+                stateType,
+                onFileAccess
+            )
     }
 
     private
@@ -202,6 +229,84 @@ class ConfigurationCacheRepository(
             }
     }
 
+    private
+    inner class SharedValueStoreImpl(
+        private val baseDir: File
+    ) : SharedValueStore {
+        override fun write(bytes: ByteArray): HashCode {
+            val hash = Hashing.hashBytes(bytes)
+            val file = sharedValueFile(hash)
+            if (!file.isFile) {
+                writeAtomically(file, encrypt(bytes))
+            }
+            markAccessed(file)
+            return hash
+        }
+
+        override fun read(hash: HashCode): ByteArray? {
+            val file = sharedValueFile(hash)
+            if (!file.isFile) {
+                return null
+            }
+            markAccessed(file)
+            return decrypt(file)
+        }
+
+        override fun contains(hash: HashCode): Boolean {
+            val file = sharedValueFile(hash)
+            if (!file.isFile) {
+                return false
+            }
+            markAccessed(file)
+            return true
+        }
+
+        private
+        fun encrypt(bytes: ByteArray): ByteArray {
+            val output = ByteArrayOutputStream(bytes.size)
+            encryptionService.outputStream(output).use {
+                it.write(bytes)
+            }
+            return output.toByteArray()
+        }
+
+        private
+        fun decrypt(file: File): ByteArray =
+            encryptionService.inputStream(file.inputStream()).use {
+                it.readBytes()
+            }
+
+        private
+        fun writeAtomically(file: File, bytes: ByteArray) {
+            Files.createDirectories(baseDir.toPath())
+            val tempFile = Files.createTempFile(baseDir.toPath(), file.name, ".tmp")
+            try {
+                Files.write(tempFile, bytes)
+                chmod(tempFile.toFile(), 384) // octal 0600
+                Files.move(tempFile, file.toPath(), StandardCopyOption.ATOMIC_MOVE)
+            } catch (e: IOException) {
+                // Another build may have written the same value in the meantime
+                if (!file.isFile) {
+                    throw e
+                }
+            } finally {
+                Files.deleteIfExists(tempFile)
+            }
+        }
+
+        /**
+         * The file name also depends on the encryption key, so a value written with another key is a miss rather than a decryption failure.
+         */
+        private
+        fun sharedValueFile(hash: HashCode): File {
+            val fileHash = Hashing.newHasher().apply {
+                putHash(encryptionService.encryptionKeyHashCode)
+                putHash(hash)
+            }.hash()
+            return baseDir.resolve("shared-$fileHash.bin")
+        }
+    }
+
     private
     val cleanupDepth = 1
 
@@ -277,3 +382,10 @@ fun includedBuildFileFor(parentStateFile: File, build: BuildDefinition) =
     parentStateFile.run {
         resolveSibling("$name.${build.name}")
     }
+
+
+private
+fun relatedFileFor(stateFile: File, suffix: String) =
+    stateFile.run {
+        resolveSibling("$name-$suffix")
+    }
@@ -66,6 +66,7 @@ import org.gradle.internal.file.FileSystemDefaultExcludesProvider
 import org.gradle.internal.flow.services.BuildFlowScope
 import org.gradle.internal.operations.BuildOperationProgressEventEmitter
 import org.gradle.internal.scopeids.id.BuildInvocationScopeId
+import org.gradle.internal.serialize.codecs.core.WorkNodeShards
 import org.gradle.internal.serialize.graph.MutableReadContext
 import org.gradle.internal.serialize.graph.ReadContext
 import org.gradle.internal.serialize.graph.WriteContext
@@ -140,6 +141,9 @@ interface ConfigurationCacheStateFile {
     // Replace the contents of this state file, by moving the given file to the location of this state file
     fun moveFrom(file: File)
     fun stateFileForIncludedBuild(build: BuildDefinition): ConfigurationCacheStateFile
+
+    // A file that holds part of the state of this state file, such as the tasks of one project
+    fun relatedStateFile(name: String): ConfigurationCacheStateFile
 }
 
 
@@ -149,7 +153,8 @@ class ConfigurationCacheState(
     private val codecs: Codecs,
     private val stateFile: ConfigurationCacheStateFile,
     private val eventEmitter: BuildOperationProgressEventEmitter,
-    private val host: ConfigurationCacheHost
+    private val host: ConfigurationCacheHost,
+    private val workNodeShards: WorkNodeShards? = null
 ) {
     /**
      * Writes the state for the whole build starting from the given root [build] and returns the set
@@ -169,16 +174,11 @@ class ConfigurationCacheState(
     ): Pair<String, BuildTreeWorkGraph.FinalizedGraph> {
 
         val originBuildInvocationId = readBuildInvocationId()
-        val builds = readRootBuild()
+        val workOfBuilds = readRootBuild(identifyBuilds = !loadAfterStore)
         require(readInt() == 0x1ecac8e) {
             "corrupt state file"
         }
-        if (!loadAfterStore) {
-            for (build in builds) {
-                identifyBuild(build)
-            }
-        }
-        return originBuildInvocationId to calculateRootTaskGraph(builds, graph, graphBuilder)
+        return originBuildInvocationId to calculateRootTaskGraph(workOfBuilds, graph, graphBuilder)
     }
 
     private
@@ -231,16 +231,17 @@ class ConfigurationCacheState(
     }
 
     private
-    fun calculateRootTaskGraph(builds: List<CachedBuildState>, graph: BuildTreeWorkGraph, graphBuilder: BuildTreeWorkGraphBuilder?): BuildTreeWorkGraph.FinalizedGraph {
+    fun calculateRootTaskGraph(workOfBuilds: ArrayDeque<BuildWorkToSchedule>, graph: BuildTreeWorkGraph, graphBuilder: BuildTreeWorkGraphBuilder?): BuildTreeWorkGraph.FinalizedGraph {
         return graph.scheduleWork { builder ->
 
             graphBuilder?.invoke(builder, rootBuildState())
 
-            for (build in builds) {
-                if (build is BuildWithWork) {
-                    builder.withWorkGraph(build.build.state) {
-                        it.setScheduledWork(build.workGraph)
-                    }
+            // Hand the work of each build over to its execution plan and forget about it,
+            // so that only the execution plans refer to the loaded work once they are finalized
+            while (workOfBuilds.isNotEmpty()) {
+                val work = workOfBuilds.removeFirst()
+                builder.withWorkGraph(work.build) {
+                    it.setScheduledWork(work.workGraph)
                 }
             }
         }
@@ -263,12 +264,12 @@ class ConfigurationCacheState(
     }
 
     private
-    suspend fun MutableReadContext.readRootBuild(): List<CachedBuildState> {
+    suspend fun MutableReadContext.readRootBuild(identifyBuilds: Boolean): ArrayDeque<BuildWorkToSchedule> {
         val settingsFile = read() as File?
         val rootBuild = host.createBuild(settingsFile)
         val gradle = rootBuild.gradle
         readBuildTreeScopedState(gradle)
-        return readBuildsInTree(rootBuild)
+        return readBuildsInTree(rootBuild, identifyBuilds)
     }
 
     private
@@ -292,11 +293,25 @@ class ConfigurationCacheState(
         }
     }
 
+    /**
+     * Reads the builds in the tree one at a time and only keeps the work each of them has to schedule.
+     *
+     * The rest of the state of a build, such as its projects and their normalization state, has been applied
+     * by the time the build is read, so it is released before the next build is read rather than once the whole tree is loaded.
+     */
     private
-    suspend fun MutableReadContext.readBuildsInTree(rootBuild: ConfigurationCacheBuild): List<CachedBuildState> {
-        return readList {
-            readBuildState(rootBuild)
+    suspend fun MutableReadContext.readBuildsInTree(rootBuild: ConfigurationCacheBuild, identifyBuilds: Boolean): ArrayDeque<BuildWorkToSchedule> {
+        val workOfBuilds = ArrayDeque<BuildWorkToSchedule>()
+        readCollection {
+            val build = readBuildState(rootBuild)
+            if (identifyBuilds) {
+                identifyBuild(build)
+            }
+            if (build is BuildWithWork) {
+                workOfBuilds.addLast(BuildWorkToSchedule(build.build.state, build.workGraph))
+            }
         }
+        return workOfBuilds
     }
 
     private
@@ -524,7 +539,7 @@ class ConfigurationCacheState(
 
     private
     fun workNodeCodec(gradle: GradleInternal) =
-        codecs.workNodeCodecFor(gradle)
+        codecs.workNodeCodecFor(gradle, workNodeShards)
 
     private
     suspend fun WriteContext.writeRequiredBuildServicesOf(build: BuildState, buildTreeState: StoredBuildTreeState) {
@@ -879,6 +894,16 @@ class ConfigurationCacheState(
 }
 
 
+/**
+ * The work of a build loaded from the cache, waiting to be scheduled.
+ */
+private
+class BuildWorkToSchedule(
+    val build: BuildState,
+    val workGraph: ScheduledWork
+)
+
+
 internal
 class StoredBuildTreeState(
     val requiredBuildServicesPerBuild: Map<BuildIdentifier, List<BuildServiceProvider<*, *>>>
@@ -36,65 +36,66 @@ class CrossProjectModelAccessTrackingParentDynamicObject(
     private val problems: ProblemsListener,
     private val coupledProjectsListener: CoupledProjectsListener,
     private val problemFactory: ProblemFactory,
-    private val dynamicCallProblemReporting: DynamicCallProblemReporting
+    private val dynamicCallProblemReporting: DynamicCallProblemReporting,
+    private val isolatedProjects: Boolean
 ) : DynamicObject {
     override fun hasMethod(name: String, vararg arguments: Any?): Boolean {
-        onAccess(MemberKind.METHOD, name)
+        onAccess(MemberKind.METHOD, name, isRead = true)
         return delegate.hasMethod(name, *arguments)
     }
 
     override fun tryInvokeMethod(name: String, vararg arguments: Any?): DynamicInvokeResult {
-        onAccess(MemberKind.METHOD, name)
+        onAccess(MemberKind.METHOD, name, isRead = false)
         return delegate.tryInvokeMethod(name, *arguments)
     }
 
     override fun hasProperty(name: String): Boolean {
-        onAccess(MemberKind.PROPERTY, name)
+        onAccess(MemberKind.PROPERTY, name, isRead = true)
         return delegate.hasProperty(name)
     }
 
     override fun tryGetProperty(name: String): DynamicInvokeResult {
-        onAccess(MemberKind.PROPERTY, name)
+        onAccess(MemberKind.PROPERTY, name, isRead = true)
         return delegate.tryGetProperty(name)
     }
 
     override fun trySetProperty(name: String, value: Any?): DynamicInvokeResult {
-        onAccess(MemberKind.PROPERTY, name)
+        onAccess(MemberKind.PROPERTY, name, isRead = false)
         return delegate.trySetProperty(name, value)
     }
 
     override fun getProperties(): MutableMap<String, *> {
-        onAccess(MemberKind.PROPERTY, null)
+        onAccess(MemberKind.PROPERTY, null, isRead = true)
         return delegate.properties
     }
 
     override fun getMissingProperty(name: String): MissingPropertyException {
-        onAccess(MemberKind.PROPERTY, name)
+        onAccess(MemberKind.PROPERTY, name, isRead = true)
         return delegate.getMissingProperty(name)
     }
 
     override fun setMissingProperty(name: String): MissingPropertyException {
-        onAccess(MemberKind.PROPERTY, name)
+        onAccess(MemberKind.PROPERTY, name, isRead = false)
         return delegate.setMissingProperty(name)
     }
 
     override fun methodMissingException(name: String, vararg params: Any?): MissingMethodException {
-        onAccess(MemberKind.METHOD, name)
+        onAccess(MemberKind.METHOD, name, isRead = true)
         return delegate.methodMissingException(name, *params)
     }
 
     override fun getProperty(name: String): Any? {
-        onAccess(MemberKind.PROPERTY, name)
+        onAccess(MemberKind.PROPERTY, name, isRead = true)
         return delegate.getProperty(name)
     }
 
     override fun setProperty(name: String, value: Any?) {
-        onAccess(MemberKind.PROPERTY, name)
+        onAccess(MemberKind.PROPERTY, name, isRead = false)
         return delegate.setProperty(name, value)
     }
 
     override fun invokeMethod(name: String, vararg arguments: Any?): Any? {
-        onAccess(MemberKind.METHOD, name)
+        onAccess(MemberKind.METHOD, name, isRead = false)
         return delegate.invokeMethod(name, *arguments)
     }
 
@@ -104,9 +105,12 @@ class CrossProjectModelAccessTrackingParentDynamicObject(
     }
 
     private
-    fun onAccess(memberKind: MemberKind, memberName: String?) {
+    fun onAccess(memberKind: MemberKind, memberName: String?, isRead: Boolean) {
         coupledProjectsListener.onProjectReference(referrerProject.owner, ownerProject.owner)
-        maybeReportProjectIsolationViolation(memberKind, memberName)
+        // Without isolated projects, reading from a parent whose configuration has completed is safe, even when projects are configured in parallel
+        if (isolatedProjects || !isRead || !ownerProject.state.executed) {
+            maybeReportProjectIsolationViolation(memberKind, memberName)
+        }
     }
 
     @Suppress("ThrowingExceptionsWithoutMessageOrCause")
@@ -83,7 +83,7 @@ class DefaultBuildModelControllerServices(
                 registration.addProvider(VintageBuildControllerProvider())
                 registration.add(DefaultEnvironment::class.java)
             }
-            if (buildModelParameters.isIsolatedProjects) {
+            if (buildModelParameters.isIsolatedProjects || buildModelParameters.isParallelProjectConfiguration) {
                 registration.addProvider(ConfigurationCacheIsolatedProjectsProvider())
             } else {
                 registration.addProvider(VintageIsolatedProjectsProvider())
@@ -194,7 +194,7 @@ class DefaultBuildModelControllerServices(
             dynamicCallContextTracker: DynamicCallContextTracker,
             buildModelParameters: BuildModelParameters
         ): DynamicLookupRoutine = when {
-            buildModelParameters.isIsolatedProjects -> TrackingDynamicLookupRoutine(dynamicCallContextTracker)
+            buildModelParameters.isIsolatedProjects || buildModelParameters.isParallelProjectConfiguration -> TrackingDynamicLookupRoutine(dynamicCallContextTracker)
             else -> DefaultDynamicLookupRoutine()
         }
     }
@@ -68,6 +68,13 @@ class DefaultBuildTreeModelControllerServices : BuildTreeModelControllerServices
         private
         val invalidateCoupledProjects = InternalFlag("org.gradle.internal.invalidate-coupled-projects", true)
 
+        /**
+         * If projects should be configured in parallel when isolated projects is not enabled.
+         * Requires parallel execution and the configuration cache, which reports unsafe cross-project access as problems.
+         */
+        private
+        val parallelConfiguration = InternalFlag("org.gradle.internal.configuration.parallel", false)
+
         /**
          * If model dependencies between projects should be treated as project dependencies.
          * Model dependency is observed when a project requests a model from another project.
@@ -133,6 +140,7 @@ class DefaultBuildTreeModelControllerServices : BuildTreeModelControllerServices
                 configureOnDemand = false,
                 configurationCache = isolatedProjects,
                 isolatedProjects = isolatedProjects,
+                parallelProjectConfiguration = isolatedProjects,
                 requiresBuildModel = true,
                 intermediateModelCache = isolatedProjects,
                 parallelToolingApiActions = parallelToolingActions,
@@ -142,6 +150,7 @@ class DefaultBuildTreeModelControllerServices : BuildTreeModelControllerServices
         } else {
             val configurationCache = isolatedProjects || startParameter.configurationCache.get()
             val configureOnDemand = !isolatedProjects && startParameter.isConfigureOnDemand
+            val parallelProjectConfiguration = isolatedProjects || (configurationCache && parallelProjectExecution && !configureOnDemand && options.getOption(parallelConfiguration).get())
 
             fun disabledConfigurationCacheBuildModelParameters(buildOptionReason: String): BuildModelParameters {
                 logger.log(configurationCacheLogLevel, "{} as configuration cache cannot be reused due to --{}", requirements.actionDisplayName.capitalizedDisplayName, buildOptionReason)
@@ -150,6 +159,7 @@ class DefaultBuildTreeModelControllerServices : BuildTreeModelControllerServices
                     configureOnDemand = configureOnDemand,
                     configurationCache = false,
                     isolatedProjects = false,
+                    parallelProjectConfiguration = false,
                     requiresBuildModel = false,
                     intermediateModelCache = false,
                     parallelToolingApiActions = parallelToolingActions,
@@ -168,6 +178,7 @@ class DefaultBuildTreeModelControllerServices : BuildTreeModelControllerServices
                     configureOnDemand = configureOnDemand,
                     configurationCache = configurationCache,
                     isolatedProjects = isolatedProjects,
+                    parallelProjectConfiguration = parallelProjectConfiguration,
                     requiresBuildModel = false,
                     intermediateModelCache = false,
                     parallelToolingApiActions = parallelToolingActions,
@@ -189,6 +200,7 @@ class DefaultBuildTreeModelControllerServices : BuildTreeModelControllerServices
                     configureOnDemand = startParameter.isConfigureOnDemand,
                     configurationCache = false,
                     isolatedProjects = false,
+                    parallelProjectConfiguration = false,
                     requiresBuildModel = true,
                     intermediateModelCache = false,
                     parallelToolingApiActions = false,
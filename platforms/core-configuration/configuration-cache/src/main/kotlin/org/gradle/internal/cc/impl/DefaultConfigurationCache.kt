@@ -557,6 +557,11 @@ class DefaultConfigurationCache internal constructor(
 
     private
     fun checkFingerprintAgainstLoadedProperties(entryDetails: EntryDetails, layout: ConfigurationCacheRepository.Layout): CheckedFingerprint {
+        if (!entryDetails.sharedValues.all(cacheRepository.sharedValues::contains)) {
+            // Cleanup removed a value that the entry references
+            return CheckedFingerprint.EntryInvalid(Path.ROOT, StructuredMessage.forText("a value shared with other configuration cache entries was removed"))
+        }
+
         val result = checkBuildScopedFingerprint(layout.fileFor(StateType.BuildFingerprint))
         if (result !is CheckedFingerprint.Valid) {
             return result
@@ -570,6 +575,11 @@ class DefaultConfigurationCache internal constructor(
             projectMetadata.restoreFromCacheEntry(entryDetails.projectMetadata, projectResult)
         }
 
+        if (projectResult !is CheckedFingerprint.EntryInvalid) {
+            // Reused values may reference shared values without reading them
+            cacheIO.reuseSharedValues(entryDetails.sharedValues)
+        }
+
         if (projectResult is CheckedFingerprint.Valid) {
             val sideEffects = buildTreeModelSideEffects.restoreFromCacheEntry(entryDetails.sideEffects)
             loadedSideEffects += sideEffects
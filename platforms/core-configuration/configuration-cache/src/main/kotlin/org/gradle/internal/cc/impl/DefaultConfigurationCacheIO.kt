@@ -22,16 +22,19 @@ import org.gradle.cache.internal.streams.BlockAddressSerializer
 import org.gradle.internal.build.BuildStateRegistry
 import org.gradle.internal.buildtree.BuildTreeWorkGraph
 import org.gradle.internal.cc.base.logger
+import org.gradle.internal.cc.base.serialize.ProjectProvider
 import org.gradle.internal.cc.base.serialize.service
 import org.gradle.internal.cc.base.serialize.withGradleIsolate
 import org.gradle.internal.cc.impl.cacheentry.EntryDetails
 import org.gradle.internal.cc.impl.cacheentry.ModelKey
 import org.gradle.internal.cc.impl.initialization.ConfigurationCacheStartParameter
+import org.gradle.internal.cc.impl.io.StateCompression
 import org.gradle.internal.cc.impl.io.safeWrap
 import org.gradle.internal.cc.impl.problems.ConfigurationCacheProblems
 import org.gradle.internal.cc.impl.serialize.Codecs
 import org.gradle.internal.cc.impl.serialize.DefaultClassDecoder
 import org.gradle.internal.cc.impl.serialize.DefaultClassEncoder
+import org.gradle.internal.cc.impl.serialize.SharedClassPaths
 import org.gradle.internal.encryption.EncryptionService
 import org.gradle.internal.extensions.stdlib.useToRun
 import org.gradle.internal.hash.HashCode
@@ -48,8 +51,11 @@ import org.gradle.internal.serialize.graph.DefaultWriteContext
 import org.gradle.internal.serialize.graph.LoggingTracer
 import org.gradle.internal.serialize.graph.MutableReadContext
 import org.gradle.internal.serialize.graph.ReadContext
+import org.gradle.internal.serialize.graph.ReadIdentities
 import org.gradle.internal.serialize.graph.Tracer
 import org.gradle.internal.serialize.graph.WriteContext
+import org.gradle.internal.serialize.graph.WriteIdentities
+import org.gradle.internal.serialize.graph.getSingletonProperty
 import org.gradle.internal.serialize.graph.readCollection
 import org.gradle.internal.serialize.graph.readFile
 import org.gradle.internal.serialize.graph.readList
@@ -89,6 +95,11 @@ class DefaultConfigurationCacheIO internal constructor(
     private
     val encryptionService by lazy { service<EncryptionService>() }
 
+    private
+    val sharedClassPaths by lazy {
+        SharedClassPaths(startParameter.isSharingClassPaths, service<ConfigurationCacheRepository>().sharedValues)
+    }
+
     override fun writeCacheEntryDetailsTo(
         buildStateRegistry: BuildStateRegistry,
         intermediateModels: Map<ModelKey, BlockAddress>,
@@ -111,6 +122,9 @@ class DefaultConfigurationCacheIO internal constructor(
             writeCollection(sideEffects) {
                 addressSerializer.write(this, it)
             }
+            writeCollection(sharedClassPaths.referencedValues) {
+                writeBinary(it.toByteArray())
+            }
         }
     }
 
@@ -143,10 +157,17 @@ class DefaultConfigurationCacheIO internal constructor(
             val sideEffects = readList {
                 addressSerializer.read(this)
             }
-            EntryDetails(rootDirs, intermediateModels, metadata, sideEffects)
+            val sharedValues = readList {
+                HashCode.fromBytes(readBinary())
+            }
+            EntryDetails(rootDirs, intermediateModels, metadata, sideEffects, sharedValues)
         }
     }
 
+    override fun reuseSharedValues(sharedValues: Collection<HashCode>) {
+        sharedClassPaths.addReferencedValues(sharedValues)
+    }
+
     private
     fun ReadContext.readModelKey(): ModelKey {
         val path = readNullableString()?.let { Path.path(it) }
@@ -208,7 +229,7 @@ class DefaultConfigurationCacheIO internal constructor(
         action: suspend MutableReadContext.(ConfigurationCacheState) -> T
     ): T {
         return withReadContextFor(stateFile.stateType, stateFile::inputStream) { codecs ->
-            ConfigurationCacheState(codecs, stateFile, eventEmitter, host).run {
+            ConfigurationCacheState(codecs, stateFile, eventEmitter, host, workNodeShardsFor(stateFile)).run {
                 action(this)
             }
         }
@@ -224,7 +245,95 @@ class DefaultConfigurationCacheIO internal constructor(
         }
         return context.useToRun {
             runWriteOperation {
-                action(ConfigurationCacheState(codecs, stateFile, eventEmitter, host))
+                action(ConfigurationCacheState(codecs, stateFile, eventEmitter, host, workNodeShardsFor(stateFile)))
+            }
+        }
+    }
+
+    private
+    fun workNodeShardsFor(stateFile: ConfigurationCacheStateFile) =
+        ParallelWorkNodeShards(
+            startParameter.isParallelStore,
+            stateFile,
+            startParameter.maxParallelism,
+            service(),
+            service(),
+            ::shardWriteContextFor,
+            ::shardReadContextFor
+        )
+
+    /**
+     * Each shard gets its own codecs, as some of them hold state bound to the context they are used with.
+     */
+    private
+    fun shardWriteContextFor(shardFile: ConfigurationCacheStateFile, sharedIdentities: WriteIdentities): CloseableWriteContext =
+        encoderFor(shardFile.stateType, shardFile::outputStream).let { encoder ->
+            DefaultWriteContext(
+                codecs.internalTypesCodec(),
+                encoder,
+                beanStateWriterLookup,
+                logger,
+                loggingTracerFor({ host.currentBuild.gradle.owner.displayName.displayName + " work graph shard" }, encoder),
+                problems,
+                classEncoder(),
+                sharedIdentities
+            )
+        }
+
+    private
+    fun shardReadContextFor(shardFile: ConfigurationCacheStateFile, parent: ReadContext, sharedIdentities: ReadIdentities): CloseableReadContext =
+        DefaultReadContext(
+            codecs.internalTypesCodec(),
+            decoderFor(shardFile.stateType, shardFile::inputStream),
+            beanStateReaderLookup,
+            logger,
+            problems,
+            classDecoder(),
+            sharedIdentities
+        ).apply {
+            setSingletonProperty(parent.getSingletonProperty<ProjectProvider>())
+        }
+
+    /**
+     * The state of a task is written to a block that is embedded, and so possibly encrypted, in the stream of the work graph.
+     * Blocks register the objects they share in the identities of the work graph, so that no object is restored twice.
+     */
+    private
+    fun lazyTaskState() =
+        LazyTaskState(
+            startParameter.isLazyTaskState,
+            ::taskStateWriteContextFor,
+            ::taskStateReadContextFor
+        )
+
+    private
+    fun taskStateWriteContextFor(outputStream: OutputStream, parent: WriteContext): CloseableWriteContext =
+        DefaultWriteContext(
+            codecs.userTypesCodec(),
+            encoderFor(outputStream),
+            beanStateWriterLookup,
+            logger,
+            null,
+            problems,
+            classEncoder(),
+            parent.sharedIdentities
+        )
+
+    private
+    fun taskStateReadContextFor(parent: ReadContext): (InputStream) -> CloseableReadContext {
+        val sharedIdentities = parent.sharedIdentities
+        val projectProvider = parent.getSingletonProperty<ProjectProvider>()
+        return { inputStream ->
+            DefaultReadContext(
+                codecs.userTypesCodec(),
+                decoderFor(inputStream),
+                beanStateReaderLookup,
+                logger,
+                problems,
+                classDecoder(),
+                sharedIdentities
+            ).apply {
+                setSingletonProperty(projectProvider)
             }
         }
     }
@@ -263,25 +372,34 @@ class DefaultConfigurationCacheIO internal constructor(
 
     private
     fun encoderFor(stateType: StateType, outputStream: () -> OutputStream): PositionAwareEncoder =
-        outputStreamFor(stateType, outputStream).let { stream ->
-            if (startParameter.isDeduplicatingStrings) StringDeduplicatingKryoBackedEncoder(stream)
-            else KryoBackedEncoder(stream)
-        }
+        encoderFor(outputStreamFor(stateType, outputStream))
+
+    private
+    fun encoderFor(stream: OutputStream): PositionAwareEncoder =
+        if (startParameter.isDeduplicatingStrings) StringDeduplicatingKryoBackedEncoder(stream)
+        else KryoBackedEncoder(stream)
 
     private
     fun decoderFor(stateType: StateType, inputStream: () -> InputStream): Decoder =
-        inputStreamFor(stateType, inputStream).let { stream ->
-            if (startParameter.isDeduplicatingStrings) StringDeduplicatingKryoBackedDecoder(stream)
-            else KryoBackedDecoder(stream)
-        }
+        decoderFor(inputStreamFor(stateType, inputStream))
+
+    private
+    fun decoderFor(stream: InputStream): Decoder =
+        if (startParameter.isDeduplicatingStrings) StringDeduplicatingKryoBackedDecoder(stream)
+        else KryoBackedDecoder(stream)
 
     private
     fun outputStreamFor(stateType: StateType, outputStream: () -> OutputStream) =
-        maybeEncrypt(stateType, outputStream, encryptionService::outputStream)
+        maybeCompress(stateType, { maybeEncrypt(stateType, outputStream, encryptionService::outputStream) }, StateCompression::compressing)
 
     private
     fun inputStreamFor(stateType: StateType, inputStream: () -> InputStream) =
-        maybeEncrypt(stateType, inputStream, encryptionService::inputStream)
+        maybeCompress(stateType, { maybeEncrypt(stateType, inputStream, encryptionService::inputStream) }, StateCompression::decompressing)
+
+    private
+    fun <I : Closeable> maybeCompress(stateType: StateType, inner: () -> I, outer: (I) -> I): I =
+        if (stateType in startParameter.compressedStateTypes) safeWrap(inner, outer)
+        else inner()
 
     private
     fun <I : Closeable, O : I> maybeEncrypt(stateType: StateType, inner: () -> I, outer: (I) -> O): I =
@@ -352,7 +470,7 @@ class DefaultConfigurationCacheIO internal constructor(
         logger,
         tracer,
         problems,
-        DefaultClassEncoder(scopeRegistryListener),
+        classEncoder(),
     )
 
     private
@@ -365,9 +483,17 @@ class DefaultConfigurationCacheIO internal constructor(
         beanStateReaderLookup,
         logger,
         problems,
-        DefaultClassDecoder()
+        classDecoder()
     )
 
+    private
+    fun classEncoder() =
+        DefaultClassEncoder(scopeRegistryListener, sharedClassPaths)
+
+    private
+    fun classDecoder() =
+        DefaultClassDecoder(sharedClassPaths)
+
     private
     fun codecs(): Codecs =
         Codecs(
@@ -402,6 +528,7 @@ class DefaultConfigurationCacheIO internal constructor(
             javaSerializationEncodingLookup = service(),
             flowProviders = service(),
             transformStepNodeFactory = service(),
+            deferredTaskState = lazyTaskState(),
         )
 
     private
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl
+
+import org.gradle.internal.extensions.stdlib.useToRun
+import org.gradle.internal.serialize.codecs.core.DeferredTaskState
+import org.gradle.internal.serialize.graph.CloseableReadContext
+import org.gradle.internal.serialize.graph.CloseableWriteContext
+import org.gradle.internal.serialize.graph.ReadContext
+import org.gradle.internal.serialize.graph.WriteContext
+import org.gradle.internal.serialize.graph.runReadOperation
+import org.gradle.internal.serialize.graph.runWriteOperation
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.InputStream
+import java.io.OutputStream
+
+
+/**
+ * Writes the state of each task to an in-memory block that is embedded in the stream of the work graph,
+ * and restores it from that block when the mutations of the task are resolved, right before the task executes.
+ *
+ * The state of a task is restored on the worker thread that resolves its mutations, and never while selecting work to execute.
+ * A block that introduces objects shared with the rest of the work graph, such as build service or value source providers,
+ * is restored when the work graph is loaded, so that these objects are only restored once.
+ */
+internal
+class LazyTaskState(
+    override val isEnabled: Boolean,
+    private val writeContextFor: (OutputStream, WriteContext) -> CloseableWriteContext,
+    private val readContextFor: (ReadContext) -> (InputStream) -> CloseableReadContext
+) : DeferredTaskState {
+
+    override fun write(context: WriteContext, writeState: suspend WriteContext.() -> Unit) {
+        val sharedIdentities = context.sharedIdentities
+        val sharedObjectCount = sharedIdentities.size
+        val bytes = ByteArrayOutputStream()
+        writeContextFor(bytes, context).useToRun {
+            runWriteOperation {
+                writeState()
+            }
+        }
+        context.writeBinary(bytes.toByteArray())
+        context.writeBoolean(sharedIdentities.size > sharedObjectCount)
+    }
+
+    override fun read(context: ReadContext, readState: suspend ReadContext.() -> Unit): Runnable? {
+        val bytes = context.readBinary()
+        val introducesSharedObjects = context.readBoolean()
+        val loader = loaderFor(context, bytes, readState)
+        if (introducesSharedObjects) {
+            loader.run()
+            return null
+        }
+        return loader
+    }
+
+    private
+    fun loaderFor(context: ReadContext, bytes: ByteArray, readState: suspend ReadContext.() -> Unit): Runnable {
+        // Only keep what is needed to read the block, rather than the whole context of the work graph
+        val newReadContext = readContextFor(context)
+        return Runnable {
+            newReadContext(ByteArrayInputStream(bytes)).useToRun {
+                runReadOperation {
+                    readState()
+                }
+                finish()
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl
+
+import it.unimi.dsi.fastutil.ints.IntArrayList
+import org.gradle.internal.concurrent.ExecutorFactory
+import org.gradle.internal.extensions.stdlib.uncheckedCast
+import org.gradle.internal.extensions.stdlib.useToRun
+import org.gradle.internal.serialize.codecs.core.WorkNodeShards
+import org.gradle.internal.serialize.graph.CloseableReadContext
+import org.gradle.internal.serialize.graph.CloseableWriteContext
+import org.gradle.internal.serialize.graph.ReadContext
+import org.gradle.internal.serialize.graph.ReadIdentities
+import org.gradle.internal.serialize.graph.WriteContext
+import org.gradle.internal.serialize.graph.WriteIdentities
+import org.gradle.internal.serialize.graph.runReadOperation
+import org.gradle.internal.serialize.graph.runWriteOperation
+import org.gradle.internal.work.WorkerLeaseService
+
+
+/**
+ * Stores each shard of the work graph to a file related to the [stateFile] of the work graph,
+ * and encodes or decodes the shards on a pool of at most [maxParallelism] threads.
+ *
+ * Each shard is encoded once. An object with a shared identity that the work graph stream does not hold yet is owned
+ * by the first shard to write it, see [WrittenShardObjects]. When the shards are read, a shard waits for the owner of each
+ * such object it references, so the shards are scheduled after the shards they depend on, and shards that depend on each other
+ * are scheduled together.
+ */
+internal
+class ParallelWorkNodeShards(
+    override val isEnabled: Boolean,
+    private val stateFile: ConfigurationCacheStateFile,
+    private val maxParallelism: Int,
+    private val executorFactory: ExecutorFactory,
+    private val workerLeaseService: WorkerLeaseService,
+    private val writeContextFor: (ConfigurationCacheStateFile, WriteIdentities) -> CloseableWriteContext,
+    private val readContextFor: (ConfigurationCacheStateFile, ReadContext, ReadIdentities) -> CloseableReadContext
+) : WorkNodeShards {
+
+    override fun writeShards(context: WriteContext, count: Int, writeShard: suspend WriteContext.(Int) -> Unit) {
+        val sharedObjects = WrittenShardObjects(context.sharedIdentities, count)
+        forEachShard(IntArray(count) { it }, 1) { index ->
+            writeContextFor(shardFile(index), sharedObjects.identitiesOf(index)).useToRun {
+                runWriteOperation {
+                    writeShard(index)
+                }
+            }
+        }
+        sharedObjects.writeTo(context)
+    }
+
+    override fun <T> readShards(context: ReadContext, count: Int, readShard: suspend ReadContext.(Int) -> T): List<T> {
+        val sharedObjects = ReadShardObjects.readFrom(context)
+        val results = arrayOfNulls<Any>(count)
+        val (order, largestGroup) = readOrderOf(sharedObjects.dependencies)
+        forEachShard(order, largestGroup) { index ->
+            try {
+                results[index] = readContextFor(shardFile(index), context, sharedObjects.identitiesOf(index)).useToRun {
+                    runReadOperation {
+                        readShard(index)
+                    }.also {
+                        finish()
+                    }
+                }
+            } catch (e: Throwable) {
+                sharedObjects.fail(e)
+                throw e
+            }
+        }
+        return results.asList().uncheckedCast()
+    }
+
+    private
+    fun shardFile(index: Int) =
+        stateFile.relatedStateFile("shard-$index")
+
+    /**
+     * Runs the action for each shard in the given order, on a pool large enough to run a group of [groupSize] shards together.
+     */
+    private
+    fun forEachShard(order: IntArray, groupSize: Int, action: (Int) -> Unit) {
+        // The thread that stores or loads the work graph may hold the lock of all projects of the build, and only waits for the shards.
+        // It releases its project locks meanwhile, so that each shard locks the projects it accesses, such as the projects of the
+        // providers that are inputs of its tasks, the same way as a worker thread.
+        workerLeaseService.withoutLocks(workerLeaseService.currentProjectLocks, Runnable {
+            val executor = executorFactory.create("Configuration cache shards", maxOf(minOf(order.size, maxParallelism), groupSize))
+            try {
+                for (index in order) {
+                    executor.execute {
+                        action(index)
+                    }
+                }
+            } finally {
+                // Waits for all shards, and rethrows the failure of any of them
+                executor.stop()
+            }
+        })
+    }
+
+    /**
+     * Orders the shards so that each shard comes after the shards it depends on, and shards that depend on each other come next
+     * to each other, and returns the size of the largest group of shards that depend on each other.
+     * The pool that reads the shards takes them in order, so a shard only waits for shards that already started, and the pool can run
+     * all the shards of a group together.
+     *
+     * The groups are the strongly connected components of the dependencies, which Tarjan's algorithm finds in this order.
+     */
+    private
+    fun readOrderOf(dependencies: List<IntArray>): Pair<IntArray, Int> {
+        val count = dependencies.size
+        val order = IntArrayList(count)
+        var largestGroup = 1
+        val indices = IntArray(count) { -1 }
+        val lowLinks = IntArray(count)
+        val nextDependency = IntArray(count)
+        val onStack = BooleanArray(count)
+        val stack = IntArrayList()
+        val path = IntArrayList()
+        var nextIndex = 0
+        for (root in 0 until count) {
+            if (indices[root] >= 0) {
+                continue
+            }
+            indices[root] = nextIndex
+            lowLinks[root] = nextIndex++
+            stack.add(root)
+            onStack[root] = true
+            path.add(root)
+            while (!path.isEmpty) {
+                val shard = path.getInt(path.size - 1)
+                val shardDependencies = dependencies[shard]
+                if (nextDependency[shard] < shardDependencies.size) {
+                    val dependency = shardDependencies[nextDependency[shard]++]
+                    if (indices[dependency] < 0) {
+                        indices[dependency] = nextIndex
+                        lowLinks[dependency] = nextIndex++
+                        stack.add(dependency)
+                        onStack[dependency] = true
+                        path.add(dependency)
+                    } else if (onStack[dependency]) {
+                        lowLinks[shard] = minOf(lowLinks[shard], indices[dependency])
+                    }
+                    continue
+                }
+                path.removeInt(path.size - 1)
+                if (!path.isEmpty) {
+                    val caller = path.getInt(path.size - 1)
+                    lowLinks[caller] = minOf(lowLinks[caller], lowLinks[shard])
+                }
+                if (lowLinks[shard] == indices[shard]) {
+                    val groupStart = order.size
+                    do {
+                        val member = stack.removeInt(stack.size - 1)
+                        onStack[member] = false
+                        order.add(member)
+                    } while (member != shard)
+                    largestGroup = maxOf(largestGroup, order.size - groupStart)
+                }
+            }
+        }
+        return order.toIntArray() to largestGroup
+    }
+}
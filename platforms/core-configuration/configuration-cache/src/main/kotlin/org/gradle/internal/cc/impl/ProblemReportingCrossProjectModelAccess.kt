@@ -124,7 +124,7 @@ class ProblemReportingCrossProjectModelAccess(
     }
 
     override fun taskDependencyUsageTracker(referrerProject: ProjectInternal): TaskDependencyUsageTracker {
-        return ReportingTaskDependencyUsageTracker(referrerProject, coupledProjectsListener, problems, problemFactory)
+        return ReportingTaskDependencyUsageTracker(referrerProject, coupledProjectsListener, problems, problemFactory, buildModelParameters.isIsolatedProjects)
     }
 
     override fun taskGraphForProject(referrerProject: ProjectInternal, taskGraph: TaskExecutionGraphInternal): TaskExecutionGraphInternal {
@@ -134,7 +134,7 @@ class ProblemReportingCrossProjectModelAccess(
     override fun parentProjectDynamicInheritedScope(referrerProject: ProjectInternal): DynamicObject? {
         val parent = referrerProject.parent ?: return null
         return CrossProjectModelAccessTrackingParentDynamicObject(
-            parent, parent.inheritedScope, referrerProject, problems, coupledProjectsListener, problemFactory, dynamicCallProblemReporting
+            parent, parent.inheritedScope, referrerProject, problems, coupledProjectsListener, problemFactory, dynamicCallProblemReporting, buildModelParameters.isIsolatedProjects
         )
     }
 
@@ -163,6 +163,13 @@ class ProblemReportingCrossProjectModelAccess(
             onIsolationViolation(what)
         }
 
+        override fun onMutableStateRead(what: String) {
+            onProjectsCoupled()
+            if (isReadAccessReported()) {
+                reportCrossProjectAccessProblem("Project.$what", "functionality")
+            }
+        }
+
         override fun equals(other: Any?): Boolean {
             if (other === this) {
                 return true
@@ -182,6 +189,7 @@ class ProblemReportingCrossProjectModelAccess(
             onProjectsCoupled()
             return withDelegateDynamicCallReportingConfigurationOrder(
                 name,
+                isRead = true,
                 action = { tryGetProperty(name) },
                 resultNotFoundExceptionProvider = { getMissingProperty(name) }
             )
@@ -193,88 +201,89 @@ class ProblemReportingCrossProjectModelAccess(
             @Suppress("SpreadOperator")
             return withDelegateDynamicCallReportingConfigurationOrder(
                 name,
+                isRead = false,
                 action = { tryInvokeMethod(name, *varargs) },
                 resultNotFoundExceptionProvider = { methodMissingException(name, *varargs) }
             )
         }
 
         override fun file(path: Any): File {
-            onIsolationViolation("file")
+            onStatelessAccess("file")
             return super.file(path)
         }
 
         override fun file(path: Any, validation: PathValidation): File {
-            onIsolationViolation("file")
+            onStatelessAccess("file")
             return super.file(path, validation)
         }
 
         override fun uri(path: Any): URI {
-            onIsolationViolation("uri")
+            onStatelessAccess("uri")
             return super.uri(path)
         }
 
         override fun relativePath(path: Any): String {
-            onIsolationViolation("relativePath")
+            onStatelessAccess("relativePath")
             return super.relativePath(path)
         }
 
         override fun files(vararg paths: Any?): ConfigurableFileCollection {
-            onIsolationViolation("files")
+            onStatelessAccess("files")
             return super.files(*paths)
         }
 
         override fun files(paths: Any, configureClosure: Closure<*>): ConfigurableFileCollection {
-            onIsolationViolation("files")
+            onStatelessAccess("files")
             return super.files(paths, configureClosure)
         }
 
         override fun files(paths: Any, configureAction: Action<in ConfigurableFileCollection>): ConfigurableFileCollection {
-            onIsolationViolation("files")
+            onStatelessAccess("files")
             return super.files(paths, configureAction)
         }
 
         override fun fileTree(baseDir: Any): ConfigurableFileTree {
-            onIsolationViolation("fileTree")
+            onStatelessAccess("fileTree")
             return super.fileTree(baseDir)
         }
 
         override fun fileTree(baseDir: Any, configureClosure: Closure<*>): ConfigurableFileTree {
-            onIsolationViolation("fileTree")
+            onStatelessAccess("fileTree")
             return super.fileTree(baseDir, configureClosure)
         }
 
         override fun fileTree(baseDir: Any, configureAction: Action<in ConfigurableFileTree>): ConfigurableFileTree {
-            onIsolationViolation("fileTree")
+            onStatelessAccess("fileTree")
             return super.fileTree(baseDir, configureAction)
         }
 
         override fun fileTree(args: MutableMap<String, *>): ConfigurableFileTree {
-            onIsolationViolation("fileTree")
+            onStatelessAccess("fileTree")
             return super.fileTree(args)
         }
 
         override fun zipTree(zipPath: Any): FileTree {
-            onIsolationViolation("zipTree")
+            onStatelessAccess("zipTree")
             return super.zipTree(zipPath)
         }
 
         override fun tarTree(tarPath: Any): FileTree {
-            onIsolationViolation("tarTree")
+            onStatelessAccess("tarTree")
             return super.tarTree(tarPath)
         }
 
         override fun <T : Any> provider(value: Callable<out T?>): Provider<T> {
-            onIsolationViolation("provider")
+            onStatelessAccess("provider")
             return super.provider(value)
         }
 
         override fun getProviders(): ProviderFactory {
-            onIsolationViolation("providers")
+            onStatelessAccess("providers")
             return super.getProviders()
         }
 
         override fun getObjects(): ObjectFactory {
-            onIsolationViolation("objects")
+            onStatelessAccess("objects")
             return super.getObjects()
         }
 
@@ -314,7 +323,7 @@ class ProblemReportingCrossProjectModelAccess(
         }
 
         override fun getResources(): ResourceHandler {
-            onIsolationViolation("resources")
+            onStatelessAccess("resources")
             return super.getResources()
         }
 
@@ -324,17 +333,17 @@ class ProblemReportingCrossProjectModelAccess(
         }
 
         override fun copySpec(closure: Closure<*>): CopySpec {
-            onIsolationViolation("copySpec")
+            onStatelessAccess("copySpec")
             return super.copySpec(closure)
         }
 
         override fun copySpec(action: Action<in CopySpec>): CopySpec {
-            onIsolationViolation("copySpec")
+            onStatelessAccess("copySpec")
             return super.copySpec(action)
         }
 
         override fun copySpec(): CopySpec {
-            onIsolationViolation("copySpec")
+            onStatelessAccess("copySpec")
             return super.copySpec()
         }
 
@@ -349,7 +358,7 @@ class ProblemReportingCrossProjectModelAccess(
         }
 
         override fun getDependencyFactory(): DependencyFactory {
-            onIsolationViolation("dependencyFactory")
+            onStatelessAccess("dependencyFactory")
             return super.getDependencyFactory()
         }
 
@@ -374,7 +383,7 @@ class ProblemReportingCrossProjectModelAccess(
         }
 
         override fun getLogger(): Logger {
-            onIsolationViolation("logger")
+            onStatelessAccess("logger")
             return super.getLogger()
         }
 
@@ -399,7 +408,7 @@ class ProblemReportingCrossProjectModelAccess(
         }
 
         override fun getGradle(): GradleInternal {
-            onIsolationViolation("gradle")
+            onStatelessAccess("gradle")
             return super.getGradle()
         }
 
@@ -536,6 +545,26 @@ class ProblemReportingCrossProjectModelAccess(
             onProjectsCoupled()
         }
 
+        /**
+         * Called for functionality that does not depend on the configuration of the project, such as resolving files.
+         * Using it from another project is safe when projects are configured in parallel, and only breaks isolation.
+         */
+        private fun onStatelessAccess(what: String) {
+            if (buildModelParameters.isIsolatedProjects) {
+                reportCrossProjectAccessProblem("Project.$what", "functionality")
+            }
+            onProjectsCoupled()
+        }
+
+        /**
+         * With isolated projects, reading the state of another project is a problem.
+         * When projects are only configured in parallel, reading from a project whose configuration has completed is safe,
+         * so only reads from a project that may still be configured concurrently are reported.
+         */
+        private
+        fun isReadAccessReported(): Boolean =
+            buildModelParameters.isIsolatedProjects || !delegate.state.executed
+
         private
         fun withDelegateDynamicCallIgnoringProblem(
             action: DynamicObject.() -> DynamicInvokeResult,
@@ -562,6 +591,7 @@ class ProblemReportingCrossProjectModelAccess(
         private
         fun withDelegateDynamicCallReportingConfigurationOrder(
             accessRef: String,
+            isRead: Boolean,
             action: DynamicObject.() -> DynamicInvokeResult,
             resultNotFoundExceptionProvider: DynamicObject.() -> GroovyRuntimeException
         ): Any? {
@@ -570,9 +600,12 @@ class ProblemReportingCrossProjectModelAccess(
             }
 
             val memberKind = "extension"
+            val reported = !isRead || isReadAccessReported()
             return when {
                 result.isSuccess -> {
-                    reportCrossProjectAccessProblem(accessRef, memberKind)
+                    if (reported) {
+                        reportCrossProjectAccessProblem(accessRef, memberKind)
+                    }
                     result.getOrNull()
                 }
 
@@ -585,7 +618,9 @@ class ProblemReportingCrossProjectModelAccess(
                 }
 
                 else -> {
-                    reportCrossProjectAccessProblem(accessRef, memberKind)
+                    if (reported) {
+                        reportCrossProjectAccessProblem(accessRef, memberKind)
+                    }
                     throw result.exceptionOrNull()!!
                 }
             }
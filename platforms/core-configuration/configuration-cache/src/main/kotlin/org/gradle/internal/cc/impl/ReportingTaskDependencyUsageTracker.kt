@@ -24,17 +24,21 @@ import org.gradle.internal.configuration.problems.ProblemsListener
 
 
 /** Reports all usages of the tracked TaskDependency APIs as problems using the [problems] listener.
+ * When projects are configured in parallel without isolated projects, only usages that return tasks of other projects are reported.
  * Also checks which tasks in the API return value come from the other projects and tracks the projects coupling using the [coupledProjectsListener]. */
 internal
 class ReportingTaskDependencyUsageTracker(
     private val referrer: ProjectInternal,
     private val coupledProjectsListener: CoupledProjectsListener,
     private val problems: ProblemsListener,
-    private val problemFactory: ProblemFactory
+    private val problemFactory: ProblemFactory,
+    private val isolatedProjects: Boolean
 ) : TaskDependencyUsageTracker {
     override fun onTaskDependencyUsage(taskDependencies: Set<Task>) {
         checkForCoupledProjects(taskDependencies)
-        reportProjectIsolationProblemOnApiUsage()
+        if (isolatedProjects || taskDependencies.any { (it.project as ProjectInternal).owner != referrer.owner }) {
+            reportProjectIsolationProblemOnApiUsage()
+        }
     }
 
     private
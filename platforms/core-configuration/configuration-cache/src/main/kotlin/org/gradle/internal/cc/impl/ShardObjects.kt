@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap
+import it.unimi.dsi.fastutil.ints.IntArrayList
+import it.unimi.dsi.fastutil.ints.IntLinkedOpenHashSet
+import org.gradle.internal.serialize.graph.ReadContext
+import org.gradle.internal.serialize.graph.ReadIdentities
+import org.gradle.internal.serialize.graph.WriteContext
+import org.gradle.internal.serialize.graph.WriteIdentities
+import org.gradle.internal.serialize.graph.readCollection
+import org.gradle.internal.serialize.graph.writeCollection
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+
+
+/**
+ * The objects with a shared identity, such as build service or value source providers, that the shards of a work graph introduce
+ * while they are written concurrently.
+ *
+ * The first shard to write such an object owns it: the object is assigned an id and encoded in the stream of that shard
+ * while holding a lock, so that no other shard can assign or encode a shared object in the meantime.
+ * The other shards only write the id of the object, and record that they depend on the owner.
+ */
+internal
+class WrittenShardObjects(
+    parent: WriteIdentities,
+    shardCount: Int
+) {
+
+    private
+    val writeLock = ReentrantLock()
+
+    private
+    val identities = WriteIdentities(parent)
+
+    private
+    val firstId = parent.size
+
+    private
+    val owners = IntArrayList()
+
+    private
+    val dependencies = Array(shardCount) { IntLinkedOpenHashSet() }
+
+    fun identitiesOf(shard: Int): WriteIdentities =
+        ShardWriteIdentities(shard)
+
+    /**
+     * Writes the owner of each object and the owners each shard depends on, once all the shards are written.
+     */
+    fun writeTo(context: WriteContext) {
+        context.writeSmallInt(firstId)
+        context.writeCollection(owners) { context.writeSmallInt(it) }
+        context.writeCollection(dependencies.asList()) { shardDependencies ->
+            context.writeCollection(shardDependencies) { context.writeSmallInt(it) }
+        }
+    }
+
+    private
+    inner class ShardWriteIdentities(
+        private val shard: Int
+    ) : WriteIdentities() {
+
+        override val size: Int
+            get() = writeLock.withLock { identities.size }
+
+        override fun getId(instance: Any): Int? = writeLock.withLock {
+            identities.getId(instance)?.also { id ->
+                if (id >= firstId) {
+                    val owner = owners.getInt(id - firstId)
+                    if (owner != shard) {
+                        dependencies[shard].add(owner)
+                    }
+                }
+            }
+        }
+
+        override fun putInstance(instance: Any): Int = writeLock.withLock {
+            identities.putInstance(instance).also {
+                owners.add(shard)
+            }
+        }
+
+        override fun lock() = writeLock.lock()
+
+        override fun unlock() = writeLock.unlock()
+    }
+}
+
+
+/**
+ * The objects of [WrittenShardObjects] restored by the shards of a work graph that are read concurrently.
+ *
+ * A shard restores the objects it owns from its own stream, and waits for the owner to restore the other objects it references.
+ */
+internal
+class ReadShardObjects private constructor(
+    private val parent: ReadIdentities,
+    private val firstId: Int,
+    private val owners: IntArray,
+    val dependencies: List<IntArray>
+) {
+
+    companion object {
+        fun readFrom(context: ReadContext): ReadShardObjects {
+            val firstId = context.readSmallInt()
+            val owners = IntArrayList()
+            context.readCollection { owners.add(context.readSmallInt()) }
+            val dependencies = ArrayList<IntArray>()
+            context.readCollection {
+                val shardDependencies = IntArrayList()
+                context.readCollection { shardDependencies.add(context.readSmallInt()) }
+                dependencies.add(shardDependencies.toIntArray())
+            }
+            return ReadShardObjects(context.sharedIdentities, firstId, owners.toIntArray(), dependencies)
+        }
+    }
+
+    private
+    val lock = ReentrantLock()
+
+    private
+    val restored = lock.newCondition()
+
+    private
+    val instances = Int2ObjectOpenHashMap<Any>()
+
+    private
+    var failure: Throwable? = null
+
+    fun identitiesOf(shard: Int): ReadIdentities =
+        ShardReadIdentities(shard)
+
+    /**
+     * Stops the shards waiting for an object, as the shard that owns it may never restore it.
+     */
+    fun fail(failure: Throwable) {
+        lock.withLock {
+            if (this.failure == null) {
+                this.failure = failure
+            }
+            restored.signalAll()
+        }
+    }
+
+    private
+    fun awaitInstance(id: Int): Any {
+        lock.withLock {
+            while (true) {
+                instances[id]?.let {
+                    return it
+                }
+                failure?.let {
+                    throw IllegalStateException("Could not restore an object shared with the tasks of another project.", it)
+                }
+                restored.await()
+            }
+        }
+    }
+
+    private
+    inner class ShardReadIdentities(
+        private val shard: Int
+    ) : ReadIdentities() {
+
+        override fun getInstance(id: Int): Any? = when {
+            id < firstId -> parent.getInstance(id)
+            owners[id - firstId] == shard -> lock.withLock { instances[id] }
+            else -> awaitInstance(id)
+        }
+
+        override fun putInstance(id: Int, instance: Any) {
+            require(id >= firstId && owners[id - firstId] == shard) {
+                "A shard can only restore the shared objects it owns."
+            }
+            lock.withLock {
+                instances[id] = instance
+                restored.signalAll()
+            }
+        }
+    }
+}
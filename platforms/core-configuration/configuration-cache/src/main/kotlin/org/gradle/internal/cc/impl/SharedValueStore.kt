@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl
+
+import org.gradle.internal.hash.HashCode
+
+
+/**
+ * A content-addressed store of values shared by all the entries of the configuration cache.
+ *
+ * A value is written once, no matter how many entries reference it, and is then referenced by the hash of its bytes.
+ * Values are never modified, so they can be read without holding the lock of the cache.
+ */
+internal
+interface SharedValueStore {
+
+    /**
+     * Stores the given [bytes], unless a value with the same content is already stored, and returns their hash.
+     */
+    fun write(bytes: ByteArray): HashCode
+
+    /**
+     * Returns the bytes of the value with the given [hash], or `null` when the value is not stored, for instance because it was cleaned up.
+     */
+    fun read(hash: HashCode): ByteArray?
+
+    /**
+     * Returns whether the value with the given [hash] is stored, and keeps it from being cleaned up for as long as an entry that was just used.
+     */
+    fun contains(hash: HashCode): Boolean
+}
@@ -17,6 +17,7 @@
 package org.gradle.internal.cc.impl.cacheentry
 
 import org.gradle.cache.internal.streams.BlockAddress
+import org.gradle.internal.hash.HashCode
 import org.gradle.util.Path
 import java.io.File
 
@@ -30,4 +31,8 @@ class EntryDetails(
     val intermediateModels: Map<ModelKey, BlockAddress>,
     val projectMetadata: Map<Path, BlockAddress>,
     val sideEffects: List<BlockAddress>,
+    /**
+     * The values of the shared value store that the entry references, which must all be stored for the entry to be reused.
+     */
+    val sharedValues: List<HashCode>,
 )
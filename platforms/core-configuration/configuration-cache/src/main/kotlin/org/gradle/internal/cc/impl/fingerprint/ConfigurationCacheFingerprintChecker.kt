@@ -16,6 +16,7 @@
 
 package org.gradle.internal.cc.impl.fingerprint
 
+import com.google.common.util.concurrent.MoreExecutors
 import org.gradle.api.Describable
 import org.gradle.api.internal.GeneratedSubclasses.unpackType
 import org.gradle.api.internal.file.FileCollectionInternal
@@ -38,6 +39,13 @@ import org.gradle.internal.util.NumberUtil.ordinal
 import org.gradle.util.Path
 import java.io.File
 import java.net.URI
+import java.util.IdentityHashMap
+import java.util.concurrent.Callable
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Future
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.function.Consumer
 
 
@@ -45,8 +53,17 @@ internal
 typealias InvalidationReason = StructuredMessage
 
 
+/**
+ * Checks the inputs of a configuration cache entry.
+ *
+ * The inputs that only depend on the file system are checked concurrently on the given [executor],
+ * while all other inputs, such as value sources, are checked in order on the current thread.
+ */
 internal
-class ConfigurationCacheFingerprintChecker(private val host: Host) {
+class ConfigurationCacheFingerprintChecker(
+    private val host: Host,
+    private val executor: ExecutorService = MoreExecutors.newDirectExecutorService()
+) {
 
     interface Host {
         val buildPath: Path
@@ -72,31 +89,117 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
 
     suspend fun ReadContext.checkBuildScopedFingerprint(): CheckedFingerprint {
         // TODO: log some debug info
+        val checks = BuildScopedChecks()
+        var index = 0
         while (true) {
             when (val input = read()) {
                 null -> break
                 is ConfigurationCacheFingerprint -> {
                     // An input that is not specific to a project. If it is out-of-date, then invalidate the whole cache entry and skip any further checks
-                    val reason = check(input)
-                    if (reason != null) {
-                        return CheckedFingerprint.EntryInvalid(host.buildPath, reason)
+                    if (!checks.checkInOrder(index++, input)) {
+                        break
                     }
                 }
 
                 else -> error("Unexpected configuration cache fingerprint: $input")
             }
         }
-        return CheckedFingerprint.Valid
+        return when (val reason = checks.firstInvalidationReason()) {
+            null -> CheckedFingerprint.Valid
+            else -> CheckedFingerprint.EntryInvalid(host.buildPath, reason)
+        }
+    }
+
+    /**
+     * Tracks the checks of the build scoped inputs, so that the reported reason is the one
+     * of the first out-of-date input, as when checking all inputs in order.
+     */
+    private
+    inner class BuildScopedChecks {
+
+        private
+        val firstInvalidIndex = AtomicInteger(Int.MAX_VALUE)
+
+        private
+        val reasons = ConcurrentHashMap<Int, InvalidationReason>()
+
+        private
+        val pending = mutableListOf<Future<*>>()
+
+        /**
+         * Checks the input at the given [index], and returns whether inputs after it still need to be checked.
+         */
+        fun checkInOrder(index: Int, input: ConfigurationCacheFingerprint): Boolean {
+            if (firstInvalidIndex.get() < index) {
+                return false
+            }
+            if (isFileSystemInput(input)) {
+                pending.add(
+                    executor.submit(
+                        Runnable {
+                            // Skip the check when an input before this one is already out-of-date
+                            if (firstInvalidIndex.get() > index) {
+                                check(input)?.let { invalidated(index, it) }
+                            }
+                        }
+                    )
+                )
+                return true
+            }
+            if (hasSideEffects(input)) {
+                // Don't run user code or download anything when an input before this one is already out-of-date
+                awaitPending()
+                if (firstInvalidIndex.get() < index) {
+                    return false
+                }
+            }
+            val reason = check(input) ?: return true
+            invalidated(index, reason)
+            return false
+        }
+
+        fun firstInvalidationReason(): InvalidationReason? {
+            awaitPending()
+            return reasons[firstInvalidIndex.get()]
+        }
+
+        private
+        fun awaitPending() {
+            pending.forEach { resultOf(it) }
+            pending.clear()
+        }
+
+        private
+        fun invalidated(index: Int, reason: InvalidationReason) {
+            reasons[index] = reason
+            firstInvalidIndex.accumulateAndGet(index) { current, new -> minOf(current, new) }
+        }
     }
 
     @Suppress("NestedBlockDepth")
     suspend fun ReadContext.checkProjectScopedFingerprint(): CheckedFingerprint {
         // TODO: log some debug info
-        var firstInvalidatedPath: Path? = null
-        val projects = hashMapOf<Path, ProjectInvalidationState>()
+        val inputs = mutableListOf<ProjectSpecificFingerprint>()
+        // Start checking the file system inputs of all projects, before processing the inputs in order
+        val fileSystemChecks = IdentityHashMap<ProjectSpecificFingerprint.ProjectFingerprint, Future<InvalidationReason?>>()
         while (true) {
             when (val input = read()) {
                 null -> break
+                is ProjectSpecificFingerprint -> {
+                    if (input is ProjectSpecificFingerprint.ProjectFingerprint && isFileSystemInput(input.value)) {
+                        fileSystemChecks[input] = executor.submit(Callable { check(input.value) })
+                    }
+                    inputs.add(input)
+                }
+
+                else -> error("Unexpected configuration cache fingerprint: $input")
+            }
+        }
+
+        var firstInvalidatedPath: Path? = null
+        val projects = hashMapOf<Path, ProjectInvalidationState>()
+        for (input in inputs) {
+            when (input) {
                 is ProjectSpecificFingerprint.ProjectIdentity -> {
                     val state = projects.entryFor(input.identityPath)
                     state.buildPath = input.buildPath
@@ -107,7 +210,8 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
                     // Don't check a value for a project that is already out-of-date
                     val state = projects.entryFor(input.projectIdentityPath)
                     if (!state.isInvalid) {
-                        val reason = check(input.value)
+                        val fileSystemCheck = fileSystemChecks[input]
+                        val reason = if (fileSystemCheck != null) resultOf(fileSystemCheck) else check(input.value)
                         if (reason != null) {
                             if (firstInvalidatedPath == null) {
                                 firstInvalidatedPath = input.projectIdentityPath
@@ -131,8 +235,6 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
                         referrer.consumedBy(target)
                     }
                 }
-
-                else -> error("Unexpected configuration cache fingerprint: $input")
             }
         }
         return if (firstInvalidatedPath == null) {
@@ -177,6 +279,38 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
     private
     fun MutableMap<Path, ProjectInvalidationState>.entryFor(path: Path) = computeIfAbsent(path, ::ProjectInvalidationState)
 
+    /**
+     * Whether the given input only depends on the file system, so it can be checked concurrently with other inputs.
+     */
+    private
+    fun isFileSystemInput(input: ConfigurationCacheFingerprint) = when (input) {
+        is ConfigurationCacheFingerprint.InputFile,
+        is ConfigurationCacheFingerprint.DirectoryChildren,
+        is ConfigurationCacheFingerprint.InputFileSystemEntry,
+        is ConfigurationCacheFingerprint.InitScripts -> true
+
+        else -> false
+    }
+
+    /**
+     * Whether checking the given input runs user code or accesses the network, so it must not be checked when an earlier input is out-of-date.
+     */
+    private
+    fun hasSideEffects(input: ConfigurationCacheFingerprint) = when (input) {
+        is ConfigurationCacheFingerprint.ValueSource,
+        is ConfigurationCacheFingerprint.RemoteScript -> true
+
+        else -> false
+    }
+
+    private
+    fun <T> resultOf(future: Future<T>): T =
+        try {
+            future.get()
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
+        }
+
     @Suppress("CyclomaticComplexMethod")
     private
     fun check(input: ConfigurationCacheFingerprint): InvalidationReason? = structuredMessageOrNull {
@@ -34,6 +34,7 @@ import org.gradle.internal.cc.impl.ProjectIdentityPath
 import org.gradle.internal.cc.impl.initialization.ConfigurationCacheStartParameter
 import org.gradle.internal.cc.impl.problems.ConfigurationCacheProblems
 import org.gradle.internal.cc.impl.services.RemoteScriptUpToDateChecker
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.concurrent.Stoppable
 import org.gradle.internal.configuration.problems.CommonReport
 import org.gradle.internal.configuration.problems.DocumentationSection
@@ -98,7 +99,8 @@ class ConfigurationCacheFingerprintController internal constructor(
     private val agentStatus: AgentStatus,
     private val problems: ConfigurationCacheProblems,
     private val encryptionService: EncryptionService,
-    private val configurationTimeBarrier: ConfigurationTimeBarrier
+    private val configurationTimeBarrier: ConfigurationTimeBarrier,
+    private val executorFactory: ExecutorFactory
 ) : Stoppable, ProjectScopedScriptResolution {
 
     interface Host {
@@ -107,6 +109,14 @@ class ConfigurationCacheFingerprintController internal constructor(
         val gradleProperties: GradleProperties
     }
 
+    /**
+     * Checks the file system inputs of the fingerprint, hashing files through the virtual file system.
+     */
+    private
+    val checkExecutor = lazy {
+        executorFactory.create("Configuration cache fingerprint checks", startParameter.maxParallelism)
+    }
+
     private
     val fileCollectionFingerprinter =
         fingerprinterRegistry.getFingerprinter(
@@ -346,15 +356,18 @@ class ConfigurationCacheFingerprintController internal constructor(
 
     override fun stop() {
         writingState = writingState.dispose()
+        if (checkExecutor.isInitialized()) {
+            checkExecutor.value.stop()
+        }
     }
 
     suspend fun ReadContext.checkBuildScopedFingerprint(host: Host): CheckedFingerprint =
-        ConfigurationCacheFingerprintChecker(CacheFingerprintCheckerHost(host)).run {
+        ConfigurationCacheFingerprintChecker(CacheFingerprintCheckerHost(host), checkExecutor.value).run {
             checkBuildScopedFingerprint()
         }
 
     suspend fun ReadContext.checkProjectScopedFingerprint(host: Host): CheckedFingerprint =
-        ConfigurationCacheFingerprintChecker(CacheFingerprintCheckerHost(host)).run {
+        ConfigurationCacheFingerprintChecker(CacheFingerprintCheckerHost(host), checkExecutor.value).run {
             checkProjectScopedFingerprint()
         }
 
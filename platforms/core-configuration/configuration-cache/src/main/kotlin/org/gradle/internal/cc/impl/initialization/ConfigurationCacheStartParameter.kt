@@ -25,13 +25,16 @@ import org.gradle.internal.Factory
 import org.gradle.internal.buildoption.InternalOptions
 import org.gradle.internal.buildtree.BuildModelParameters
 import org.gradle.internal.cc.impl.ConfigurationCacheLoggingParameters
+import org.gradle.internal.cc.impl.StateType
 import org.gradle.internal.cc.impl.Workarounds
 import org.gradle.internal.deprecation.DeprecationLogger
 import org.gradle.internal.extensions.core.getInternalFlag
+import org.gradle.internal.extensions.core.getInternalString
 import org.gradle.internal.extensions.stdlib.unsafeLazy
 import org.gradle.internal.service.scopes.Scope
 import org.gradle.internal.service.scopes.ServiceScope
 import java.io.File
+import java.util.EnumSet
 
 
 @ServiceScope(Scope.BuildTree::class)
@@ -74,6 +77,50 @@ class ConfigurationCacheStartParameter internal constructor(
      */
     val isDeduplicatingStrings: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.deduplicate-strings", true)
 
+    /**
+     * The types of state whose files should be compressed, given as a comma separated list
+     * of [StateType] names, or `all`.
+     * The state stored in blocks per project or per model, such as [StateType.ProjectMetadata], is never compressed.
+     *
+     * The default is to compress no files.
+     */
+    internal
+    val compressedStateTypes: Set<StateType> =
+        compressedStateTypesFrom(options.getInternalString("org.gradle.configuration-cache.internal.compress", null))
+
+    /**
+     * Whether the tasks of each project should be stored to a separate file,
+     * so that the tasks of different projects can be stored and loaded in parallel.
+     * The option is part of the cache key, as entries are stored in a different format when it is enabled.
+     *
+     * The default is `false`.
+     */
+    val isParallelStore: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.parallel-store", false)
+
+    /**
+     * Whether the state of each task should be stored so that it can be loaded
+     * right before the task executes, instead of when the work graph is loaded.
+     * Entries stored this way are always loaded lazily.
+     *
+     * The default is `false`.
+     */
+    val isLazyTaskState: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.lazy-task-state", false)
+
+    /**
+     * Whether the class paths of class loader scopes should be stored once for all entries,
+     * and referenced by their hash from each entry that uses them.
+     * References are always read, whatever the value of this option.
+     *
+     * The default is `false`.
+     */
+    val isSharingClassPaths: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.shared-class-paths", false)
+
+    /**
+     * The maximum number of files that are stored or loaded in parallel.
+     */
+    val maxParallelism: Int
+        get() = startParameter.maxWorkerCount
+
     val gradleProperties: Map<String, Any?>
         get() = startParameter.projectProperties
             .filterKeys { !Workarounds.isIgnoredStartParameterProperty(it) }
@@ -160,3 +207,14 @@ class ConfigurationCacheStartParameter internal constructor(
     val isIsolatedProjects: Boolean
         get() = modelParameters.isIsolatedProjects
 }
+
+
+private
+fun compressedStateTypesFrom(option: String?): Set<StateType> = when {
+    option.isNullOrBlank() -> emptySet()
+    option.trim() == "all" -> EnumSet.allOf(StateType::class.java)
+    else -> option.split(',').mapTo(EnumSet.noneOf(StateType::class.java)) { name ->
+        StateType.values().firstOrNull { it.name == name.trim() }
+            ?: throw IllegalArgumentException("Unknown configuration cache state type '${name.trim()}', expected one of ${StateType.values().joinToString()} or 'all'.")
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.io
+
+import java.io.InputStream
+import java.io.OutputStream
+import java.util.zip.Deflater
+import java.util.zip.DeflaterOutputStream
+import java.util.zip.Inflater
+import java.util.zip.InflaterInputStream
+
+
+/**
+ * Compresses the files of the configuration cache, favouring speed over size.
+ *
+ * Compression happens before encryption, as encrypted data does not compress.
+ */
+object StateCompression {
+
+    private
+    const val BUFFER_SIZE = 64 * 1024
+
+    fun compressing(stream: OutputStream): OutputStream =
+        object : DeflaterOutputStream(stream, Deflater(Deflater.BEST_SPEED), BUFFER_SIZE) {
+            override fun close() {
+                try {
+                    super.close()
+                } finally {
+                    // A deflater given to the stream is not released by the stream
+                    def.end()
+                }
+            }
+        }
+
+    fun decompressing(stream: InputStream): InputStream =
+        object : InflaterInputStream(stream, Inflater(), BUFFER_SIZE) {
+            override fun close() {
+                try {
+                    super.close()
+                } finally {
+                    inf.end()
+                }
+            }
+        }
+}
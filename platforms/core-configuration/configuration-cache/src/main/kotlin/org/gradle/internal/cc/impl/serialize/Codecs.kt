@@ -57,6 +57,7 @@ import org.gradle.internal.serialize.codecs.core.CalculatedValueContainerCodec
 import org.gradle.internal.serialize.codecs.core.ConfigurableFileCollectionCodec
 import org.gradle.internal.serialize.codecs.core.ConfigurableFileTreeCodec
 import org.gradle.internal.serialize.codecs.core.DefaultContextAwareTaskLoggerCodec
+import org.gradle.internal.serialize.codecs.core.DeferredTaskState
 import org.gradle.internal.serialize.codecs.core.DefaultCopySpecCodec
 import org.gradle.internal.serialize.codecs.core.DestinationRootCopySpecCodec
 import org.gradle.internal.serialize.codecs.core.DirectoryCodec
@@ -99,6 +100,7 @@ import org.gradle.internal.serialize.codecs.core.UnsupportedFingerprintFlowProvi
 import org.gradle.internal.serialize.codecs.core.ValueSourceProviderCodec
 import org.gradle.internal.serialize.codecs.core.WorkNodeActionCodec
 import org.gradle.internal.serialize.codecs.core.WorkNodeCodec
+import org.gradle.internal.serialize.codecs.core.WorkNodeShards
 import org.gradle.internal.serialize.codecs.core.defaultCodecForProviderWithChangingValue
 import org.gradle.internal.serialize.codecs.core.groovyCodecs
 import org.gradle.internal.serialize.codecs.core.jos.ExternalizableCodec
@@ -172,6 +174,7 @@ class Codecs(
     val javaSerializationEncodingLookup: JavaSerializationEncodingLookup,
     flowProviders: FlowProviders,
     transformStepNodeFactory: TransformStepNodeFactory,
+    private val deferredTaskState: DeferredTaskState? = null,
 ) {
     private
     val userTypesBindings: Bindings
@@ -309,7 +312,7 @@ class Codecs(
     fun internalTypesCodec(): Codec<Any?> = internalTypesBindings.append {
         val userTypesCodec = userTypesCodec()
 
-        bind(TaskNodeCodec(userTypesCodec, taskNodeFactory))
+        bind(TaskNodeCodec(userTypesCodec, taskNodeFactory, deferredTaskState))
         bind(DelegatingCodec<TransformStepNode>(userTypesCodec))
         bind(org.gradle.internal.serialize.codecs.core.ActionNodeCodec(userTypesCodec))
         bind(OrdinalNodeCodec(ordinalGroupFactory))
@@ -382,6 +385,6 @@ class Codecs(
         bind(PatternSetCodec(patternSetFactory))
     }
 
-    fun workNodeCodecFor(gradle: GradleInternal) =
-        WorkNodeCodec(gradle, internalTypesCodec(), ordinalGroupFactory)
+    fun workNodeCodecFor(gradle: GradleInternal, shards: WorkNodeShards? = null) =
+        WorkNodeCodec(gradle, internalTypesCodec(), ordinalGroupFactory, shards)
 }
@@ -20,6 +20,7 @@ import org.gradle.api.internal.initialization.ClassLoaderScope
 import org.gradle.initialization.ClassLoaderScopeOrigin
 import org.gradle.initialization.ClassLoaderScopeRegistry
 import org.gradle.internal.Describables
+import org.gradle.internal.classpath.ClassPath
 import org.gradle.internal.hash.HashCode
 import org.gradle.internal.serialize.graph.ClassDecoder
 import org.gradle.internal.serialize.graph.ReadContext
@@ -28,7 +29,9 @@ import org.gradle.internal.serialize.graph.ownerService
 
 
 internal
-class DefaultClassDecoder : ClassDecoder {
+class DefaultClassDecoder(
+    private val sharedClassPaths: SharedClassPaths? = null
+) : ClassDecoder {
 
     private
     val classes = ReadIdentities()
@@ -81,9 +84,9 @@ class DefaultClassDecoder : ClassDecoder {
         } else {
             null
         }
-        val localClassPath = readClassPath()
+        val localClassPath = readScopeClassPath()
         val localImplementationHash = readHashCode()
-        val exportClassPath = readClassPath()
+        val exportClassPath = readScopeClassPath()
 
         val newScope = if (localImplementationHash != null && exportClassPath.isEmpty) {
             parent.createLockedChild(name, origin, localClassPath, localImplementationHash, null)
@@ -95,6 +98,16 @@ class DefaultClassDecoder : ClassDecoder {
         return newScope
     }
 
+    private
+    fun ReadContext.readScopeClassPath(): ClassPath =
+        if (sharedClassPaths == null) {
+            readClassPath()
+        } else {
+            sharedClassPaths.run {
+                readSharedClassPath()
+            }
+        }
+
     private
     fun ReadContext.readHashCode() = if (readBoolean()) {
         HashCode.fromBytes(readBinary())
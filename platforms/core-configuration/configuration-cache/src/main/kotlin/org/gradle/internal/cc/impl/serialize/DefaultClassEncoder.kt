@@ -53,7 +53,8 @@ class ClassLoaderScopeSpec(
 
 internal
 class DefaultClassEncoder(
-    private val scopeLookup: ScopeLookup
+    private val scopeLookup: ScopeLookup,
+    private val sharedClassPaths: SharedClassPaths? = null
 ) : ClassEncoder {
 
     private
@@ -110,9 +111,20 @@ class DefaultClassEncoder(
             } else {
                 writeBoolean(false)
             }
-            writeClassPath(scope.localClassPath)
+            writeScopeClassPath(scope.localClassPath)
             writeHashCode(scope.localImplementationHash)
-            writeClassPath(scope.exportClassPath)
+            writeScopeClassPath(scope.exportClassPath)
+        }
+    }
+
+    private
+    fun WriteContext.writeScopeClassPath(classPath: ClassPath) {
+        if (sharedClassPaths == null) {
+            writeClassPath(classPath)
+        } else {
+            sharedClassPaths.run {
+                writeSharedClassPath(classPath)
+            }
         }
     }
 
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.serialize
+
+import org.gradle.internal.cc.impl.SharedValueStore
+import org.gradle.internal.classpath.ClassPath
+import org.gradle.internal.extensions.stdlib.useToRun
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.serialize.Decoder
+import org.gradle.internal.serialize.Encoder
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder
+import java.io.ByteArrayOutputStream
+import java.util.concurrent.ConcurrentHashMap
+
+
+/**
+ * Writes the class paths of class loader scopes to a [SharedValueStore], so that the class paths
+ * shared by many entries, such as the buildscript class paths of a build, are stored once and referenced by hash.
+ *
+ * Class paths are only written to the store when [isEnabled], but references to the store are always read.
+ * The values referenced by an entry are recorded with it, see [referencedValues], so that the entry is invalidated when one of them was cleaned up.
+ */
+internal
+class SharedClassPaths(
+    private val isEnabled: Boolean,
+    private val store: SharedValueStore
+) {
+
+    private
+    val written = ConcurrentHashMap<ClassPath, HashCode>()
+
+    private
+    val read = ConcurrentHashMap<HashCode, ClassPath>()
+
+    private
+    val referenced: MutableSet<HashCode> = ConcurrentHashMap.newKeySet()
+
+    /**
+     * The values written or read so far, and the values of the entry being reused, see [addReferencedValues].
+     */
+    val referencedValues: Set<HashCode>
+        get() = referenced.toSet()
+
+    /**
+     * Adds values that the entry references without reading them, such as the values of an entry whose state is reused as is.
+     */
+    fun addReferencedValues(values: Collection<HashCode>) {
+        referenced.addAll(values)
+    }
+
+    fun Encoder.writeSharedClassPath(classPath: ClassPath) {
+        // A reference is not much shorter than a small class path
+        if (!isEnabled || classPath.asFiles.size < MIN_SHARED_SIZE) {
+            writeBoolean(false)
+            writeClassPath(classPath)
+        } else {
+            writeBoolean(true)
+            val hash = hashOf(classPath)
+            referenced.add(hash)
+            writeBinary(hash.toByteArray())
+        }
+    }
+
+    fun Decoder.readSharedClassPath(): ClassPath =
+        if (readBoolean()) {
+            classPathFor(HashCode.fromBytes(readBinary()))
+        } else {
+            readClassPath()
+        }
+
+    private
+    fun hashOf(classPath: ClassPath): HashCode =
+        written.computeIfAbsent(classPath) {
+            val bytes = ByteArrayOutputStream()
+            KryoBackedEncoder(bytes).useToRun {
+                writeClassPath(classPath)
+            }
+            store.write(bytes.toByteArray())
+        }
+
+    private
+    fun classPathFor(hash: HashCode): ClassPath =
+        read.computeIfAbsent(hash) {
+            referenced.add(hash)
+            // Entries are only reused when all the values they reference are stored
+            val bytes = checkNotNull(store.read(hash)) {
+                "Shared configuration cache value '$hash' not found."
+            }
+            KryoBackedDecoder(bytes.inputStream()).useToRun {
+                readClassPath()
+            }
+        }
+}
+
+
+private
+const val MIN_SHARED_SIZE = 4
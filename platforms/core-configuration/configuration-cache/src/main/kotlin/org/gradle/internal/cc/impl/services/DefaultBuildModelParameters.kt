@@ -24,6 +24,7 @@ data class DefaultBuildModelParameters(
     private val configureOnDemand: Boolean,
     private val configurationCache: Boolean,
     private val isolatedProjects: Boolean,
+    private val parallelProjectConfiguration: Boolean,
     private val requiresBuildModel: Boolean,
     private val intermediateModelCache: Boolean,
     private val parallelToolingApiActions: Boolean,
@@ -41,6 +42,8 @@ data class DefaultBuildModelParameters(
 
     override fun isIsolatedProjects(): Boolean = isolatedProjects
 
+    override fun isParallelProjectConfiguration(): Boolean = parallelProjectConfiguration
+
     override fun isIntermediateModelCache(): Boolean = intermediateModelCache
 
     override fun isParallelToolingApiActions(): Boolean = parallelToolingApiActions
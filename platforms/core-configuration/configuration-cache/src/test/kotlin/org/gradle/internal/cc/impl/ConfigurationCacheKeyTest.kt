@@ -150,6 +150,18 @@ class ConfigurationCacheKeyTest {
         )
     }
 
+    @Test
+    fun `cache key honours parallel store option`() {
+        assertThat(
+            cacheKeyStringFromStartParameter(mapOf("org.gradle.configuration-cache.internal.parallel-store" to "true")) { },
+            not(equalTo(cacheKeyStringFromStartParameter { }))
+        )
+        assertThat(
+            cacheKeyStringFromStartParameter(mapOf("org.gradle.configuration-cache.internal.parallel-store" to "false")) { },
+            equalTo(cacheKeyStringFromStartParameter { })
+        )
+    }
+
     @Test
     fun `sanity check`() {
         assertThat(
@@ -159,7 +171,7 @@ class ConfigurationCacheKeyTest {
     }
 
     private
-    fun cacheKeyStringFromStartParameter(configure: StartParameterInternal.() -> Unit): String {
+    fun cacheKeyStringFromStartParameter(internalOptions: Map<String, String> = mapOf(), configure: StartParameterInternal.() -> Unit): String {
         val startParameter = StartParameterInternal().apply(configure)
         return ConfigurationCacheKey(
             ConfigurationCacheStartParameter(
@@ -170,12 +182,13 @@ class ConfigurationCacheKeyTest {
                     null
                 ),
                 startParameter,
-                DefaultInternalOptions(mapOf()),
+                DefaultInternalOptions(internalOptions),
                 DefaultBuildModelParameters(
                     parallelProjectExecution = false,
                     configureOnDemand = false,
                     configurationCache = true,
                     isolatedProjects = startParameter.isolatedProjects.get(),
+                    parallelProjectConfiguration = startParameter.isolatedProjects.get(),
                     requiresBuildModel = false,
                     intermediateModelCache = false,
                     parallelToolingApiActions = false,
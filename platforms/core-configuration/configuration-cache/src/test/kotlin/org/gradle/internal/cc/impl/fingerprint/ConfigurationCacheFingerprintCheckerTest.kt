@@ -16,9 +16,12 @@
 
 package org.gradle.internal.cc.impl.fingerprint
 
+import com.google.common.util.concurrent.MoreExecutors
 import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.doReturn
 import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.verify
 import org.gradle.api.Describable
 import org.gradle.api.logging.Logger
 import org.gradle.api.provider.ValueSource
@@ -54,6 +57,8 @@ import org.junit.Test
 import java.io.File
 import java.io.InputStream
 import java.io.OutputStream
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
 
 
 class ConfigurationCacheFingerprintCheckerTest {
@@ -242,6 +247,64 @@ class ConfigurationCacheFingerprintCheckerTest {
         )
     }
 
+    @Test
+    fun `first out-of-date input is reported when file system inputs are checked concurrently`() {
+        val files = (1..100).map { File("input$it.txt") }
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            assertThat(
+                checkFingerprintGiven(
+                    mock {
+                        on { hashCodeAndTypeOf(any()) }.then { invocation ->
+                            val file = invocation.getArgument<File>(0)
+                            // every other file has changed
+                            TestHashCodes.hashCodeFrom(files.indexOf(file) % 2) to FileType.RegularFile
+                        }
+                        on { displayNameOf(any()) }.then { invocation ->
+                            invocation.getArgument<File>(0).name
+                        }
+                        on { buildPath } doReturn Path.ROOT
+                    },
+                    executor,
+                    *files.map { ConfigurationCacheFingerprint.InputFile(it, TestHashCodes.hashCodeFrom(0)) }.toTypedArray()
+                ),
+                equalTo("file 'input2.txt' has changed")
+            )
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun `value source is not obtained when an earlier file system input is out-of-date`() {
+        val host = mock<ConfigurationCacheFingerprintChecker.Host> {
+            on { hashCodeAndTypeOf(any()) }.then {
+                // still checking the file when the value source is reached
+                Thread.sleep(100)
+                TestHashCodes.hashCodeFrom(1) to FileType.RegularFile
+            }
+            on { displayNameOf(any()) }.then { invocation ->
+                invocation.getArgument<File>(0).name
+            }
+            on { buildPath } doReturn Path.ROOT
+        }
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            assertThat(
+                checkFingerprintGiven(
+                    host,
+                    executor,
+                    ConfigurationCacheFingerprint.InputFile(File("input.txt"), TestHashCodes.hashCodeFrom(0)),
+                    ConfigurationCacheFingerprint.ValueSource(obtainedValueMock())
+                ),
+                equalTo("file 'input.txt' has changed")
+            )
+            verify(host, never()).instantiateValueSourceOf(any())
+        } finally {
+            executor.shutdown()
+        }
+    }
+
     @Test
     fun `invalidation reason includes ValueSource description`() {
 
@@ -293,15 +356,22 @@ class ConfigurationCacheFingerprintCheckerTest {
     fun checkFingerprintGiven(
         host: ConfigurationCacheFingerprintChecker.Host,
         fingerprint: ConfigurationCacheFingerprint
+    ): String? = checkFingerprintGiven(host, MoreExecutors.newDirectExecutorService(), fingerprint)
+
+    private
+    fun checkFingerprintGiven(
+        host: ConfigurationCacheFingerprintChecker.Host,
+        executor: ExecutorService,
+        vararg fingerprints: ConfigurationCacheFingerprint
     ): String? {
 
         val readContext = recordWritingOf {
-            write(fingerprint)
+            fingerprints.forEach { write(it) }
             write(null)
         }
 
         val checkedFingerprint = readContext.runReadOperation {
-            ConfigurationCacheFingerprintChecker(host).run {
+            ConfigurationCacheFingerprintChecker(host, executor).run {
                 checkBuildScopedFingerprint()
             }
         }
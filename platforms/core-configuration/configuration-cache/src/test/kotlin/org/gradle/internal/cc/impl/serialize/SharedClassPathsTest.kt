@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.serialize
+
+import org.gradle.internal.cc.impl.SharedValueStore
+import org.gradle.internal.classpath.ClassPath
+import org.gradle.internal.classpath.DefaultClassPath
+import org.gradle.internal.extensions.stdlib.useToRun
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.hash.Hashing
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Assert.assertThrows
+import org.junit.Test
+import java.io.ByteArrayOutputStream
+import java.io.File
+
+
+class SharedClassPathsTest {
+
+    private
+    val store = InMemorySharedValueStore()
+
+    @Test
+    fun `large class paths are written to the store once`() {
+        val classPath = classPathOf(10)
+
+        val first = write(SharedClassPaths(true, store), classPath)
+        val second = write(SharedClassPaths(true, store), classPath)
+
+        assertThat(store.writes, equalTo(2))
+        assertThat(store.values.size, equalTo(1))
+        assertThat(read(SharedClassPaths(false, store), first), equalTo(classPath))
+        assertThat(read(SharedClassPaths(false, store), second), equalTo(classPath))
+    }
+
+    @Test
+    fun `small class paths are written inline`() {
+        val classPath = classPathOf(2)
+
+        val bytes = write(SharedClassPaths(true, store), classPath)
+
+        assertThat(store.writes, equalTo(0))
+        assertThat(read(SharedClassPaths(true, store), bytes), equalTo(classPath))
+    }
+
+    @Test
+    fun `class paths are written inline when disabled`() {
+        val classPath = classPathOf(10)
+
+        val bytes = write(SharedClassPaths(false, store), classPath)
+
+        assertThat(store.writes, equalTo(0))
+        assertThat(read(SharedClassPaths(true, store), bytes), equalTo(classPath))
+    }
+
+    @Test
+    fun `values written or read are referenced`() {
+        val written = SharedClassPaths(true, store)
+        val bytes = write(written, classPathOf(10))
+        val reader = SharedClassPaths(false, store)
+        read(reader, bytes)
+
+        assertThat(written.referencedValues, equalTo(store.values.keys))
+        assertThat(reader.referencedValues, equalTo(store.values.keys))
+    }
+
+    @Test
+    fun `reading a value missing from the store fails`() {
+        val bytes = write(SharedClassPaths(true, store), classPathOf(10))
+        store.values.clear()
+
+        assertThrows(IllegalStateException::class.java) {
+            read(SharedClassPaths(true, store), bytes)
+        }
+    }
+
+    private
+    fun classPathOf(size: Int): ClassPath =
+        DefaultClassPath.of((1..size).map { File("lib$it.jar").absoluteFile })
+
+    private
+    fun write(sharedClassPaths: SharedClassPaths, classPath: ClassPath): ByteArray {
+        val bytes = ByteArrayOutputStream()
+        KryoBackedEncoder(bytes).useToRun {
+            sharedClassPaths.run {
+                writeSharedClassPath(classPath)
+            }
+        }
+        return bytes.toByteArray()
+    }
+
+    private
+    fun read(sharedClassPaths: SharedClassPaths, bytes: ByteArray): ClassPath =
+        KryoBackedDecoder(bytes.inputStream()).useToRun {
+            sharedClassPaths.run {
+                readSharedClassPath()
+            }
+        }
+
+    private
+    class InMemorySharedValueStore : SharedValueStore {
+
+        val values = mutableMapOf<HashCode, ByteArray>()
+
+        var writes = 0
+
+        override fun write(bytes: ByteArray): HashCode {
+            writes += 1
+            return Hashing.hashBytes(bytes).also {
+                values.putIfAbsent(it, bytes)
+            }
+        }
+
+        override fun read(hash: HashCode): ByteArray? =
+            values[hash]
+
+        override fun contains(hash: HashCode): Boolean =
+            hash in values
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.serialize.codecs.core
+
+import org.gradle.internal.serialize.graph.ReadContext
+import org.gradle.internal.serialize.graph.WriteContext
+
+
+/**
+ * Stores the state of each task as a block of bytes that can be decoded on its own,
+ * so the state of a task is only restored when the task is about to execute.
+ *
+ * A block shares the identities of the objects written to the stream that contains it.
+ * Objects with a shared identity must only be restored once, so a block that introduces any is read along with the stream.
+ */
+interface DeferredTaskState {
+
+    /**
+     * Whether the state of tasks should be stored in blocks.
+     * Blocks are always read when the state of a task was written to one.
+     */
+    val isEnabled: Boolean
+
+    /**
+     * Writes a block with the given [writeState] to the given [context].
+     */
+    fun write(context: WriteContext, writeState: suspend WriteContext.() -> Unit)
+
+    /**
+     * Reads a block written by [write] from the given [context], and returns the action that restores its state using [readState],
+     * or `null` when the state has already been restored because the block introduces objects with a shared identity.
+     */
+    fun read(context: ReadContext, readState: suspend ReadContext.() -> Unit): Runnable?
+}
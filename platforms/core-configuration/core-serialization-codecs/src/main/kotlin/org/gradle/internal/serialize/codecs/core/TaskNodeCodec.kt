@@ -65,7 +65,8 @@ import org.gradle.util.internal.DeferredUtil
 
 class TaskNodeCodec(
     private val userTypesCodec: Codec<Any?>,
-    private val taskNodeFactory: TaskNodeFactory
+    private val taskNodeFactory: TaskNodeFactory,
+    private val deferredTaskState: DeferredTaskState? = null
 ) : Codec<LocalTaskNode> {
 
     override suspend fun WriteContext.encode(value: LocalTaskNode) {
@@ -74,8 +75,11 @@ class TaskNodeCodec(
     }
 
     override suspend fun ReadContext.decode(): LocalTaskNode {
-        val task = readTask()
+        val (task, deferredState) = readTask()
         val node = taskNodeFactory.getOrCreateNode(task) as LocalTaskNode
+        if (deferredState != null) {
+            node.restoreStateBeforeExecution(deferredState)
+        }
         node.isolated()
         return node
     }
@@ -93,29 +97,48 @@ class TaskNodeCodec(
             writeNullableString(task.reasonTaskIsIncompatibleWithConfigurationCache.orElse(null))
 
             withDebugFrame({ taskType.name }) {
-                withTaskOf(taskType, task, userTypesCodec) {
-                    writeUpToDateSpec(task)
-                    writeCollection(task.outputs.cacheIfSpecs)
-                    writeCollection(task.outputs.doNotCacheIfSpecs)
-                    writeReasonNotToTrackState(task)
-                    beanStateWriterFor(task.javaClass).run {
-                        writeStateOf(task)
-                        withTaskReferencesAllowed {
-                            writeRegisteredPropertiesOf(
-                                task
-                            )
+                if (deferredTaskState != null && deferredTaskState.isEnabled) {
+                    writeBoolean(true)
+                    // The deferred state is written with its own codec, so the isolate keeps the codec of the context
+                    deferredTaskState.write(this) {
+                        withTaskOf(taskType, task, null) {
+                            writeTaskState(task)
                         }
                     }
-                    writeDestroyablesOf(task)
-                    writeLocalStateOf(task)
-                    writeRequiredServices(task)
+                } else {
+                    writeBoolean(false)
+                    withTaskOf(taskType, task, userTypesCodec) {
+                        writeTaskState(task)
+                    }
                 }
             }
         }
     }
 
     private
-    suspend fun ReadContext.readTask(): Task {
+    suspend fun WriteContext.writeTaskState(task: TaskInternal) {
+        writeUpToDateSpec(task)
+        writeCollection(task.outputs.cacheIfSpecs)
+        writeCollection(task.outputs.doNotCacheIfSpecs)
+        writeReasonNotToTrackState(task)
+        beanStateWriterFor(task.javaClass).run {
+            writeStateOf(task)
+            withTaskReferencesAllowed {
+                writeRegisteredPropertiesOf(
+                    task
+                )
+            }
+        }
+        writeDestroyablesOf(task)
+        writeLocalStateOf(task)
+        writeRequiredServices(task)
+    }
+
+    /**
+     * Reads a task, and returns it together with the action that restores its state, when the state was deferred.
+     */
+    private
+    suspend fun ReadContext.readTask(): Pair<TaskInternal, Runnable?> {
         val taskType = readClassOf<Task>()
         val projectPath = readString()
         val taskName = readString()
@@ -124,21 +147,37 @@ class TaskNodeCodec(
 
         val task = createTask(projectPath, taskName, taskType, uniqueId, incompatibleReason)
 
-        withTaskOf(taskType, task, userTypesCodec) {
-            readUpToDateSpec(task)
-            readCollectionInto { task.outputs.cacheIfSpecs.uncheckedCast() }
-            readCollectionInto { task.outputs.doNotCacheIfSpecs.uncheckedCast() }
-            readReasonNotToTrackState(task)
-            beanStateReaderFor(task.javaClass).run {
-                readStateOf(task)
+        if (readBoolean()) {
+            require(deferredTaskState != null) {
+                "The state of task '${task.identityPath}' was deferred, but it cannot be loaded."
+            }
+            return task to deferredTaskState.read(this) {
+                withTaskOf(taskType, task, null) {
+                    readTaskState(task)
+                }
             }
-            readRegisteredPropertiesOf(task)
-            readDestroyablesOf(task)
-            readLocalStateOf(task)
-            readRequiredServices(task)
         }
 
-        return task
+        withTaskOf(taskType, task, userTypesCodec) {
+            readTaskState(task)
+        }
+
+        return task to null
+    }
+
+    private
+    suspend fun ReadContext.readTaskState(task: TaskInternal) {
+        readUpToDateSpec(task)
+        readCollectionInto { task.outputs.cacheIfSpecs.uncheckedCast() }
+        readCollectionInto { task.outputs.doNotCacheIfSpecs.uncheckedCast() }
+        readReasonNotToTrackState(task)
+        beanStateReaderFor(task.javaClass).run {
+            readStateOf(task)
+        }
+        readRegisteredPropertiesOf(task)
+        readDestroyablesOf(task)
+        readLocalStateOf(task)
+        readRequiredServices(task)
     }
 
     private
@@ -222,20 +261,40 @@ class TaskNodeCodec(
 }
 
 
+/**
+ * Runs [action] in the isolate of the given [task], using the given [codec], or the codec of the context when `null`.
+ */
 private
 suspend fun <T> T.withTaskOf(
     taskType: Class<*>,
     task: TaskInternal,
-    codec: Codec<Any?>,
+    codec: Codec<Any?>?,
     action: suspend () -> Unit
 ) where T : IsolateContext, T : MutableIsolateContext {
-    withIsolate(IsolateOwners.OwnerTask(task), codec) {
-        withPropertyTrace(PropertyTrace.Task(taskType, task.identityPath.path)) {
-            if (task.isCompatibleWithConfigurationCache) {
-                action()
-            } else {
-                forIncompatibleTask(trace, task.reasonTaskIsIncompatibleWithConfigurationCache.get(), action)
-            }
+    val owner = IsolateOwners.OwnerTask(task)
+    if (codec != null) {
+        withIsolate(owner, codec) {
+            withTaskTrace(taskType, task, action)
+        }
+    } else {
+        withIsolate(owner) {
+            withTaskTrace(taskType, task, action)
+        }
+    }
+}
+
+
+private
+suspend fun <T> T.withTaskTrace(
+    taskType: Class<*>,
+    task: TaskInternal,
+    action: suspend () -> Unit
+) where T : IsolateContext, T : MutableIsolateContext {
+    withPropertyTrace(PropertyTrace.Task(taskType, task.identityPath.path)) {
+        if (task.isCompatibleWithConfigurationCache) {
+            action()
+        } else {
+            forIncompatibleTask(trace, task.reasonTaskIsIncompatibleWithConfigurationCache.get(), action)
         }
     }
 }
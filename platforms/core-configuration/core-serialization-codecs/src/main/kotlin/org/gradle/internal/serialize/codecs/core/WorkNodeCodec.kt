@@ -31,6 +31,7 @@ import org.gradle.execution.plan.OrdinalGroup
 import org.gradle.execution.plan.OrdinalGroupFactory
 import org.gradle.execution.plan.ScheduledWork
 import org.gradle.execution.plan.TaskNode
+import org.gradle.internal.cc.base.serialize.IsolateOwners
 import org.gradle.internal.cc.base.serialize.withGradleIsolate
 import org.gradle.internal.serialize.graph.Codec
 import org.gradle.internal.serialize.graph.ReadContext
@@ -40,7 +41,9 @@ import org.gradle.internal.serialize.graph.decodePreservingIdentity
 import org.gradle.internal.serialize.graph.encodePreservingIdentityOf
 import org.gradle.internal.serialize.graph.ownerService
 import org.gradle.internal.serialize.graph.readCollectionInto
+import org.gradle.internal.serialize.graph.readList
 import org.gradle.internal.serialize.graph.readNonNull
+import org.gradle.internal.serialize.graph.withIsolate
 import org.gradle.internal.serialize.graph.writeCollection
 
 
@@ -55,7 +58,8 @@ typealias IdForNode = (Node) -> Int
 class WorkNodeCodec(
     private val owner: GradleInternal,
     private val internalTypesCodec: Codec<Any?>,
-    private val ordinalGroups: OrdinalGroupFactory
+    private val ordinalGroups: OrdinalGroupFactory,
+    private val shards: WorkNodeShards? = null
 ) {
 
     suspend fun WriteContext.writeWork(work: ScheduledWork) {
@@ -75,6 +79,15 @@ class WorkNodeCodec(
         val nodes = work.scheduledNodes
         val nodeCount = nodes.size
         writeSmallInt(nodeCount)
+        val shardedNodes = shardedNodesOf(nodes)
+        if (isSharding) {
+            // The shard count is only written when sharding is enabled, which is part of the cache key
+            writeSmallInt(shardedNodes.size)
+        }
+        val shardIndices = Object2IntOpenHashMap<Node>()
+        shardedNodes.forEachIndexed { index, shard ->
+            shard.forEach { shardIndices[it] = index + 1 }
+        }
         val scheduledNodeIds = Object2IntOpenHashMap<Node>(nodeCount)
         // Not all entry nodes are always scheduled.
         // In particular, it happens when the entry node is a task of the included plugin build that runs as part of building the plugin.
@@ -82,7 +95,16 @@ class WorkNodeCodec(
         // Not restoring them as entry points doesn't affect the resulting execution plan.
         val scheduledEntryNodeIds = mutableListOf<Int>()
         nodes.forEach { node ->
-            write(node)
+            // Nodes stored in a shard are written as the 1-based index of the shard, all other nodes are written inline
+            if (shardedNodes.isNotEmpty()) {
+                val shardIndex = shardIndices.getInt(node)
+                writeSmallInt(shardIndex)
+                if (shardIndex == 0) {
+                    write(node)
+                }
+            } else {
+                write(node)
+            }
             val nodeId = scheduledNodeIds.size
             scheduledNodeIds[node] = nodeId
             if (node in work.entryNodes) {
@@ -92,6 +114,14 @@ class WorkNodeCodec(
                 scheduledNodeIds[node.prepareNode] = scheduledNodeIds.size
             }
         }
+        if (shardedNodes.isNotEmpty()) {
+            // The shards are written once all the nodes shared between projects are known
+            shards!!.writeShards(this, shardedNodes.size) { index ->
+                withIsolate(IsolateOwners.OwnerGradle(owner)) {
+                    writeCollection(shardedNodes[index]) { write(it) }
+                }
+            }
+        }
         // A large build may have many nodes but not so many entry nodes.
         // To save some disk space, we're only saving entry node ids rather than writing "entry/non-entry" boolean for every node.
         writeCollection(scheduledEntryNodeIds) {
@@ -104,13 +134,52 @@ class WorkNodeCodec(
         }
     }
 
+    private
+    val isSharding: Boolean
+        get() = shards != null && shards.isEnabled
+
+    /**
+     * Groups the tasks of the given nodes by project, when the tasks should be stored in shards and belong to more than one project.
+     */
+    private
+    fun shardedNodesOf(nodes: List<Node>): List<List<Node>> {
+        if (!isSharding) {
+            return emptyList()
+        }
+        val nodesByProject = LinkedHashMap<String, MutableList<Node>>()
+        for (node in nodes) {
+            if (node is LocalTaskNode) {
+                nodesByProject.getOrPut(node.task.project.path) { ArrayList() }.add(node)
+            }
+        }
+        return if (nodesByProject.size > 1) nodesByProject.values.toList() else emptyList()
+    }
+
     private
     suspend fun ReadContext.doRead(): ScheduledWork {
         val nodeCount = readSmallInt()
+        val shardCount = if (isSharding) readSmallInt() else 0
+        val inlineNodes = arrayOfNulls<Node>(nodeCount)
+        val nodeShards = IntArray(nodeCount)
+        for (index in 0 until nodeCount) {
+            val shardIndex = if (shardCount > 0) readSmallInt() else 0
+            if (shardIndex == 0) {
+                inlineNodes[index] = readNode()
+            } else {
+                nodeShards[index] = shardIndex
+            }
+        }
+        val shardedNodes = readShardedNodes(shardCount)
+        val nextNodeOfShard = IntArray(shardCount)
         val nodes = ArrayList<Node>(nodeCount)
         val nodesById = ArrayList<Node>(nodeCount)
-        repeat(nodeCount) {
-            val node = readNode()
+        for (index in 0 until nodeCount) {
+            val node = inlineNodes[index] ?: nodeShards[index].let { shardIndex ->
+                shardedNodes[shardIndex - 1][nextNodeOfShard[shardIndex - 1]++].also {
+                    it.require()
+                    it.dependenciesProcessed()
+                }
+            }
             nodesById.add(node)
             if (node is LocalTaskNode) {
                 node.prepareNode.require()
@@ -132,6 +201,21 @@ class WorkNodeCodec(
         return ScheduledWork(nodes, entryNodes)
     }
 
+    private
+    fun ReadContext.readShardedNodes(shardCount: Int): List<List<Node>> {
+        if (shardCount == 0) {
+            return emptyList()
+        }
+        require(shards != null) {
+            "The work graph was stored in shards, but they cannot be loaded."
+        }
+        return shards.readShards(this, shardCount) {
+            withIsolate(IsolateOwners.OwnerGradle(owner)) {
+                readList { readNonNull<Node>() }
+            }
+        }
+    }
+
     private
     suspend fun ReadContext.readNode(): Node {
         val node = readNonNull<Node>()
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.serialize.codecs.core
+
+import org.gradle.internal.serialize.graph.ReadContext
+import org.gradle.internal.serialize.graph.WriteContext
+
+
+/**
+ * Streams, separate from the stream of the work graph, that hold the tasks of one project each.
+ *
+ * Each shard is written and read with its own context, so shards can be encoded and decoded concurrently.
+ * The context of a shard shares the identities of the objects already written to the work graph stream,
+ * which therefore acts as the table of objects shared between projects.
+ * An object with a shared identity that is not in the work graph stream yet is encoded once, by the first shard that writes it,
+ * and the shards that reference it wait for that shard when they are read.
+ */
+interface WorkNodeShards {
+
+    /**
+     * Whether the tasks of the work graph are written to and read from shards.
+     * The value must be part of the cache key, as the work graph is written in a different format when it is enabled.
+     */
+    val isEnabled: Boolean
+
+    /**
+     * Writes [count] shards, using [writeShard] to write the shard with a given index.
+     */
+    fun writeShards(context: WriteContext, count: Int, writeShard: suspend WriteContext.(Int) -> Unit)
+
+    /**
+     * Reads [count] shards, using [readShard] to read the shard with a given index, and returns the results in shard order.
+     */
+    fun <T> readShards(context: ReadContext, count: Int, readShard: suspend ReadContext.(Int) -> T): List<T>
+}
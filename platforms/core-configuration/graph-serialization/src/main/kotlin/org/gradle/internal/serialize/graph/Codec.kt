@@ -257,8 +257,14 @@ inline fun <T : Any> WriteContext.encodePreservingIdentityOf(reference: T, encod
 }
 
 
-inline fun <T : Any> WriteContext.encodePreservingSharedIdentityOf(reference: T, encode: WriteContext.(T) -> Unit) =
-    encodePreservingIdentityOf(sharedIdentities, reference, encode)
+inline fun <T : Any> WriteContext.encodePreservingSharedIdentityOf(reference: T, encode: WriteContext.(T) -> Unit) {
+    sharedIdentities.lock()
+    try {
+        encodePreservingIdentityOf(sharedIdentities, reference, encode)
+    } finally {
+        sharedIdentities.unlock()
+    }
+}
 
 
 inline fun <T : Any> WriteContext.encodePreservingIdentityOf(identities: WriteIdentities, reference: T, encode: WriteContext.(T) -> Unit) {
@@ -58,11 +58,11 @@ class DefaultWriteContext(
     problemsListener: ProblemsListener,
 
     private
-    val classEncoder: ClassEncoder
+    val classEncoder: ClassEncoder,
 
-) : AbstractIsolateContext<WriteIsolate>(codec, problemsListener), CloseableWriteContext, Encoder by encoder {
+    override val sharedIdentities: WriteIdentities = WriteIdentities()
 
-    override val sharedIdentities = WriteIdentities()
+) : AbstractIsolateContext<WriteIsolate>(codec, problemsListener), CloseableWriteContext, Encoder by encoder {
 
     override val circularReferences = CircularReferences()
 
@@ -142,11 +142,11 @@ class DefaultReadContext(
     problemsListener: ProblemsListener,
 
     private
-    val classDecoder: ClassDecoder
+    val classDecoder: ClassDecoder,
 
-) : AbstractIsolateContext<ReadIsolate>(codec, problemsListener), CloseableReadContext, Decoder by decoder {
+    override val sharedIdentities: ReadIdentities = ReadIdentities()
 
-    override val sharedIdentities = ReadIdentities()
+) : AbstractIsolateContext<ReadIsolate>(codec, problemsListener), CloseableReadContext, Decoder by decoder {
 
     private
     var singletonProperty: Any? = null
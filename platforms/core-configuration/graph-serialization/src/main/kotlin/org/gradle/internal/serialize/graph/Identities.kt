@@ -21,29 +21,56 @@ import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet
 import java.util.IdentityHashMap
 
 
-class WriteIdentities {
+/**
+ * Assigns ids to instances written to a stream.
+ *
+ * Identities can have a [parent] whose instances are visible to them, for instance when the state is split into several streams.
+ * The parent must not change while it is in use by its children, and its children assign ids that follow the ids of the parent.
+ * Identities shared by streams written concurrently override the [lock] and [unlock] methods.
+ */
+open class WriteIdentities(
+    private val parent: WriteIdentities? = null
+) {
 
     private
     val instanceIds = IdentityHashMap<Any, Int>()
 
-    fun getId(instance: Any): Int? = instanceIds[instance]
+    private
+    val firstId = parent?.size ?: 0
+
+    open val size: Int
+        get() = firstId + instanceIds.size
 
-    fun putInstance(instance: Any): Int {
-        val id = instanceIds.size
+    open fun getId(instance: Any): Int? = parent?.getId(instance) ?: instanceIds[instance]
+
+    open fun putInstance(instance: Any): Int {
+        val id = size
         instanceIds[instance] = id
         return id
     }
+
+    /**
+     * Takes exclusive use of these identities while an instance is looked up, and assigned an id and encoded if it is new.
+     */
+    open fun lock() = Unit
+
+    open fun unlock() = Unit
 }
 
 
-class ReadIdentities {
+/**
+ * Instances read from a stream by id, which can have a [parent], see [WriteIdentities].
+ */
+open class ReadIdentities(
+    private val parent: ReadIdentities? = null
+) {
 
     private
     val instanceIds = Int2ObjectOpenHashMap<Any>()
 
-    fun getInstance(id: Int): Any? = instanceIds[id]
+    open fun getInstance(id: Int): Any? = instanceIds[id] ?: parent?.getInstance(id)
 
-    fun putInstance(id: Int, instance: Any) {
+    open fun putInstance(id: Int, instance: Any) {
         instanceIds[id] = instance
     }
 }
@@ -19,6 +19,7 @@
 import org.gradle.internal.service.scopes.ServiceScope;
 
 import java.io.File;
+import java.util.Map;
 
 @ServiceScope(Scope.BuildSession.class)
 public interface ChecksumService {
@@ -31,4 +32,11 @@ public interface ChecksumService {
     HashCode sha512(File file);
 
     HashCode hash(File src, String algorithm);
+
+    /**
+     * Remembers checksums of the given file that were calculated while the file was written, so that they do not need to be calculated by reading the file again.
+     * Algorithms are named as for {@link #hash(File, String)}. The checksums are forgotten when the length or last modified time of the file changes.
+     */
+    default void rememberChecksums(File file, Map<String, HashCode> checksums) {
+    }
 }
@@ -76,4 +76,10 @@ public interface CrossBuildInMemoryCacheFactory {
      * <p>Note: this should be used to create _only_ global scoped instances.
      */
     <V> CrossBuildInMemoryCache<Class<?>, V> newClassMap();
+
+    /**
+     * Discards the values that caches created by this factory retain from the previous build session, so that they can be collected when the heap is running low.
+     * Values used by the current build session and entries of class maps are kept.
+     */
+    void discardValuesRetainedFromPreviousSession();
 }
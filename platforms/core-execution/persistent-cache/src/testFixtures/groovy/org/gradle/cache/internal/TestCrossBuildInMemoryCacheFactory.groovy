@@ -48,6 +48,10 @@ class TestCrossBuildInMemoryCacheFactory implements CrossBuildInMemoryCacheFacto
         return new TestCache<Class<?>, V>()
     }
 
+    @Override
+    void discardValuesRetainedFromPreviousSession() {
+    }
+
     static class TestCache<K, V> implements CrossBuildInMemoryCache<K, V> {
         private final Map<K, V> values = new ConcurrentHashMap<>()
 
@@ -25,6 +25,7 @@
 import org.gradle.process.internal.worker.WorkerProcess;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class WorkerDaemonClient implements Stoppable, Describable {
     public static final String DISABLE_EXPIRATION_PROPERTY_KEY = "org.gradle.workers.internal.disable-daemons-expiration";
@@ -33,7 +34,9 @@ class WorkerDaemonClient implements Stoppable, Describable {
     private final WorkerProcess workerProcess;
     private final LogLevel logLevel;
     private final ActionExecutionSpecFactory actionExecutionSpecFactory;
-    private int uses;
+    private final AtomicInteger uses = new AtomicInteger();
+    // Guarded by the lock of the WorkerDaemonClientsManager
+    private int reservations;
     private boolean cannotBeExpired = Boolean.getBoolean(DISABLE_EXPIRATION_PROPERTY_KEY);
 
     public WorkerDaemonClient(DaemonForkOptions forkOptions, MultiRequestClient<TransportableActionExecutionSpec, DefaultWorkResult> workerClient, WorkerProcess workerProcess, LogLevel logLevel, ActionExecutionSpecFactory actionExecutionSpecFactory) {
@@ -45,7 +48,7 @@ public WorkerDaemonClient(DaemonForkOptions forkOptions, MultiRequestClient<Tran
     }
 
     public DefaultWorkResult execute(IsolatedParametersActionExecutionSpec<?> spec) {
-        uses++;
+        uses.incrementAndGet();
         return workerClient.run(actionExecutionSpecFactory.newTransportableSpec(spec));
     }
 
@@ -71,7 +74,25 @@ DaemonForkOptions getForkOptions() {
     }
 
     public int getUses() {
-        return uses;
+        return uses.get();
+    }
+
+    /**
+     * Returns the number of callers that currently have this client reserved. When more than one, their requests are pipelined to the daemon.
+     */
+    int getReservations() {
+        return reservations;
+    }
+
+    void reserve() {
+        reservations++;
+    }
+
+    /**
+     * Releases a reservation and returns the number of remaining reservations.
+     */
+    int unreserve() {
+        return --reservations;
     }
 
     public KeepAliveMode getKeepAliveMode() {
@@ -103,7 +124,7 @@ public String getDisplayName() {
     public String toString() {
         return "WorkerDaemonClient{" +
             " log level=" + logLevel +
-            ", use count=" + uses +
+            ", use count=" + uses.get() +
             ", has failed=" + isFailed() +
             ", can be expired=" + !cannotBeExpired +
             ", workerProcess=" + workerProcess +
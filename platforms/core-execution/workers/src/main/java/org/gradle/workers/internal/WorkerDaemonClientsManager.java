@@ -33,6 +33,7 @@
 import org.gradle.process.internal.health.memory.OsMemoryInfo;
 import org.gradle.util.internal.CollectionUtils;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -42,6 +43,12 @@
 
 public class WorkerDaemonClientsManager implements Stoppable {
 
+    /**
+     * The maximum number of requests that may be in flight to a single worker daemon at the same time.
+     * When greater than 1, work items are pipelined to a busy compatible daemon instead of starting another daemon.
+     */
+    public static final String MAX_PIPELINED_REQUESTS_PROPERTY_KEY = "org.gradle.workers.internal.max-pipelined-requests";
+
     private static final Logger LOGGER = Logging.getLogger(WorkerDaemonClientsManager.class);
 
     private final Object lock = new Object();
@@ -56,9 +63,16 @@ public class WorkerDaemonClientsManager implements Stoppable {
     private final OutputEventListener logLevelChangeEventListener;
     private final WorkerDaemonExpiration workerDaemonExpiration;
     private final MemoryManager memoryManager;
+    private final int maxPipelinedRequests;
     private volatile LogLevel currentLogLevel;
 
     public WorkerDaemonClientsManager(WorkerDaemonStarter workerDaemonStarter, ListenerManager listenerManager, LoggingManagerInternal loggingManager, MemoryManager memoryManager, OsMemoryInfo memoryInfo) {
+        this(workerDaemonStarter, listenerManager, loggingManager, memoryManager, memoryInfo, Integer.getInteger(MAX_PIPELINED_REQUESTS_PROPERTY_KEY, 1));
+    }
+
+    @VisibleForTesting
+    WorkerDaemonClientsManager(WorkerDaemonStarter workerDaemonStarter, ListenerManager listenerManager, LoggingManagerInternal loggingManager, MemoryManager memoryManager, OsMemoryInfo memoryInfo, int maxPipelinedRequests) {
+        this.maxPipelinedRequests = maxPipelinedRequests;
         this.workerDaemonStarter = workerDaemonStarter;
         this.listenerManager = listenerManager;
         this.loggingManager = loggingManager;
@@ -94,6 +108,7 @@ WorkerDaemonClient reserveIdleClient(DaemonForkOptions forkOptions, List<WorkerD
                             LOGGER.info("Log level has changed, stopping idle worker daemon with out-of-date log level.");
                             candidate.stop();
                         } else {
+                            candidate.reserve();
                             return candidate;
                         }
                     }
@@ -114,10 +129,35 @@ private static void emitUnexpectedWorkerFailureWarning(WorkerDaemonClient candid
         }
     }
 
+    /**
+     * Reserves a client that is already executing work for other callers, so that the work is pipelined to the same daemon.
+     * Returns null when pipelining is disabled or when no compatible client has spare capacity.
+     */
+    @Nullable
+    public WorkerDaemonClient reserveBusyClient(DaemonForkOptions forkOptions) {
+        if (maxPipelinedRequests <= 1) {
+            return null;
+        }
+        synchronized (lock) {
+            for (WorkerDaemonClient candidate : allClients) {
+                int reservations = candidate.getReservations();
+                if (reservations > 0 && reservations < maxPipelinedRequests
+                    && !candidate.isFailed()
+                    && candidate.getLogLevel() == currentLogLevel
+                    && candidate.isCompatibleWith(forkOptions)) {
+                    candidate.reserve();
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+
     public WorkerDaemonClient reserveNewClient(DaemonForkOptions forkOptions) {
         //allow the daemon to be started concurrently
         WorkerDaemonClient client = workerDaemonStarter.startDaemon(forkOptions);
         synchronized (lock) {
+            client.reserve();
             allClients.add(client);
         }
         return client;
@@ -125,7 +165,7 @@ public WorkerDaemonClient reserveNewClient(DaemonForkOptions forkOptions) {
 
     public void release(WorkerDaemonClient client) {
         synchronized (lock) {
-            if (!client.isFailed()) {
+            if (client.unreserve() <= 0 && !client.isFailed()) {
                 idleClients.add(client);
             }
         }
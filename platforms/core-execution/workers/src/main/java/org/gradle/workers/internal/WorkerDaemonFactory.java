@@ -61,6 +61,9 @@ public DefaultWorkResult execute(IsolatedParametersActionExecutionSpec<?> spec,
             private WorkerDaemonClient reserveClient() {
                 DaemonForkOptions forkOptions = ((ForkedWorkerRequirement) workerRequirement).getForkOptions();
                 WorkerDaemonClient client = clientsManager.reserveIdleClient(forkOptions);
+                if (client == null) {
+                    client = clientsManager.reserveBusyClient(forkOptions);
+                }
                 if (client == null) {
                     client = clientsManager.reserveNewClient(forkOptions);
                 }
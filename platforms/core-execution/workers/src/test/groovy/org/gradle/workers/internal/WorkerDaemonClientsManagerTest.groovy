@@ -29,6 +29,8 @@ import org.gradle.process.internal.ExecException
 import org.gradle.process.internal.health.memory.DefaultMBeanAttributeProvider
 import org.gradle.process.internal.health.memory.MBeanOsMemoryInfo
 import org.gradle.process.internal.health.memory.MemoryManager
+import org.gradle.process.internal.worker.MultiRequestClient
+import org.gradle.process.internal.worker.WorkerProcess
 import org.gradle.util.ConcurrentSpecification
 import spock.lang.Subject
 
@@ -286,6 +288,55 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         1 * client3.stop()
     }
 
+    def "does not pipeline requests to busy clients by default"() {
+        def client = pipeliningClient()
+        starter.startDaemon(options) >> client
+
+        when:
+        manager.reserveNewClient(options)
+
+        then:
+        manager.reserveBusyClient(options) == null
+    }
+
+    def "pipelines requests to busy compatible client up to the configured limit"() {
+        def client = pipeliningClient()
+        starter.startDaemon(options) >> client
+        manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo(new DefaultMBeanAttributeProvider()), 2)
+
+        when:
+        manager.reserveNewClient(options)
+
+        then:
+        manager.reserveBusyClient(options) == client
+        manager.reserveBusyClient(options) == null
+        client.reservations == 2
+
+        when:
+        manager.release(client)
+
+        then:
+        manager.reserveIdleClient(options) == null
+
+        when:
+        manager.release(client)
+
+        then:
+        client.reservations == 0
+        manager.reserveBusyClient(options) == null
+        manager.reserveIdleClient(options) == client
+    }
+
+    private WorkerDaemonClient pipeliningClient() {
+        def forkOptions = Stub(DaemonForkOptions) {
+            isCompatibleWith(_) >> true
+        }
+        def workerProcess = Stub(WorkerProcess) {
+            getExecResult() >> Optional.empty()
+        }
+        return new WorkerDaemonClient(forkOptions, Stub(MultiRequestClient), workerProcess, null, Stub(ActionExecutionSpecFactory))
+    }
+
     def "registers/deregisters a worker daemon expiration with the memory manager"() {
         WorkerDaemonExpiration workerDaemonExpiration
 
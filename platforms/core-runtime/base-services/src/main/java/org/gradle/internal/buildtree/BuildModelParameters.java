@@ -37,6 +37,13 @@ public interface BuildModelParameters {
 
     boolean isIsolatedProjects();
 
+    /**
+     * Should projects be configured in parallel, honouring parent-before-child ordering and {@code evaluationDependsOn}?
+     * This is always true when {@link #isIsolatedProjects()} is true, and can be opted into for builds using the configuration cache.
+     * When this is true without isolated projects, cross-project access that mutates another project, or reads from a project that may still be configured, is reported as a problem.
+     */
+    boolean isParallelProjectConfiguration();
+
     /**
      * When {@link  #isIsolatedProjects()} is true, should intermediate tooling models be cached?
      * This is currently true when fetching a tooling model, otherwise false.
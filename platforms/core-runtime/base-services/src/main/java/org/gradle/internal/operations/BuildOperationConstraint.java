@@ -28,5 +28,14 @@ public enum BuildOperationConstraint {
     /**
      * Unconstrained execution allowing as many threads as required to a maximum of 10 times the configured workers.
      */
-    UNCONSTRAINED
+    UNCONSTRAINED,
+
+    /**
+     * Execution of operations that spend most of their time blocked on network or disk I/O, such as downloads.
+     *
+     * <p>Constrained like {@link #UNCONSTRAINED} by default. When virtual thread execution is enabled and the JVM supports virtual threads,
+     * each operation runs on a virtual thread without holding a worker lease, up to a maximum of 10 times the configured workers.
+     * Such an operation must acquire a worker lease to run CPU-bound work, such as user code, using {@link org.gradle.internal.work.WorkerLeaseService#runAsWorkerThread}.</p>
+     */
+    IO_BOUND
 }
@@ -34,12 +34,24 @@ public void execute(RunnableBuildOperation buildOperation, BuildOperationContext
     private final BuildOperationIdFactory buildOperationIdFactory;
     private final CurrentBuildOperationRef currentBuildOperationRef;
     private final BuildOperationExecutionListenerFactory listenerFactory;
+    private final ExecutionTimeline timeline;
 
     public DefaultBuildOperationRunner(CurrentBuildOperationRef currentBuildOperationRef, BuildOperationTimeSupplier clock, BuildOperationIdFactory buildOperationIdFactory, BuildOperationExecutionListenerFactory listenerFactory) {
+        this(currentBuildOperationRef, clock, buildOperationIdFactory, listenerFactory, new ExecutionTimeline());
+    }
+
+    public DefaultBuildOperationRunner(
+        CurrentBuildOperationRef currentBuildOperationRef,
+        BuildOperationTimeSupplier clock,
+        BuildOperationIdFactory buildOperationIdFactory,
+        BuildOperationExecutionListenerFactory listenerFactory,
+        ExecutionTimeline timeline
+    ) {
         this.currentBuildOperationRef = currentBuildOperationRef;
         this.clock = clock;
         this.buildOperationIdFactory = buildOperationIdFactory;
         this.listenerFactory = listenerFactory;
+        this.timeline = timeline;
     }
 
     @Override
@@ -161,7 +173,7 @@ private <O> O execute(BuildOperationDescriptor.Builder descriptorBuilder, @Nulla
         assertParentRunning("Cannot start operation (%s) as parent operation (%s) has already completed.", descriptor, parent);
 
         BuildOperationState operationState = new BuildOperationState(descriptor, clock.getCurrentTime());
-        BuildOperationTrackingListener listener = new BuildOperationTrackingListener(currentBuildOperationRef, listenerFactory.createListener());
+        BuildOperationTrackingListener listener = new BuildOperationTrackingListener(currentBuildOperationRef, listenerFactory.createListener(), timeline);
         DefaultBuildOperationContext context = new DefaultBuildOperationContext(descriptor, listener);
         return execution.execute(
             descriptor,
@@ -217,11 +229,13 @@ public T getReturnValue() {
     private static class BuildOperationTrackingListener implements BuildOperationExecutionListener {
         private final CurrentBuildOperationRef currentBuildOperationRef;
         private final BuildOperationExecutionListener delegate;
+        private final ExecutionTimeline timeline;
         private BuildOperationState originalCurrentBuildOperation;
 
-        private BuildOperationTrackingListener(CurrentBuildOperationRef currentBuildOperationRef, BuildOperationExecutionListener delegate) {
+        private BuildOperationTrackingListener(CurrentBuildOperationRef currentBuildOperationRef, BuildOperationExecutionListener delegate, ExecutionTimeline timeline) {
             this.currentBuildOperationRef = currentBuildOperationRef;
             this.delegate = delegate;
+            this.timeline = timeline;
         }
 
         @Override
@@ -230,6 +244,7 @@ public void start(BuildOperationDescriptor descriptor, BuildOperationState opera
             currentBuildOperationRef.set(operationState);
             operationState.setRunning(true);
             LOGGER.debug("Build operation '{}' started", descriptor.getDisplayName());
+            timeline.operationStarted(descriptor.getId().getId(), descriptor.getDisplayName());
             delegate.start(descriptor, operationState);
         }
 
@@ -253,6 +268,7 @@ public void stop(BuildOperationDescriptor descriptor, BuildOperationState operat
         @Override
         public void close(BuildOperationDescriptor descriptor, BuildOperationState operationState) {
             delegate.close(descriptor, operationState);
+            timeline.operationFinished(descriptor.getId().getId());
             currentBuildOperationRef.set(originalCurrentBuildOperation);
             operationState.setRunning(false);
             LOGGER.debug("Build operation '{}' completed", descriptor.getDisplayName());
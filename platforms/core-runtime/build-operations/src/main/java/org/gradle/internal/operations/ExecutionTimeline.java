@@ -0,0 +1,246 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A low overhead recorder of what the threads of a build are doing over time: build operations starting and finishing,
+ * and threads waiting for work, for a worker lease or for a lock.
+ *
+ * <p>Events are written to a ring buffer that is allocated when a recording starts, so recording an event does not allocate
+ * and only the most recent events are kept once the buffer is full. When no recording is in progress, recording an event
+ * costs a single volatile read.</p>
+ *
+ * <p>A recording can be written in the Chrome trace event format, which can be opened with Perfetto or {@code chrome://tracing}.</p>
+ */
+public class ExecutionTimeline {
+
+    /**
+     * The kinds of waits that can be recorded.
+     */
+    public enum Wait {
+        WORK("Waiting for work"),
+        WORKER_LEASE("Waiting for a worker lease"),
+        STATE_LOCK("Waiting for the state lock");
+
+        private final String displayName;
+
+        Wait(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private static final long OPERATION_STARTED = -1;
+    private static final long OPERATION_FINISHED = -2;
+    private static final Wait[] WAITS = Wait.values();
+
+    private final AtomicReference<Recording> current = new AtomicReference<>();
+
+    /**
+     * Starts a new recording with room for at least the given number of events.
+     *
+     * @return the recording, or {@code null} when another recording is already in progress.
+     */
+    @Nullable
+    public Recording startRecording(int capacity) {
+        Recording recording = new Recording(capacity);
+        return current.compareAndSet(null, recording) ? recording : null;
+    }
+
+    /**
+     * Stops the given recording. Events recorded afterwards are discarded.
+     */
+    public void stopRecording(Recording recording) {
+        current.compareAndSet(recording, null);
+    }
+
+    public boolean isRecording() {
+        return current.get() != null;
+    }
+
+    public void operationStarted(long operationId, String displayName) {
+        Recording recording = current.get();
+        if (recording != null) {
+            recording.record(OPERATION_STARTED, operationId, displayName);
+        }
+    }
+
+    public void operationFinished(long operationId) {
+        Recording recording = current.get();
+        if (recording != null) {
+            recording.record(OPERATION_FINISHED, operationId, null);
+        }
+    }
+
+    /**
+     * Records that the current thread waited from the given {@link System#nanoTime()} until now.
+     */
+    public void waited(Wait wait, long startNanos) {
+        Recording recording = current.get();
+        if (recording != null) {
+            recording.record(wait.ordinal(), startNanos, null);
+        }
+    }
+
+    public static class Recording {
+        // Each slot holds: sequence number + 1, timestamp, thread id, event type, operation id or wait start
+        private static final int FIELDS = 5;
+
+        private final long startNanos = System.nanoTime();
+        private final int mask;
+        private final AtomicLongArray events;
+        private final AtomicReferenceArray<String> names;
+        private final AtomicLong nextSequence = new AtomicLong();
+        private final ConcurrentMap<Long, String> threadNames = new ConcurrentHashMap<>();
+        private final ThreadLocal<Boolean> threadRegistered = new ThreadLocal<>();
+
+        private Recording(int capacity) {
+            int slots = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+            this.mask = slots - 1;
+            this.events = new AtomicLongArray(slots * FIELDS);
+            this.names = new AtomicReferenceArray<>(slots);
+        }
+
+        private void record(long type, long value, @Nullable String name) {
+            long timestamp = System.nanoTime();
+            Thread thread = Thread.currentThread();
+            long threadId = thread.getId();
+            if (threadRegistered.get() == null) {
+                threadRegistered.set(Boolean.TRUE);
+                threadNames.put(threadId, thread.getName());
+            }
+
+            long sequence = nextSequence.getAndIncrement();
+            int slot = (int) (sequence & mask);
+            int base = slot * FIELDS;
+            // Mark the slot as being written, then publish the sequence number last so that readers can detect torn slots
+            events.set(base, 0);
+            events.lazySet(base + 1, timestamp);
+            events.lazySet(base + 2, threadId);
+            events.lazySet(base + 3, type);
+            events.lazySet(base + 4, value);
+            names.lazySet(slot, name);
+            events.set(base, sequence + 1);
+        }
+
+        /**
+         * Writes the events of this recording in the Chrome trace event format.
+         * Operations that have not finished are written as ending at the time of the last recorded event.
+         */
+        public void writeChromeTrace(Writer writer) throws IOException {
+            long end = nextSequence.get();
+            long first = Math.max(0, end - (mask + 1));
+            long lastTimestamp = startNanos;
+
+            Map<Long, Integer> startedOperations = new HashMap<>();
+            long[] startTimestamps = new long[(int) (end - first)];
+            long[] startThreads = new long[startTimestamps.length];
+            String[] startNames = new String[startTimestamps.length];
+            int startCount = 0;
+
+            writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+            writer.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"args\":{\"name\":\"Gradle\"}}");
+            for (Map.Entry<Long, String> entry : threadNames.entrySet()) {
+                writer.write(",\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + entry.getKey() + ",\"args\":{\"name\":");
+                writeString(writer, entry.getValue());
+                writer.write("}}");
+            }
+
+            for (long sequence = first; sequence < end; sequence++) {
+                int slot = (int) (sequence & mask);
+                int base = slot * FIELDS;
+                if (events.get(base) != sequence + 1) {
+                    // Not yet written, or already overwritten
+                    continue;
+                }
+                long timestamp = events.get(base + 1);
+                long threadId = events.get(base + 2);
+                long type = events.get(base + 3);
+                long value = events.get(base + 4);
+                String name = names.get(slot);
+                if (events.get(base) != sequence + 1) {
+                    continue;
+                }
+                lastTimestamp = Math.max(lastTimestamp, timestamp);
+
+                if (type == OPERATION_STARTED) {
+                    startTimestamps[startCount] = timestamp;
+                    startThreads[startCount] = threadId;
+                    startNames[startCount] = name;
+                    startedOperations.put(value, startCount);
+                    startCount++;
+                } else if (type == OPERATION_FINISHED) {
+                    Integer start = startedOperations.remove(value);
+                    if (start != null) {
+                        writeCompleteEvent(writer, startNames[start], "operation", startThreads[start], startTimestamps[start], timestamp);
+                    }
+                } else if (type >= 0 && type < WAITS.length) {
+                    writeCompleteEvent(writer, WAITS[(int) type].getDisplayName(), "wait", threadId, value, timestamp);
+                }
+            }
+
+            for (Integer start : startedOperations.values()) {
+                writeCompleteEvent(writer, startNames[start], "operation", startThreads[start], startTimestamps[start], lastTimestamp);
+            }
+            writer.write("\n]}\n");
+        }
+
+        private void writeCompleteEvent(Writer writer, @Nullable String name, String category, long threadId, long startTimestamp, long endTimestamp) throws IOException {
+            writer.write(",\n{\"name\":");
+            writeString(writer, name == null ? "unknown" : name);
+            writer.write(",\"cat\":\"" + category + "\",\"ph\":\"X\",\"pid\":1,\"tid\":" + threadId
+                + ",\"ts\":" + toMicros(startTimestamp - startNanos)
+                + ",\"dur\":" + toMicros(Math.max(0, endTimestamp - startTimestamp)) + "}");
+        }
+
+        private static String toMicros(long nanos) {
+            return String.format(Locale.ROOT, "%.3f", nanos / 1000d);
+        }
+
+        private static void writeString(Writer writer, String value) throws IOException {
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    writer.write('\\');
+                    writer.write(c);
+                } else if (c < 0x20) {
+                    writer.write(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                } else {
+                    writer.write(c);
+                }
+            }
+            writer.write('"');
+        }
+    }
+}
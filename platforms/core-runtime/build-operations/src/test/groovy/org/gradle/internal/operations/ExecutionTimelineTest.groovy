@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations
+
+import spock.lang.Specification
+
+class ExecutionTimelineTest extends Specification {
+    def timeline = new ExecutionTimeline()
+
+    def "discards events when not recording"() {
+        when:
+        timeline.operationStarted(1, "operation")
+        timeline.operationFinished(1)
+
+        then:
+        !timeline.isRecording()
+    }
+
+    def "writes operations and waits as complete trace events"() {
+        def recording = timeline.startRecording(16)
+
+        when:
+        timeline.operationStarted(1, "Compile \"main\"")
+        timeline.waited(ExecutionTimeline.Wait.WORKER_LEASE, System.nanoTime())
+        timeline.operationFinished(1)
+        timeline.stopRecording(recording)
+        timeline.operationStarted(2, "after recording")
+        def trace = write(recording)
+
+        then:
+        trace.startsWith('{"displayTimeUnit":"ms","traceEvents":[')
+        trace.contains('"name":"thread_name"')
+        trace.contains('{"name":"Compile \\"main\\"","cat":"operation","ph":"X"')
+        trace.contains('{"name":"Waiting for a worker lease","cat":"wait","ph":"X"')
+        !trace.contains("after recording")
+    }
+
+    def "keeps the most recent events once the buffer is full"() {
+        def recording = timeline.startRecording(4)
+
+        when:
+        (1..4).each {
+            timeline.operationStarted(it, "operation ${it}")
+            timeline.operationFinished(it)
+        }
+        timeline.stopRecording(recording)
+        def trace = write(recording)
+
+        then:
+        !trace.contains("operation 1")
+        !trace.contains("operation 2")
+        trace.contains("operation 3")
+        trace.contains("operation 4")
+    }
+
+    def "writes unfinished operations"() {
+        def recording = timeline.startRecording(16)
+
+        when:
+        timeline.operationStarted(1, "unfinished")
+        def trace = write(recording)
+
+        then:
+        trace.contains('{"name":"unfinished","cat":"operation","ph":"X"')
+    }
+
+    def "only one recording can be in progress"() {
+        expect:
+        def recording = timeline.startRecording(16)
+        timeline.startRecording(16) == null
+        timeline.stopRecording(recording)
+        timeline.startRecording(16) != null
+    }
+
+    private static String write(ExecutionTimeline.Recording recording) {
+        def writer = new StringWriter()
+        recording.writeChromeTrace(writer)
+        return writer.toString()
+    }
+}
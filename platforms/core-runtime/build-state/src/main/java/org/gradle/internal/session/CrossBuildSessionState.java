@@ -19,6 +19,7 @@
 import org.gradle.api.internal.StartParameterInternal;
 import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.operations.trace.BuildOperationTrace;
+import org.gradle.internal.operations.trace.ExecutionTimelineTrace;
 import org.gradle.internal.service.Provides;
 import org.gradle.internal.service.ServiceRegistration;
 import org.gradle.internal.service.ServiceRegistrationProvider;
@@ -54,6 +55,7 @@ public CrossBuildSessionState(ServiceRegistry parent, StartParameterInternal sta
             .build();
         // Trigger listener to wire itself in
         services.get(BuildOperationTrace.class);
+        services.get(ExecutionTimelineTrace.class);
     }
 
     public ServiceRegistry getServices() {
@@ -90,6 +90,18 @@ protected ExecutorService createExecutor(String displayName, int fixedSize) {
         return Executors.newFixedThreadPool(fixedSize, newThreadFactory(displayName));
     }
 
+    @Nullable
+    @Override
+    public ManagedExecutor createVirtualThreadExecutor(String displayName) {
+        ExecutorService executorService = VirtualThreads.newThreadPerTaskExecutor(displayName, threadFactoryContextClassloader);
+        if (executorService == null) {
+            return null;
+        }
+        ManagedExecutor executor = new TrackedManagedExecutor(executorService, new ExecutorPolicy.CatchAndRecordFailures());
+        executors.add(executor);
+        return executor;
+    }
+
     @Override
     public ManagedScheduledExecutor createScheduled(String displayName, int fixedSize) {
         ManagedScheduledExecutor executor = new TrackedScheduledManagedExecutor(createScheduledExecutor(displayName, fixedSize), new ExecutorPolicy.CatchAndRecordFailures());
@@ -19,6 +19,7 @@
 import org.gradle.internal.service.scopes.Scope;
 import org.gradle.internal.service.scopes.ServiceScope;
 
+import javax.annotation.Nullable;
 import java.util.concurrent.TimeUnit;
 
 @ServiceScope(Scope.Global.class)
@@ -60,6 +61,18 @@ public interface ExecutorFactory {
      */
     ManagedThreadPoolExecutor createThreadPool(String displayName, int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit timeUnit);
 
+    /**
+     * Creates an executor which runs each task on a new virtual thread. It is the caller's responsibility to stop the executor.
+     *
+     * Virtual threads are cheap to block, so this executor is intended for actions that spend most of their time waiting on I/O.
+     * The executor will collect failures thrown by actions and rethrow when the executor is stopped.
+     *
+     * @param displayName The display name for this executor. Used for thread names, logging and error message.
+     * @return The executor, or null when the current JVM does not support virtual threads.
+     */
+    @Nullable
+    ManagedExecutor createVirtualThreadExecutor(String displayName);
+
     /**
      * Creates a scheduled executor which can run tasks periodically. It is the caller's responsibility to stop the executor.
      *
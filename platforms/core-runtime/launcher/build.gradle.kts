@@ -49,6 +49,7 @@ dependencies {
     implementation(projects.enterpriseOperations)
     implementation(projects.functional)
     implementation(projects.io)
+    implementation(projects.persistentCache)
     implementation(projects.problemsApi)
     implementation(projects.toolchainsJvmShared)
     implementation(projects.serviceRegistryBuilder)
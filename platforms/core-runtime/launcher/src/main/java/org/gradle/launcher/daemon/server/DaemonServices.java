@@ -19,6 +19,7 @@
 import org.gradle.api.internal.tasks.userinput.UserInputReader;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
+import org.gradle.cache.internal.CrossBuildInMemoryCacheFactory;
 import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.instrumentation.agent.AgentStatus;
@@ -57,14 +58,18 @@
 import org.gradle.launcher.daemon.server.exec.ReturnResult;
 import org.gradle.launcher.daemon.server.exec.StartBuildOrRespondWithBusy;
 import org.gradle.launcher.daemon.server.exec.WatchForDisconnection;
+import org.gradle.launcher.daemon.server.health.CrossBuildInMemoryCacheHeapMemoryHolder;
 import org.gradle.launcher.daemon.server.health.DaemonHealthCheck;
 import org.gradle.launcher.daemon.server.health.DaemonHealthStats;
 import org.gradle.launcher.daemon.server.health.HealthExpirationStrategy;
+import org.gradle.launcher.daemon.server.health.HeapPressureRelief;
+import org.gradle.launcher.daemon.server.health.VirtualFileSystemHeapMemoryHolder;
 import org.gradle.launcher.daemon.server.health.gc.GarbageCollectorMonitoringStrategy;
 import org.gradle.launcher.daemon.server.scaninfo.DaemonScanInfo;
 import org.gradle.launcher.daemon.server.scaninfo.DefaultDaemonScanInfo;
 import org.gradle.launcher.daemon.server.stats.DaemonRunningStats;
 import org.gradle.launcher.exec.BuildExecutor;
+import org.gradle.process.internal.health.memory.MemoryManager;
 import org.gradle.tooling.internal.provider.action.BuildActionSerializer;
 
 import java.io.File;
@@ -130,8 +135,20 @@ protected MasterExpirationStrategy createMasterExpirationStrategy(Daemon daemon,
     }
 
     @Provides
-    protected HealthExpirationStrategy createHealthExpirationStrategy(DaemonHealthStats stats, GarbageCollectorMonitoringStrategy strategy) {
-        return new HealthExpirationStrategy(stats, strategy);
+    protected HealthExpirationStrategy createHealthExpirationStrategy(DaemonHealthStats stats, GarbageCollectorMonitoringStrategy strategy, HeapPressureRelief heapPressureRelief) {
+        return new HealthExpirationStrategy(stats, strategy, heapPressureRelief);
+    }
+
+    @Provides
+    protected HeapPressureRelief createHeapPressureRelief(
+        DaemonHealthStats stats,
+        MemoryManager memoryManager,
+        GradleUserHomeScopeServiceRegistry userHomeServiceRegistry,
+        CrossBuildInMemoryCacheFactory cacheFactory
+    ) {
+        memoryManager.addHeapMemoryHolder(new VirtualFileSystemHeapMemoryHolder(userHomeServiceRegistry));
+        memoryManager.addHeapMemoryHolder(new CrossBuildInMemoryCacheHeapMemoryHolder(cacheFactory));
+        return new HeapPressureRelief(memoryManager, stats);
     }
 
     @Provides
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.launcher.daemon.server.health;
+
+import org.gradle.cache.internal.CrossBuildInMemoryCacheFactory;
+import org.gradle.process.internal.health.memory.HeapMemoryHolder;
+
+/**
+ * Releases the values that cross-build in-memory caches retain from the previous build session.
+ */
+public class CrossBuildInMemoryCacheHeapMemoryHolder implements HeapMemoryHolder {
+    private final CrossBuildInMemoryCacheFactory cacheFactory;
+
+    public CrossBuildInMemoryCacheHeapMemoryHolder(CrossBuildInMemoryCacheFactory cacheFactory) {
+        this.cacheFactory = cacheFactory;
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.IN_MEMORY_CACHES;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "cross-build in-memory caches";
+    }
+
+    @Override
+    public void releaseHeapMemory() {
+        cacheFactory.discardValuesRetainedFromPreviousSession();
+    }
+}
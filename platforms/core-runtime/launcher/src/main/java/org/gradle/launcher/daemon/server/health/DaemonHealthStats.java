@@ -30,7 +30,9 @@
 import org.gradle.launcher.daemon.server.health.gc.GarbageCollectorMonitoringStrategy;
 import org.gradle.launcher.daemon.server.stats.DaemonRunningStats;
 
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import static java.lang.String.format;
 
@@ -41,6 +43,7 @@ public class DaemonHealthStats implements Stoppable {
     private final ManagedScheduledExecutor scheduler;
     private final GarbageCollectionInfo gcInfo;
     private GarbageCollectionMonitor gcMonitor;
+    private final Map<String, Long> reclaimedHeapBytes = new LinkedHashMap<>();
 
     public DaemonHealthStats(DaemonRunningStats runningStats, GarbageCollectorMonitoringStrategy strategy, ExecutorFactory executorFactory) {
         this.runningStats = runningStats;
@@ -77,6 +80,24 @@ public GarbageCollectionStats getNonHeapStats() {
         return gcMonitor.getNonHeapStats();
     }
 
+    /**
+     * Records an estimate of the heap memory reclaimed by asking the given holder to release its retained state.
+     */
+    public void recordReclaimedHeap(String holderDisplayName, long bytes) {
+        synchronized (reclaimedHeapBytes) {
+            reclaimedHeapBytes.merge(holderDisplayName, bytes, Long::sum);
+        }
+    }
+
+    /**
+     * The estimated heap memory reclaimed so far, per holder that was asked to release its retained state.
+     */
+    public Map<String, Long> getReclaimedHeap() {
+        synchronized (reclaimedHeapBytes) {
+            return new LinkedHashMap<>(reclaimedHeapBytes);
+        }
+    }
+
     /**
      * Elegant description of daemon's health
      */
@@ -94,6 +115,15 @@ public String getHealthInfo() {
         if (nonHeapStats.isValid()) {
             message.append(format(", non-heap usage: %s%% of %s", nonHeapStats.getUsedPercent(), NumberUtil.formatBytes(nonHeapStats.getMaxSizeInBytes())));
         }
+
+        Map<String, Long> reclaimedHeap = getReclaimedHeap();
+        if (!reclaimedHeap.isEmpty()) {
+            message.append(", heap reclaimed:");
+            for (Map.Entry<String, Long> entry : reclaimedHeap.entrySet()) {
+                message.append(format(" %s from %s;", NumberUtil.formatBytes(entry.getValue()), entry.getKey()));
+            }
+            message.setLength(message.length() - 1);
+        }
         message.append("]");
 
         return message.toString();
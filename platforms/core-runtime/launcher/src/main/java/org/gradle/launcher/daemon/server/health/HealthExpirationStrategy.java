@@ -29,6 +29,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.Lock;
@@ -42,8 +43,10 @@
 /**
  * A {@link DaemonExpirationStrategy} which monitors daemon health and expires the daemon
  * whenever unhealthy conditions are detected. Currently, this strategy monitors JVM memory
- * health by detecting GC thrashing and excessive heap or metaspace usage. In addition to
- * expiring the daemon, whenever unhealthy conditions are detected, this strategy will
+ * health by detecting GC thrashing and excessive heap or metaspace usage. When the heap is
+ * running low but the garbage collector is not yet thrashing, the strategy first asks the
+ * {@link HeapPressureRelief} to release retained state, and only expires the daemon once there
+ * is nothing left to release. In addition to expiring the daemon, whenever unhealthy conditions are detected, this strategy will
  * print a warning log to the console informing the user of the issue and instructing them
  * on how to adjust daemon memory settings.
  */
@@ -77,15 +80,26 @@ public class HealthExpirationStrategy implements DaemonExpirationStrategy {
 
     private final DaemonHealthStats stats;
     private final GarbageCollectorMonitoringStrategy strategy;
+    @Nullable
+    private final HeapPressureRelief heapPressureRelief;
     private final Logger logger;
 
     public HealthExpirationStrategy(DaemonHealthStats stats, GarbageCollectorMonitoringStrategy strategy) {
-        this(stats, strategy, LoggerFactory.getLogger(HealthExpirationStrategy.class));
+        this(stats, strategy, null);
+    }
+
+    public HealthExpirationStrategy(DaemonHealthStats stats, GarbageCollectorMonitoringStrategy strategy, @Nullable HeapPressureRelief heapPressureRelief) {
+        this(stats, strategy, heapPressureRelief, LoggerFactory.getLogger(HealthExpirationStrategy.class));
     }
 
     HealthExpirationStrategy(DaemonHealthStats stats, GarbageCollectorMonitoringStrategy strategy, Logger logger) {
+        this(stats, strategy, null, logger);
+    }
+
+    HealthExpirationStrategy(DaemonHealthStats stats, GarbageCollectorMonitoringStrategy strategy, @Nullable HeapPressureRelief heapPressureRelief, Logger logger) {
         this.stats = stats;
         this.strategy = strategy;
+        this.heapPressureRelief = heapPressureRelief;
         this.logger = logger;
     }
 
@@ -107,9 +121,13 @@ public DaemonExpirationResult checkExpiration() {
                 reasons.add("since the JVM garbage collector is thrashing");
                 expirationStatus = highestPriorityOf(IMMEDIATE_EXPIRE, expirationStatus);
             } else if (strategy.isAboveGcRateThreshold(heapStats.getGcRate())) {
-                reasons.add("after running out of JVM heap space");
-                expirationStatus = highestPriorityOf(GRACEFUL_EXPIRE, expirationStatus);
+                if (heapPressureRelief == null || !heapPressureRelief.relieve(heapStats)) {
+                    reasons.add("after running out of JVM heap space");
+                    expirationStatus = highestPriorityOf(GRACEFUL_EXPIRE, expirationStatus);
+                }
             }
+        } else if (heapPressureRelief != null && heapStats.isValid()) {
+            heapPressureRelief.onHealthyHeap(heapStats);
         }
 
         GarbageCollectionStats nonHeapStats = stats.getNonHeapStats();
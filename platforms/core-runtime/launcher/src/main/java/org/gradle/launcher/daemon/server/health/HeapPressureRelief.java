@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.launcher.daemon.server.health;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+import org.gradle.internal.time.Clock;
+import org.gradle.internal.time.Time;
+import org.gradle.internal.util.NumberUtil;
+import org.gradle.launcher.daemon.server.health.gc.GarbageCollectionStats;
+import org.gradle.process.internal.health.memory.HeapMemoryHolder;
+import org.gradle.process.internal.health.memory.MemoryManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relieves heap pressure by asking the {@link HeapMemoryHolder}s registered with the {@link MemoryManager} to release their state,
+ * one at a time and in order, so that the daemon can keep most of its warm state instead of being expired.
+ *
+ * <p>The heap memory reclaimed by each holder is estimated from the drop in average heap usage once the release has had time to
+ * show up in the garbage collection statistics, and is recorded in {@link DaemonHealthStats}.</p>
+ */
+@ServiceScope(Scope.Global.class)
+public class HeapPressureRelief {
+
+    /**
+     * A system property which disables releasing heap memory before expiring the daemon. Defaults to false.
+     */
+    public static final String DISABLE_HEAP_PRESSURE_RELIEF = "org.gradle.daemon.performance.disable-heap-pressure-relief";
+
+    /**
+     * How long to wait after a release before judging its effect. Long enough for the sliding window of garbage collection events to catch up.
+     */
+    private static final long SETTLE_TIME_MILLIS = TimeUnit.SECONDS.toMillis(20);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HeapPressureRelief.class);
+
+    private final MemoryManager memoryManager;
+    private final DaemonHealthStats stats;
+    private final Clock clock;
+    private final Set<HeapMemoryHolder> released = new HashSet<>();
+    @Nullable
+    private HeapMemoryHolder lastReleased;
+    private long usedBeforeLastRelease;
+    private long lastReleaseTime;
+
+    public HeapPressureRelief(MemoryManager memoryManager, DaemonHealthStats stats) {
+        this(memoryManager, stats, Time.clock());
+    }
+
+    @VisibleForTesting
+    HeapPressureRelief(MemoryManager memoryManager, DaemonHealthStats stats, Clock clock) {
+        this.memoryManager = memoryManager;
+        this.stats = stats;
+        this.clock = clock;
+    }
+
+    /**
+     * Called when the heap is running low. Asks the next holder to release its state, unless the previous release is still settling.
+     *
+     * @return true when memory has been or is being released, false when there is nothing left to release and the daemon should be expired.
+     */
+    public synchronized boolean relieve(GarbageCollectionStats heapStats) {
+        if (Boolean.getBoolean(DISABLE_HEAP_PRESSURE_RELIEF)) {
+            return false;
+        }
+        if (lastReleased != null) {
+            if (clock.getCurrentTime() - lastReleaseTime < SETTLE_TIME_MILLIS) {
+                return true;
+            }
+            recordReclaimed(heapStats);
+        }
+
+        for (HeapMemoryHolder holder : memoryManager.getHeapMemoryHolders()) {
+            if (released.add(holder)) {
+                LOGGER.info("The Daemon is running low on heap space, releasing {}. Daemon health: {}", holder.getDisplayName(), stats.getHealthInfo());
+                lastReleased = holder;
+                usedBeforeLastRelease = heapStats.getUsedSizeInBytes();
+                lastReleaseTime = clock.getCurrentTime();
+                holder.releaseHeapMemory();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Called when the heap is healthy. Holders that have already released their state may be asked again the next time the heap runs low.
+     */
+    public synchronized void onHealthyHeap(GarbageCollectionStats heapStats) {
+        if (lastReleased != null) {
+            if (clock.getCurrentTime() - lastReleaseTime < SETTLE_TIME_MILLIS) {
+                return;
+            }
+            recordReclaimed(heapStats);
+        }
+        released.clear();
+    }
+
+    private void recordReclaimed(GarbageCollectionStats heapStats) {
+        long reclaimed = Math.max(0, usedBeforeLastRelease - heapStats.getUsedSizeInBytes());
+        LOGGER.info("Releasing {} reclaimed approximately {} of heap space", lastReleased.getDisplayName(), NumberUtil.formatBytes(reclaimed));
+        stats.recordReclaimedHeap(lastReleased.getDisplayName(), reclaimed);
+        lastReleased = null;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.launcher.daemon.server.health;
+
+import org.gradle.internal.service.scopes.GradleUserHomeScopeServiceRegistry;
+import org.gradle.internal.vfs.VirtualFileSystem;
+import org.gradle.process.internal.health.memory.HeapMemoryHolder;
+
+/**
+ * Releases the file system state retained by the virtual file system of the current Gradle user home.
+ * The state is recreated from the file system the next time it is queried.
+ */
+public class VirtualFileSystemHeapMemoryHolder implements HeapMemoryHolder {
+    private final GradleUserHomeScopeServiceRegistry userHomeServiceRegistry;
+
+    public VirtualFileSystemHeapMemoryHolder(GradleUserHomeScopeServiceRegistry userHomeServiceRegistry) {
+        this.userHomeServiceRegistry = userHomeServiceRegistry;
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.FILE_SYSTEM_STATE;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "virtual file system";
+    }
+
+    @Override
+    public void releaseHeapMemory() {
+        userHomeServiceRegistry.getCurrentServices().ifPresent(serviceRegistry -> {
+            VirtualFileSystem virtualFileSystem = serviceRegistry.get(VirtualFileSystem.class);
+            virtualFileSystem.invalidateAll();
+        });
+    }
+}
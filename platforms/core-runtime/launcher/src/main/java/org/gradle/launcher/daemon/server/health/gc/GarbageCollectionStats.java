@@ -25,6 +25,7 @@
 public class GarbageCollectionStats {
     private final double gcRate;
     private final int usedPercent;
+    private final long usedSizeInBytes;
     private final long maxSizeInBytes;
     private final long eventCount;
 
@@ -35,6 +36,7 @@ private GarbageCollectionStats(double gcRate, long usedSizeInBytes, long maxSize
         } else {
             this.usedPercent = 0;
         }
+        this.usedSizeInBytes = usedSizeInBytes;
         this.maxSizeInBytes = maxSizeInBytes;
         this.eventCount = eventCount;
     }
@@ -108,6 +110,13 @@ public int getUsedPercent() {
         return usedPercent;
     }
 
+    /**
+     * @return the average used size over the window of observed events
+     */
+    public long getUsedSizeInBytes() {
+        return usedSizeInBytes;
+    }
+
     public long getMaxSizeInBytes() {
         return maxSizeInBytes;
     }
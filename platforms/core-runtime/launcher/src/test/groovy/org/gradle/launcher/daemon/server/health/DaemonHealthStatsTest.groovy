@@ -55,4 +55,20 @@ class DaemonHealthStatsTest extends Specification {
         healthStats.healthInfo == "[uptime: 3 mins, performance: 98%]"
     }
 
+    def "includes heap reclaimed per holder when present"() {
+        when:
+        gcInfo.getCollectionTime() >> 25
+        runningStats.getPrettyUpTime() >> "3 mins"
+        runningStats.getAllBuildsTime() >> 1000
+        gcMonitor.getHeapStats() >> GarbageCollectionStats.noData()
+        gcMonitor.getNonHeapStats() >> GarbageCollectionStats.noData()
+
+        healthStats.recordReclaimedHeap("virtual file system", 2048)
+        healthStats.recordReclaimedHeap("in-memory caches", 1024)
+        healthStats.recordReclaimedHeap("virtual file system", 1024)
+
+        then:
+        healthStats.reclaimedHeap == ["virtual file system": 3072L, "in-memory caches": 1024L]
+        healthStats.healthInfo == "[uptime: 3 mins, performance: 98%, heap reclaimed: 3 KiB from virtual file system; 1 KiB from in-memory caches]"
+    }
 }
@@ -97,6 +97,48 @@ class HealthExpirationStrategyTest extends Specification {
         result.reason == "after running out of JVM heap space"
     }
 
+    def "heap pressure is relieved before the daemon is expired when heap space is low" () {
+        given:
+        def heapPressureRelief = Mock(HeapPressureRelief)
+        def underTest = new HealthExpirationStrategy(
+            health(aboveHeapThreshold, belowThreshold),
+            strategy,
+            heapPressureRelief
+        )
+
+        when:
+        DaemonExpirationResult result = underTest.checkExpiration()
+
+        then:
+        1 * heapPressureRelief.relieve(aboveHeapThreshold) >> true
+        result == DaemonExpirationResult.NOT_TRIGGERED
+
+        when:
+        result = underTest.checkExpiration()
+
+        then:
+        1 * heapPressureRelief.relieve(aboveHeapThreshold) >> false
+        result.status == GRACEFUL_EXPIRE
+        result.reason == "after running out of JVM heap space"
+    }
+
+    def "heap pressure relief is not attempted when garbage collector is thrashing" () {
+        given:
+        def heapPressureRelief = Mock(HeapPressureRelief)
+        def underTest = new HealthExpirationStrategy(
+            health(aboveThrashingThreshold, belowThreshold),
+            strategy,
+            heapPressureRelief
+        )
+
+        when:
+        DaemonExpirationResult result = underTest.checkExpiration()
+
+        then:
+        0 * heapPressureRelief._
+        result.status == IMMEDIATE_EXPIRE
+    }
+
     def "daemon is expired when metaspace is low" () {
         given:
         def underTest = new HealthExpirationStrategy(
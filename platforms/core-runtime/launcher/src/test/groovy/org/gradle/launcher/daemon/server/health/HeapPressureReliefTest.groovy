@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.launcher.daemon.server.health
+
+import org.gradle.internal.time.Clock
+import org.gradle.launcher.daemon.server.health.gc.GarbageCollectionStats
+import org.gradle.process.internal.health.memory.HeapMemoryHolder
+import org.gradle.process.internal.health.memory.MemoryManager
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
+import spock.lang.Specification
+
+class HeapPressureReliefTest extends Specification {
+
+    @Rule
+    SetSystemProperties props = new SetSystemProperties()
+
+    def fileSystemState = holder("file system state")
+    def caches = holder("caches")
+    def memoryManager = Stub(MemoryManager) {
+        getHeapMemoryHolders() >> [fileSystemState, caches]
+    }
+    def stats = Mock(DaemonHealthStats)
+    def time = 0L
+    def clock = Stub(Clock) {
+        getCurrentTime() >> { time }
+    }
+    def relief = new HeapPressureRelief(memoryManager, stats, clock)
+
+    def "releases one holder at a time in order and expires once all holders have been released"() {
+        when:
+        def relieved = relief.relieve(heap(900))
+
+        then:
+        relieved
+        1 * fileSystemState.releaseHeapMemory()
+        0 * caches.releaseHeapMemory()
+
+        when:
+        time += 1000
+        relieved = relief.relieve(heap(900))
+
+        then:
+        relieved
+        0 * fileSystemState.releaseHeapMemory()
+        0 * caches.releaseHeapMemory()
+
+        when:
+        time += 60000
+        relieved = relief.relieve(heap(700))
+
+        then:
+        relieved
+        1 * stats.recordReclaimedHeap("file system state", 200)
+        1 * caches.releaseHeapMemory()
+
+        when:
+        time += 60000
+        relieved = relief.relieve(heap(750))
+
+        then:
+        !relieved
+        1 * stats.recordReclaimedHeap("caches", 0)
+        0 * fileSystemState.releaseHeapMemory()
+        0 * caches.releaseHeapMemory()
+    }
+
+    def "holders are released again after the heap has recovered"() {
+        given:
+        relief.relieve(heap(900))
+        time += 60000
+        relief.onHealthyHeap(heap(400))
+
+        when:
+        def relieved = relief.relieve(heap(900))
+
+        then:
+        relieved
+        1 * fileSystemState.releaseHeapMemory()
+    }
+
+    def "can disable heap pressure relief"() {
+        given:
+        System.setProperty(HeapPressureRelief.DISABLE_HEAP_PRESSURE_RELIEF, "true")
+
+        when:
+        def relieved = relief.relieve(heap(900))
+
+        then:
+        !relieved
+        0 * fileSystemState.releaseHeapMemory()
+    }
+
+    HeapMemoryHolder holder(String displayName) {
+        return Mock(HeapMemoryHolder) {
+            getDisplayName() >> displayName
+        }
+    }
+
+    GarbageCollectionStats heap(long usedBytes) {
+        return Stub(GarbageCollectionStats) {
+            getUsedSizeInBytes() >> usedBytes
+            isValid() >> true
+        }
+    }
+}
@@ -26,6 +26,7 @@
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -47,6 +48,7 @@ public class DefaultMemoryManager implements MemoryManager, Stoppable {
     private final Object holdersLock = new Object();
     private final Object memoryLock = new Object();
     private final List<MemoryHolder> holders = new ArrayList<MemoryHolder>();
+    private final List<HeapMemoryHolder> heapHolders = new ArrayList<HeapMemoryHolder>();
     private OsMemoryStatus currentOsMemoryStatus;
     private final OsMemoryStatusListener osMemoryStatusListener;
 
@@ -197,6 +199,31 @@ public void removeMemoryHolder(MemoryHolder holder) {
         }
     }
 
+    @Override
+    public void addHeapMemoryHolder(HeapMemoryHolder holder) {
+        synchronized (holdersLock) {
+            heapHolders.add(holder);
+        }
+    }
+
+    @Override
+    public void removeHeapMemoryHolder(HeapMemoryHolder holder) {
+        synchronized (holdersLock) {
+            heapHolders.remove(holder);
+        }
+    }
+
+    @Override
+    public List<HeapMemoryHolder> getHeapMemoryHolders() {
+        List<HeapMemoryHolder> heapMemoryHolders;
+        synchronized (holdersLock) {
+            heapMemoryHolders = new ArrayList<HeapMemoryHolder>(heapHolders);
+        }
+        // Stable sort, so holders of the same kind are asked in registration order
+        heapMemoryHolders.sort(Comparator.comparing(HeapMemoryHolder::getKind));
+        return heapMemoryHolders;
+    }
+
     @Override
     public void addListener(JvmMemoryStatusListener listener) {
         listenerManager.addListener(listener);
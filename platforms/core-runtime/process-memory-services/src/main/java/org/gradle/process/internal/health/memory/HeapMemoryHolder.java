@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.process.internal.health.memory;
+
+/**
+ * Holds on to state in the JVM heap that can be recreated, such as a cache retained across builds.
+ *
+ * When the heap is running low, holders are asked to release their state one at a time, in the order of their {@link Kind}, before more drastic measures are taken.
+ */
+public interface HeapMemoryHolder {
+
+    /**
+     * The kinds of heap memory holders, in the order in which they are asked to release memory.
+     */
+    enum Kind {
+        FILE_SYSTEM_STATE,
+        IN_MEMORY_CACHES,
+        CLASS_LOADERS,
+        COMPILED_SCRIPTS
+    }
+
+    Kind getKind();
+
+    String getDisplayName();
+
+    /**
+     * Release as much of the retained state as possible, so that it can be garbage collected.
+     *
+     * This may be called while a build is running.
+     */
+    void releaseHeapMemory();
+}
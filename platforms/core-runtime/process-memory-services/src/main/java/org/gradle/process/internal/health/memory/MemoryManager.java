@@ -19,6 +19,8 @@
 import org.gradle.internal.service.scopes.Scope;
 import org.gradle.internal.service.scopes.ServiceScope;
 
+import java.util.List;
+
 @ServiceScope(Scope.Global.class)
 public interface MemoryManager {
 
@@ -53,4 +55,23 @@ public interface MemoryManager {
      * @param memoryAmountBytes The requested amount of memory in bytes. If negative, {@literal 0} is assumed.
      */
     void requestFreeMemory(long memoryAmountBytes);
+
+    /**
+     * Register a heap memory holder.
+     *
+     * @param holder The heap memory holder to register
+     */
+    void addHeapMemoryHolder(HeapMemoryHolder holder);
+
+    /**
+     * Unregister a heap memory holder.
+     *
+     * @param holder The heap memory holder to unregister
+     */
+    void removeHeapMemoryHolder(HeapMemoryHolder holder);
+
+    /**
+     * Returns the registered heap memory holders, in the order in which they should be asked to release memory.
+     */
+    List<HeapMemoryHolder> getHeapMemoryHolders();
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.serialize.nio;
+
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.FlushableEncoder;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Kryo backed encoder and decoder with the {@link ByteBuffer} backed ones,
+ * for a payload that resembles what the configuration cache and the persistent caches write:
+ * paths, names, small ints, longs and booleans.
+ *
+ * Run with {@code -prof gc} to compare the allocation rates.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class EncoderBenchmark {
+
+    private static final int RECORDS = 10_000;
+
+    @Param({"kryo", "bytebuffer"})
+    String implementation;
+
+    private String[] paths;
+    private String[] names;
+    private int[] ints;
+    private long[] longs;
+
+    private FlushableEncoder encoder;
+    private byte[] encoded;
+    private ByteBuffer encodedBuffer;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        paths = new String[RECORDS];
+        names = new String[RECORDS];
+        ints = new int[RECORDS];
+        longs = new long[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            paths[i] = "/home/user/build/project" + random.nextInt(100) + "/src/main/java/org/example/File" + i + ".java";
+            names[i] = "compile" + random.nextInt(20) + "Java";
+            ints[i] = random.nextInt(1000);
+            longs[i] = random.nextLong();
+        }
+        encoder = encoderFor(DISCARD);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        FlushableEncoder bytesEncoder = encoderFor(bytes);
+        write(bytesEncoder);
+        bytesEncoder.flush();
+        encoded = bytes.toByteArray();
+        encodedBuffer = ByteBuffer.allocateDirect(encoded.length);
+        encodedBuffer.put(encoded).flip();
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        write(encoder);
+        encoder.flush();
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) throws IOException {
+        Decoder decoder = implementation.equals("kryo")
+            ? new KryoBackedDecoder(new ByteArrayInputStream(encoded))
+            : new ByteBufferBackedDecoder(encodedBuffer.duplicate());
+        for (int i = 0; i < RECORDS; i++) {
+            blackhole.consume(decoder.readString());
+            blackhole.consume(decoder.readString());
+            blackhole.consume(decoder.readSmallInt());
+            blackhole.consume(decoder.readLong());
+            blackhole.consume(decoder.readBoolean());
+        }
+    }
+
+    private void write(Encoder encoder) throws IOException {
+        for (int i = 0; i < RECORDS; i++) {
+            encoder.writeString(paths[i]);
+            encoder.writeString(names[i]);
+            encoder.writeSmallInt(ints[i]);
+            encoder.writeLong(longs[i]);
+            encoder.writeBoolean((i & 1) == 0);
+        }
+    }
+
+    private FlushableEncoder encoderFor(OutputStream outputStream) {
+        if (implementation.equals("kryo")) {
+            return new KryoBackedEncoder(outputStream, 64 * 1024);
+        }
+        return new ByteBufferBackedEncoder(outputStream == DISCARD ? DISCARD_CHANNEL : Channels.newChannel(outputStream));
+    }
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private static final WritableByteChannel DISCARD_CHANNEL = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer src) {
+            int length = src.remaining();
+            src.position(src.limit());
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+}
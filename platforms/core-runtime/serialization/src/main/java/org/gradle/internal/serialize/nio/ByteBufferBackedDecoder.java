@@ -0,0 +1,324 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.serialize.nio;
+
+import org.gradle.internal.serialize.AbstractDecoder;
+import org.gradle.internal.serialize.Decoder;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A decoder that reads what {@link ByteBufferBackedEncoder} writes from a {@link ByteBuffer}.
+ *
+ * <p>The buffer is either the whole content, for example a file mapped to memory, or is refilled from a blocking channel.
+ * The buffer is used as is, so that reading primitives does not allocate, and reading a string only allocates the string.</p>
+ */
+public class ByteBufferBackedDecoder extends AbstractDecoder implements Decoder, Closeable {
+    @Nullable
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private long consumed;
+    private char[] chars = new char[256];
+    private ByteBufferBackedDecoder nested;
+    private int nestedChunkRemaining;
+
+    /**
+     * Creates a decoder for the content of the given buffer, from its position to its limit.
+     */
+    public ByteBufferBackedDecoder(ByteBuffer content) {
+        this.channel = null;
+        this.buffer = content;
+        this.consumed = -content.position();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    public ByteBufferBackedDecoder(ReadableByteChannel channel) {
+        this(channel, ByteBuffer.allocateDirect(ByteBufferBackedEncoder.DEFAULT_BUFFER_SIZE));
+    }
+
+    public ByteBufferBackedDecoder(ReadableByteChannel channel, ByteBuffer buffer) {
+        if (buffer.capacity() < ByteBufferBackedEncoder.MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer capacity must be at least " + ByteBufferBackedEncoder.MIN_BUFFER_SIZE + " bytes.");
+        }
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.clear();
+        buffer.flip();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    @Override
+    protected int maybeReadBytes(byte[] bytes, int offset, int count) throws IOException {
+        if (count == 0) {
+            return 0;
+        }
+        if (!fill(1)) {
+            return -1;
+        }
+        int length = Math.min(count, buffer.remaining());
+        buffer.get(bytes, offset, length);
+        return length;
+    }
+
+    @Override
+    protected long maybeSkip(long count) throws IOException {
+        if (!fill(1)) {
+            return 0;
+        }
+        int length = (int) Math.min(count, buffer.remaining());
+        buffer.position(buffer.position() + length);
+        return length;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        require(1);
+        return buffer.get();
+    }
+
+    @Override
+    public void readBytes(byte[] bytes, int offset, int count) throws IOException {
+        int position = offset;
+        int remaining = count;
+        while (remaining > 0) {
+            int length = maybeReadBytes(bytes, position, remaining);
+            if (length < 0) {
+                throw new EOFException();
+            }
+            position += length;
+            remaining -= length;
+        }
+    }
+
+    private int readBytes(ByteBuffer bytes) throws IOException {
+        if (!fill(1)) {
+            return -1;
+        }
+        int length = Math.min(bytes.remaining(), buffer.remaining());
+        int limit = buffer.limit();
+        buffer.limit(buffer.position() + length);
+        bytes.put(buffer);
+        buffer.limit(limit);
+        return length;
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        require(8);
+        return buffer.getLong();
+    }
+
+    @Override
+    public long readSmallLong() throws IOException {
+        // Only check for the end of the content once when the longest value is buffered
+        boolean buffered = buffer.remaining() >= 10;
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffered ? buffer.get() : readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed small long.");
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        require(4);
+        return buffer.getInt();
+    }
+
+    @Override
+    public int readSmallInt() throws IOException {
+        boolean buffered = buffer.remaining() >= 5;
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffered ? buffer.get() : readByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed small int.");
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        require(2);
+        return buffer.getShort();
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        require(4);
+        return buffer.getFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        require(8);
+        return buffer.getDouble();
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    @Override
+    public String readString() throws IOException {
+        return readNullableString();
+    }
+
+    @Nullable
+    @Override
+    public String readNullableString() throws IOException {
+        int lengthPlusOne = readSmallInt();
+        if (lengthPlusOne == 0) {
+            return null;
+        }
+        int length = lengthPlusOne - 1;
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            int b = readByte() & 0xFF;
+            if (b < 0x80) {
+                chars[i] = (char) b;
+            } else if (b < 0xE0) {
+                chars[i] = (char) (((b & 0x1F) << 6) | (readByte() & 0x3F));
+            } else {
+                chars[i] = (char) (((b & 0x0F) << 12) | ((readByte() & 0x3F) << 6) | (readByte() & 0x3F));
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+    @Override
+    public void skipChunked() throws IOException {
+        while (true) {
+            int count = readSmallInt();
+            if (count == 0) {
+                break;
+            }
+            skipBytes(count);
+        }
+    }
+
+    @Override
+    public <T> T decodeChunked(DecodeAction<Decoder, T> decodeAction) throws Exception {
+        if (nested == null) {
+            nested = new ByteBufferBackedDecoder(new ReadableByteChannel() {
+                @Override
+                public int read(ByteBuffer chunk) throws IOException {
+                    if (nestedChunkRemaining == 0) {
+                        nestedChunkRemaining = readSmallInt();
+                        if (nestedChunkRemaining == 0) {
+                            // End of stream has been reached
+                            return -1;
+                        }
+                    }
+                    int limit = chunk.limit();
+                    chunk.limit(chunk.position() + Math.min(chunk.remaining(), nestedChunkRemaining));
+                    try {
+                        int length = readBytes(chunk);
+                        if (length < 0) {
+                            throw new EOFException();
+                        }
+                        nestedChunkRemaining -= length;
+                        return length;
+                    } finally {
+                        chunk.limit(limit);
+                    }
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return true;
+                }
+
+                @Override
+                public void close() {
+                }
+            }, ByteBuffer.allocate(4096));
+        }
+        nested.restart();
+        nestedChunkRemaining = 0;
+        T value = decodeAction.read(nested);
+        if (readSmallInt() != 0) {
+            throw new IllegalStateException("Expecting the end of nested stream.");
+        }
+        return value;
+    }
+
+    /**
+     * Returns the total number of bytes consumed by this decoder. Some additional bytes may also be buffered by this decoder but have not been consumed.
+     */
+    public long getReadPosition() {
+        return consumed + buffer.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void restart() {
+        buffer.clear();
+        buffer.flip();
+        consumed = 0;
+    }
+
+    private void require(int count) throws IOException {
+        if (!fill(count)) {
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * Makes sure at least the given number of bytes are buffered, unless the end of the content is reached first.
+     */
+    private boolean fill(int count) throws IOException {
+        if (buffer.remaining() >= count) {
+            return true;
+        }
+        if (channel == null) {
+            return false;
+        }
+        consumed += buffer.position();
+        buffer.compact();
+        try {
+            while (buffer.position() < count) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+        return buffer.remaining() >= count;
+    }
+}
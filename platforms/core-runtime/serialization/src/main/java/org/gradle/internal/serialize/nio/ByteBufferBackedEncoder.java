@@ -0,0 +1,248 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.serialize.nio;
+
+import org.gradle.internal.serialize.AbstractEncoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.FlushableEncoder;
+import org.gradle.internal.serialize.PositionAwareEncoder;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * An encoder that writes to a {@link ByteBuffer}, which is drained to a blocking channel whenever it is full.
+ *
+ * <p>The buffer can be direct or pooled, and is used as is, so that writing primitives and strings does not allocate.
+ * Fixed size values are written big-endian, and small ints and longs as variable length values, as {@link org.gradle.internal.serialize.kryo.KryoBackedEncoder} does.
+ * Strings are written as their length followed by their characters, each character using from 1 to 3 bytes.
+ * The format is only meant to be read by {@link ByteBufferBackedDecoder}.</p>
+ */
+public class ByteBufferBackedEncoder extends AbstractEncoder implements PositionAwareEncoder, FlushableEncoder, Closeable {
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    static final int MIN_BUFFER_SIZE = 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private long drained;
+    private ByteBufferBackedEncoder nested;
+
+    public ByteBufferBackedEncoder(WritableByteChannel channel) {
+        this(channel, ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE));
+    }
+
+    public ByteBufferBackedEncoder(WritableByteChannel channel, ByteBuffer buffer) {
+        if (buffer.capacity() < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer capacity must be at least " + MIN_BUFFER_SIZE + " bytes.");
+        }
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.clear();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    @Override
+    public void writeByte(byte value) throws IOException {
+        require(1);
+        buffer.put(value);
+    }
+
+    @Override
+    public void writeBytes(byte[] bytes, int offset, int count) throws IOException {
+        int position = offset;
+        int remaining = count;
+        while (remaining > 0) {
+            require(1);
+            int length = Math.min(remaining, buffer.remaining());
+            buffer.put(bytes, position, length);
+            position += length;
+            remaining -= length;
+        }
+    }
+
+    private void writeBytes(ByteBuffer bytes) throws IOException {
+        int limit = bytes.limit();
+        while (bytes.hasRemaining()) {
+            require(1);
+            bytes.limit(bytes.position() + Math.min(bytes.remaining(), buffer.remaining()));
+            buffer.put(bytes);
+            bytes.limit(limit);
+        }
+    }
+
+    @Override
+    public void writeLong(long value) throws IOException {
+        require(8);
+        buffer.putLong(value);
+    }
+
+    @Override
+    public void writeSmallLong(long value) throws IOException {
+        require(10);
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    @Override
+    public void writeInt(int value) throws IOException {
+        require(4);
+        buffer.putInt(value);
+    }
+
+    @Override
+    public void writeSmallInt(int value) throws IOException {
+        require(5);
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    @Override
+    public void writeShort(short value) throws IOException {
+        require(2);
+        buffer.putShort(value);
+    }
+
+    @Override
+    public void writeFloat(float value) throws IOException {
+        require(4);
+        buffer.putFloat(value);
+    }
+
+    @Override
+    public void writeDouble(double value) throws IOException {
+        require(8);
+        buffer.putDouble(value);
+    }
+
+    @Override
+    public void writeBoolean(boolean value) throws IOException {
+        require(1);
+        buffer.put(value ? (byte) 1 : (byte) 0);
+    }
+
+    @Override
+    public void writeString(CharSequence value) throws IOException {
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot encode a null string.");
+        }
+        writeNullableString(value);
+    }
+
+    @Override
+    public void writeNullableString(@Nullable CharSequence value) throws IOException {
+        if (value == null) {
+            writeSmallInt(0);
+            return;
+        }
+        int length = value.length();
+        writeSmallInt(length + 1);
+        for (int i = 0; i < length; i++) {
+            require(3);
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    @Override
+    public void encodeChunked(EncodeAction<Encoder> writeAction) throws Exception {
+        if (nested == null) {
+            nested = new ByteBufferBackedEncoder(new WritableByteChannel() {
+                @Override
+                public int write(ByteBuffer chunk) throws IOException {
+                    int length = chunk.remaining();
+                    if (length > 0) {
+                        writeSmallInt(length);
+                        writeBytes(chunk);
+                    }
+                    return length;
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return true;
+                }
+
+                @Override
+                public void close() {
+                }
+            }, ByteBuffer.allocate(4096));
+        }
+        writeAction.write(nested);
+        nested.flush();
+        writeSmallInt(0);
+    }
+
+    /**
+     * Returns the total number of bytes written by this encoder, some of which may still be buffered.
+     */
+    @Override
+    public long getWritePosition() {
+        return drained + buffer.position();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void require(int count) throws IOException {
+        if (buffer.remaining() < count) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                drained += channel.write(buffer);
+            }
+        } finally {
+            buffer.compact();
+        }
+    }
+}
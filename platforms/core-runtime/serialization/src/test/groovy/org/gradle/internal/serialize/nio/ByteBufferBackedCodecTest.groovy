@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.serialize.nio
+
+import org.gradle.internal.serialize.AbstractCodecTest
+import org.gradle.internal.serialize.Decoder
+import org.gradle.internal.serialize.Encoder
+
+import java.nio.ByteBuffer
+import java.nio.channels.Channels
+
+class ByteBufferBackedCodecTest extends AbstractCodecTest {
+    @Override
+    void encodeTo(OutputStream outputStream, Closure<Encoder> closure) {
+        def encoder = new ByteBufferBackedEncoder(Channels.newChannel(outputStream), ByteBuffer.allocate(16))
+        closure.call(encoder)
+        encoder.flush()
+    }
+
+    @Override
+    void decodeFrom(InputStream inputStream, Closure<Decoder> closure) {
+        def decoder = new ByteBufferBackedDecoder(Channels.newChannel(inputStream), ByteBuffer.allocate(16))
+        closure.call(decoder)
+    }
+
+    def "can decode from a buffer that holds the whole content"() {
+        given:
+        def bytes = encode { Encoder encoder ->
+            encoder.writeSmallInt(12)
+            encoder.writeString("\u0000\u0101\u3100")
+            encoder.writeLong(1234)
+        }
+        def content = ByteBuffer.allocateDirect(bytes.length + 2)
+        content.put([1, 2] as byte[]).put(bytes).flip().position(2)
+
+        when:
+        def decoder = new ByteBufferBackedDecoder(content)
+
+        then:
+        decoder.readSmallInt() == 12
+        decoder.readString() == "\u0000\u0101\u3100"
+        decoder.readLong() == 1234
+        decoder.readPosition == bytes.length
+
+        when:
+        decoder.readByte()
+
+        then:
+        thrown(EOFException)
+    }
+
+    def "can encode and decode byte stream"() {
+        when:
+        def bytes = encode { Encoder encoder ->
+            encoder.encodeChunked { Encoder nested ->
+                nested.writeSmallInt(12)
+                nested.writeString((0..100).join("-"))
+            }
+            encoder.encodeChunked {}
+            encoder.writeString("done")
+        }
+
+        then:
+        decode(bytes) { Decoder decoder ->
+            decoder.decodeChunked { Decoder nested ->
+                assert nested.readSmallInt() == 12
+                assert nested.readString() == (0..100).join("-")
+            }
+            decoder.decodeChunked {}
+            assert decoder.readString() == "done"
+        }
+    }
+
+    def "can encode and skip byte stream"() {
+        when:
+        def bytes = encode { Encoder encoder ->
+            encoder.encodeChunked { Encoder nested ->
+                nested.writeSmallInt(12)
+                nested.writeString("chunked")
+            }
+            encoder.writeString("done")
+        }
+
+        then:
+        decode(bytes) { Decoder decoder ->
+            decoder.skipChunked()
+            assert decoder.readString() == "done"
+        }
+    }
+
+    def "can query write and read positions"() {
+        def outstr = new ByteArrayOutputStream()
+        def encoder = new ByteBufferBackedEncoder(Channels.newChannel(outstr), ByteBuffer.allocate(4096))
+
+        expect:
+        encoder.writePosition == 0
+
+        when:
+        encoder.writeBoolean(true)
+        encoder.writeByte(12 as byte)
+        encoder.writeLong(1234)
+
+        then:
+        encoder.writePosition == 10
+        outstr.size() == 0
+
+        when:
+        encoder.writeBytes(new byte[4098])
+
+        then:
+        encoder.writePosition == 4108
+        outstr.size() == 4096
+
+        when:
+        encoder.close()
+
+        then:
+        encoder.writePosition == 4108
+        outstr.size() == 4108
+
+        when:
+        def decoder = new ByteBufferBackedDecoder(Channels.newChannel(new ByteArrayInputStream(outstr.toByteArray())), ByteBuffer.allocate(4096))
+        decoder.readBoolean()
+        decoder.readByte()
+        decoder.readLong()
+
+        then:
+        decoder.readPosition == 10
+
+        when:
+        decoder.skipBytes(4098)
+
+        then:
+        decoder.readPosition == 4108
+    }
+}
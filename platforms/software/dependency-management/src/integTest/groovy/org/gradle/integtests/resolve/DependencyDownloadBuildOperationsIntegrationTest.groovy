@@ -288,6 +288,71 @@ class DependencyDownloadBuildOperationsIntegrationTest extends AbstractHttpDepen
         artifactOps2[0].details.artifactIdentifier == 'impl-1.3.jar (org.utils:impl:1.3)'
     }
 
+    def "reuses cached maven-metadata.xml without downloading it again when the server reports it unchanged"() {
+        given:
+        def m = mavenHttpRepo.module("org.utils", "impl", '1.3').publish()
+
+        buildFile << """
+            repositories {
+                maven { url "${mavenHttpRepo.uri}" }
+            }
+
+            configurations {
+                base { canBeResolved = false; canBeConsumed = false }
+                path {
+                    extendsFrom(base)
+                    resolutionStrategy.cacheDynamicVersionsFor 0, "seconds"
+                }
+            }
+
+            dependencies {
+                base "org.utils:impl:1.+"
+            }
+
+            println "resolved: " + configurations.path.files*.name
+        """
+
+        when:
+        m.rootMetaData.expectGet()
+        m.pom.expectGet()
+        m.artifact.expectGet()
+        run "help"
+
+        then:
+        outputContains("resolved: [impl-1.3.jar]")
+        def downloadOps = buildOperations.all(ExternalResourceReadBuildOperationType)
+        downloadOps.size() == 3
+        downloadOps[0].details.location == m.rootMetaData.uri.toString()
+        downloadOps[0].result.bytesRead == m.rootMetaData.file.length()
+
+        when:
+        server.resetExpectations()
+        m.rootMetaData.expectGetNotModified()
+        run "help"
+
+        then:
+        outputContains("resolved: [impl-1.3.jar]")
+        def downloadOps2 = buildOperations.all(ExternalResourceReadBuildOperationType)
+        downloadOps2.size() == 1
+        downloadOps2[0].details.location == m.rootMetaData.uri.toString()
+        downloadOps2[0].result.bytesRead == 0
+
+        when:
+        def m2 = mavenHttpRepo.module("org.utils", "impl", '1.4').publish()
+        server.resetExpectations()
+        m2.rootMetaData.expectGet()
+        m2.pom.expectGet()
+        m2.artifact.expectGet()
+        run "help"
+
+        then:
+        outputContains("resolved: [impl-1.4.jar]")
+        def downloadOps3 = buildOperations.all(ExternalResourceReadBuildOperationType)
+        downloadOps3.size() == 3
+        downloadOps3[0].details.location == m2.rootMetaData.uri.toString()
+        downloadOps3[0].result.bytesRead == m2.rootMetaData.file.length()
+    }
+
     def "emits events for an artifact once per build"() {
         given:
         def m = mavenHttpRepo.module("org.utils", "impl", '1.3')
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.integtests.resolve
+
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder.DependencyGraphBuilder
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+
+class ParallelFrontierResolveIntegrationTest extends AbstractIntegrationSpec {
+
+    def setup() {
+        def d1 = mavenRepo.module("org", "d", "1.0").publish()
+        def d2 = mavenRepo.module("org", "d", "2.0").publish()
+        def e = mavenRepo.module("org", "e", "1.0").publish()
+        def f = mavenRepo.module("org", "f", "1.0").dependsOn(e).publish()
+        mavenRepo.module("org", "a", "1.0").dependsOn(d1).dependsOn(f).publish()
+        mavenRepo.module("org", "b", "1.0").dependsOn(d2).publish()
+        mavenRepo.module("org", "c", "1.0").dependsOn(f).publish()
+
+        buildFile << """
+            repositories {
+                maven { url "${mavenRepo.uri}" }
+            }
+            configurations {
+                conf
+            }
+            dependencies {
+                conf "org:a:1.0"
+                conf "org:b:1.0"
+                conf "org:c:1.0"
+            }
+            tasks.register("writeGraph") {
+                def root = configurations.conf.incoming.resolutionResult.rootComponent
+                def output = file("graph.txt")
+                doLast {
+                    def lines = []
+                    def visited = [] as Set
+                    def queue = [root.get()]
+                    while (!queue.isEmpty()) {
+                        def component = queue.remove(0)
+                        if (!visited.add(component.id)) {
+                            continue
+                        }
+                        lines << component.id.displayName + " " + component.variants*.displayName
+                        component.dependencies.each { dependency ->
+                            lines << "  " + dependency.requested.displayName + " -> " + dependency.selected.id.displayName
+                            queue << dependency.selected
+                        }
+                    }
+                    output.text = lines.join("\\n")
+                }
+            }
+        """
+    }
+
+    def "resolves the same graph with and without computing the dependencies of queued nodes in parallel"() {
+        expect:
+        graphsWithAndWithoutParallelFrontierAreEqual()
+    }
+
+    def "resolves the same graph with and without computing the dependencies of queued nodes in parallel when dependency metadata rules apply"() {
+        buildFile << """
+            class AddDependency implements ComponentMetadataRule {
+                void execute(ComponentMetadataContext context) {
+                    context.details.allVariants {
+                        withDependencies {
+                            add("org:d:1.0")
+                            removeAll { it.name == "f" }
+                        }
+                    }
+                }
+            }
+
+            dependencies {
+                components {
+                    withModule("org:b", AddDependency)
+                    withModule("org:c", AddDependency)
+                    all { details ->
+                        details.allVariants {
+                            withDependencies {
+                                it.each { dependency ->
+                                    if (dependency.name == "d") {
+                                        dependency.version { strictly "1.0" }
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        """
+
+        expect:
+        graphsWithAndWithoutParallelFrontierAreEqual()
+    }
+
+    private void graphsWithAndWithoutParallelFrontierAreEqual() {
+        run "writeGraph"
+        def serialGraph = file("graph.txt").text
+
+        executer.withArgument("-D${DependencyGraphBuilder.PARALLEL_FRONTIER_PROPERTY}=true")
+        run "writeGraph"
+        def parallelGraph = file("graph.txt").text
+
+        assert !serialGraph.isEmpty()
+        assert parallelGraph == serialGraph
+    }
+}
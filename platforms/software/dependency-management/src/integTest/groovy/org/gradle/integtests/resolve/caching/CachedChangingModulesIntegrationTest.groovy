@@ -62,7 +62,7 @@ class CachedChangingModulesIntegrationTest extends AbstractHttpDependencyResolut
 
         when:
         server.resetExpectations()
-        module.metaData.expectHeadRevalidate()
+        module.metaData.expectGetRevalidateNotModified()
         sourceArtifact.expectHeadRevalidate()
         module.pom.expectHeadRevalidate()
         then:
@@ -72,7 +72,6 @@ class CachedChangingModulesIntegrationTest extends AbstractHttpDependencyResolut
         module.publishWithChangedContent()
         server.resetExpectations()
 
-        module.metaData.expectHeadRevalidate()
         module.metaData.expectGetRevalidate()
         module.pom.sha1.expectGetRevalidate()
         module.pom.expectHeadRevalidate()
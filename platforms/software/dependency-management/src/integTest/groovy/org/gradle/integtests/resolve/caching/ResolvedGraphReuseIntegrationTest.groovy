@@ -0,0 +1,291 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.integtests.resolve.caching
+
+import org.gradle.api.internal.artifacts.ivyservice.CachingResolvedGraphConfigurationResolver
+import org.gradle.api.internal.artifacts.ivyservice.SharedResolvedGraphs
+import org.gradle.integtests.fixtures.AbstractHttpDependencyResolutionTest
+
+class ResolvedGraphReuseIntegrationTest extends AbstractHttpDependencyResolutionTest {
+
+    def setup() {
+        executer.requireOwnGradleUserHomeDir()
+        executer.beforeExecute {
+            withArgument("-D${CachingResolvedGraphConfigurationResolver.ENABLED_PROPERTY}=true")
+            withArgument("-D${SharedResolvedGraphs.ENABLED_PROPERTY}=true")
+        }
+        ['a', 'b'].each { name ->
+            mavenRepo.module("org", name, "1.0")
+                .adhocVariants()
+                .variant("runtime", [:]) {
+                    capability("org", name, "1.0")
+                    capability("org", "cap", "1.0")
+                }
+                .withModuleMetadata()
+                .publish()
+        }
+        mavenRepo.module("org", "lib", "1.0")
+            .adhocVariants()
+            .variant("free", [flavor: "free"])
+            .variant("paid", [flavor: "paid"])
+            .withModuleMetadata()
+            .publish()
+        server.allowGetOrHead("/repo", mavenRepo.rootDir)
+    }
+
+    def "configurations that differ only in capability resolution rules do not share a graph"() {
+        buildFile << """
+            ${repository()}
+            configurations {
+                one
+                two
+            }
+            dependencies {
+                one "org:a:1.0"
+                one "org:b:1.0"
+                two "org:a:1.0"
+                two "org:b:1.0"
+            }
+            configurations.one.resolutionStrategy.capabilitiesResolution.withCapability("org:cap") { select("org:a:1.0") }
+            configurations.two.resolutionStrategy.capabilitiesResolution.withCapability("org:cap") { select("org:b:1.0") }
+            ${printSelected("one", "two")}
+        """
+
+        when:
+        run "resolve"
+
+        then:
+        outputContains("one: [org:a:1.0 runtime]")
+        outputContains("two: [org:b:1.0 runtime]")
+    }
+
+    def "reused graph is not used when capability resolution rules change between builds"() {
+        buildFile << """
+            ${repository()}
+            configurations {
+                conf
+            }
+            dependencies {
+                conf "org:a:1.0"
+                conf "org:b:1.0"
+            }
+            configurations.conf.resolutionStrategy.capabilitiesResolution.withCapability("org:cap") { select("org:\${providers.gradleProperty('selected').get()}:1.0") }
+            ${printSelected("conf")}
+        """
+
+        when:
+        run "resolve", "-Pselected=a"
+
+        then:
+        outputContains("conf: [org:a:1.0 runtime]")
+
+        when:
+        run "resolve", "-Pselected=b"
+
+        then:
+        outputContains("conf: [org:b:1.0 runtime]")
+    }
+
+    def "projects that differ only in attribute matching rules do not share a graph"() {
+        settingsFile << """
+            include "free", "paid"
+        """
+        file("free/build.gradle") << consumerOfFlavor("free")
+        file("paid/build.gradle") << consumerOfFlavor("paid")
+
+        when:
+        run "resolve"
+
+        then:
+        outputContains("conf: [org:lib:1.0 free]")
+        outputContains("conf: [org:lib:1.0 paid]")
+    }
+
+    def "reused graph is not used when attribute matching rules change between builds"() {
+        buildFile << consumerOfFlavor("free")
+
+        when:
+        run "resolve"
+
+        then:
+        outputContains("conf: [org:lib:1.0 free]")
+
+        when:
+        buildFile.text = consumerOfFlavor("paid")
+        run "resolve"
+
+        then:
+        outputContains("conf: [org:lib:1.0 paid]")
+    }
+
+    def "artifacts of a graph reused from an earlier build match those of a fresh resolution"() {
+        def leaf = mavenRepo.module("org", "leaf", "1.0").publish()
+        mavenRepo.module("org", "top", "1.0").dependsOn(leaf).publish()
+        buildFile << """
+            ${repository()}
+            configurations {
+                conf
+            }
+            dependencies {
+                conf "org:top:1.0"
+            }
+            ${printArtifacts("conf")}
+        """
+
+        when:
+        run "resolve"
+
+        then:
+        outputContains("files: [top-1.0.jar, leaf-1.0.jar]")
+        outputContains("artifacts: [top-1.0.jar (org:top:1.0), leaf-1.0.jar (org:leaf:1.0)]")
+
+        when:
+        run "resolve"
+
+        then:
+        outputContains("files: [top-1.0.jar, leaf-1.0.jar]")
+        outputContains("artifacts: [top-1.0.jar (org:top:1.0), leaf-1.0.jar (org:leaf:1.0)]")
+    }
+
+    def "projects that share a graph resolve the same artifacts"() {
+        def leaf = mavenRepo.module("org", "leaf", "1.0").publish()
+        mavenRepo.module("org", "top", "1.0").dependsOn(leaf).publish()
+        settingsFile << """
+            include "one", "two"
+        """
+        def consumer = """
+            ${repository()}
+            configurations {
+                conf
+            }
+            dependencies {
+                conf "org:top:1.0"
+            }
+            ${printArtifacts("conf")}
+        """
+        file("one/build.gradle") << consumer
+        file("two/build.gradle") << consumer
+
+        when:
+        run ":one:resolve", ":two:resolve"
+
+        then:
+        output.count("files: [top-1.0.jar, leaf-1.0.jar]") == 2
+        output.count("artifacts: [top-1.0.jar (org:top:1.0), leaf-1.0.jar (org:leaf:1.0)]") == 2
+    }
+
+    def "reused graph is not used when the cached metadata of its components was refreshed since"() {
+        def leaf = mavenRepo.module("org", "leaf", "1.0").publish()
+        def other = mavenRepo.module("org", "other", "1.0").publish()
+        def top = mavenRepo.module("org", "top", "1.0").dependsOn(leaf).publish()
+        buildFile << """
+            ${repository()}
+            configurations {
+                conf
+            }
+            dependencies {
+                conf "org:top:1.0"
+            }
+            ${printSelected("conf")}
+        """
+
+        when:
+        run "resolve"
+
+        then:
+        outputContains("conf: [org:top:1.0 runtime]")
+
+        when:
+        top.dependsOn(other).publish()
+        run "resolve", "--refresh-dependencies"
+        run "resolve", "dependencies", "--configuration", "conf"
+
+        then:
+        outputContains("org:other:1.0")
+    }
+
+    private String repository() {
+        """
+            repositories {
+                maven { url "${mavenHttpRepo.uri}" }
+            }
+        """
+    }
+
+    /**
+     * A consumer that requests the "demo" flavor, which its compatibility rule accepts from the given flavor only.
+     */
+    private String consumerOfFlavor(String flavor) {
+        def ruleClass = "DemoIs${flavor.capitalize()}"
+        """
+            ${repository()}
+            def flavor = Attribute.of("flavor", String)
+
+            class ${ruleClass} implements AttributeCompatibilityRule<String> {
+                void execute(CompatibilityCheckDetails<String> details) {
+                    if (details.consumerValue == "demo" && details.producerValue == "${flavor}") {
+                        details.compatible()
+                    }
+                }
+            }
+
+            dependencies {
+                attributesSchema {
+                    attribute(flavor) {
+                        compatibilityRules.add(${ruleClass})
+                    }
+                }
+            }
+            configurations {
+                conf {
+                    attributes.attribute(flavor, "demo")
+                }
+            }
+            dependencies {
+                conf "org:lib:1.0"
+            }
+            ${printSelected("conf")}
+        """
+    }
+
+    private static String printArtifacts(String configuration) {
+        """
+            tasks.register("resolve") {
+                def files = configurations.${configuration}.incoming.files
+                def artifacts = configurations.${configuration}.incoming.artifacts.resolvedArtifacts
+                doLast {
+                    println "files: " + files*.name
+                    println "artifacts: " + artifacts.get()*.id*.displayName
+                }
+            }
+        """
+    }
+
+    private static String printSelected(String... configurations) {
+        """
+            tasks.register("resolve") {
+                ${configurations.collect { configuration -> """
+                def ${configuration}Root = configurations.${configuration}.incoming.resolutionResult.rootComponent
+                doLast {
+                    def selected = ${configuration}Root.get().dependencies.collect { it.selected }.unique()
+                    println "${configuration}: " + selected.collect { it.id.displayName + " " + it.variants*.displayName.join(",") }
+                }
+                """ }.join()}
+            }
+        """
+    }
+}
@@ -123,7 +123,6 @@ if (project.hasProperty('nocache')) {
 
         and:
         server.resetExpectations()
-        snapshotModule.metaData.expectHead()
         snapshotModule.metaData.expectGet()
         snapshotModule.pom.expectHead()
         snapshotModule.pom.sha1.expectGet()
@@ -177,7 +176,6 @@ if (project.hasProperty('nocache')) {
 
         and:
         server.resetExpectations()
-        snapshotModule.metaData.expectHead()
         snapshotModule.metaData.expectGet()
         snapshotModule.pom.expectHead()
         snapshotModule.pom.sha1.expectGet()
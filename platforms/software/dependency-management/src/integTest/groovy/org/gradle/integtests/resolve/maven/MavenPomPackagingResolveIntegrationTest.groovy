@@ -140,7 +140,7 @@ if (project.hasProperty('skipCache')) {
         // New artifact is detected
         when:
         server.resetExpectations()
-        snapshotA.metaData.expectHead()
+        snapshotA.metaData.expectGetNotModified()
         snapshotA.pom.expectHead()
         snapshotA.artifact.expectHead()
         snapshotA.artifact.expectGet()
@@ -156,7 +156,7 @@ if (project.hasProperty('skipCache')) {
         // Jar artifact removal is detected
         when:
         server.resetExpectations()
-        snapshotA.metaData.expectHead()
+        snapshotA.metaData.expectGetNotModified()
         snapshotA.pom.expectHead()
         snapshotA.artifact.expectHeadMissing()
 
@@ -660,7 +660,7 @@ task retrieve(type: Sync) {
         file('libs').assertHasDescendants('projectA-1.0-SNAPSHOT.jar', 'projectB-1.0.jar')
 
         when: "Resolve without cache"
-        projectA.metaData.expectHead()
+        projectA.metaData.expectGetNotModified()
         projectA.pom.expectHead()
         projectA.pom.sha1.expectGet()
         projectA.pom.expectGet()
@@ -1207,9 +1207,6 @@ abstract class PomRule implements ComponentMetadataRule {
     }
 
     private expectChangedModuleServed(MavenHttpModule module) {
-        if (module.uniqueSnapshots) {
-            module.metaData.expectHead()
-        }
         module.metaData.expectGet()
         module.pom.expectHead()
         module.pom.sha1.expectGet()
@@ -1226,7 +1223,7 @@ abstract class PomRule implements ComponentMetadataRule {
 
     private expectChangedArtifactServed(MavenHttpModule module) {
         if (module.uniqueSnapshots) {
-            module.metaData.expectHead()
+            module.metaData.expectGetNotModified()
         } else {
             module.metaData.expectGet()
         }
@@ -1242,7 +1239,7 @@ abstract class PomRule implements ComponentMetadataRule {
 
     private expectChangedProbe(MavenHttpModule module) {
         if (module.uniqueSnapshots) {
-            module.metaData.expectHead()
+            module.metaData.expectGetNotModified()
         } else {
             module.metaData.expectGet()
         }
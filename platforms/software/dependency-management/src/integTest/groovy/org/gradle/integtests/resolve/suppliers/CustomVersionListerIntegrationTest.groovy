@@ -368,7 +368,7 @@ $listing
         @Override
         void expectRefresh(String... modules) {
             modules.each {
-                server.expectHead("/repo/org/$it/versions.txt", files[it])
+                server.expectGetNotModified("/repo/org/$it/versions.txt", files[it])
             }
         }
     }
@@ -296,13 +296,13 @@ abstract class DynamicRevisionRemoteResolveWithMetadataSupplierIntegrationTest e
         checkResolve "group:projectA:1.+": ["group:projectA:1.2", "didn't match version 2.0"], "group:projectB:latest.release": ["group:projectB:1.1", "didn't match version 2.2"]
 
         when:
-        server.expectHeadBroken('/repo/group/projectB/2.2/status.txt')
+        server.expectGetBroken('/repo/group/projectB/2.2/status.txt')
 
         then:
         fails 'checkDeps'
 
         and:
-        failure.assertHasCause("Could not HEAD '${server.uri}/repo/group/projectB/2.2/status.txt'.")
+        failure.assertHasCause("Could not GET '${server.uri}/repo/group/projectB/2.2/status.txt'.")
 
         when:
         resetExpectations()
@@ -722,7 +722,7 @@ group:projectB:2.2;integration
         outputDoesNotContain('Parsing status file call count: 2')
 
         when: "resolving the same dependencies"
-        server.expectHead("/repo/status.txt", statusFile)
+        server.expectGetNotModified("/repo/status.txt", statusFile)
         checkResolve "group:projectA:1.+": ["group:projectA:1.2", "didn't match version 2.0"], "group:projectB:latest.release": ["group:projectB:1.1", "didn't match version 2.2"]
 
         then: "should get the result from cache"
@@ -736,8 +736,7 @@ group:projectB:1.1;release
 group:projectB:2.2;release
 '''
         resetExpectations()
-        // Similarly the HEAD request here is due to revalidating the cached resource
-        server.expectHead("/repo/status.txt", statusFile)
+        // The cached resource is revalidated with a conditional request, which gets the changed content
         server.expectGet("/repo/status.txt", statusFile)
         repositoryInteractions {
             'group:projectA' {
@@ -1413,7 +1412,7 @@ group:projectB:2.2;release
         @Override
         void refresh(String... modules) {
             modules.each {
-                server.expectHead("/repo/${it.replace(':', '/')}/status.txt", statusFiles[it])
+                server.expectGetNotModified("/repo/${it.replace(':', '/')}/status.txt", statusFiles[it])
             }
         }
     }
@@ -1849,7 +1849,7 @@ resultsFile:
         server.resetExpectations()
         m1.pom.expectHead()
         m1.artifact.expectHead()
-        m2.metaData.expectHead()
+        m2.metaData.expectGetNotModified()
         // TODO - these should not be required for unique versions
         m2.pom.expectHead()
         m2.artifact.expectHead()
@@ -1871,7 +1871,7 @@ resultsFile:
         m1.artifact.expectHead()
         m1.artifact.sha1.expectGet()
         m1.artifact.expectGet()
-        m2.metaData.expectHead()
+        m2.metaData.expectGetNotModified()
         // TODO - these should not be required for unique versions
         m2.pom.expectHead()
         m2.artifact.expectHead()
@@ -1890,7 +1890,7 @@ resultsFile:
         server.resetExpectations()
         m1.pom.expectHead()
         m1.artifact.expectHead()
-        m2.metaData.expectHead()
+        m2.metaData.expectGetNotModified()
         // TODO - these should not be required for unique versions
         m2.pom.expectHead()
         m2.artifact.expectHead()
@@ -1908,7 +1908,6 @@ resultsFile:
         m1.pom.expectHead()
         m1.artifact.expectHead()
         m2.publishWithChangedContent()
-        m2.metaData.expectHead()
         m2.metaData.expectGet()
         m2.pom.expectHead()
         m2.pom.sha1.expectGet()
@@ -2003,6 +2002,73 @@ resultsFile:
         "MakeGreen,MakeBlue" | 0
     }
 
+    def "can force storing to and loading from build-cache for immutable transform with experimental property"() {
+        given:
+        settingsFile << """
+            buildCache {
+                local {
+                    directory = new File(rootDir, 'local-build-cache')
+                }
+            }
+        """
+        buildFile << declareAttributes() << withExternalLibDependency("lib1") << """
+            abstract class MakeGreen implements TransformAction<TransformParameters.None> {
+                @PathSensitive(PathSensitivity.NAME_ONLY)
+                @InputArtifact
+                abstract Provider<FileSystemLocation> getInputArtifact()
+
+                void transform(TransformOutputs outputs) {
+                    def input = inputArtifact.get().asFile
+                    outputs.file(input.name + ".green").text = 'green'
+                    println "Transformed \$input.name to green"
+                }
+            }
+
+            allprojects {
+                dependencies {
+                    registerTransform(MakeGreen) {
+                        from.attribute(artifactType, 'jar')
+                        to.attribute(artifactType, 'green')
+                    }
+                }
+                task resolve(type: Resolve) {
+                    artifacts = configurations.compile.incoming.artifactView {
+                        attributes { it.attribute(artifactType, 'green') }
+                    }.artifacts
+                }
+            }
+        """
+        def localBuildCacheDir = file("local-build-cache")
+        executer.requireOwnGradleUserHomeDir("Test checks that the transform is not executed again with an empty transform workspace")
+        executer.beforeExecute {
+            withArguments("--build-cache", "-Dorg.gradle.internal.transform-caching-forced=${transformsForced}")
+        }
+
+        when:
+        succeeds ":lib:resolve"
+
+        then:
+        output.count("Transformed lib1-1.0.jar to green") == 1
+        outputContains("files: [lib1-1.0.jar.green]")
+        localBuildCacheDir.list { dir, fileName -> fileName != "gc.properties" && fileName != "build-cache-1.lock" }.length == entryCount
+
+        when:
+        // A different Gradle user home has neither the transform workspace nor the in-memory cache of the previous build
+        executer.withGradleUserHomeDir(file("other-user-home"))
+        succeeds ":lib:resolve"
+
+        then:
+        output.count("Transformed lib1-1.0.jar to green") == executionCount
+        outputContains("files: [lib1-1.0.jar.green]")
+
+        where:
+        transformsForced | entryCount | executionCount
+        "MakeGreen"      | 1          | 0
+        "true"           | 1          | 0
+        "false"          | 0          | 1
+        "MakeBlue"       | 0          | 1
+    }
+
     def "cleans up cache"() {
         given:
         buildFile << declareAttributes() << multiProjectWithJarSizeTransform()
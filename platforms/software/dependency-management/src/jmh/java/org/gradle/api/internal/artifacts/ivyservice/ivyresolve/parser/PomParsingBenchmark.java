@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import org.apache.commons.io.IOUtils;
+import org.gradle.internal.xml.XmlFactories;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compares the DOM based POM parsing that {@link PomReader} used to do with {@link PomStaxParser}.
+ * <p>
+ * Both benchmarks parse every POM of the corpus and read the coordinates of its dependencies and managed dependencies.
+ * By default, the corpus is a couple of POMs bundled with the benchmark. Pass {@code -p corpusDir=<dir>} to use all
+ * the POMs found in a directory instead, for example a local Maven repository or Gradle's {@code modules-2} cache.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class PomParsingBenchmark {
+    private static final String[] BUNDLED_POMS = {"junit-4.12.pom", "acme-bom-2.7.0.pom"};
+
+    @Param({""})
+    String corpusDir;
+
+    private List<byte[]> poms;
+    private DocumentBuilderFactory documentBuilderFactory;
+    private byte[] m2Entities;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        poms = corpusDir.isEmpty() ? loadBundledPoms() : loadPoms(Paths.get(corpusDir));
+        if (poms.isEmpty()) {
+            throw new IllegalArgumentException("No POMs found in " + corpusDir);
+        }
+        documentBuilderFactory = XmlFactories.newDocumentBuilderFactory();
+        documentBuilderFactory.setValidating(false);
+        m2Entities = IOUtils.toByteArray(org.apache.ivy.plugins.parser.m2.PomReader.class.getResourceAsStream("m2-entities.ent"));
+    }
+
+    @Benchmark
+    public void dom(Blackhole blackhole) throws Exception {
+        for (byte[] pom : poms) {
+            DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
+            documentBuilder.setEntityResolver((publicId, systemId) -> systemId != null && systemId.endsWith("m2-entities.ent") ? new InputSource(new ByteArrayInputStream(m2Entities)) : null);
+            Document document = documentBuilder.parse(new PomDomParser.AddDTDFilterInputStream(new ByteArrayInputStream(pom)), "file:/pom.xml");
+            readDom(document.getDocumentElement(), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void stax(Blackhole blackhole) throws Exception {
+        for (byte[] pom : poms) {
+            PomStaxParser.PomDocument document = PomStaxParser.parse(new ByteArrayInputStream(pom), "file:/pom.xml");
+            readStax(document.getProjectElement(), blackhole);
+        }
+    }
+
+    private static void readDom(Element project, Blackhole blackhole) {
+        blackhole.consume(PomDomParser.getFirstChildText(project, "version"));
+        Element dependencyManagement = PomDomParser.getFirstChildElement(project, "dependencyManagement");
+        for (Element dependencies : new Element[]{PomDomParser.getFirstChildElement(project, "dependencies"), PomDomParser.getFirstChildElement(dependencyManagement, "dependencies")}) {
+            for (Element dependency : PomDomParser.getAllChilds(dependencies)) {
+                blackhole.consume(PomDomParser.getFirstChildText(dependency, "groupId"));
+                blackhole.consume(PomDomParser.getFirstChildText(dependency, "artifactId"));
+                blackhole.consume(PomDomParser.getFirstChildText(dependency, "version"));
+            }
+        }
+    }
+
+    private static void readStax(PomElement project, Blackhole blackhole) {
+        blackhole.consume(PomStaxParser.getFirstChildText(project, "version"));
+        PomElement dependencyManagement = PomStaxParser.getFirstChildElement(project, "dependencyManagement");
+        for (PomElement dependencies : new PomElement[]{PomStaxParser.getFirstChildElement(project, "dependencies"), PomStaxParser.getFirstChildElement(dependencyManagement, "dependencies")}) {
+            for (PomElement dependency : PomStaxParser.getAllChilds(dependencies)) {
+                blackhole.consume(PomStaxParser.getFirstChildText(dependency, "groupId"));
+                blackhole.consume(PomStaxParser.getFirstChildText(dependency, "artifactId"));
+                blackhole.consume(PomStaxParser.getFirstChildText(dependency, "version"));
+            }
+        }
+    }
+
+    private static List<byte[]> loadBundledPoms() throws IOException {
+        List<byte[]> poms = new ArrayList<>();
+        for (String name : BUNDLED_POMS) {
+            try (InputStream stream = PomParsingBenchmark.class.getResourceAsStream("poms/" + name)) {
+                poms.add(IOUtils.toByteArray(stream));
+            }
+        }
+        return poms;
+    }
+
+    private static List<byte[]> loadPoms(Path dir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            files = paths.filter(path -> path.getFileName().toString().endsWith(".pom")).sorted().collect(Collectors.toList());
+        }
+        List<byte[]> poms = new ArrayList<>(files.size());
+        for (Path file : files) {
+            poms.add(Files.readAllBytes(file));
+        }
+        return poms;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.FileUtils;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.CapabilityResolutionDetails;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.dsl.DependencyHandler;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.gradle.testfixtures.internal.ProjectBuilderImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the runtime classpath of a Java project depending on a {@link SyntheticRepository}.
+ * <p>
+ * The repository is served either directly from disk, or over HTTP by a server embedded in the benchmark. The benchmark measures:
+ * <ul>
+ *     <li>{@code cold}: resolution with an empty Gradle user home, which downloads all metadata and artifacts.</li>
+ *     <li>{@code warm}: resolution with a Gradle user home that already contains everything the resolution needs.</li>
+ *     <li>{@code offline}: like {@code warm}, but with {@code --offline}.</li>
+ * </ul>
+ * Every invocation builds a new project, so the time to create it is part of each result. Run with {@code -prof gc} to measure allocation.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class LargeGraphResolutionBenchmark {
+    @Param({"1000", "5000"})
+    int moduleCount;
+
+    @Param({"file", "http"})
+    String repository;
+
+    @Param({"cold", "warm", "offline"})
+    String cache;
+
+    private Path tmpDir;
+    private SyntheticRepository syntheticRepository;
+    private HttpServer server;
+    private URI repositoryUri;
+    private Path warmUserHome;
+
+    private Path projectDir;
+    private Path userHome;
+    private Project project;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        tmpDir = Files.createTempDirectory("resolution-benchmark");
+        syntheticRepository = SyntheticRepository.generate(tmpDir.resolve("repo"), moduleCount, 42);
+        if (repository.equals("http")) {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", this::serve);
+            server.start();
+            repositoryUri = URI.create("http://localhost:" + server.getAddress().getPort() + "/");
+        } else {
+            repositoryUri = syntheticRepository.getRoot().toUri();
+        }
+        if (!cache.equals("cold")) {
+            warmUserHome = tmpDir.resolve("warm-user-home");
+            setupInvocation();
+            resolve(new Blackhole("Today's password is swordfish. I understand instantiating Blackholes directly is dangerous."));
+            tearDownInvocation();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        if (server != null) {
+            server.stop(0);
+        }
+        FileUtils.forceDelete(tmpDir.toFile());
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws IOException {
+        projectDir = Files.createTempDirectory(tmpDir, "project");
+        userHome = warmUserHome != null ? warmUserHome : Files.createTempDirectory(tmpDir, "user-home");
+        project = ProjectBuilder.builder()
+            .withProjectDir(projectDir.toFile())
+            .withGradleUserHomeDir(userHome.toFile())
+            .build();
+        if (cache.equals("offline")) {
+            project.getGradle().getStartParameter().setOffline(true);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() throws IOException {
+        ProjectBuilderImpl.stop(project);
+        FileUtils.forceDelete(projectDir.toFile());
+        if (warmUserHome == null) {
+            FileUtils.forceDelete(userHome.toFile());
+        }
+    }
+
+    @Benchmark
+    public void resolve(Blackhole blackhole) {
+        project.getPluginManager().apply("java-library");
+        project.getRepositories().maven(repo -> {
+            repo.setUrl(repositoryUri);
+            repo.setAllowInsecureProtocol(true);
+        });
+        DependencyHandler dependencies = project.getDependencies();
+        dependencies.add("implementation", dependencies.platform(SyntheticRepository.PLATFORM));
+        for (String dependency : syntheticRepository.getRootDependencies()) {
+            dependencies.add("implementation", dependency);
+        }
+        Configuration runtimeClasspath = project.getConfigurations().getByName("runtimeClasspath");
+        runtimeClasspath.getResolutionStrategy().getCapabilitiesResolution().all(CapabilityResolutionDetails::selectHighestVersion);
+
+        blackhole.consume(runtimeClasspath.getIncoming().getResolutionResult().getAllComponents());
+        blackhole.consume(runtimeClasspath.getFiles());
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        Path file = syntheticRepository.getRoot().resolve(exchange.getRequestURI().getPath().substring(1)).normalize();
+        try {
+            if (!file.startsWith(syntheticRepository.getRoot()) || !Files.isRegularFile(file)) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(Files.size(file)));
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                exchange.sendResponseHeaders(200, Files.size(file));
+                try (OutputStream body = exchange.getResponseBody()) {
+                    Files.copy(file, body);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
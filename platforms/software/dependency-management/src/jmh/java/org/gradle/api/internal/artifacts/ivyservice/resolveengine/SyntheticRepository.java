@@ -0,0 +1,220 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a Maven repository containing a large dependency graph, for resolution benchmarks.
+ * <p>
+ * The repository contains:
+ * <ul>
+ *     <li>Library modules published in two versions. Each module depends on a few modules with a lower index, using either version,
+ *     so that most modules take part in version conflicts.</li>
+ *     <li>Excludes on some of the dependencies.</li>
+ *     <li>A BOM managing the version of a quarter of the modules, that consumers import as a platform.</li>
+ *     <li>Gradle module metadata with API and runtime variants for every fifth module. These modules also declare one of a few shared
+ *     capabilities, so consumers need to resolve capability conflicts, for example by selecting the highest version.</li>
+ * </ul>
+ * The same module count and seed always produce the same repository.
+ */
+final class SyntheticRepository {
+    static final String PLATFORM = "org.synthetic:platform:1.0";
+
+    private static final String GROUP = "org.synthetic";
+    private static final int GROUP_COUNT = 20;
+    private static final String[] VERSIONS = {"1.0", "1.1"};
+    private static final int MAX_DEPENDENCIES = 5;
+    private static final int ROOT_DEPENDENCIES = 50;
+    private static final int CAPABILITY_COUNT = 7;
+    private static final byte[] JAR_CONTENT = "synthetic jar".getBytes(StandardCharsets.UTF_8);
+
+    private final Path root;
+    private final int moduleCount;
+    private final Random random;
+
+    private SyntheticRepository(Path root, int moduleCount, long seed) {
+        this.root = root;
+        this.moduleCount = moduleCount;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Writes the repository to the given directory.
+     */
+    static SyntheticRepository generate(Path root, int moduleCount, long seed) throws IOException {
+        SyntheticRepository repository = new SyntheticRepository(root, moduleCount, seed);
+        for (int module = 0; module < moduleCount; module++) {
+            for (String version : VERSIONS) {
+                repository.writeModule(module, version);
+            }
+        }
+        repository.writePlatform();
+        return repository;
+    }
+
+    Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the dependencies to declare in the consuming project: the modules with the highest index, in either version.
+     */
+    List<String> getRootDependencies() {
+        Random random = new Random(moduleCount);
+        List<String> dependencies = new ArrayList<>();
+        for (int module = Math.max(0, moduleCount - ROOT_DEPENDENCIES); module < moduleCount; module++) {
+            dependencies.add(group(module) + ":" + name(module) + ":" + VERSIONS[random.nextInt(VERSIONS.length)]);
+        }
+        return dependencies;
+    }
+
+    private void writeModule(int module, String version) throws IOException {
+        List<Dependency> dependencies = new ArrayList<>();
+        int dependencyCount = module == 0 ? 0 : random.nextInt(Math.min(module, MAX_DEPENDENCIES) + 1);
+        for (int i = 0; i < dependencyCount; i++) {
+            int target = random.nextInt(module);
+            int excluded = random.nextInt(10) == 0 ? random.nextInt(moduleCount) : -1;
+            dependencies.add(new Dependency(target, VERSIONS[random.nextInt(VERSIONS.length)], excluded));
+        }
+        boolean withModuleMetadata = module % 5 == 0;
+
+        Path dir = root.resolve(group(module).replace('.', '/')).resolve(name(module)).resolve(version);
+        Files.createDirectories(dir);
+        String baseName = name(module) + "-" + version;
+        Files.write(dir.resolve(baseName + ".pom"), pom(module, version, dependencies, withModuleMetadata).getBytes(StandardCharsets.UTF_8));
+        Files.write(dir.resolve(baseName + ".jar"), JAR_CONTENT);
+        if (withModuleMetadata) {
+            Files.write(dir.resolve(baseName + ".module"), moduleMetadata(module, version, dependencies).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void writePlatform() throws IOException {
+        String[] coordinates = PLATFORM.split(":");
+        StringBuilder pom = new StringBuilder();
+        pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        pom.append("  <modelVersion>4.0.0</modelVersion>\n");
+        coordinates(pom, "  ", coordinates[0], coordinates[1], coordinates[2]);
+        pom.append("  <packaging>pom</packaging>\n");
+        pom.append("  <dependencyManagement>\n    <dependencies>\n");
+        for (int module = 0; module < moduleCount; module += 4) {
+            pom.append("      <dependency>\n");
+            coordinates(pom, "        ", group(module), name(module), VERSIONS[VERSIONS.length - 1]);
+            pom.append("      </dependency>\n");
+        }
+        pom.append("    </dependencies>\n  </dependencyManagement>\n");
+        pom.append("</project>\n");
+
+        Path dir = root.resolve(coordinates[0].replace('.', '/')).resolve(coordinates[1]).resolve(coordinates[2]);
+        Files.createDirectories(dir);
+        Files.write(dir.resolve(coordinates[1] + "-" + coordinates[2] + ".pom"), pom.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String pom(int module, String version, List<Dependency> dependencies, boolean withModuleMetadata) {
+        StringBuilder pom = new StringBuilder();
+        pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        if (withModuleMetadata) {
+            pom.append("  <!-- do_not_remove: published-with-gradle-metadata -->\n");
+        }
+        pom.append("  <modelVersion>4.0.0</modelVersion>\n");
+        coordinates(pom, "  ", group(module), name(module), version);
+        pom.append("  <dependencies>\n");
+        for (Dependency dependency : dependencies) {
+            pom.append("    <dependency>\n");
+            coordinates(pom, "      ", group(dependency.target), name(dependency.target), dependency.version);
+            if (dependency.excluded >= 0) {
+                pom.append("      <exclusions>\n        <exclusion>\n");
+                pom.append("          <groupId>").append(group(dependency.excluded)).append("</groupId>\n");
+                pom.append("          <artifactId>").append(name(dependency.excluded)).append("</artifactId>\n");
+                pom.append("        </exclusion>\n      </exclusions>\n");
+            }
+            pom.append("    </dependency>\n");
+        }
+        pom.append("  </dependencies>\n");
+        pom.append("</project>\n");
+        return pom.toString();
+    }
+
+    private static void coordinates(StringBuilder pom, String indent, String group, String name, String version) {
+        pom.append(indent).append("<groupId>").append(group).append("</groupId>\n");
+        pom.append(indent).append("<artifactId>").append(name).append("</artifactId>\n");
+        pom.append(indent).append("<version>").append(version).append("</version>\n");
+    }
+
+    private static String moduleMetadata(int module, String version, List<Dependency> dependencies) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"formatVersion\": \"1.1\",\n");
+        json.append("  \"component\": {\"group\": \"").append(group(module)).append("\", \"module\": \"").append(name(module)).append("\", \"version\": \"").append(version).append("\"},\n");
+        json.append("  \"variants\": [\n");
+        variant(json, module, version, dependencies, "apiElements", "java-api");
+        json.append(",\n");
+        variant(json, module, version, dependencies, "runtimeElements", "java-runtime");
+        json.append("\n  ]\n}\n");
+        return json.toString();
+    }
+
+    private static void variant(StringBuilder json, int module, String version, List<Dependency> dependencies, String name, String usage) {
+        json.append("    {\n      \"name\": \"").append(name).append("\",\n");
+        json.append("      \"attributes\": {\"org.gradle.category\": \"library\", \"org.gradle.dependency.bundling\": \"external\", \"org.gradle.libraryelements\": \"jar\", \"org.gradle.usage\": \"").append(usage).append("\"},\n");
+        json.append("      \"capabilities\": [\n");
+        json.append("        {\"group\": \"").append(group(module)).append("\", \"name\": \"").append(name(module)).append("\", \"version\": \"").append(version).append("\"},\n");
+        json.append("        {\"group\": \"").append(GROUP).append("\", \"name\": \"capability-").append(module % CAPABILITY_COUNT).append("\", \"version\": \"").append(module).append("\"}\n");
+        json.append("      ],\n");
+        json.append("      \"dependencies\": [");
+        for (int i = 0; i < dependencies.size(); i++) {
+            Dependency dependency = dependencies.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("        {\"group\": \"").append(group(dependency.target)).append("\", \"module\": \"").append(name(dependency.target)).append("\", \"version\": {\"requires\": \"").append(dependency.version).append("\"}");
+            if (dependency.excluded >= 0) {
+                json.append(", \"excludes\": [{\"group\": \"").append(group(dependency.excluded)).append("\", \"module\": \"").append(name(dependency.excluded)).append("\"}]");
+            }
+            json.append("}");
+        }
+        json.append("\n      ],\n");
+        String fileName = name(module) + "-" + version + ".jar";
+        json.append("      \"files\": [{\"name\": \"").append(fileName).append("\", \"url\": \"").append(fileName).append("\", \"size\": ").append(JAR_CONTENT.length).append("}]\n");
+        json.append("    }");
+    }
+
+    private static String group(int module) {
+        return GROUP + ".g" + (module % GROUP_COUNT);
+    }
+
+    private static String name(int module) {
+        return "module-" + module;
+    }
+
+    private static class Dependency {
+        private final int target;
+        private final String version;
+        private final int excluded;
+
+        Dependency(int target, String version, int excluded) {
+            this.target = target;
+            this.version = version;
+            this.excluded = excluded;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes;
+
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.specs.ExcludeSpec;
+import org.gradle.internal.component.external.descriptor.DefaultExclude;
+import org.gradle.internal.component.model.ExcludeMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Merges exclusions the way the graph builder does, for a synthetic graph where many edges declare excludes.
+ * <p>
+ * The exclusions of an edge are the union of the exclusions of its source node and the excludes declared by the dependency.
+ * The exclusions of a node are the intersection of the exclusions of its incoming edges.
+ * Each invocation starts from empty merge caches, like a build does.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ExcludeMergeBenchmark {
+    private static final int GROUP_COUNT = 20;
+    private static final int MODULES_PER_GROUP = 25;
+
+    @Param({"true", "false"})
+    boolean internSpecs;
+
+    @Param({"500", "2000"})
+    int nodeCount;
+
+    private int[][] incomingEdges;
+    private List<List<ExcludeMetadata>>[] edgeExcludes;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Random random = new Random(42);
+        incomingEdges = new int[nodeCount][];
+        edgeExcludes = new List[nodeCount];
+        for (int node = 1; node < nodeCount; node++) {
+            // Most nodes are reached by a single edge, popular ones by several
+            int edgeCount = random.nextInt(10) < 7 ? 1 : 2 + random.nextInt(4);
+            incomingEdges[node] = new int[edgeCount];
+            edgeExcludes[node] = new ArrayList<>(edgeCount);
+            for (int edge = 0; edge < edgeCount; edge++) {
+                // Prefer sources close to the root, like real graphs which have many edges from few nodes
+                incomingEdges[node][edge] = (int) (node * Math.pow(random.nextDouble(), 2));
+                edgeExcludes[node].add(randomExcludes(random));
+            }
+        }
+    }
+
+    private static List<ExcludeMetadata> randomExcludes(Random random) {
+        if (random.nextBoolean()) {
+            return Collections.emptyList();
+        }
+        int count = 1 + random.nextInt(4);
+        List<ExcludeMetadata> excludes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String group = "org.group" + random.nextInt(GROUP_COUNT);
+            // Excluding a whole group is less common than excluding a module
+            String module = random.nextInt(10) == 0 ? "*" : "module" + random.nextInt(MODULES_PER_GROUP);
+            excludes.add(new DefaultExclude(DefaultModuleIdentifier.newId(group, module)));
+        }
+        return excludes;
+    }
+
+    @Benchmark
+    public void mergeGraphExclusions(Blackhole blackhole) {
+        ModuleExclusions exclusions = new ModuleExclusions(internSpecs);
+        ExcludeSpec[] nodeExclusions = new ExcludeSpec[nodeCount];
+        nodeExclusions[0] = exclusions.nothing();
+        for (int node = 1; node < nodeCount; node++) {
+            int[] sources = incomingEdges[node];
+            if (sources.length == 1) {
+                nodeExclusions[node] = edgeExclusions(exclusions, nodeExclusions[sources[0]], edgeExcludes[node].get(0));
+            } else {
+                Set<ExcludeSpec> edges = new HashSet<>();
+                for (int edge = 0; edge < sources.length; edge++) {
+                    edges.add(edgeExclusions(exclusions, nodeExclusions[sources[edge]], edgeExcludes[node].get(edge)));
+                }
+                nodeExclusions[node] = exclusions.excludeAll(edges);
+            }
+        }
+        blackhole.consume(nodeExclusions);
+    }
+
+    private static ExcludeSpec edgeExclusions(ModuleExclusions exclusions, ExcludeSpec sourceExclusions, List<ExcludeMetadata> excludes) {
+        return exclusions.excludeAny(sourceExclusions, exclusions.excludeAny(excludes));
+    }
+}
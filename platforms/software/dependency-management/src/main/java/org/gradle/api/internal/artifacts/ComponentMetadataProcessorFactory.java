@@ -16,6 +16,9 @@
 
 package org.gradle.api.internal.artifacts;
 
+import javax.annotation.Nullable;
+import java.util.List;
+
 /**
  * A factory for {@link ComponentMetadataProcessor}.
  * <p>
@@ -34,4 +37,19 @@ public interface ComponentMetadataProcessorFactory {
      * @return a {@code ComponentMetadataProcessor}
      */
     ComponentMetadataProcessor createComponentMetadataProcessor(MetadataResolutionContext resolutionContext);
+
+    /**
+     * Returns the hash of the rules applied by the processors of this factory, without requiring a context to create a processor.
+     *
+     * @see ComponentMetadataProcessor#getRulesHash()
+     */
+    int getRulesHash();
+
+    /**
+     * Returns the implementation classes, parameters and targets of the rules applied by the processors of this factory. Unlike
+     * {@link #getRulesHash()}, the inputs can be snapshotted to identify the rules across builds. Returns null when some rules are closures
+     * or actions, whose implementation cannot be identified.
+     */
+    @Nullable
+    List<Object> getRulesInputs();
 }
@@ -50,8 +50,10 @@
 import org.gradle.api.internal.artifacts.dsl.dependencies.GradlePluginVariantsSupport;
 import org.gradle.api.internal.artifacts.dsl.dependencies.PlatformSupport;
 import org.gradle.api.internal.artifacts.dsl.dependencies.ProjectFinder;
+import org.gradle.api.internal.artifacts.ivyservice.CachingResolvedGraphConfigurationResolver;
 import org.gradle.api.internal.artifacts.ivyservice.DefaultConfigurationResolver;
 import org.gradle.api.internal.artifacts.ivyservice.IvyContextManager;
+import org.gradle.api.internal.artifacts.ivyservice.SharedResolvedGraphs;
 import org.gradle.api.internal.artifacts.ivyservice.ShortCircuitEmptyConfigurationResolver;
 import org.gradle.api.internal.artifacts.ivyservice.dependencysubstitution.DependencySubstitutionRules;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ExternalModuleComponentResolverFactory;
@@ -61,6 +63,8 @@
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelectorScheme;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.FileStoreAndIndexProvider;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.ModuleRepositoryCacheProvider;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.ResolvedGraphCache;
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.DefaultRootComponentMetadataBuilder;
 import org.gradle.api.internal.artifacts.ivyservice.projectmodule.DefaultLocalComponentRegistry;
 import org.gradle.api.internal.artifacts.ivyservice.projectmodule.LocalComponentRegistry;
@@ -154,7 +158,9 @@
 import org.gradle.internal.service.ServiceRegistrationProvider;
 import org.gradle.internal.service.ServiceRegistry;
 import org.gradle.internal.service.ServiceRegistryBuilder;
+import org.gradle.internal.snapshot.ValueSnapshotter;
 import org.gradle.internal.vfs.FileSystemAccess;
+import org.gradle.util.internal.BuildCommencedTimeProvider;
 import org.gradle.util.internal.SimpleMapInterner;
 
 import java.io.File;
@@ -522,7 +528,7 @@ ArtifactHandler createArtifactHandler(Instantiator instantiator, ConfigurationCo
         @Provides
         ComponentMetadataProcessorFactory createComponentMetadataProcessorFactory(ComponentMetadataHandlerInternal componentMetadataHandler, DependencyResolutionManagementInternal dependencyResolutionManagement, DomainObjectContext context) {
             if (context.isScript()) {
-                return componentMetadataHandler::createComponentMetadataProcessor;
+                return componentMetadataHandler;
             }
             return componentMetadataHandler.createFactory(dependencyResolutionManagement);
         }
@@ -570,7 +576,13 @@ ConfigurationResolver createDependencyResolver(
             List<ResolverProviderFactory> resolverFactories,
             ExternalModuleComponentResolverFactory moduleDependencyResolverFactory,
             ProjectDependencyResolver projectDependencyResolver,
-            DependencyLockingProvider dependencyLockingProvider
+            DependencyLockingProvider dependencyLockingProvider,
+            ResolvedGraphCache resolvedGraphCache,
+            SharedResolvedGraphs sharedResolvedGraphs,
+            VersionSelectorScheme versionSelectorScheme,
+            ValueSnapshotter valueSnapshotter,
+            ModuleRepositoryCacheProvider moduleRepositoryCacheProvider,
+            BuildCommencedTimeProvider timeProvider
         ) {
             DefaultConfigurationResolver defaultResolver = new DefaultConfigurationResolver(
                 dependencyGraphResolver,
@@ -600,7 +612,24 @@ ConfigurationResolver createDependencyResolver(
                 dependencyLockingProvider
             );
 
-            return new ShortCircuitEmptyConfigurationResolver(defaultResolver);
+            ConfigurationResolver resolver = defaultResolver;
+            boolean persistentGraphCache = Boolean.getBoolean(CachingResolvedGraphConfigurationResolver.ENABLED_PROPERTY);
+            boolean sharedGraphs = Boolean.getBoolean(SharedResolvedGraphs.ENABLED_PROPERTY);
+            if (persistentGraphCache || sharedGraphs) {
+                resolver = new CachingResolvedGraphConfigurationResolver(
+                    defaultResolver,
+                    persistentGraphCache ? resolvedGraphCache : null,
+                    sharedGraphs ? sharedResolvedGraphs : null,
+                    attributesSchema,
+                    metadataHandler,
+                    versionSelectorScheme,
+                    valueSnapshotter,
+                    moduleRepositoryCacheProvider.getPersistentCaches().moduleMetadataCache,
+                    timeProvider,
+                    startParameter.isRefreshDependencies()
+                );
+            }
+            return new ShortCircuitEmptyConfigurationResolver(resolver);
         }
 
         @Provides
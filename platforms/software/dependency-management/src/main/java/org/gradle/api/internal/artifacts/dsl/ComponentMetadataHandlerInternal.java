@@ -24,7 +24,8 @@
 
 import java.util.function.Consumer;
 
-public interface ComponentMetadataHandlerInternal {
+public interface ComponentMetadataHandlerInternal extends ComponentMetadataProcessorFactory {
+    @Override
     ComponentMetadataProcessor createComponentMetadataProcessor(MetadataResolutionContext resolutionContext);
     void setVariantDerivationStrategy(VariantDerivationStrategy strategy);
     VariantDerivationStrategy getVariantDerivationStrategy();
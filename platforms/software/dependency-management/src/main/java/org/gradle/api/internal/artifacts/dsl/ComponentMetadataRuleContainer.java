@@ -18,11 +18,17 @@
 
 import com.google.common.collect.Lists;
 import org.gradle.api.artifacts.ComponentMetadataDetails;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.specs.Specs;
 import org.gradle.internal.DisplayName;
+import org.gradle.internal.action.ConfigurableRule;
 import org.gradle.internal.component.external.model.NoOpDerivationStrategy;
 import org.gradle.internal.component.external.model.VariantDerivationStrategy;
 import org.gradle.internal.rules.SpecRuleAction;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -95,6 +101,35 @@ public int getRulesHash() {
         return 31 * variantDerivationStrategy.hashCode() + rulesHash;
     }
 
+    /**
+     * Returns the implementation classes, parameters and targets of the rules, which identify the rules across builds,
+     * or null when some rules are closures or actions whose implementation cannot be identified.
+     */
+    @Nullable
+    public List<Object> getRulesInputs() {
+        if (!classBasedRulesOnly) {
+            return null;
+        }
+        List<Object> inputs = new ArrayList<>();
+        inputs.add(variantDerivationStrategy.getClass());
+        for (MetadataRuleWrapper wrapper : rules) {
+            for (SpecConfigurableRule rule : wrapper.getClassRules()) {
+                ConfigurableRule<?> configurableRule = rule.getConfigurableRule();
+                inputs.add(configurableRule.getRuleClass());
+                inputs.add(configurableRule.getRuleParams());
+                Spec<ModuleVersionIdentifier> spec = rule.getSpec();
+                if (spec instanceof DefaultComponentMetadataHandler.ModuleVersionIdentifierSpec) {
+                    inputs.add(((DefaultComponentMetadataHandler.ModuleVersionIdentifierSpec) spec).getTarget().toString());
+                } else if (spec == Specs.<ModuleVersionIdentifier>satisfyAll()) {
+                    inputs.add("*");
+                } else {
+                    return null;
+                }
+            }
+        }
+        return inputs;
+    }
+
     void onAddRule(Consumer<DisplayName> consumer) {
         this.onAdd = consumer;
     }
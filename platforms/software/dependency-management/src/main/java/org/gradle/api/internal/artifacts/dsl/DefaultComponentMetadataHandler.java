@@ -60,6 +60,8 @@
 import org.gradle.internal.typeconversion.NotationParserBuilder;
 import org.gradle.internal.typeconversion.UnsupportedNotationException;
 
+import javax.annotation.Nullable;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -234,6 +236,17 @@ public ComponentMetadataProcessor createComponentMetadataProcessor(MetadataResol
         return new DefaultComponentMetadataProcessor(metadataRuleContainer, instantiator, dependencyMetadataNotationParser, dependencyConstraintMetadataNotationParser, componentIdentifierNotationParser, attributesFactory, ruleExecutor, platformSupport, resolutionContext);
     }
 
+    @Override
+    public int getRulesHash() {
+        return metadataRuleContainer.getRulesHash();
+    }
+
+    @Nullable
+    @Override
+    public List<Object> getRulesInputs() {
+        return metadataRuleContainer.getRulesInputs();
+    }
+
     @Override
     public void setVariantDerivationStrategy(VariantDerivationStrategy strategy) {
         metadataRuleContainer.setVariantDerivationStrategy(strategy);
@@ -269,7 +282,23 @@ public ComponentMetadataProcessorFactory createFactory(DependencyResolutionManag
             }
             return this;
         };
-        return resolutionContext -> actualHandler.get().createComponentMetadataProcessor(resolutionContext);
+        return new ComponentMetadataProcessorFactory() {
+            @Override
+            public ComponentMetadataProcessor createComponentMetadataProcessor(MetadataResolutionContext resolutionContext) {
+                return actualHandler.get().createComponentMetadataProcessor(resolutionContext);
+            }
+
+            @Override
+            public int getRulesHash() {
+                return actualHandler.get().getRulesHash();
+            }
+
+            @Nullable
+            @Override
+            public List<Object> getRulesInputs() {
+                return actualHandler.get().getRulesInputs();
+            }
+        };
     }
 
     static class ComponentMetadataDetailsMatchingSpec implements Spec<ComponentMetadataDetails> {
@@ -293,6 +322,10 @@ static class ModuleVersionIdentifierSpec implements Spec<ModuleVersionIdentifier
             this.target = target;
         }
 
+        ModuleIdentifier getTarget() {
+            return target;
+        }
+
         @Override
         public boolean isSatisfiedBy(ModuleVersionIdentifier identifier) {
             return identifier.getGroup().equals(target.getGroup()) && identifier.getName().equals(target.getName());
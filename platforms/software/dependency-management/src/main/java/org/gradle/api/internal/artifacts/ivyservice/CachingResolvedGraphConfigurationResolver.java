@@ -0,0 +1,633 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice;
+
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ModuleIdentifier;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.ResolveException;
+import org.gradle.api.artifacts.ResolvedConfiguration;
+import org.gradle.api.artifacts.VersionConstraint;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentSelector;
+import org.gradle.api.artifacts.result.ComponentSelectionCause;
+import org.gradle.api.artifacts.result.ComponentSelectionDescriptor;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+import org.gradle.api.artifacts.result.ResolvedVariantResult;
+import org.gradle.api.attributes.Attribute;
+import org.gradle.api.attributes.AttributeContainer;
+import org.gradle.api.capabilities.Capability;
+import org.gradle.api.internal.artifacts.ConfigurationResolver;
+import org.gradle.api.internal.artifacts.DefaultResolverResults;
+import org.gradle.api.internal.artifacts.GlobalDependencyResolutionRules;
+import org.gradle.api.internal.artifacts.ResolveContext;
+import org.gradle.api.internal.artifacts.ResolverResults;
+import org.gradle.api.internal.artifacts.configurations.ConflictResolution;
+import org.gradle.api.internal.artifacts.configurations.dynamicversion.CachePolicy;
+import org.gradle.api.internal.artifacts.configurations.ResolutionStrategyInternal;
+import org.gradle.api.internal.artifacts.dsl.ModuleReplacementsData;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelectorScheme;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.AbstractModuleMetadataCache;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.ModuleMetadataCache;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.ResolvedGraphCache;
+import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.RootComponentMetadataBuilder;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.ArtifactVisitor;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.SelectedArtifactSet;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.VariantArtifactSetDescriptor;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.VisitedArtifactSet;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.results.DefaultVisitedGraphResults;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.results.VisitedGraphResults;
+import org.gradle.api.internal.artifacts.repositories.ContentFilteringRepository;
+import org.gradle.api.internal.artifacts.repositories.ResolutionAwareRepository;
+import org.gradle.api.internal.artifacts.repositories.descriptor.RepositoryDescriptor;
+import org.gradle.api.internal.artifacts.repositories.descriptor.UrlRepositoryDescriptor;
+import org.gradle.api.internal.artifacts.repositories.resolver.MavenUniqueSnapshotComponentIdentifier;
+import org.gradle.api.internal.artifacts.result.MinimalResolutionResult;
+import org.gradle.api.internal.artifacts.result.ResolvedComponentResultInternal;
+import org.gradle.api.internal.artifacts.result.ResolvedGraphCopier;
+import org.gradle.api.internal.attributes.AttributesSchemaInternal;
+import org.gradle.api.internal.capabilities.ImmutableCapability;
+import org.gradle.api.internal.tasks.TaskDependencyResolveContext;
+import org.gradle.api.specs.Spec;
+import org.gradle.internal.Actions;
+import org.gradle.internal.component.local.model.LocalVariantGraphResolveMetadata;
+import org.gradle.internal.component.model.DependencyMetadata;
+import org.gradle.internal.component.model.ExcludeMetadata;
+import org.gradle.internal.component.model.IvyArtifactName;
+import org.gradle.internal.component.model.LocalComponentDependencyMetadata;
+import org.gradle.internal.component.model.VariantGraphResolveMetadata;
+import org.gradle.internal.component.model.VariantGraphResolveState;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.lazy.Lazy;
+import org.gradle.internal.snapshot.ValueSnapshotter;
+import org.gradle.internal.snapshot.ValueSnapshottingException;
+import org.gradle.util.internal.BuildCommencedTimeProvider;
+import org.gradle.util.GradleVersion;
+
+import javax.annotation.Nullable;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link ConfigurationResolver} that reuses dependency graphs resolved by earlier builds, or by other configurations of the same build tree.
+ * <p>
+ * A graph is only reused when everything that determines its shape can be fingerprinted: the declared dependencies, excludes and
+ * attributes of the configuration, the repositories, the component metadata rules and the attribute matching rules. Configurations using
+ * dependency locking, substitution, selection or capability resolution rules, repository content filtering, file dependencies or dynamic
+ * and changing versions are always resolved. As dynamic versions are never reused, the graph does not depend on the module versions cache.
+ * <p>
+ * Graphs are only reused by later builds when the rules are implemented by classes, which are fingerprinted by the hash of their class loaders
+ * and their parameters, and when all repositories are remote. A graph is stored with the time it was resolved, and is only reused while the
+ * module metadata cache still holds, unexpired, the metadata of each component in the repository it was found in and the absence of the
+ * component from the repositories before, and none of these entries were refreshed since the graph was resolved.
+ * <p>
+ * Graphs are shared between configurations of different projects when their fingerprints match, ignoring the identity of the root
+ * component, and when the projects match attributes with equal rules. The shared graph is copied for the new root component, sharing
+ * all immutable parts of the result.
+ * <p>
+ * Reused graphs, both shared and persisted, are kept with the descriptions of their artifacts, so that their artifacts can be recreated
+ * from the metadata of their components without resolving the graph again. The root component has no artifacts in the graph, so the
+ * descriptions also apply to copies of the graph for another root. The legacy {@link ResolvedConfiguration}, and the artifacts of
+ * graphs whose artifacts could not be described, are resolved by the delegate the first time they are requested.
+ */
+public class CachingResolvedGraphConfigurationResolver implements ConfigurationResolver {
+    public static final String ENABLED_PROPERTY = "org.gradle.internal.dependency-resolution.graph-cache";
+
+    /**
+     * Bump this whenever the contents of the fingerprint change.
+     */
+    private static final int FINGERPRINT_VERSION = 4;
+
+    private final DefaultConfigurationResolver delegate;
+    private final ResolvedGraphCache graphCache;
+    private final SharedResolvedGraphs sharedGraphs;
+    private final AttributesSchemaInternal consumerSchema;
+    private final GlobalDependencyResolutionRules metadataHandler;
+    private final VersionSelectorScheme versionSelectorScheme;
+    private final ValueSnapshotter valueSnapshotter;
+    private final AbstractModuleMetadataCache moduleMetadataCache;
+    private final BuildCommencedTimeProvider timeProvider;
+    private final boolean refreshDependencies;
+
+    public CachingResolvedGraphConfigurationResolver(
+        DefaultConfigurationResolver delegate,
+        @Nullable ResolvedGraphCache graphCache,
+        @Nullable SharedResolvedGraphs sharedGraphs,
+        AttributesSchemaInternal consumerSchema,
+        GlobalDependencyResolutionRules metadataHandler,
+        VersionSelectorScheme versionSelectorScheme,
+        ValueSnapshotter valueSnapshotter,
+        AbstractModuleMetadataCache moduleMetadataCache,
+        BuildCommencedTimeProvider timeProvider,
+        boolean refreshDependencies
+    ) {
+        this.delegate = delegate;
+        this.graphCache = graphCache;
+        this.sharedGraphs = sharedGraphs;
+        this.consumerSchema = consumerSchema;
+        this.metadataHandler = metadataHandler;
+        this.versionSelectorScheme = versionSelectorScheme;
+        this.valueSnapshotter = valueSnapshotter;
+        this.moduleMetadataCache = moduleMetadataCache;
+        this.timeProvider = timeProvider;
+        this.refreshDependencies = refreshDependencies;
+    }
+
+    @Override
+    public List<ResolutionAwareRepository> getAllRepositories() {
+        return delegate.getAllRepositories();
+    }
+
+    @Override
+    public ResolverResults resolveBuildDependencies(ResolveContext resolveContext) {
+        return delegate.resolveBuildDependencies(resolveContext);
+    }
+
+    @Override
+    public ResolverResults resolveGraph(ResolveContext resolveContext) throws ResolveException {
+        HashCode fingerprint = fingerprint(resolveContext);
+        if (fingerprint == null) {
+            return delegate.resolveGraph(resolveContext);
+        }
+
+        RootComponentMetadataBuilder.RootComponentState root = resolveContext.toRootComponent();
+        ModuleReplacementsData moduleReplacements = metadataHandler.getModuleMetadataProcessor().getModuleReplacements();
+        Object consumerSchemaKey = consumerSchema.getMatchingRulesKey();
+        HashCode sharedFingerprint = null;
+        if (sharedGraphs != null) {
+            sharedFingerprint = sharedFingerprint(fingerprint);
+            SharedResolvedGraphs.SharedGraph sharedGraph = sharedGraphs.find(sharedFingerprint, consumerSchemaKey);
+            ResolvedComponentResult copiedRoot = sharedGraph == null ? null : copyForRoot(sharedGraph.getRoot(), root);
+            if (copiedRoot != null) {
+                sharedGraphs.reused();
+                resolveContext.markAsObserved();
+                return cachedResults(resolveContext, copiedRoot, sharedGraph.getArtifacts());
+            }
+        }
+
+        HashCode key = graphCache == null ? null : persistentKey(fingerprint, root);
+        if (key != null) {
+            ResolvedGraphCache.CachedGraph cachedGraph = graphCache.load(key);
+            if (cachedGraph != null && isReusable(cachedGraph.getRoot(), moduleReplacements) && isUpToDate(cachedGraph, resolveContext)) {
+                if (sharedGraphs != null) {
+                    sharedGraphs.store(sharedFingerprint, consumerSchemaKey, cachedGraph.getRoot(), cachedGraph.getArtifacts());
+                }
+                resolveContext.markAsObserved();
+                return cachedResults(resolveContext, cachedGraph.getRoot(), cachedGraph.getArtifacts());
+            }
+        }
+
+        ResolverResults results = delegate.resolveGraph(resolveContext);
+        VisitedGraphResults graphResults = results.getVisitedGraph();
+        if (!graphResults.hasAnyFailure()) {
+            ResolvedComponentResult resolvedRoot = graphResults.getResolutionResult().getRootSource().get();
+            if (isReusable(resolvedRoot, moduleReplacements)) {
+                List<VariantArtifactSetDescriptor> artifacts = delegate.describeVisitedArtifacts(results);
+                if (key != null) {
+                    graphCache.store(key, new ResolvedGraphCache.CachedGraph(timeProvider.getCurrentTime(), resolvedRoot, artifacts));
+                }
+                if (sharedGraphs != null) {
+                    sharedGraphs.store(sharedFingerprint, consumerSchemaKey, resolvedRoot, artifacts);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Copies a graph resolved for another root component, or returns null when the graph depends on the identity of its root.
+     */
+    @Nullable
+    private static ResolvedComponentResult copyForRoot(ResolvedComponentResult sharedRoot, RootComponentMetadataBuilder.RootComponentState root) {
+        ModuleVersionIdentifier moduleVersion = root.getModuleVersionIdentifier();
+        Map<ResolvedComponentResult, Boolean> seen = new IdentityHashMap<>();
+        Deque<ResolvedComponentResult> queue = new ArrayDeque<>();
+        seen.put(sharedRoot, Boolean.TRUE);
+        queue.add(sharedRoot);
+        while (!queue.isEmpty()) {
+            ResolvedComponentResult component = queue.removeFirst();
+            ModuleVersionIdentifier componentModuleVersion = component.getModuleVersion();
+            if (component != sharedRoot && componentModuleVersion != null && componentModuleVersion.getModule().equals(moduleVersion.getModule())) {
+                // The new root would have been selected in place of this component
+                return null;
+            }
+            for (DependencyResult dependency : component.getDependencies()) {
+                ResolvedComponentResult selected = ((ResolvedDependencyResult) dependency).getSelected();
+                if (selected == sharedRoot) {
+                    return null;
+                }
+                if (seen.put(selected, Boolean.TRUE) == null) {
+                    queue.addLast(selected);
+                }
+            }
+        }
+        ResolvedVariantResult rootVariant = root.getRootComponent().getPublicViewFor(root.getRootVariant(), null);
+        return ResolvedGraphCopier.copyWithRoot(sharedRoot, moduleVersion, root.getComponentIdentifier(), rootVariant);
+    }
+
+    /**
+     * Creates the results for a reused graph. The artifacts are recreated from their descriptions when available, and resolved by the
+     * delegate otherwise, the first time they are requested.
+     */
+    private ResolverResults cachedResults(ResolveContext resolveContext, ResolvedComponentResult root, @Nullable List<VariantArtifactSetDescriptor> artifacts) {
+        Lazy<ResolverResults> fullResults = Lazy.locking().of(() -> delegate.resolveGraph(resolveContext));
+
+        MinimalResolutionResult resolutionResult = new MinimalResolutionResult(() -> root, resolveContext.getAttributes().asImmutable());
+        VisitedGraphResults graphResults = new DefaultVisitedGraphResults(resolutionResult, Collections.emptySet(), null);
+        Lazy<VisitedArtifactSet> allArtifacts = Lazy.locking().of(() -> {
+            VisitedArtifactSet rebuiltArtifacts = artifacts == null ? null : delegate.rebuildVisitedArtifacts(resolveContext, graphResults, artifacts);
+            return rebuiltArtifacts != null ? rebuiltArtifacts : fullResults.get().getVisitedArtifacts();
+        });
+        VisitedArtifactSet visitedArtifacts = spec -> new DeferredSelectedArtifactSet(() -> allArtifacts.get().select(spec));
+        return DefaultResolverResults.graphResolved(graphResults, visitedArtifacts, new DeferredLegacyResolverResults(fullResults));
+    }
+
+    /**
+     * Calculates the fingerprint of the given context, or returns null when its graph cannot be reused.
+     * The fingerprint does not include the identity of the root component and variant, so that other roots can share the graph,
+     * nor the rules, which are added by {@link #sharedFingerprint(HashCode)} and {@link #persistentKey(HashCode, RootComponentMetadataBuilder.RootComponentState)}.
+     */
+    @Nullable
+    private HashCode fingerprint(ResolveContext resolveContext) {
+        ResolutionStrategyInternal resolutionStrategy = resolveContext.getResolutionStrategy();
+        if (refreshDependencies
+            || resolutionStrategy.isDependencyLockingEnabled()
+            || resolutionStrategy.getConflictResolution() == ConflictResolution.strict
+            || resolutionStrategy.getIncludeAllSelectableVariantResults()
+            || !resolutionStrategy.getDependencySubstitutionRule().isEmpty()
+            || !resolutionStrategy.getComponentSelection().getRules().isEmpty()
+            || !resolutionStrategy.getCapabilitiesResolutionRules().isEmpty()
+            || !resolveContext.getSyntheticDependencies().isEmpty()) {
+            return null;
+        }
+
+        Hasher hasher = Hashing.newHasher();
+        hasher.putInt(FINGERPRINT_VERSION);
+        hasher.putString(GradleVersion.current().getVersion());
+
+        List<ResolutionAwareRepository> repositories = delegate.getAllRepositories();
+        hasher.putInt(repositories.size());
+        for (ResolutionAwareRepository repository : repositories) {
+            if (repository instanceof ContentFilteringRepository && hasContentFilter((ContentFilteringRepository) repository)) {
+                return null;
+            }
+            putRepository(hasher, repository.getDescriptor());
+        }
+
+        RootComponentMetadataBuilder.RootComponentState root = resolveContext.toRootComponent();
+        VariantGraphResolveState rootVariant = root.getRootVariant();
+        VariantGraphResolveMetadata rootMetadata = rootVariant.getMetadata();
+        if (rootMetadata instanceof LocalVariantGraphResolveMetadata && !((LocalVariantGraphResolveMetadata) rootMetadata).getFiles().isEmpty()) {
+            return null;
+        }
+        ModuleIdentifier rootModule = root.getModuleVersionIdentifier().getModule();
+        for (ImmutableCapability capability : rootVariant.getCapabilities().asSet()) {
+            if (!capability.getGroup().equals(rootModule.getGroup()) || !capability.getName().equals(rootModule.getName())) {
+                // Capabilities other than the implicit one of the root can conflict with the graph
+                return null;
+            }
+        }
+        putAttributes(hasher, rootVariant.getAttributes());
+        putExcludes(hasher, rootMetadata.getExcludes());
+
+        List<? extends DependencyMetadata> dependencies = rootMetadata.getDependencies();
+        hasher.putInt(dependencies.size());
+        for (DependencyMetadata dependency : dependencies) {
+            ComponentSelector selector = dependency.getSelector();
+            if (!(selector instanceof ModuleComponentSelector) || dependency.isChanging() || isDynamic(((ModuleComponentSelector) selector).getVersionConstraint())) {
+                return null;
+            }
+            putSelector(hasher, (ModuleComponentSelector) selector);
+            hasher.putBoolean(dependency.isConstraint());
+            hasher.putBoolean(dependency.isTransitive());
+            hasher.putBoolean(dependency.isEndorsingStrictVersions());
+            putExcludes(hasher, dependency.getExcludes());
+            hasher.putInt(dependency.getArtifacts().size());
+            for (IvyArtifactName artifact : dependency.getArtifacts()) {
+                putArtifact(hasher, artifact);
+            }
+            if (dependency instanceof LocalComponentDependencyMetadata) {
+                LocalComponentDependencyMetadata localDependency = (LocalComponentDependencyMetadata) dependency;
+                hasher.putBoolean(localDependency.isForce());
+                putNullableString(hasher, localDependency.getDependencyConfiguration());
+            }
+        }
+        return hasher.hash();
+    }
+
+    /**
+     * Calculates the key of the graph among the graphs of the build tree. Within a build tree, the component metadata rules are identified
+     * by instance, and the attribute matching rules are compared by {@link SharedResolvedGraphs}.
+     */
+    private HashCode sharedFingerprint(HashCode fingerprint) {
+        Hasher hasher = Hashing.newHasher();
+        hasher.putHash(fingerprint);
+        hasher.putInt(metadataHandler.getComponentMetadataProcessorFactory().getRulesHash());
+        return hasher.hash();
+    }
+
+    /**
+     * Calculates the key of the graph in the persistent cache, which also identifies the root component and variant, and the rules by their
+     * implementation and parameters. Returns null when some rule cannot be identified across builds, or when a repository is local:
+     * the metadata of local repositories is not cached, so changes to it would go unnoticed.
+     */
+    @Nullable
+    private HashCode persistentKey(HashCode fingerprint, RootComponentMetadataBuilder.RootComponentState root) {
+        for (ResolutionAwareRepository repository : delegate.getAllRepositories()) {
+            if (!isRemote(repository.getDescriptor())) {
+                return null;
+            }
+        }
+        List<Object> metadataRules = metadataHandler.getComponentMetadataProcessorFactory().getRulesInputs();
+        List<Object> matchingRules = consumerSchema.getMatchingRulesInputs();
+        if (metadataRules == null || matchingRules == null) {
+            return null;
+        }
+
+        Hasher hasher = Hashing.newHasher();
+        hasher.putHash(fingerprint);
+        try {
+            valueSnapshotter.snapshot(metadataRules).appendToHasher(hasher);
+            valueSnapshotter.snapshot(matchingRules).appendToHasher(hasher);
+        } catch (ValueSnapshottingException | UnsupportedOperationException e) {
+            // The parameters of a rule cannot be snapshotted, or a rule was loaded by a class loader that cannot be hashed
+            return null;
+        }
+        hasher.putString(root.getComponentIdentifier().getDisplayName());
+        hasher.putString(root.getModuleVersionIdentifier().toString());
+        hasher.putString(root.getRootVariant().getName());
+        return hasher.hash();
+    }
+
+    /**
+     * Checks that the module metadata the graph was resolved from is still cached and unexpired, and was not refreshed since: each
+     * component must be cached in the repository it was found in, and cached as missing from the repositories before it.
+     */
+    private boolean isUpToDate(ResolvedGraphCache.CachedGraph graph, ResolveContext resolveContext) {
+        CachePolicy cachePolicy = resolveContext.getResolutionStrategy().getCachePolicy();
+        List<String> repositoryIds = delegate.getAllRepositories().stream()
+            .map(repository -> repository.getDescriptor().getId())
+            .collect(Collectors.toList());
+        long now = timeProvider.getCurrentTime();
+
+        ResolvedComponentResult root = graph.getRoot();
+        Map<ResolvedComponentResult, Boolean> seen = new IdentityHashMap<>();
+        Deque<ResolvedComponentResult> queue = new ArrayDeque<>();
+        seen.put(root, Boolean.TRUE);
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            ResolvedComponentResult component = queue.removeFirst();
+            if (component != root) {
+                ModuleComponentIdentifier id = (ModuleComponentIdentifier) component.getId();
+                int repositoryIndex = repositoryIds.indexOf(((ResolvedComponentResultInternal) component).getRepositoryId());
+                if (repositoryIndex < 0) {
+                    return false;
+                }
+                for (int i = 0; i < repositoryIndex; i++) {
+                    ModuleMetadataCache.CachedMetadata missing = moduleMetadataCache.getCachedModuleDescriptor(repositoryIds.get(i), id);
+                    if (missing == null || !missing.isMissing() || cachePolicy.missingModuleExpiry(id, missing.getAge()).isMustCheck()) {
+                        return false;
+                    }
+                }
+                ModuleMetadataCache.CachedMetadata cached = moduleMetadataCache.getCachedModuleDescriptor(repositoryIds.get(repositoryIndex), id);
+                if (cached == null
+                    || cached.isMissing()
+                    || cachePolicy.moduleExpiry(id, cached.getModuleVersion(), cached.getAge()).isMustCheck()
+                    || now - cached.getAge().toMillis() > graph.getTimestamp()) {
+                    return false;
+                }
+            }
+            for (DependencyResult dependency : component.getDependencies()) {
+                ResolvedComponentResult selected = ((ResolvedDependencyResult) dependency).getSelected();
+                if (seen.put(selected, Boolean.TRUE) == null) {
+                    queue.addLast(selected);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the graph only contains external components whose selection did not depend on anything missing from the fingerprint.
+     */
+    private boolean isReusable(ResolvedComponentResult root, ModuleReplacementsData moduleReplacements) {
+        Map<ResolvedComponentResult, Boolean> seen = new IdentityHashMap<>();
+        Deque<ResolvedComponentResult> queue = new ArrayDeque<>();
+        seen.put(root, Boolean.TRUE);
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            ResolvedComponentResult component = queue.removeFirst();
+            if (component != root && !isReusableComponent(component, moduleReplacements)) {
+                return false;
+            }
+            for (DependencyResult dependency : component.getDependencies()) {
+                if (!(dependency instanceof ResolvedDependencyResult)) {
+                    return false;
+                }
+                ComponentSelector requested = dependency.getRequested();
+                if (!(requested instanceof ModuleComponentSelector) || isDynamic(((ModuleComponentSelector) requested).getVersionConstraint())) {
+                    return false;
+                }
+                ResolvedComponentResult selected = ((ResolvedDependencyResult) dependency).getSelected();
+                if (seen.put(selected, Boolean.TRUE) == null) {
+                    queue.addLast(selected);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isReusableComponent(ResolvedComponentResult component, ModuleReplacementsData moduleReplacements) {
+        ComponentIdentifier id = component.getId();
+        if (!(id instanceof ModuleComponentIdentifier) || id instanceof MavenUniqueSnapshotComponentIdentifier) {
+            return false;
+        }
+        ModuleComponentIdentifier moduleId = (ModuleComponentIdentifier) id;
+        if (moduleId.getVersion().endsWith("-SNAPSHOT") || moduleReplacements.participatesInReplacements(moduleId.getModuleIdentifier())) {
+            return false;
+        }
+        for (ComponentSelectionDescriptor description : component.getSelectionReason().getDescriptions()) {
+            ComponentSelectionCause cause = description.getCause();
+            if (cause == ComponentSelectionCause.SELECTED_BY_RULE || cause == ComponentSelectionCause.COMPOSITE_BUILD) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isDynamic(VersionConstraint versionConstraint) {
+        if (versionConstraint.getBranch() != null) {
+            return true;
+        }
+        return isDynamic(versionConstraint.getRequiredVersion())
+            || isDynamic(versionConstraint.getPreferredVersion())
+            || isDynamic(versionConstraint.getStrictVersion());
+    }
+
+    private boolean isDynamic(String version) {
+        return !version.isEmpty() && versionSelectorScheme.parseSelector(version).isDynamic();
+    }
+
+    private static boolean hasContentFilter(ContentFilteringRepository repository) {
+        return repository.getContentFilter() != Actions.doNothing()
+            || repository.getIncludedConfigurations() != null
+            || repository.getExcludedConfigurations() != null
+            || repository.getRequiredAttributes() != null;
+    }
+
+    private static boolean isRemote(RepositoryDescriptor repository) {
+        if (!(repository instanceof UrlRepositoryDescriptor)) {
+            return false;
+        }
+        URI url = ((UrlRepositoryDescriptor) repository).url;
+        return url != null && !"file".equals(url.getScheme());
+    }
+
+    private static void putRepository(Hasher hasher, RepositoryDescriptor repository) {
+        hasher.putString(repository.getId());
+        hasher.putString(repository.getType().name());
+        Map<String, ?> properties = repository.getProperties();
+        hasher.putInt(properties.size());
+        for (Map.Entry<String, ?> property : properties.entrySet()) {
+            hasher.putString(property.getKey());
+            hasher.putString(String.valueOf(property.getValue()));
+        }
+    }
+
+    private static void putSelector(Hasher hasher, ModuleComponentSelector selector) {
+        hasher.putString(selector.getGroup());
+        hasher.putString(selector.getModule());
+        VersionConstraint versionConstraint = selector.getVersionConstraint();
+        hasher.putString(versionConstraint.getRequiredVersion());
+        hasher.putString(versionConstraint.getPreferredVersion());
+        hasher.putString(versionConstraint.getStrictVersion());
+        hasher.putInt(versionConstraint.getRejectedVersions().size());
+        for (String rejectedVersion : versionConstraint.getRejectedVersions()) {
+            hasher.putString(rejectedVersion);
+        }
+        putAttributes(hasher, selector.getAttributes());
+        hasher.putInt(selector.getRequestedCapabilities().size());
+        for (Capability capability : selector.getRequestedCapabilities()) {
+            hasher.putString(capability.getGroup());
+            hasher.putString(capability.getName());
+            putNullableString(hasher, capability.getVersion());
+        }
+    }
+
+    private static void putAttributes(Hasher hasher, AttributeContainer attributes) {
+        List<Attribute<?>> keys = attributes.keySet().stream()
+            .sorted(Comparator.comparing(Attribute::getName))
+            .collect(Collectors.toList());
+        hasher.putInt(keys.size());
+        for (Attribute<?> key : keys) {
+            hasher.putString(key.getName());
+            hasher.putString(String.valueOf(attributes.getAttribute(key)));
+        }
+    }
+
+    private static void putExcludes(Hasher hasher, List<? extends ExcludeMetadata> excludes) {
+        hasher.putInt(excludes.size());
+        for (ExcludeMetadata exclude : excludes) {
+            hasher.putString(exclude.getModuleId().getGroup());
+            hasher.putString(exclude.getModuleId().getName());
+            putNullableString(hasher, exclude.getMatcher());
+            IvyArtifactName artifact = exclude.getArtifact();
+            hasher.putBoolean(artifact != null);
+            if (artifact != null) {
+                putArtifact(hasher, artifact);
+            }
+        }
+    }
+
+    private static void putArtifact(Hasher hasher, IvyArtifactName artifact) {
+        hasher.putString(artifact.getName());
+        hasher.putString(artifact.getType());
+        putNullableString(hasher, artifact.getExtension());
+        putNullableString(hasher, artifact.getClassifier());
+    }
+
+    private static void putNullableString(Hasher hasher, @Nullable String value) {
+        if (value == null) {
+            hasher.putNull();
+        } else {
+            hasher.putString(value);
+        }
+    }
+
+    private static class DeferredSelectedArtifactSet implements SelectedArtifactSet {
+        private final Lazy<SelectedArtifactSet> delegate;
+
+        DeferredSelectedArtifactSet(Supplier<SelectedArtifactSet> delegate) {
+            this.delegate = Lazy.locking().of(delegate);
+        }
+
+        @Override
+        public void visitDependencies(TaskDependencyResolveContext context) {
+            delegate.get().visitDependencies(context);
+        }
+
+        @Override
+        public void visitArtifacts(ArtifactVisitor visitor, boolean continueOnSelectionFailure) {
+            delegate.get().visitArtifacts(visitor, continueOnSelectionFailure);
+        }
+    }
+
+    private static class DeferredLegacyResolverResults implements ResolverResults.LegacyResolverResults {
+        private final Lazy<ResolverResults> fullResults;
+
+        DeferredLegacyResolverResults(Lazy<ResolverResults> fullResults) {
+            this.fullResults = fullResults;
+        }
+
+        @Override
+        public LegacyVisitedArtifactSet getLegacyVisitedArtifactSet() {
+            return new DeferredLegacyVisitedArtifactSet(fullResults);
+        }
+
+        @Override
+        public ResolvedConfiguration getResolvedConfiguration() {
+            return fullResults.get().getLegacyResults().getResolvedConfiguration();
+        }
+    }
+
+    private static class DeferredLegacyVisitedArtifactSet implements ResolverResults.LegacyResolverResults.LegacyVisitedArtifactSet {
+        private final Lazy<ResolverResults> fullResults;
+
+        DeferredLegacyVisitedArtifactSet(Lazy<ResolverResults> fullResults) {
+            this.fullResults = fullResults;
+        }
+
+        @Override
+        public SelectedArtifactSet select(Spec<? super Dependency> dependencySpec) {
+            return new DeferredSelectedArtifactSet(() -> fullResults.get().getLegacyResults().getLegacyVisitedArtifactSet().select(dependencySpec));
+        }
+    }
+}
@@ -24,6 +24,7 @@
 import org.gradle.api.artifacts.ResolveException;
 import org.gradle.api.artifacts.UnresolvedDependency;
 import org.gradle.api.artifacts.component.BuildIdentifier;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
 import org.gradle.api.artifacts.component.ProjectComponentSelector;
 import org.gradle.api.artifacts.result.ResolvedComponentResult;
 import org.gradle.api.attributes.Attribute;
@@ -49,12 +50,17 @@
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.ComponentResolversChain;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.DependencyGraphResolver;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.ArtifactSelectionSpec;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.ArtifactSet;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.DefaultResolvedArtifactsBuilder;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.DefaultVisitedArtifactResults;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.DefaultVisitedArtifactSet;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.DependencyArtifactsVisitor;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.NoBuildDependenciesArtifactSet;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.ResolvedArtifactSetResolver;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.ResolvedArtifactsGraphVisitor;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.ResolvedVariantCache;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.VariantArtifactSetDescriptor;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.VariantResolvingArtifactSet;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.VisitedArtifactResults;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.VisitedArtifactSet;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.VisitedFileDependencyResults;
@@ -95,15 +101,26 @@
 import org.gradle.cache.internal.BinaryStore;
 import org.gradle.cache.internal.Store;
 import org.gradle.internal.build.BuildState;
+import org.gradle.internal.component.model.ComponentGraphResolveState;
+import org.gradle.internal.component.model.DefaultComponentOverrideMetadata;
 import org.gradle.internal.component.model.DependencyMetadata;
+import org.gradle.internal.component.model.GraphSelectionCandidates;
 import org.gradle.internal.component.model.GraphVariantSelector;
+import org.gradle.internal.component.model.IvyArtifactName;
+import org.gradle.internal.component.model.VariantGraphResolveState;
 import org.gradle.internal.locking.DependencyLockingGraphVisitor;
 import org.gradle.internal.model.CalculatedValueContainerFactory;
 import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver;
+import org.gradle.internal.resolve.resolver.DefaultVariantArtifactResolver;
+import org.gradle.internal.resolve.resolver.VariantArtifactResolver;
+import org.gradle.internal.resolve.result.BuildableComponentResolveResult;
+import org.gradle.internal.resolve.result.DefaultBuildableComponentResolveResult;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -328,6 +345,88 @@ public ResolverResults resolveGraph(ResolveContext resolveContext) {
         return DefaultResolverResults.graphResolved(graphResults, visitedArtifacts, legacyResolverResults);
     }
 
+    /**
+     * Describes the artifacts visited by a resolution of this resolver, in the order they were visited, so that they can be recreated
+     * by {@link #rebuildVisitedArtifacts(ResolveContext, VisitedGraphResults, List)} for another resolution of the same graph.
+     * Returns null when some artifacts cannot be described, such as file dependencies or artifacts affected by exclusions.
+     */
+    @Nullable
+    public List<VariantArtifactSetDescriptor> describeVisitedArtifacts(ResolverResults results) {
+        VisitedArtifactSet visitedArtifacts = results.getVisitedArtifacts();
+        if (!(visitedArtifacts instanceof DefaultVisitedArtifactSet)) {
+            return null;
+        }
+        VisitedArtifactResults artifactsResults = ((DefaultVisitedArtifactSet) visitedArtifacts).getArtifactsResults();
+        if (!(artifactsResults instanceof DefaultVisitedArtifactResults)) {
+            return null;
+        }
+        List<ArtifactSet> artifactSets = ((DefaultVisitedArtifactResults) artifactsResults).getArtifactsById();
+        List<VariantArtifactSetDescriptor> descriptors = new ArrayList<>(artifactSets.size());
+        for (ArtifactSet artifactSet : artifactSets) {
+            if (artifactSet instanceof NoBuildDependenciesArtifactSet) {
+                artifactSet = ((NoBuildDependenciesArtifactSet) artifactSet).getDelegate();
+            }
+            if (!(artifactSet instanceof VariantResolvingArtifactSet)) {
+                return null;
+            }
+            VariantArtifactSetDescriptor descriptor = ((VariantResolvingArtifactSet) artifactSet).describe();
+            if (descriptor == null) {
+                return null;
+            }
+            descriptors.add(descriptor);
+        }
+        return descriptors;
+    }
+
+    /**
+     * Recreates the artifacts described by {@link #describeVisitedArtifacts(ResolverResults)} for a graph that was not resolved by this
+     * resolution. Only the metadata of the components contributing artifacts is resolved, which is served by the module metadata caches
+     * when the graph is reused. Returns null when a component or one of its variants is not found.
+     */
+    @Nullable
+    public VisitedArtifactSet rebuildVisitedArtifacts(ResolveContext resolveContext, VisitedGraphResults graphResults, List<VariantArtifactSetDescriptor> descriptors) {
+        ComponentResolvers resolvers = getResolvers(resolveContext, getFilteredRepositories(resolveContext));
+        ComponentMetaDataResolver componentResolver = resolvers.getComponentResolver();
+        VariantArtifactResolver variantResolver = new DefaultVariantArtifactResolver(resolvers.getArtifactResolver(), artifactTypeRegistry, resolvedVariantCache);
+
+        Map<ComponentIdentifier, ComponentGraphResolveState> components = new HashMap<>();
+        List<ArtifactSet> artifactSets = new ArrayList<>(descriptors.size());
+        for (VariantArtifactSetDescriptor descriptor : descriptors) {
+            ComponentGraphResolveState component = components.get(descriptor.getComponentId());
+            if (component == null) {
+                IvyArtifactName mainArtifact = descriptor.getArtifacts().isEmpty() ? null : descriptor.getArtifacts().get(0);
+                BuildableComponentResolveResult result = new DefaultBuildableComponentResolveResult();
+                componentResolver.resolve(descriptor.getComponentId(), DefaultComponentOverrideMetadata.forDependency(false, mainArtifact, null), result);
+                if (!result.hasResult() || result.getFailure() != null) {
+                    return null;
+                }
+                component = result.getState();
+                components.put(descriptor.getComponentId(), component);
+            }
+            VariantGraphResolveState variant = findVariant(component, descriptor.getVariantName());
+            if (variant == null) {
+                return null;
+            }
+            ArtifactSet artifacts = new VariantResolvingArtifactSet(variantResolver, component, variant, descriptor, graphVariantSelector, consumerSchema);
+            artifactSets.add(buildProjectDependencies ? artifacts : new NoBuildDependenciesArtifactSet(artifacts));
+        }
+
+        ArtifactVariantSelector artifactVariantSelector = variantSelectorFactory.create(resolveContext.getDependenciesResolverFactory());
+        VisitedArtifactResults artifactsResults = new DefaultVisitedArtifactResults(Collections.unmodifiableList(artifactSets));
+        return new DefaultVisitedArtifactSet(graphResults, resolveContext.getResolutionHost(), artifactsResults, artifactSetResolver, artifactVariantSelector);
+    }
+
+    @Nullable
+    private static VariantGraphResolveState findVariant(ComponentGraphResolveState component, String name) {
+        GraphSelectionCandidates candidates = component.getCandidatesForGraphVariantSelection();
+        for (VariantGraphResolveState variant : candidates.getVariantsForAttributeMatching()) {
+            if (variant.getName().equals(name)) {
+                return variant;
+            }
+        }
+        return candidates.getVariantByConfigurationName(name);
+    }
+
     private static ArtifactSelectionSpec getImplicitSelectionSpec(ResolveContext resolveContext) {
         ImmutableAttributes requestAttributes = resolveContext.getAttributes().asImmutable();
         ResolutionStrategy.SortOrder sortOrder = resolveContext.getResolutionStrategy().getSortOrder();
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice;
+
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.VariantArtifactSetDescriptor;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.hash.HashCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The dependency graphs resolved so far in the build tree, keyed by a fingerprint of the resolution that does not include the root
+ * component, so that configurations of different projects with the same dependencies and rules can share one resolution.
+ * Each graph is kept with the descriptions of its artifacts, so that the configurations sharing it can also recreate its artifacts
+ * without resolving the graph again.
+ * <p>
+ * Counts how many distinct graphs were resolved and how many resolutions reused one of them, and logs both when the build tree finishes.
+ */
+public class SharedResolvedGraphs implements Stoppable {
+    public static final String ENABLED_PROPERTY = "org.gradle.internal.dependency-resolution.shared-graphs";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedResolvedGraphs.class);
+
+    private final ConcurrentMap<Key, SharedGraph> graphs = new ConcurrentHashMap<>();
+    private final AtomicInteger distinctCount = new AtomicInteger();
+    private final AtomicInteger reusedCount = new AtomicInteger();
+
+    /**
+     * Returns the graph resolved earlier for the given fingerprint and consumer schema, if any.
+     */
+    @Nullable
+    public SharedGraph find(HashCode fingerprint, Object consumerSchemaKey) {
+        return graphs.get(new Key(fingerprint, consumerSchemaKey));
+    }
+
+    public void store(HashCode fingerprint, Object consumerSchemaKey, ResolvedComponentResult root, @Nullable List<VariantArtifactSetDescriptor> artifacts) {
+        if (graphs.putIfAbsent(new Key(fingerprint, consumerSchemaKey), new SharedGraph(root, artifacts)) == null) {
+            distinctCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records that a resolution used a graph returned by {@link #find(HashCode, Object)}.
+     */
+    public void reused() {
+        reusedCount.incrementAndGet();
+    }
+
+    public int getDistinctCount() {
+        return distinctCount.get();
+    }
+
+    public int getReusedCount() {
+        return reusedCount.get();
+    }
+
+    @Override
+    public void stop() {
+        if (distinctCount.get() > 0) {
+            LOGGER.info("Resolved {} distinct dependency graphs, which were reused by {} other resolutions.", distinctCount.get(), reusedCount.get());
+        }
+        graphs.clear();
+    }
+
+    public static class SharedGraph {
+        private final ResolvedComponentResult root;
+        private final List<VariantArtifactSetDescriptor> artifacts;
+
+        SharedGraph(ResolvedComponentResult root, @Nullable List<VariantArtifactSetDescriptor> artifacts) {
+            this.root = root;
+            this.artifacts = artifacts;
+        }
+
+        public ResolvedComponentResult getRoot() {
+            return root;
+        }
+
+        /**
+         * The descriptions of the artifacts of the graph, or null when they could not be described.
+         */
+        @Nullable
+        public List<VariantArtifactSetDescriptor> getArtifacts() {
+            return artifacts;
+        }
+    }
+
+    private static class Key {
+        private final HashCode fingerprint;
+        private final Object consumerSchemaKey;
+        private final int hashCode;
+
+        Key(HashCode fingerprint, Object consumerSchemaKey) {
+            this.fingerprint = fingerprint;
+            this.consumerSchemaKey = consumerSchemaKey;
+            this.hashCode = 31 * fingerprint.hashCode() + consumerSchemaKey.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return fingerprint.equals(key.fingerprint) && Objects.equals(consumerSchemaKey, key.consumerSchemaKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
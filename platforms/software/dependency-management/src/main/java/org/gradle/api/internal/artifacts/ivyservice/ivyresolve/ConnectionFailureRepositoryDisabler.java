@@ -32,6 +32,7 @@
 @ServiceScope(Scope.BuildTree.class)
 public class ConnectionFailureRepositoryDisabler implements RepositoryDisabler {
     private static final Logger LOGGER = Logging.getLogger(ConnectionFailureRepositoryDisabler.class);
+    private static final ThreadLocal<Boolean> SPECULATIVE = ThreadLocal.withInitial(() -> false);
 
     private final Map<String, Throwable> disabledRepositories = new ConcurrentHashMap<>();
 
@@ -53,6 +54,11 @@ public boolean tryDisableRepository(String repositoryId, Throwable reason) {
             return true;
         }
 
+        if (SPECULATIVE.get()) {
+            LOGGER.debug("Repository {} is not disabled, as the failed request was made speculatively", repositoryId);
+            return false;
+        }
+
         if (isCriticalFailure(reason)) {
             LOGGER.debug("Repository {} has been disabled for this build due to connectivity issues", repositoryId);
             disabledRepositories.put(repositoryId, reason);
@@ -62,6 +68,20 @@ public boolean tryDisableRepository(String repositoryId, Throwable reason) {
         return false;
     }
 
+    /**
+     * Runs the given action so that none of the requests it makes disables a repository when it fails.
+     * Used for requests made ahead of need, such as prefetching metadata, whose failure the build may never see.
+     */
+    public static void runSpeculatively(Runnable action) {
+        boolean previous = SPECULATIVE.get();
+        SPECULATIVE.set(true);
+        try {
+            action.run();
+        } finally {
+            SPECULATIVE.set(previous);
+        }
+    }
+
     @VisibleForTesting
     public Set<String> getDisabledRepositories() {
         return disabledRepositories.keySet();
@@ -16,6 +16,7 @@
 package org.gradle.api.internal.artifacts.ivyservice.ivyresolve;
 
 import org.gradle.api.Action;
+import org.gradle.api.artifacts.ComponentMetadata;
 import org.gradle.api.artifacts.component.ComponentIdentifier;
 import org.gradle.api.artifacts.result.ArtifactResult;
 import org.gradle.api.attributes.AttributeContainer;
@@ -59,10 +60,12 @@
 import org.gradle.internal.resolve.result.BuildableArtifactSetResolveResult;
 import org.gradle.internal.resolve.result.BuildableComponentIdResolveResult;
 import org.gradle.internal.resolve.result.BuildableComponentResolveResult;
+import org.gradle.internal.work.WorkerLeaseService;
 import org.gradle.util.internal.BuildCommencedTimeProvider;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Creates resolvers that can resolve module components from repositories.
@@ -82,6 +85,7 @@ public class ExternalModuleComponentResolverFactory {
     private final CalculatedValueFactory calculatedValueFactory;
     private final ImmutableAttributesFactory attributesFactory;
     private final ComponentMetadataSupplierRuleExecutor componentMetadataSupplierRuleExecutor;
+    private final WorkerLeaseService workerLeaseService;
 
     private final DependencyVerificationOverride dependencyVerificationOverride;
     private final ChangingValueDependencyResolutionListener listener;
@@ -99,7 +103,8 @@ public ExternalModuleComponentResolverFactory(
         ModuleComponentGraphResolveStateFactory moduleResolveStateFactory,
         CalculatedValueFactory calculatedValueFactory,
         ImmutableAttributesFactory attributesFactory,
-        ComponentMetadataSupplierRuleExecutor componentMetadataSupplierRuleExecutor
+        ComponentMetadataSupplierRuleExecutor componentMetadataSupplierRuleExecutor,
+        WorkerLeaseService workerLeaseService
     ) {
         this.cacheProvider = cacheProvider;
         this.startParameterResolutionOverride = startParameterResolutionOverride;
@@ -114,6 +119,7 @@ public ExternalModuleComponentResolverFactory(
         this.calculatedValueFactory = calculatedValueFactory;
         this.attributesFactory = attributesFactory;
         this.componentMetadataSupplierRuleExecutor = componentMetadataSupplierRuleExecutor;
+        this.workerLeaseService = workerLeaseService;
     }
 
     /**
@@ -121,7 +127,7 @@ public ExternalModuleComponentResolverFactory(
      */
     public ComponentResolvers createResolvers(
         Collection<? extends ResolutionAwareRepository> repositories,
-        ComponentMetadataProcessorFactory metadataProcessor,
+        ComponentMetadataProcessorFactory rulesProcessor,
         ComponentSelectionRulesInternal componentSelectionRules,
         boolean dependencyVerificationEnabled,
         CachePolicy cachePolicy,
@@ -132,6 +138,8 @@ public ComponentResolvers createResolvers(
             return new NoRepositoriesResolver();
         }
 
+        ComponentMetadataProcessorFactory metadataProcessor = new WorkerThreadComponentMetadataProcessorFactory(rulesProcessor, workerLeaseService);
+
         UserResolverChain moduleResolver = new UserResolverChain(versionComparator, componentSelectionRules, versionParser, consumerAttributes, consumerSchema, attributesFactory, metadataProcessor, componentMetadataSupplierRuleExecutor, calculatedValueFactory, cachePolicy);
         ParentModuleLookupResolver parentModuleResolver = new ParentModuleLookupResolver(versionComparator, moduleIdentifierFactory, versionParser, consumerAttributes, consumerSchema, attributesFactory, metadataProcessor, componentMetadataSupplierRuleExecutor, calculatedValueFactory, cachePolicy);
 
@@ -286,4 +294,52 @@ public Instantiator getInjectingInstantiator() {
             return instantiator;
         }
     }
+
+    /**
+     * Runs component metadata rules as a worker thread.
+     * <p>
+     * Metadata can be fetched by operations that run without a worker lease, as they spend most of their time waiting on the network.
+     * The rules are user code that may do CPU-bound work, so the thread acquires a worker lease while it runs them, when it does not hold one already.
+     */
+    private static class WorkerThreadComponentMetadataProcessorFactory implements ComponentMetadataProcessorFactory {
+        private final ComponentMetadataProcessorFactory delegate;
+        private final WorkerLeaseService workerLeaseService;
+
+        private WorkerThreadComponentMetadataProcessorFactory(ComponentMetadataProcessorFactory delegate, WorkerLeaseService workerLeaseService) {
+            this.delegate = delegate;
+            this.workerLeaseService = workerLeaseService;
+        }
+
+        @Override
+        public ComponentMetadataProcessor createComponentMetadataProcessor(MetadataResolutionContext resolutionContext) {
+            ComponentMetadataProcessor processor = delegate.createComponentMetadataProcessor(resolutionContext);
+            return new ComponentMetadataProcessor() {
+                @Override
+                public ModuleComponentResolveMetadata processMetadata(ModuleComponentResolveMetadata metadata) {
+                    return workerLeaseService.runAsWorkerThread(() -> processor.processMetadata(metadata));
+                }
+
+                @Override
+                public ComponentMetadata processMetadata(ComponentMetadata metadata) {
+                    return workerLeaseService.runAsWorkerThread(() -> processor.processMetadata(metadata));
+                }
+
+                @Override
+                public int getRulesHash() {
+                    return processor.getRulesHash();
+                }
+            };
+        }
+
+        @Override
+        public int getRulesHash() {
+            return delegate.getRulesHash();
+        }
+
+        @Nullable
+        @Override
+        public List<Object> getRulesInputs() {
+            return delegate.getRulesInputs();
+        }
+    }
 }
@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.artifacts.ivyservice.ivyresolve;
 
+import com.google.common.collect.ImmutableList;
 import org.gradle.StartParameter;
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
 import org.gradle.api.artifacts.verification.DependencyVerificationMode;
@@ -39,6 +40,8 @@
 import org.gradle.internal.component.model.ComponentOverrideMetadata;
 import org.gradle.internal.component.model.ModuleSources;
 import org.gradle.internal.hash.ChecksumService;
+import org.gradle.internal.hash.HashFunction;
+import org.gradle.internal.hash.Hashing;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.resolve.ArtifactResolveException;
 import org.gradle.internal.resolve.ModuleVersionResolveException;
@@ -58,7 +61,9 @@
 
 import javax.annotation.Nullable;
 import java.io.File;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @ServiceScope(Scope.BuildTree.class)
 public class StartParameterResolutionOverride {
@@ -186,6 +191,46 @@ public ExternalResourceConnector overrideExternalResourceConnector(ExternalResou
         return original;
     }
 
+    /**
+     * Returns the checksums to calculate while downloading a file, so that the downloaded file does not need to be read again to calculate them.
+     * The SHA-1 checksum is always needed, to store the file in the cache. The other checksums are only needed by dependency verification.
+     */
+    public List<HashFunction> downloadChecksums() {
+        Set<HashFunction> checksums = new LinkedHashSet<>();
+        checksums.add(Hashing.sha1());
+        List<String> writtenChecksums = startParameter.getWriteDependencyVerifications();
+        if (!writtenChecksums.isEmpty()) {
+            for (String checksum : writtenChecksums) {
+                HashFunction hashFunction = hashFunctionFor(checksum);
+                if (hashFunction != null) {
+                    checksums.add(hashFunction);
+                }
+            }
+        } else if (startParameter.getDependencyVerificationMode() != DependencyVerificationMode.OFF && DependencyVerificationOverride.dependencyVerificationsFile(gradleDir).exists()) {
+            // The checksums that dependency verification writes by default
+            checksums.add(Hashing.sha256());
+            checksums.add(Hashing.sha512());
+        }
+        return ImmutableList.copyOf(checksums);
+    }
+
+    @Nullable
+    private static HashFunction hashFunctionFor(String checksum) {
+        switch (checksum) {
+            case "md5":
+                return Hashing.md5();
+            case "sha1":
+                return Hashing.sha1();
+            case "sha256":
+                return Hashing.sha256();
+            case "sha512":
+                return Hashing.sha512();
+            default:
+                // Not a checksum, for example "pgp"
+                return null;
+        }
+    }
+
     private static class OfflineExternalResourceConnector implements ExternalResourceConnector {
         @Nullable
         @Override
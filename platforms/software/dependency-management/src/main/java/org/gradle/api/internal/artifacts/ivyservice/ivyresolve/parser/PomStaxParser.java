@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.io.IOUtils;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.classloader.ClassLoaderUtils;
+import org.gradle.internal.xml.XmlFactories;
+
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.PomDomParser.AddDTDFilterInputStream;
+
+/**
+ * A streaming POM parser, which only retains the parts of a POM that are used for dependency resolution.
+ * <p>
+ * Elements such as {@code build}, {@code reporting}, {@code developers} or {@code licenses} are skipped without
+ * being materialized. Whitespace-only text between child elements is dropped.
+ * Property interpolation is left to the consumer of the parsed elements.
+ */
+public final class PomStaxParser {
+    private static final Set<String> PROJECT_ELEMENTS = ImmutableSet.of(
+        "groupId", "artifactId", "version", "packaging", "parent", "dependencies", "dependencyManagement", "distributionManagement", "properties", "profiles"
+    );
+    private static final Set<String> PROFILE_ELEMENTS = ImmutableSet.of(
+        "id", "activation", "properties", "dependencies", "dependencyManagement"
+    );
+    private static final byte[] M2_ENTITIES_RESOURCE;
+    private static final XMLInputFactory INPUT_FACTORY;
+
+    static {
+        byte[] bytes;
+        try {
+            bytes = IOUtils.toByteArray(org.apache.ivy.plugins.parser.m2.PomReader.class.getResourceAsStream("m2-entities.ent"));
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        M2_ENTITIES_RESOURCE = bytes;
+
+        // Set the context classloader the bootstrap classloader, to work around the way that JAXP locates implementation classes
+        // This should ensure that the JAXP classes provided by the JVM are used, rather than some other implementation
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(ClassLoaderUtils.getPlatformClassLoader());
+        try {
+            INPUT_FACTORY = XmlFactories.newXMLInputFactory();
+            INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+            INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+            INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+            INPUT_FACTORY.setXMLResolver(PomStaxParser::resolveM2Entities);
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    private PomStaxParser() {}
+
+    @Nullable
+    private static Object resolveM2Entities(String publicId, String systemId, String baseUri, String namespace) {
+        if (systemId != null && systemId.endsWith("m2-entities.ent")) {
+            return new ByteArrayInputStream(M2_ENTITIES_RESOURCE);
+        }
+        return null;
+    }
+
+    public static PomDocument parse(InputStream stream, String systemId) throws IOException, XMLStreamException {
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(systemId, new AddDTDFilterInputStream(stream));
+        try {
+            while (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                // Skip the prolog
+            }
+            MarkerCommentVisitor markerVisitor = new MarkerCommentVisitor();
+            PomElement projectElement = readElement(reader, Scope.PROJECT, markerVisitor);
+            return new PomDocument(systemId, projectElement, markerVisitor.gradleMetadataMarker);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Nullable
+    public static PomElement getFirstChildElement(@Nullable PomElement parent, String name) {
+        return parent == null ? null : parent.getFirstChild(name);
+    }
+
+    @Nullable
+    public static String getFirstChildText(@Nullable PomElement parent, String name) {
+        PomElement child = getFirstChildElement(parent, name);
+        return child == null ? null : child.getText();
+    }
+
+    public static List<PomElement> getAllChilds(@Nullable PomElement parent) {
+        return parent == null ? Collections.emptyList() : parent.getChildren();
+    }
+
+    /**
+     * Reads the element at the current start tag, up to and including its end tag.
+     */
+    private static PomElement readElement(XMLStreamReader reader, Scope scope, @Nullable MarkerCommentVisitor commentVisitor) throws XMLStreamException {
+        String name = reader.getLocalName();
+        String text = null;
+        StringBuilder textBuilder = null;
+        List<PomElement> children = null;
+        boolean hasChildElements = false;
+
+        while (true) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (!hasChildElements) {
+                        hasChildElements = true;
+                        if (text != null && isWhitespace(text, textBuilder)) {
+                            text = null;
+                            textBuilder = null;
+                        }
+                    }
+                    Scope childScope = scope.childScope(reader.getLocalName());
+                    if (childScope == null) {
+                        skipElement(reader);
+                    } else {
+                        if (children == null) {
+                            children = new ArrayList<>();
+                        }
+                        children.add(readElement(reader, childScope, null));
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (hasChildElements && reader.isWhiteSpace()) {
+                        break;
+                    }
+                    if (text == null) {
+                        text = reader.getText();
+                    } else {
+                        if (textBuilder == null) {
+                            textBuilder = new StringBuilder(text);
+                        }
+                        textBuilder.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.COMMENT:
+                    if (commentVisitor != null) {
+                        commentVisitor.visitComment(reader);
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    String content = textBuilder != null ? textBuilder.toString() : text != null ? text : "";
+                    return new PomElement(name, content, children == null ? Collections.emptyList() : children);
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static boolean isWhitespace(String text, @Nullable StringBuilder textBuilder) {
+        CharSequence content = textBuilder != null ? textBuilder : text;
+        for (int i = 0; i < content.length(); i++) {
+            if (!Character.isWhitespace(content.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Which children of an element are retained.
+     */
+    private enum Scope {
+        PROJECT {
+            @Override
+            Scope childScope(String name) {
+                if ("profiles".equals(name)) {
+                    return PROFILES;
+                }
+                return PROJECT_ELEMENTS.contains(name) ? ALL : null;
+            }
+        },
+        PROFILES {
+            @Override
+            Scope childScope(String name) {
+                return "profile".equals(name) ? PROFILE : null;
+            }
+        },
+        PROFILE {
+            @Override
+            Scope childScope(String name) {
+                return PROFILE_ELEMENTS.contains(name) ? ALL : null;
+            }
+        },
+        ALL {
+            @Override
+            Scope childScope(String name) {
+                return ALL;
+            }
+        };
+
+        /**
+         * Returns the scope of the child element with the given name, or null when it should be skipped.
+         */
+        @Nullable
+        abstract Scope childScope(String name);
+    }
+
+    private static class MarkerCommentVisitor {
+        boolean gradleMetadataMarker;
+
+        void visitComment(XMLStreamReader reader) {
+            if (!gradleMetadataMarker) {
+                String comment = reader.getText();
+                gradleMetadataMarker = comment.contains(MetaDataParser.GRADLE_6_METADATA_MARKER) || comment.contains(MetaDataParser.GRADLE_METADATA_MARKER);
+            }
+        }
+    }
+
+    public static final class PomDocument {
+        private final String systemId;
+        private final PomElement projectElement;
+        private final boolean gradleMetadataMarker;
+
+        private PomDocument(String systemId, PomElement projectElement, boolean gradleMetadataMarker) {
+            this.systemId = systemId;
+            this.projectElement = projectElement;
+            this.gradleMetadataMarker = gradleMetadataMarker;
+        }
+
+        public String getSystemId() {
+            return systemId;
+        }
+
+        public PomElement getProjectElement() {
+            return projectElement;
+        }
+
+        /**
+         * Whether the project element directly contains a comment marking the module as published with Gradle metadata.
+         */
+        public boolean hasGradleMetadataMarker() {
+            return gradleMetadataMarker;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache;
+
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.ivyservice.ArtifactCacheLockingAccessCoordinator;
+import org.gradle.api.internal.artifacts.ivyservice.ArtifactCachesProvider;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.VariantArtifactSetDescriptor;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.CompleteResolvedGraphSerializer;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.ComponentSelectionDescriptorFactory;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.DesugaredAttributeContainerSerializer;
+import org.gradle.api.internal.attributes.ImmutableAttributesFactory;
+import org.gradle.api.internal.model.NamedObjectInstantiator;
+import org.gradle.cache.IndexedCache;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.lazy.Lazy;
+import org.gradle.internal.serialize.AbstractSerializer;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.HashCodeSerializer;
+import org.gradle.internal.serialize.ListSerializer;
+import org.gradle.internal.serialize.Serializer;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import java.util.List;
+
+/**
+ * A persistent cache of resolved dependency graphs, stored alongside the module metadata caches and keyed by
+ * a fingerprint of everything that went into the resolution.
+ * <p>
+ * Each graph is stored with the time it was resolved, so that the caller can check that the module metadata it was resolved from did not
+ * change since, and with the descriptions of its artifacts, so that they can be recreated without resolving the graph again.
+ * Computing the fingerprint, and deciding what is safe to cache, is left to the caller.
+ */
+public class ResolvedGraphCache {
+    private final ArtifactCacheLockingAccessCoordinator cacheAccessCoordinator;
+    private final Lazy<IndexedCache<HashCode, CachedGraph>> cache;
+
+    @Inject
+    public ResolvedGraphCache(
+        ArtifactCachesProvider artifactCaches,
+        ComponentSelectionDescriptorFactory componentSelectionDescriptorFactory,
+        ImmutableModuleIdentifierFactory moduleIdentifierFactory,
+        ImmutableAttributesFactory attributesFactory,
+        NamedObjectInstantiator namedObjectInstantiator,
+        DesugaredAttributeContainerSerializer attributeContainerSerializer
+    ) {
+        this.cacheAccessCoordinator = artifactCaches.getWritableCacheAccessCoordinator();
+        CompleteResolvedGraphSerializer graphSerializer = new CompleteResolvedGraphSerializer(
+            componentSelectionDescriptorFactory,
+            moduleIdentifierFactory,
+            attributesFactory,
+            namedObjectInstantiator,
+            attributeContainerSerializer
+        );
+        CachedGraphSerializer serializer = new CachedGraphSerializer(graphSerializer, new VariantArtifactSetDescriptor.DescriptorSerializer(attributeContainerSerializer));
+        this.cache = Lazy.locking().of(() -> cacheAccessCoordinator.createCache("resolved-graphs", new HashCodeSerializer(), serializer));
+    }
+
+    @Nullable
+    public CachedGraph load(HashCode key) {
+        return cacheAccessCoordinator.useCache(() -> cache.get().getIfPresent(key));
+    }
+
+    public void store(HashCode key, CachedGraph graph) {
+        cacheAccessCoordinator.useCache(() -> cache.get().put(key, graph));
+    }
+
+    public static class CachedGraph {
+        private final long timestamp;
+        private final ResolvedComponentResult root;
+        @Nullable
+        private final List<VariantArtifactSetDescriptor> artifacts;
+
+        public CachedGraph(long timestamp, ResolvedComponentResult root, @Nullable List<VariantArtifactSetDescriptor> artifacts) {
+            this.timestamp = timestamp;
+            this.root = root;
+            this.artifacts = artifacts;
+        }
+
+        /**
+         * The time at which the graph was resolved.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public ResolvedComponentResult getRoot() {
+            return root;
+        }
+
+        /**
+         * The descriptions of the artifacts of the graph, or null when they could not be described.
+         */
+        @Nullable
+        public List<VariantArtifactSetDescriptor> getArtifacts() {
+            return artifacts;
+        }
+    }
+
+    private static class CachedGraphSerializer extends AbstractSerializer<CachedGraph> {
+        private final Serializer<ResolvedComponentResult> graphSerializer;
+        private final Serializer<List<VariantArtifactSetDescriptor>> artifactsSerializer;
+
+        CachedGraphSerializer(Serializer<ResolvedComponentResult> graphSerializer, Serializer<VariantArtifactSetDescriptor> artifactSerializer) {
+            this.graphSerializer = graphSerializer;
+            this.artifactsSerializer = new ListSerializer<>(artifactSerializer);
+        }
+
+        @Override
+        public CachedGraph read(Decoder decoder) throws Exception {
+            long timestamp = decoder.readLong();
+            ResolvedComponentResult root = graphSerializer.read(decoder);
+            List<VariantArtifactSetDescriptor> artifacts = decoder.readBoolean() ? artifactsSerializer.read(decoder) : null;
+            return new CachedGraph(timestamp, root, artifacts);
+        }
+
+        @Override
+        public void write(Encoder encoder, CachedGraph value) throws Exception {
+            encoder.writeLong(value.timestamp);
+            graphSerializer.write(encoder, value.root);
+            encoder.writeBoolean(value.artifacts != null);
+            if (value.artifacts != null) {
+                artifactsSerializer.write(encoder, value.artifacts);
+            }
+        }
+    }
+}
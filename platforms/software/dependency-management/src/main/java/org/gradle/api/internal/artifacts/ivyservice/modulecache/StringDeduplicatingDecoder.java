@@ -23,10 +23,16 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Reads what a {@link StringDeduplicatingEncoder} wrote, interning each distinct string once.
+ */
 class StringDeduplicatingDecoder implements Decoder, Closeable {
     private final Decoder delegate;
     private final Interner<String> stringInterner;
+    private final List<String> strings = new ArrayList<>();
 
     StringDeduplicatingDecoder(Decoder delegate, Interner<String> stringInterner) {
         this.delegate = delegate;
@@ -86,17 +92,27 @@ public boolean readBoolean() throws EOFException, IOException {
 
     @Override
     public String readString() throws EOFException, IOException {
-        return stringInterner.intern(delegate.readString());
+        String str = readNullableString();
+        if (str == null) {
+            throw new IOException("Unexpected null string.");
+        }
+        return str;
     }
 
     @Override
     @Nullable
     public String readNullableString() throws EOFException, IOException {
-        String str = delegate.readNullableString();
-        if (str != null) {
-            str = stringInterner.intern(str);
+        int index = delegate.readSmallInt();
+        if (index == StringDeduplicatingEncoder.NULL_STRING) {
+            return null;
         }
-        return str;
+        index--;
+        if (index == strings.size()) {
+            String str = stringInterner.intern(delegate.readString());
+            strings.add(str);
+            return str;
+        }
+        return strings.get(index);
     }
 
     @Override
@@ -32,6 +32,10 @@ public DefaultVisitedArtifactResults(List<ArtifactSet> artifactsById) {
         this.artifactsById = artifactsById;
     }
 
+    public List<ArtifactSet> getArtifactsById() {
+        return artifactsById;
+    }
+
     @Override
     public SelectedArtifactResults select(ArtifactVariantSelector variantSelector, ArtifactSelectionSpec spec, boolean lenient) {
         List<ResolvedArtifactSet> resolvedArtifactSets = new ArrayList<>(artifactsById.size());
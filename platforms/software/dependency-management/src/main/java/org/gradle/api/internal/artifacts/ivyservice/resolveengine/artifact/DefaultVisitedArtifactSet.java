@@ -44,6 +44,10 @@ public DefaultVisitedArtifactSet(
         this.artifactVariantSelector = artifactVariantSelector;
     }
 
+    public VisitedArtifactResults getArtifactsResults() {
+        return artifactsResults;
+    }
+
     @Override
     public SelectedArtifactSet select(ArtifactSelectionSpec spec) {
         SelectedArtifactResults artifacts = artifactsResults.select(artifactVariantSelector, spec, false);
@@ -27,6 +27,10 @@ public NoBuildDependenciesArtifactSet(ArtifactSet set) {
         this.set = set;
     }
 
+    public ArtifactSet getDelegate() {
+        return set;
+    }
+
     @Override
     public ResolvedArtifactSet select(ArtifactVariantSelector variantSelector, ArtifactSelectionSpec spec) {
         final ResolvedArtifactSet selectedArtifacts = set.select(variantSelector, spec);
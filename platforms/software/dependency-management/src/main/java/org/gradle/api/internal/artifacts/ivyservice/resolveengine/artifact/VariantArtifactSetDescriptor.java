@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact;
+
+import com.google.common.collect.ImmutableList;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.capabilities.Capability;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.AttributeContainerSerializer;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.CapabilitySerializer;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.ComponentIdentifierSerializer;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.IvyArtifactNameSerializer;
+import org.gradle.api.internal.attributes.ImmutableAttributes;
+import org.gradle.internal.component.model.IvyArtifactName;
+import org.gradle.internal.serialize.AbstractSerializer;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.ListSerializer;
+import org.gradle.internal.serialize.Serializer;
+
+import java.util.List;
+
+/**
+ * Describes the {@link VariantResolvingArtifactSet} of a variant in a graph, without the metadata of its component, so that the set
+ * can be recreated for another resolution of the same graph.
+ */
+public class VariantArtifactSetDescriptor {
+    private final ComponentIdentifier componentId;
+    private final String variantName;
+    private final ImmutableAttributes overriddenAttributes;
+    private final List<IvyArtifactName> artifacts;
+    private final List<Capability> capabilities;
+
+    public VariantArtifactSetDescriptor(ComponentIdentifier componentId, String variantName, ImmutableAttributes overriddenAttributes, List<IvyArtifactName> artifacts, List<Capability> capabilities) {
+        this.componentId = componentId;
+        this.variantName = variantName;
+        this.overriddenAttributes = overriddenAttributes;
+        this.artifacts = ImmutableList.copyOf(artifacts);
+        this.capabilities = ImmutableList.copyOf(capabilities);
+    }
+
+    public ComponentIdentifier getComponentId() {
+        return componentId;
+    }
+
+    public String getVariantName() {
+        return variantName;
+    }
+
+    public ImmutableAttributes getOverriddenAttributes() {
+        return overriddenAttributes;
+    }
+
+    public List<IvyArtifactName> getArtifacts() {
+        return artifacts;
+    }
+
+    public List<Capability> getCapabilities() {
+        return capabilities;
+    }
+
+    public static class DescriptorSerializer extends AbstractSerializer<VariantArtifactSetDescriptor> {
+        private final ComponentIdentifierSerializer componentIdSerializer = new ComponentIdentifierSerializer();
+        private final Serializer<List<IvyArtifactName>> artifactsSerializer = new ListSerializer<>(IvyArtifactNameSerializer.INSTANCE);
+        private final Serializer<List<Capability>> capabilitiesSerializer = new ListSerializer<>(new CapabilitySerializer());
+        private final AttributeContainerSerializer attributesSerializer;
+
+        public DescriptorSerializer(AttributeContainerSerializer attributesSerializer) {
+            this.attributesSerializer = attributesSerializer;
+        }
+
+        @Override
+        public VariantArtifactSetDescriptor read(Decoder decoder) throws Exception {
+            ComponentIdentifier componentId = componentIdSerializer.read(decoder);
+            String variantName = decoder.readString();
+            ImmutableAttributes overriddenAttributes = attributesSerializer.read(decoder);
+            List<IvyArtifactName> artifacts = artifactsSerializer.read(decoder);
+            List<Capability> capabilities = capabilitiesSerializer.read(decoder);
+            return new VariantArtifactSetDescriptor(componentId, variantName, overriddenAttributes, artifacts, capabilities);
+        }
+
+        @Override
+        public void write(Encoder encoder, VariantArtifactSetDescriptor value) throws Exception {
+            componentIdSerializer.write(encoder, value.componentId);
+            encoder.writeString(value.variantName);
+            attributesSerializer.write(encoder, value.overriddenAttributes);
+            artifactsSerializer.write(encoder, value.artifacts);
+            capabilitiesSerializer.write(encoder, value.capabilities);
+        }
+    }
+}
@@ -20,6 +20,7 @@
 import org.gradle.api.artifacts.component.ComponentIdentifier;
 import org.gradle.api.artifacts.component.ProjectComponentIdentifier;
 import org.gradle.api.capabilities.Capability;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.simple.DefaultExcludeFactory;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.specs.ExcludeSpec;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphEdge;
 import org.gradle.api.internal.artifacts.transform.ArtifactVariantSelector;
@@ -38,6 +39,7 @@
 import org.gradle.internal.lazy.Lazy;
 import org.gradle.internal.resolve.resolver.VariantArtifactResolver;
 
+import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -47,6 +49,7 @@
  * graph, in the context of the dependency referencing it.
  */
 public class VariantResolvingArtifactSet implements ArtifactSet {
+    private static final ExcludeSpec NO_EXCLUSIONS = new DefaultExcludeFactory().nothing();
 
     private final VariantArtifactResolver variantResolver;
     private final ComponentGraphResolveState component;
@@ -83,6 +86,42 @@ public VariantResolvingArtifactSet(
         this.consumerSchema = consumerSchema;
     }
 
+    /**
+     * Recreates the artifact set described by the given descriptor, for the given component and variant.
+     */
+    public VariantResolvingArtifactSet(
+        VariantArtifactResolver variantResolver,
+        ComponentGraphResolveState component,
+        VariantGraphResolveState variant,
+        VariantArtifactSetDescriptor descriptor,
+        GraphVariantSelector graphVariantSelector,
+        AttributesSchemaInternal consumerSchema
+    ) {
+        this.variantResolver = variantResolver;
+        this.component = component;
+        this.variant = variant;
+        this.componentId = component.getId();
+        this.producerSchema = component.getMetadata().getAttributesSchema();
+        this.overriddenAttributes = descriptor.getOverriddenAttributes();
+        this.artifacts = descriptor.getArtifacts();
+        this.exclusions = NO_EXCLUSIONS;
+        this.capabilities = descriptor.getCapabilities();
+        this.graphVariantSelector = graphVariantSelector;
+        this.consumerSchema = consumerSchema;
+    }
+
+    /**
+     * Describes this set, so that it can be recreated for another resolution of the same graph. Returns null when the set excludes artifacts,
+     * as exclusions are not described.
+     */
+    @Nullable
+    public VariantArtifactSetDescriptor describe() {
+        if (exclusions.mayExcludeArtifacts()) {
+            return null;
+        }
+        return new VariantArtifactSetDescriptor(componentId, variant.getName(), overriddenAttributes, artifacts, capabilities);
+    }
+
     @Override
     public ResolvedArtifactSet select(
         ArtifactVariantSelector variantSelector,
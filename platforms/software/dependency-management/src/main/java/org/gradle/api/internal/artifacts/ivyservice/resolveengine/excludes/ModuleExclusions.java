@@ -18,6 +18,7 @@
 import org.gradle.api.artifacts.ModuleIdentifier;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.factories.CachingExcludeFactory;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.factories.ExcludeFactory;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.factories.InterningExcludeFactory;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.factories.LoggingExcludeFactory;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.factories.NormalizingExcludeFactory;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.factories.OptimizingExcludeFactory;
@@ -34,22 +35,31 @@
 
 public class ModuleExclusions {
     private final CachingExcludeFactory.MergeCaches mergeCaches = new CachingExcludeFactory.MergeCaches();
-    // please keep the formatting below as it helps enabling or disabling stages
-    private final ExcludeFactory factory = new OptimizingExcludeFactory(// optimizes for nulls, 2-params, ... mandatory
-        new CachingExcludeFactory(// caches the result of TL operations
-            LoggingExcludeFactory.maybeLog(new NormalizingExcludeFactory(// performs algebra
-                new CachingExcludeFactory(// caches the result of optimization operations
-                    new DefaultExcludeFactory(), // the end of the chain, mandatory
-                    mergeCaches // shares the same caches as the top level one as after reducing we can find already cached merge operations
-                )
-            )),
-            mergeCaches
-        )
-    );
+    private final ExcludeFactory factory;
     private final Map<ExcludeMetadata, ExcludeSpec> metadataToExcludeCache = new ConcurrentHashMap<>();
     private final ExcludeSpec nothing;
 
     public ModuleExclusions() {
+        this(true);
+    }
+
+    /**
+     * @param internSpecs whether equal exclude specs should be the same instance. Only meant to be disabled for benchmarking.
+     */
+    public ModuleExclusions(boolean internSpecs) {
+        ExcludeFactory specFactory = internSpecs ? new InterningExcludeFactory(new DefaultExcludeFactory()) : new DefaultExcludeFactory();
+        // please keep the formatting below as it helps enabling or disabling stages
+        factory = new OptimizingExcludeFactory(// optimizes for nulls, 2-params, ... mandatory
+            new CachingExcludeFactory(// caches the result of TL operations
+                LoggingExcludeFactory.maybeLog(new NormalizingExcludeFactory(// performs algebra
+                    new CachingExcludeFactory(// caches the result of optimization operations
+                        specFactory, // the end of the chain, mandatory
+                        mergeCaches // shares the same caches as the top level one as after reducing we can find already cached merge operations
+                    )
+                )),
+                mergeCaches
+            )
+        );
         nothing = factory.nothing();
     }
 
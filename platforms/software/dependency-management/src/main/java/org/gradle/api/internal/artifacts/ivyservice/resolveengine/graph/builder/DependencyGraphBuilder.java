@@ -45,6 +45,7 @@
 import org.gradle.api.internal.attributes.AttributesSchemaInternal;
 import org.gradle.api.internal.attributes.ImmutableAttributesFactory;
 import org.gradle.api.specs.Spec;
+import org.gradle.initialization.BuildCancellationToken;
 import org.gradle.internal.component.model.AttributeMatcher;
 import org.gradle.internal.component.model.ComponentGraphResolveMetadata;
 import org.gradle.internal.component.model.ComponentIdGenerator;
@@ -53,15 +54,19 @@
 import org.gradle.internal.component.model.VariantGraphResolveMetadata;
 import org.gradle.internal.component.resolution.failure.ResolutionFailureHandler;
 import org.gradle.internal.component.resolution.failure.exception.AbstractResolutionFailureException;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.deprecation.DeprecationLogger;
 import org.gradle.internal.operations.BuildOperationConstraint;
 import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationRunner;
 import org.gradle.internal.resolve.ModuleVersionResolveException;
 import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver;
 import org.gradle.internal.resolve.resolver.DependencyToComponentIdResolver;
+import org.gradle.internal.work.WorkerLeaseService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -75,6 +80,13 @@
 
 public class DependencyGraphBuilder {
 
+    /**
+     * When set, the dependency metadata of all queued external nodes is computed concurrently before the nodes are visited.
+     * Only the dependency metadata, with dependency metadata rules applied, is computed ahead: creating the outgoing edges of a node and
+     * selecting their target variants still happen serially when the node is visited, as both depend on the state of the graph at that point.
+     */
+    public static final String PARALLEL_FRONTIER_PROPERTY = "org.gradle.internal.dependency-resolution.parallel-frontier";
+
     static final Spec<EdgeState> ENDORSE_STRICT_VERSIONS_DEPENDENCY_SPEC = dependencyState -> dependencyState.getDependencyState().getDependency().isEndorsingStrictVersions();
     static final Spec<EdgeState> NOT_ENDORSE_STRICT_VERSIONS_DEPENDENCY_SPEC = dependencyState -> !dependencyState.getDependencyState().getDependency().isEndorsingStrictVersions();
 
@@ -89,6 +101,13 @@ public class DependencyGraphBuilder {
     private final VersionParser versionParser;
     private final GraphVariantSelector variantSelector;
     private final BuildOperationExecutor buildOperationExecutor;
+    private final BuildOperationRunner buildOperationRunner;
+    private final ExecutorFactory executorFactory;
+    private final WorkerLeaseService workerLeaseService;
+    private final BuildCancellationToken cancellationToken;
+    // Read for each build, so that a daemon does not keep the value of the build that first loaded this class
+    private final boolean parallelFrontier = Boolean.getBoolean(PARALLEL_FRONTIER_PROPERTY);
+    private final boolean metadataPrefetch = Boolean.getBoolean(MetadataPrefetcher.ENABLED_PROPERTY);
 
     @Inject
     public DependencyGraphBuilder(
@@ -100,7 +119,11 @@ public DependencyGraphBuilder(
         ComponentIdGenerator idGenerator,
         VersionParser versionParser,
         GraphVariantSelector variantSelector,
-        BuildOperationExecutor buildOperationExecutor
+        BuildOperationExecutor buildOperationExecutor,
+        BuildOperationRunner buildOperationRunner,
+        ExecutorFactory executorFactory,
+        WorkerLeaseService workerLeaseService,
+        BuildCancellationToken cancellationToken
     ) {
         this.moduleExclusions = moduleExclusions;
         this.attributesFactory = attributesFactory;
@@ -111,6 +134,10 @@ public DependencyGraphBuilder(
         this.versionParser = versionParser;
         this.variantSelector = variantSelector;
         this.buildOperationExecutor = buildOperationExecutor;
+        this.buildOperationRunner = buildOperationRunner;
+        this.executorFactory = executorFactory;
+        this.workerLeaseService = workerLeaseService;
+        this.cancellationToken = cancellationToken;
     }
 
     public void resolve(
@@ -168,13 +195,30 @@ public void resolve(
      */
     private void traverseGraph(final ResolveState resolveState) {
         resolveState.onMoreSelected(resolveState.getRoot());
-        final List<EdgeState> dependencies = new ArrayList<>();
 
+        MetadataPrefetcher metadataPrefetcher = metadataPrefetch
+            ? new MetadataPrefetcher(resolveState.getComponentMetadataResolver(), versionSelectorScheme, versionComparator, versionParser, buildOperationRunner, executorFactory, workerLeaseService, cancellationToken)
+            : null;
+        try {
+            traverseGraph(resolveState, metadataPrefetcher);
+        } finally {
+            if (metadataPrefetcher != null) {
+                metadataPrefetcher.stop();
+            }
+        }
+    }
+
+    private void traverseGraph(ResolveState resolveState, @Nullable MetadataPrefetcher metadataPrefetcher) {
+        final List<EdgeState> dependencies = new ArrayList<>();
         ModuleConflictHandler moduleConflictHandler = resolveState.getConflictTracker().getModuleConflictHandler();
         CapabilitiesConflictHandler capabilitiesConflictHandler = resolveState.getConflictTracker().getCapabilitiesConflictHandler();
 
         while (resolveState.peek() != null || moduleConflictHandler.hasConflicts() || capabilitiesConflictHandler.hasConflicts()) {
             if (resolveState.peek() != null) {
+                if ((parallelFrontier || metadataPrefetcher != null) && !resolveState.peek().isFrontierPrepared()) {
+                    // Reached nodes queued since the last preparation
+                    prepareFrontier(resolveState, metadataPrefetcher);
+                }
                 final NodeState node = resolveState.pop();
                 LOGGER.debug("Visiting configuration {}.", node);
 
@@ -349,10 +393,59 @@ private static void maybeDownloadMetadataInParallel(NodeState node, List<EdgeSta
                 for (final ComponentState componentState : toDownloadInParallel) {
                     buildOperationQueue.add(new DownloadMetadataOperation(componentState));
                 }
-            }, BuildOperationConstraint.UNCONSTRAINED);
+            }, BuildOperationConstraint.IO_BOUND);
+        }
+    }
+
+    /**
+     * Prepares the nodes queued since the last preparation, before any of them is visited.
+     */
+    private void prepareFrontier(ResolveState resolveState, @Nullable MetadataPrefetcher metadataPrefetcher) {
+        List<NodeState> frontier = new ArrayList<>();
+        for (NodeState node : resolveState.getQueuedNodes()) {
+            if (!node.isFrontierPrepared()) {
+                node.markFrontierPrepared();
+                frontier.add(node);
+            }
+        }
+        if (parallelFrontier) {
+            prepareDependencyMetadataInParallel(frontier, buildOperationExecutor);
+        }
+        if (metadataPrefetcher != null) {
+            metadataPrefetcher.prefetch(frontier, resolveState);
         }
     }
 
+    /**
+     * Computes the dependency metadata of the given nodes concurrently, which includes applying dependency metadata rules.
+     *
+     * <p>This is the only per-node work done ahead. Edges are created, excluded and attached to their targets, and target variants are
+     * selected, when each node is visited, serially and in queue order. Those steps read and mutate the selectors, module states and conflict
+     * queues, so doing them concurrently would make the graph depend on thread timing. Rules of the same component are applied one variant at a
+     * time, see {@link org.gradle.internal.component.model.DependencyMetadataRules#execute}, so the gain comes from nodes of different components.</p>
+     */
+    private static void prepareDependencyMetadataInParallel(List<NodeState> nodes, BuildOperationExecutor buildOperationExecutor) {
+        List<NodeState> toPrepare = new ArrayList<>();
+        for (NodeState node : nodes) {
+            if (node.canPrepareDependencyMetadata()) {
+                toPrepare.add(node);
+            }
+        }
+        if (toPrepare.isEmpty()) {
+            return;
+        }
+        if (toPrepare.size() == 1) {
+            toPrepare.get(0).prepareDependencyMetadata();
+            return;
+        }
+        LOGGER.debug("Preparing dependencies of {} nodes in parallel", toPrepare.size());
+        buildOperationExecutor.runAll(buildOperationQueue -> {
+            for (NodeState node : toPrepare) {
+                buildOperationQueue.add(new PrepareDependencyMetadataOperation(node));
+            }
+        }, BuildOperationConstraint.MAX_WORKERS);
+    }
+
     private static void attachToTargetRevisionsSerially(List<EdgeState> dependencies, Spec<EdgeState> dependencyFilter) {
         // the following only needs to be done serially to preserve ordering of dependencies in the graph: we have visited the edges
         // but we still didn't add the result to the queue. Doing it from resolve threads would result in non-reproducible graphs, where
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder;
+
+import org.gradle.api.artifacts.ModuleIdentifier;
+import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentSelector;
+import org.gradle.api.internal.artifacts.ivyservice.dependencysubstitution.DependencySubstitutionApplicator;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ConnectionFailureRepositoryDisabler;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.Version;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionComparator;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelectorScheme;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.specs.ExcludeSpec;
+import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
+import org.gradle.internal.component.model.ComponentGraphResolveState;
+import org.gradle.internal.component.model.DefaultComponentOverrideMetadata;
+import org.gradle.internal.component.model.DependencyMetadata;
+import org.gradle.internal.component.model.GraphSelectionCandidates;
+import org.gradle.internal.component.model.VariantGraphResolveState;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationRef;
+import org.gradle.internal.operations.BuildOperationRunner;
+import org.gradle.internal.operations.CurrentBuildOperationRef;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver;
+import org.gradle.internal.resolve.result.BuildableComponentResolveResult;
+import org.gradle.internal.resolve.result.DefaultBuildableComponentResolveResult;
+import org.gradle.internal.work.WorkerLeaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Speculatively fetches the metadata of components that the graph is likely to need, before the graph builder reaches them.
+ * <p>
+ * Each time the graph builder starts on a new frontier of nodes, the fixed versions requested by the dependencies of those nodes are
+ * fetched in the background, while the graph builder carries on. The dependencies of each fetched component are then fetched as well,
+ * up to a maximum depth, so that deep graphs do not pay a network round trip per level. Maven BOMs imported by a fetched POM are resolved
+ * while parsing that POM, so they are fetched by the same operation.
+ * <p>
+ * The fetches run on virtual threads when the JVM supports them, and without a worker lease, as they mostly wait on the network.
+ * Fetches that have not started yet are skipped once the graph is traversed or the build is cancelled.
+ * <p>
+ * Prefetching does not change the resulting graph. The metadata is retained by the caching metadata resolvers, where the graph builder
+ * finds it when it reaches the component. Fetches that conflict resolution makes unnecessary are skipped: a version is not fetched when
+ * the graph already selected a version at least as high for the module, or when a higher version of the module was scheduled meanwhile.
+ * Dependencies that may be excluded, substituted or forced to another version are not fetched, and the dependencies of a fetched component
+ * are only fetched when no such rule can apply to them. A failed fetch never disables a repository.
+ */
+class MetadataPrefetcher {
+    static final String ENABLED_PROPERTY = "org.gradle.internal.dependency-resolution.metadata-prefetch";
+    private static final int MAX_DEPTH = Integer.getInteger("org.gradle.internal.dependency-resolution.metadata-prefetch.depth", 2);
+    private static final int MAX_COMPONENTS = Integer.getInteger("org.gradle.internal.dependency-resolution.metadata-prefetch.max", 500);
+    private static final int MAX_PARALLELISM = Integer.getInteger("org.gradle.internal.dependency-resolution.metadata-prefetch.parallelism", 16);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetadataPrefetcher.class);
+
+    private final ComponentMetaDataResolver componentMetaDataResolver;
+    private final VersionSelectorScheme versionSelectorScheme;
+    private final Comparator<Version> versionComparator;
+    private final VersionParser versionParser;
+    private final BuildOperationRunner buildOperationRunner;
+    private final ExecutorFactory executorFactory;
+    private final WorkerLeaseService workerLeaseService;
+    private final BuildCancellationToken cancellationToken;
+
+    // Guarded by this
+    private final Map<ModuleIdentifier, Version> highestScheduledVersions = new HashMap<>();
+    private int scheduledCount;
+    @Nullable
+    private ManagedExecutor executor;
+    private boolean stopped;
+
+    MetadataPrefetcher(
+        ComponentMetaDataResolver componentMetaDataResolver,
+        VersionSelectorScheme versionSelectorScheme,
+        VersionComparator versionComparator,
+        VersionParser versionParser,
+        BuildOperationRunner buildOperationRunner,
+        ExecutorFactory executorFactory,
+        WorkerLeaseService workerLeaseService,
+        BuildCancellationToken cancellationToken
+    ) {
+        this.componentMetaDataResolver = componentMetaDataResolver;
+        this.versionSelectorScheme = versionSelectorScheme;
+        this.versionComparator = versionComparator.asVersionComparator();
+        this.versionParser = versionParser;
+        this.buildOperationRunner = buildOperationRunner;
+        this.executorFactory = executorFactory;
+        this.workerLeaseService = workerLeaseService;
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * Starts fetching the metadata of the components requested by the given nodes, and of their dependencies. Does not wait for the fetches.
+     */
+    void prefetch(Collection<NodeState> frontier, ResolveState resolveState) {
+        DependencySubstitutionApplicator substitutionApplicator = resolveState.getDependencySubstitutionApplicator();
+        // Substitution rules, which include forced versions and eachDependency rules, are user code that only runs on this thread
+        boolean hasSubstitutions = substitutionApplicator != DependencySubstitutionApplicator.NO_OP;
+        ExcludeSpec nothing = resolveState.getModuleExclusions().nothing();
+        List<Candidate> candidates = new ArrayList<>();
+        for (NodeState node : frontier) {
+            if (node.getComponent().isSelected()) {
+                try {
+                    ExcludeSpec exclusions = node.getPossibleExclusions();
+                    boolean fetchDependencies = !hasSubstitutions && exclusions == nothing;
+                    for (DependencyMetadata dependency : node.getMetadata().getDependencies()) {
+                        ModuleComponentIdentifier id = candidateOf(dependency);
+                        if (id != null
+                            && !exclusions.excludes(id.getModuleIdentifier())
+                            && !(hasSubstitutions && mayBeSubstituted(dependency, substitutionApplicator))) {
+                            candidates.add(new Candidate(id, fetchDependencies && fetchesDependenciesOf(dependency)));
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    // Ignore: the failure happens again, and is reported, when the node is visited
+                    LOGGER.debug("Could not determine dependencies of {} to prefetch", node, e);
+                }
+            }
+        }
+        candidates.removeIf(candidate -> isAlreadySelected(candidate.id, resolveState));
+        BuildOperationRef parentOperation = CurrentBuildOperationRef.instance().get();
+        for (Candidate candidate : candidates) {
+            schedule(candidate, 1, parentOperation);
+        }
+    }
+
+    /**
+     * Skips the fetches that have not started yet, and waits for the fetches in progress, unless the build is cancelled.
+     */
+    void stop() {
+        ManagedExecutor executor;
+        synchronized (this) {
+            stopped = true;
+            executor = this.executor;
+        }
+        if (executor == null) {
+            return;
+        }
+        if (cancellationToken.isCancellationRequested()) {
+            // Downloads in progress cannot be interrupted, so let them complete in the background
+            executor.requestStop();
+        } else {
+            // Release the worker lease while waiting, as the fetches may need one to run component metadata rules
+            workerLeaseService.blocking(executor::stop);
+        }
+    }
+
+    /**
+     * Returns the component that the given dependency requests a fixed version of, or null when there is none.
+     * Dependencies that would resolve the component with different override metadata, such as changing dependencies, are ignored.
+     */
+    @Nullable
+    @SuppressWarnings("deprecation")
+    private ModuleComponentIdentifier candidateOf(DependencyMetadata dependency) {
+        ComponentSelector selector = dependency.getSelector();
+        if (!(selector instanceof ModuleComponentSelector)
+            || dependency.isConstraint()
+            || dependency.isChanging()
+            || !dependency.getArtifacts().isEmpty()
+            || DefaultComponentOverrideMetadata.extractClientModule(dependency) != null) {
+            return null;
+        }
+        ModuleComponentSelector moduleSelector = (ModuleComponentSelector) selector;
+        String version = moduleSelector.getVersion();
+        if (version.isEmpty() || !versionSelectorScheme.parseSelector(version).matchesUniqueVersion()) {
+            return null;
+        }
+        return DefaultModuleComponentIdentifier.newId(moduleSelector.getModuleIdentifier(), version);
+    }
+
+    private static boolean fetchesDependenciesOf(DependencyMetadata dependency) {
+        return dependency.isTransitive() && dependency.getExcludes().isEmpty();
+    }
+
+    private static boolean mayBeSubstituted(DependencyMetadata dependency, DependencySubstitutionApplicator substitutionApplicator) {
+        DependencySubstitutionApplicator.SubstitutionResult result = substitutionApplicator.apply(dependency);
+        return result.hasFailure() || (result.getResult() != null && result.getResult().isUpdated());
+    }
+
+    private boolean isAlreadySelected(ModuleComponentIdentifier id, ResolveState resolveState) {
+        ModuleResolveState module = resolveState.findModule(id.getModuleIdentifier());
+        ComponentState selected = module == null ? null : module.getSelected();
+        return selected != null && versionComparator.compare(versionParser.transform(selected.getVersion()), versionParser.transform(id.getVersion())) >= 0;
+    }
+
+    private synchronized void schedule(Candidate candidate, int depth, @Nullable BuildOperationRef parentOperation) {
+        if (isStopped() || !claim(candidate.id)) {
+            return;
+        }
+        if (executor == null) {
+            executor = createExecutor();
+        }
+        PrefetchMetadataOperation operation = new PrefetchMetadataOperation(candidate.id, depth, candidate.fetchDependencies, parentOperation);
+        executor.execute(() -> {
+            if (!isStopped()) {
+                CurrentBuildOperationRef.instance().with(parentOperation, () -> buildOperationRunner.run(operation));
+            }
+        });
+    }
+
+    private ManagedExecutor createExecutor() {
+        ManagedExecutor virtualThreadExecutor = executorFactory.createVirtualThreadExecutor("Metadata prefetch");
+        return virtualThreadExecutor != null ? virtualThreadExecutor : executorFactory.create("Metadata prefetch", MAX_PARALLELISM);
+    }
+
+    /**
+     * Whether fetches that have not started yet should be skipped, which is checked before each fetch.
+     */
+    private synchronized boolean isStopped() {
+        return stopped || cancellationToken.isCancellationRequested();
+    }
+
+    private synchronized boolean claim(ModuleComponentIdentifier id) {
+        if (scheduledCount >= MAX_COMPONENTS) {
+            return false;
+        }
+        Version version = versionParser.transform(id.getVersion());
+        Version highest = highestScheduledVersions.get(id.getModuleIdentifier());
+        if (highest != null && versionComparator.compare(highest, version) >= 0) {
+            return false;
+        }
+        highestScheduledVersions.put(id.getModuleIdentifier(), version);
+        scheduledCount++;
+        return true;
+    }
+
+    private synchronized boolean isSuperseded(ModuleComponentIdentifier id) {
+        Version highest = highestScheduledVersions.get(id.getModuleIdentifier());
+        return versionComparator.compare(highest, versionParser.transform(id.getVersion())) > 0;
+    }
+
+    /**
+     * A component to fetch, and whether its dependencies can be fetched too, which is only the case when no rule can apply to them.
+     */
+    private static class Candidate {
+        private final ModuleComponentIdentifier id;
+        private final boolean fetchDependencies;
+
+        Candidate(ModuleComponentIdentifier id, boolean fetchDependencies) {
+            this.id = id;
+            this.fetchDependencies = fetchDependencies;
+        }
+    }
+
+    private class PrefetchMetadataOperation implements RunnableBuildOperation {
+        private final ModuleComponentIdentifier id;
+        private final int depth;
+        private final boolean fetchDependencies;
+        @Nullable
+        private final BuildOperationRef parentOperation;
+
+        PrefetchMetadataOperation(ModuleComponentIdentifier id, int depth, boolean fetchDependencies, @Nullable BuildOperationRef parentOperation) {
+            this.id = id;
+            this.depth = depth;
+            this.fetchDependencies = fetchDependencies;
+            this.parentOperation = parentOperation;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            if (isSuperseded(id)) {
+                // A higher version of the module was scheduled after this one, which would win a conflict with this version
+                return;
+            }
+            try {
+                BuildableComponentResolveResult result = new DefaultBuildableComponentResolveResult();
+                // The graph builder may never need this component, so a failure must not disable the repository for the rest of the build
+                ConnectionFailureRepositoryDisabler.runSpeculatively(() -> componentMetaDataResolver.resolve(id, DefaultComponentOverrideMetadata.EMPTY, result));
+                if (fetchDependencies && depth < MAX_DEPTH && result.hasResult() && result.getFailure() == null && !isStopped()) {
+                    scheduleDependencies(result.getState());
+                }
+            } catch (RuntimeException e) {
+                // Ignore: the failure happens again, and is reported, if the graph builder reaches the component
+                LOGGER.debug("Could not prefetch metadata for {}", id, e);
+            }
+        }
+
+        private void scheduleDependencies(ComponentGraphResolveState component) {
+            GraphSelectionCandidates candidates = component.getCandidatesForGraphVariantSelection();
+            List<? extends VariantGraphResolveState> variants = candidates.getVariantsForAttributeMatching();
+            List<Candidate> dependencies = new ArrayList<>();
+            if (variants.isEmpty()) {
+                VariantGraphResolveState legacyVariant = candidates.getLegacyVariant();
+                if (legacyVariant != null) {
+                    collectDependencies(legacyVariant, dependencies);
+                }
+            } else {
+                for (VariantGraphResolveState variant : variants) {
+                    collectDependencies(variant, dependencies);
+                }
+            }
+            for (Candidate dependency : dependencies) {
+                schedule(dependency, depth + 1, parentOperation);
+            }
+        }
+
+        private void collectDependencies(VariantGraphResolveState variant, List<Candidate> dependencies) {
+            if (!variant.getMetadata().getExcludes().isEmpty()) {
+                // The excludes of the variant may apply to its dependencies
+                return;
+            }
+            for (DependencyMetadata dependency : variant.getMetadata().getDependencies()) {
+                ModuleComponentIdentifier candidate = candidateOf(dependency);
+                if (candidate != null) {
+                    dependencies.add(new Candidate(candidate, fetchesDependenciesOf(dependency)));
+                }
+            }
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Prefetch metadata for " + id);
+        }
+    }
+}
@@ -94,6 +94,7 @@ public class NodeState implements DependencyGraphNode {
     // In opposite to outgoing edges, virtual edges are for now pretty rare, so they are created lazily
     private List<EdgeState> virtualEdges;
     private boolean queued;
+    private boolean frontierPrepared;
     private boolean evicted;
     private int transitiveEdgeCount;
     private Set<ModuleIdentifier> upcomingNoLongerPendingConstraints;
@@ -151,6 +152,40 @@ NodeState dequeue() {
         return this;
     }
 
+    /**
+     * Whether this node was already part of a frontier prepared by the graph builder.
+     */
+    boolean isFrontierPrepared() {
+        return frontierPrepared;
+    }
+
+    void markFrontierPrepared() {
+        frontierPrepared = true;
+    }
+
+    /**
+     * Whether the dependencies of this node's variant can be computed ahead of visiting the node, on a different thread.
+     * Only external variants are considered, as computing the dependencies of a local variant may require access to project state.
+     */
+    boolean canPrepareDependencyMetadata() {
+        return !dependenciesMayChange
+            && component.isSelected()
+            && component.getComponentId() instanceof ModuleComponentIdentifier;
+    }
+
+    /**
+     * Computes the dependencies of this node's variant, applying any dependency metadata rules, so that visiting the node later does not have to.
+     * This does not change the state of the graph.
+     */
+    void prepareDependencyMetadata() {
+        try {
+            metadata.getDependencies();
+        } catch (RuntimeException e) {
+            // Ignore: the failure happens again, and is reported, when the node is visited
+            LOGGER.debug("Could not prepare dependencies of {}", this, e);
+        }
+    }
+
     @Override
     public ComponentState getComponent() {
         return component;
@@ -713,6 +748,22 @@ private ExcludeSpec computeModuleResolutionFilter(List<EdgeState> incomingEdges)
         return computeExclusionFilter(incomingEdges, nodeExclusions);
     }
 
+    /**
+     * Returns a filter that excludes every module that may be excluded from the dependencies of this node, before the node is visited.
+     * It combines the excludes of this node with those of all its incoming edges, so it may exclude more modules than the visit eventually does.
+     */
+    ExcludeSpec getPossibleExclusions() {
+        Set<ExcludeSpec> exclusions = Sets.newHashSetWithExpectedSize(incomingEdges.size() + 1);
+        exclusions.add(computeNodeExclusions());
+        for (EdgeState incomingEdge : incomingEdges) {
+            ExcludeSpec edgeExclusions = incomingEdge.getExclusions();
+            if (edgeExclusions != null) {
+                exclusions.add(edgeExclusions);
+            }
+        }
+        return moduleExclusions.excludeAny(exclusions);
+    }
+
     private ExcludeSpec computeNodeExclusions() {
         if (cachedNodeExclusions == null) {
             cachedNodeExclusions = moduleExclusions.excludeAny(metadata.getExcludes());
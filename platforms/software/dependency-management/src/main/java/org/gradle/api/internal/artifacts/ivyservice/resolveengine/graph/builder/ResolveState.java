@@ -55,6 +55,7 @@
 import javax.annotation.Nullable;
 import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
@@ -186,6 +187,14 @@ public ModuleResolveState getModule(ModuleIdentifier id) {
         return getModule(id, false);
     }
 
+    /**
+     * Returns the state of the given module, or null when no dependency on the module was seen yet.
+     */
+    @Nullable
+    public ModuleResolveState findModule(ModuleIdentifier id) {
+        return modules.get(id);
+    }
+
     public ComponentMetaDataResolver getComponentMetadataResolver() {
         return metaDataResolver;
     }
@@ -240,6 +249,13 @@ public NodeState pop() {
         return next.dequeue();
     }
 
+    /**
+     * Returns the nodes that are waiting to be visited, in the order they will be visited.
+     */
+    public Collection<NodeState> getQueuedNodes() {
+        return Collections.unmodifiableCollection(queue);
+    }
+
     /**
      * Called when a change is made to a configuration node, such that its dependency graph <em>may</em> now be larger than it previously was, and the node should be visited.
      */
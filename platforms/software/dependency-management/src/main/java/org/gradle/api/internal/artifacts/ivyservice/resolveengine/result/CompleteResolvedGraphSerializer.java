@@ -0,0 +1,233 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.result;
+
+import com.google.common.collect.ImmutableList;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.result.ComponentSelectionReason;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+import org.gradle.api.artifacts.result.ResolvedVariantResult;
+import org.gradle.api.attributes.AttributeContainer;
+import org.gradle.api.capabilities.Capability;
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.ModuleVersionIdentifierSerializer;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.ResolvedGraphDependency;
+import org.gradle.api.internal.artifacts.result.DefaultResolvedVariantResult;
+import org.gradle.api.internal.artifacts.result.ResolvedComponentResultInternal;
+import org.gradle.api.internal.attributes.ImmutableAttributesFactory;
+import org.gradle.api.internal.model.NamedObjectInstantiator;
+import org.gradle.internal.Describables;
+import org.gradle.internal.component.external.model.ImmutableCapabilities;
+import org.gradle.internal.resolve.caching.DesugaringAttributeContainerSerializer;
+import org.gradle.internal.serialize.AbstractSerializer;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.ListSerializer;
+import org.gradle.internal.serialize.Serializer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes a complete, successfully resolved dependency graph, starting from its root component, so that
+ * it can be read back in a later Gradle invocation.
+ * <p>
+ * Unlike {@link ResolvedComponentResultSerializer}, which only writes enough to fingerprint a graph, this
+ * serializer keeps the per-variant edges so that the graph read back is equivalent to the one that was written.
+ * Like {@link CompleteComponentResultSerializer}, it does not retain the external variant of a variant,
+ * nor the non-selected variants of a component. Graphs containing unresolved dependencies cannot be written.
+ */
+public class CompleteResolvedGraphSerializer extends AbstractSerializer<ResolvedComponentResult> {
+
+    private final ComponentSelectionReasonSerializer reasonSerializer;
+    private final Serializer<ModuleVersionIdentifier> moduleVersionIdSerializer;
+    private final Serializer<AttributeContainer> variantAttributesSerializer;
+    private final Serializer<ComponentIdentifier> componentIdSerializer;
+    private final Serializer<List<Capability>> capabilitySerializer;
+    private final AttributeContainerSerializer selectorAttributesSerializer;
+
+    public CompleteResolvedGraphSerializer(
+        ComponentSelectionDescriptorFactory componentSelectionDescriptorFactory,
+        ImmutableModuleIdentifierFactory moduleIdentifierFactory,
+        ImmutableAttributesFactory immutableAttributesFactory,
+        NamedObjectInstantiator namedObjectInstantiator,
+        AttributeContainerSerializer selectorAttributesSerializer
+    ) {
+        this.reasonSerializer = new ComponentSelectionReasonSerializer(componentSelectionDescriptorFactory);
+        this.moduleVersionIdSerializer = new ModuleVersionIdentifierSerializer(moduleIdentifierFactory);
+        this.variantAttributesSerializer = new DesugaringAttributeContainerSerializer(immutableAttributesFactory, namedObjectInstantiator);
+        this.componentIdSerializer = new ComponentIdentifierSerializer();
+        this.capabilitySerializer = new ListSerializer<>(new CapabilitySerializer());
+        this.selectorAttributesSerializer = selectorAttributesSerializer;
+    }
+
+    @Override
+    public void write(Encoder encoder, ResolvedComponentResult root) throws Exception {
+        // The selector serializer indexes the attributes it has seen, so use a fresh one for each graph
+        ComponentSelectorSerializer selectorSerializer = new ComponentSelectorSerializer(selectorAttributesSerializer);
+
+        List<ResolvedComponentResult> components = collectComponents(root);
+        Map<ResolvedComponentResult, Integer> componentIds = new IdentityHashMap<>();
+        Map<ResolvedVariantResult, Integer> variantIds = new IdentityHashMap<>();
+        for (ResolvedComponentResult component : components) {
+            componentIds.put(component, componentIds.size());
+            for (ResolvedVariantResult variant : component.getVariants()) {
+                variantIds.put(variant, variantIds.size());
+            }
+        }
+
+        encoder.writeSmallInt(components.size());
+        for (ResolvedComponentResult component : components) {
+            writeComponent(encoder, component, componentIds, variantIds);
+        }
+        for (ResolvedComponentResult component : components) {
+            writeDependencies(encoder, component, selectorSerializer, componentIds, variantIds);
+        }
+    }
+
+    @Override
+    public ResolvedComponentResult read(Decoder decoder) throws Exception {
+        ComponentSelectorSerializer selectorSerializer = new ComponentSelectorSerializer(selectorAttributesSerializer);
+        ResolutionResultGraphBuilder builder = new ResolutionResultGraphBuilder();
+
+        int componentCount = decoder.readSmallInt();
+        for (int i = 0; i < componentCount; i++) {
+            readComponent(decoder, builder);
+        }
+        for (int i = 0; i < componentCount; i++) {
+            int dependencyCount = decoder.readSmallInt();
+            List<ResolvedGraphDependency> dependencies = new ArrayList<>(dependencyCount);
+            for (int j = 0; j < dependencyCount; j++) {
+                long fromVariant = decoder.readSmallLong();
+                ComponentSelector requested = selectorSerializer.read(decoder);
+                boolean constraint = decoder.readBoolean();
+                long selected = decoder.readSmallLong();
+                Long selectedVariant = decoder.readBoolean() ? decoder.readSmallLong() : null;
+                dependencies.add(new DetachedResolvedGraphDependency(requested, selected, null, null, constraint, fromVariant, selectedVariant));
+            }
+            builder.visitOutgoingEdges(i, dependencies);
+        }
+        return builder.getRoot(0);
+    }
+
+    private static List<ResolvedComponentResult> collectComponents(ResolvedComponentResult root) {
+        List<ResolvedComponentResult> components = new ArrayList<>();
+        Map<ResolvedComponentResult, Boolean> seen = new IdentityHashMap<>();
+        Deque<ResolvedComponentResult> queue = new ArrayDeque<>();
+        queue.add(root);
+        seen.put(root, Boolean.TRUE);
+        while (!queue.isEmpty()) {
+            ResolvedComponentResult component = queue.removeFirst();
+            components.add(component);
+            for (DependencyResult dependency : component.getDependencies()) {
+                if (!(dependency instanceof ResolvedDependencyResult)) {
+                    throw new IllegalArgumentException("Cannot serialize a graph with unresolved dependency " + dependency.getRequested().getDisplayName() + ".");
+                }
+                ResolvedComponentResult selected = ((ResolvedDependencyResult) dependency).getSelected();
+                if (seen.put(selected, Boolean.TRUE) == null) {
+                    queue.addLast(selected);
+                }
+            }
+        }
+        return components;
+    }
+
+    private void writeComponent(Encoder encoder, ResolvedComponentResult component, Map<ResolvedComponentResult, Integer> componentIds, Map<ResolvedVariantResult, Integer> variantIds) throws Exception {
+        encoder.writeSmallLong(componentIds.get(component));
+        reasonSerializer.write(encoder, component.getSelectionReason());
+        encoder.writeNullableString(((ResolvedComponentResultInternal) component).getRepositoryId());
+        componentIdSerializer.write(encoder, component.getId());
+        moduleVersionIdSerializer.write(encoder, component.getModuleVersion());
+
+        List<ResolvedVariantResult> variants = component.getVariants();
+        encoder.writeSmallInt(variants.size());
+        for (ResolvedVariantResult variant : variants) {
+            encoder.writeSmallLong(variantIds.get(variant));
+            componentIdSerializer.write(encoder, variant.getOwner());
+            encoder.writeString(variant.getDisplayName());
+            variantAttributesSerializer.write(encoder, variant.getAttributes());
+            capabilitySerializer.write(encoder, variant.getCapabilities());
+        }
+    }
+
+    private void readComponent(Decoder decoder, ResolutionResultGraphBuilder builder) throws Exception {
+        long resultId = decoder.readSmallLong();
+        ComponentSelectionReason reason = reasonSerializer.read(decoder);
+        String repositoryId = decoder.readNullableString();
+        builder.startVisitComponent(resultId, reason, repositoryId);
+
+        ComponentIdentifier componentId = componentIdSerializer.read(decoder);
+        ModuleVersionIdentifier moduleVersion = moduleVersionIdSerializer.read(decoder);
+        builder.visitComponentDetails(componentId, moduleVersion);
+        builder.visitComponentVariants(ImmutableList.of());
+
+        int variantCount = decoder.readSmallInt();
+        for (int i = 0; i < variantCount; i++) {
+            long variantId = decoder.readSmallLong();
+            ComponentIdentifier owner = componentIdSerializer.read(decoder);
+            String displayName = decoder.readString();
+            AttributeContainer attributes = variantAttributesSerializer.read(decoder);
+            List<Capability> capabilities = capabilitySerializer.read(decoder);
+            builder.visitSelectedVariant(variantId, new DefaultResolvedVariantResult(owner, Describables.of(displayName), attributes, ImmutableCapabilities.of(capabilities), null));
+        }
+        builder.endVisitComponent();
+    }
+
+    private static void writeDependencies(
+        Encoder encoder,
+        ResolvedComponentResult component,
+        ComponentSelectorSerializer selectorSerializer,
+        Map<ResolvedComponentResult, Integer> componentIds,
+        Map<ResolvedVariantResult, Integer> variantIds
+    ) throws Exception {
+        Map<DependencyResult, ResolvedVariantResult> fromVariants = new HashMap<>();
+        for (ResolvedVariantResult variant : component.getVariants()) {
+            for (DependencyResult dependency : component.getDependenciesForVariant(variant)) {
+                fromVariants.put(dependency, variant);
+            }
+        }
+
+        // Written in the order of the component's dependencies, so that the order is preserved when reading back
+        encoder.writeSmallInt(component.getDependencies().size());
+        for (DependencyResult dependency : component.getDependencies()) {
+            ResolvedDependencyResult resolved = (ResolvedDependencyResult) dependency;
+            ResolvedVariantResult fromVariant = fromVariants.get(dependency);
+            if (fromVariant == null) {
+                throw new IllegalArgumentException("Cannot find the variant of " + component + " declaring " + dependency.getRequested().getDisplayName() + ".");
+            }
+            encoder.writeSmallLong(variantIds.get(fromVariant));
+            selectorSerializer.write(encoder, resolved.getRequested());
+            encoder.writeBoolean(resolved.isConstraint());
+            encoder.writeSmallLong(componentIds.get(resolved.getSelected()));
+            ResolvedVariantResult selectedVariant = resolved.getResolvedVariant();
+            Integer selectedVariantId = selectedVariant == null ? null : variantIds.get(selectedVariant);
+            encoder.writeBoolean(selectedVariantId != null);
+            if (selectedVariantId != null) {
+                encoder.writeSmallLong(selectedVariantId);
+            }
+        }
+    }
+}
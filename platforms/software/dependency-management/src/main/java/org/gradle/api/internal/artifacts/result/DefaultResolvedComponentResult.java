@@ -31,6 +31,7 @@
 
 import javax.annotation.Nullable;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -152,6 +153,22 @@ public void associateDependencyToVariant(DependencyResult dependencyResult, Reso
         variantDependencies.put(fromVariant, dependencyResult);
     }
 
+    /**
+     * Creates a copy of this component, without its dependencies and dependents.
+     */
+    DefaultResolvedComponentResult copy() {
+        return new DefaultResolvedComponentResult(moduleVersion, selectionReason, componentId, selectedVariantsById, allVariants, repositoryName);
+    }
+
+    /**
+     * Creates a copy of this component with a different identity, in which the given variant replaces the selected variants. The copy has no dependencies or dependents.
+     */
+    DefaultResolvedComponentResult copyWithIdentity(ModuleVersionIdentifier moduleVersion, ComponentIdentifier componentId, ResolvedVariantResult variant) {
+        Map<Long, ResolvedVariantResult> variants = new LinkedHashMap<>();
+        selectedVariantsById.keySet().forEach(id -> variants.put(id, variant));
+        return new DefaultResolvedComponentResult(moduleVersion, selectionReason, componentId, variants, Collections.emptyList(), repositoryName);
+    }
+
     /**
      * A recursive function that traverses the dependency graph of a given module and acts on each node and edge encountered.
      *
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.result;
+
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+import org.gradle.api.artifacts.result.ResolvedVariantResult;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Copies a resolved dependency graph so that it can be used as the result of resolving a different root component.
+ * <p>
+ * Components and dependencies refer to each other, so every one of them is copied. Everything else, such as identifiers, selection
+ * reasons and variants, is immutable and shared with the original graph.
+ */
+public final class ResolvedGraphCopier {
+    private ResolvedGraphCopier() {
+    }
+
+    /**
+     * Copies the graph reachable from the given root, replacing the root with a component having the given identity and variant.
+     * Returns null when the graph cannot be copied, for example when it contains unresolved dependencies.
+     */
+    @Nullable
+    public static ResolvedComponentResult copyWithRoot(ResolvedComponentResult root, ModuleVersionIdentifier rootModuleVersion, ComponentIdentifier rootId, ResolvedVariantResult rootVariant) {
+        if (!(root instanceof DefaultResolvedComponentResult) || root.getVariants().size() != 1) {
+            return null;
+        }
+        Map<ResolvedComponentResult, DefaultResolvedComponentResult> copies = new IdentityHashMap<>();
+        copies.put(root, ((DefaultResolvedComponentResult) root).copyWithIdentity(rootModuleVersion, rootId, rootVariant));
+        Deque<ResolvedComponentResult> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            ResolvedComponentResult component = queue.removeFirst();
+            DefaultResolvedComponentResult from = copies.get(component);
+            for (ResolvedVariantResult variant : component.getVariants()) {
+                ResolvedVariantResult fromVariant = component == root ? rootVariant : variant;
+                for (DependencyResult dependency : component.getDependenciesForVariant(variant)) {
+                    if (!(dependency instanceof ResolvedDependencyResult)) {
+                        return null;
+                    }
+                    ResolvedDependencyResult resolvedDependency = (ResolvedDependencyResult) dependency;
+                    ResolvedComponentResult selected = resolvedDependency.getSelected();
+                    DefaultResolvedComponentResult selectedCopy = copies.get(selected);
+                    if (selectedCopy == null) {
+                        if (!(selected instanceof DefaultResolvedComponentResult)) {
+                            return null;
+                        }
+                        selectedCopy = ((DefaultResolvedComponentResult) selected).copy();
+                        copies.put(selected, selectedCopy);
+                        queue.addLast(selected);
+                    }
+                    DefaultResolvedDependencyResult copy = new DefaultResolvedDependencyResult(dependency.getRequested(), dependency.isConstraint(), selectedCopy, resolvedDependency.getResolvedVariant(), from);
+                    from.addDependency(copy);
+                    from.associateDependencyToVariant(copy, fromVariant);
+                    selectedCopy.addDependent(copy);
+                }
+            }
+            if (from.getDependencies().size() != component.getDependencies().size()) {
+                // Some dependency does not belong to a selected variant
+                return null;
+            }
+        }
+        return copies.get(root);
+    }
+}
@@ -84,6 +84,7 @@ abstract class AbstractTransformExecution implements UnitOfWork {
     private final Provider<FileSystemLocation> inputArtifactProvider;
     protected final InputFingerprinter inputFingerprinter;
     private final boolean disableCachingByProperty;
+    private final boolean forceCachingByProperty;
 
     private BuildOperationContext operationContext;
 
@@ -97,7 +98,8 @@ protected AbstractTransformExecution(
         BuildOperationProgressEventEmitter progressEventEmitter,
         FileCollectionFactory fileCollectionFactory,
         InputFingerprinter inputFingerprinter,
-        boolean disableCachingByProperty
+        boolean disableCachingByProperty,
+        boolean forceCachingByProperty
     ) {
         this.transform = transform;
         this.inputArtifact = inputArtifact;
@@ -111,6 +113,7 @@ protected AbstractTransformExecution(
         this.fileCollectionFactory = fileCollectionFactory;
         this.inputFingerprinter = inputFingerprinter;
         this.disableCachingByProperty = disableCachingByProperty;
+        this.forceCachingByProperty = forceCachingByProperty;
     }
 
     @Override
@@ -295,7 +298,7 @@ public void markLegacySnapshottingInputsFinished(CachingState cachingState) {
 
     @Override
     public Optional<CachingDisabledReason> shouldDisableCaching(@Nullable OverlappingOutputs detectedOverlappingOutputs) {
-        return transform.isCacheable()
+        return transform.isCacheable() || forceCachingByProperty
             ? maybeDisableCachingByProperty()
             : Optional.of(NOT_CACHEABLE);
     }
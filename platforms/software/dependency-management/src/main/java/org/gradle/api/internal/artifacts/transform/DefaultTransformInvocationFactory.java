@@ -44,6 +44,12 @@
 
 public class DefaultTransformInvocationFactory implements TransformInvocationFactory {
     private static final StringInternalOption CACHING_DISABLED_PROPERTY = new StringInternalOption("org.gradle.internal.transform-caching-disabled", null);
+    /**
+     * Stores the results of transforms that run in an immutable workspace to the build cache, and loads them from it,
+     * even when the transform is not annotated with {@link org.gradle.api.artifacts.transform.CacheableTransform}.
+     * Takes the same values as {@link #CACHING_DISABLED_PROPERTY}.
+     */
+    private static final StringInternalOption CACHING_FORCED_PROPERTY = new StringInternalOption("org.gradle.internal.transform-caching-forced", null);
 
     private final ExecutionEngine executionEngine;
     private final FileSystemAccess fileSystemAccess;
@@ -90,7 +96,8 @@ public Deferrable<Try<ImmutableList<File>>> createInvocation(
         Cache<Identity, IdentityCacheResult<TransformWorkspaceResult>> identityCache;
         UnitOfWork execution;
 
-        boolean cachingDisabledByProperty = isCachingDisabledByProperty(transform);
+        boolean cachingDisabledByProperty = isSelectedByProperty(CACHING_DISABLED_PROPERTY, transform);
+        boolean cachingForcedByProperty = isSelectedByProperty(CACHING_FORCED_PROPERTY, transform);
 
         // TODO This is a workaround for script compilation that is triggered via the "early" execution
         //      engine created in DependencyManagementBuildScopeServices. We should unify the execution
@@ -115,7 +122,8 @@ public Deferrable<Try<ImmutableList<File>>> createInvocation(
                 fileSystemAccess,
                 immutableWorkspaceServices.getWorkspaceProvider(),
 
-                cachingDisabledByProperty
+                cachingDisabledByProperty,
+                cachingForcedByProperty
             );
             effectiveEngine = executionEngine;
         } else {
@@ -136,7 +144,8 @@ public Deferrable<Try<ImmutableList<File>>> createInvocation(
                     inputFingerprinter,
                     immutableWorkspaceServices.getWorkspaceProvider(),
 
-                    cachingDisabledByProperty
+                    cachingDisabledByProperty,
+                    cachingForcedByProperty
                 );
             } else {
                 // Incremental project artifact transforms run in project-bound mutable workspace
@@ -177,8 +186,8 @@ private ProjectInternal determineProducerProject(TransformStepSubject subject) {
         }
     }
 
-    private boolean isCachingDisabledByProperty(Transform transform) {
-        String experimentalProperty = internalOptions.getOption(CACHING_DISABLED_PROPERTY).get();
+    private boolean isSelectedByProperty(StringInternalOption property, Transform transform) {
+        String experimentalProperty = internalOptions.getOption(property).get();
         if (experimentalProperty != null) {
             if (experimentalProperty.isEmpty() || experimentalProperty.equals("true")) {
                 return true;
@@ -53,7 +53,7 @@ public MutableTransformExecution(
         super(
             transform, inputArtifact, dependencies, subject,
             transformExecutionListener, buildOperationRunner, progressEventEmitter, fileCollectionFactory, inputFingerprinter,
-            disableCachingByProperty
+            disableCachingByProperty, false
         );
         this.rootProjectLocation = producerProject.getRootDir().getAbsolutePath() + File.separator;
         this.producerBuildTreePath = producerProject.getBuildTreePath();
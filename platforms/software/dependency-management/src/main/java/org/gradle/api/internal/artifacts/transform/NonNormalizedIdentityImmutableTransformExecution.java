@@ -49,12 +49,13 @@ public NonNormalizedIdentityImmutableTransformExecution(
         FileSystemAccess fileSystemAccess,
         ImmutableWorkspaceProvider workspaceProvider,
 
-        boolean disableCachingByProperty
+        boolean disableCachingByProperty,
+        boolean forceCachingByProperty
     ) {
         super(
             transform, inputArtifact, dependencies, subject,
             transformExecutionListener, buildOperationRunner, progressEventEmitter, fileCollectionFactory, inputFingerprinter,
-            disableCachingByProperty
+            disableCachingByProperty, forceCachingByProperty
         );
         this.fileSystemAccess = fileSystemAccess;
         this.workspaceProvider = workspaceProvider;
@@ -44,12 +44,13 @@ public NormalizedIdentityImmutableTransformExecution(
         InputFingerprinter inputFingerprinter,
         ImmutableWorkspaceProvider workspaceProvider,
 
-        boolean disableCachingByProperty
+        boolean disableCachingByProperty,
+        boolean forceCachingByProperty
     ) {
         super(
             transform, inputArtifact, dependencies, subject,
             transformExecutionListener, buildOperationRunner, progressEventEmitter, fileCollectionFactory, inputFingerprinter,
-            disableCachingByProperty
+            disableCachingByProperty, forceCachingByProperty
         );
         this.workspaceProvider = workspaceProvider;
     }
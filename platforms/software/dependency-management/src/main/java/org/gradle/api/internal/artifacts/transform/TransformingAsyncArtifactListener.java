@@ -90,7 +90,6 @@ public static class TransformedArtifact implements ResolvedArtifactSet.Artifacts
         private final ImmutableAttributes target;
         private final List<BoundTransformStep> transformSteps;
         private Try<TransformStepSubject> transformedSubject;
-        private Deferrable<Try<TransformStepSubject>> invocation;
 
         public TransformedArtifact(DisplayName variantName, ImmutableAttributes target, ImmutableCapabilities capabilities, ResolvableArtifact artifact, List<BoundTransformStep> transformSteps) {
             this.variantName = variantName;
@@ -132,9 +131,17 @@ public void prepareForVisitingIfNotAlready() {
 
         @Override
         public void startFinalization(BuildOperationQueue<RunnableBuildOperation> actions, boolean requireFiles) {
-            if (prepareInvocation()) {
-                actions.add(this);
+            synchronized (this) {
+                if (transformedSubject != null) {
+                    // Already have a result, no need to execute
+                    return;
+                }
             }
+            // Identifying the transform fingerprints the input artifact and the dependencies, which is as costly as executing it
+            // when its result is already available. So queue the artifact without identifying it, so that the transforms
+            // of all artifacts are identified and executed in parallel rather than identified one by one on the visiting thread.
+            // Artifacts that share the same identity are still executed once, through the identity cache of the workspace.
+            actions.add(this);
         }
 
         @Override
@@ -147,42 +154,6 @@ public void run(@Nullable BuildOperationContext context) {
             finalizeValue();
         }
 
-        /**
-         * Returns true if this artifact should be queued for execution, false when a value is already available.
-         */
-        private boolean prepareInvocation() {
-            synchronized (this) {
-                if (transformedSubject != null) {
-                    // Already have a result, no need to execute
-                    return false;
-                }
-            }
-            if (!artifact.getFileSource().isFinalized()) {
-                // No input artifact yet, should execute
-                return true;
-            }
-            if (!artifact.getFileSource().getValue().isSuccessful()) {
-                synchronized (this) {
-                    // Failed to resolve input artifact, no need to execute
-                    transformedSubject = Try.failure(artifact.getFileSource().getValue().getFailure().get());
-                    return false;
-                }
-            }
-
-            Deferrable<Try<TransformStepSubject>> invocation = createInvocation();
-            synchronized (this) {
-                this.invocation = invocation;
-                if (invocation.getCompleted().isPresent()) {
-                    // Have already executed the transform, no need to execute
-                    transformedSubject = invocation.getCompleted().get();
-                    return false;
-                } else {
-                    // Have not executed the transform, should execute
-                    return true;
-                }
-            }
-        }
-
         private Try<TransformStepSubject> finalizeValue() {
             synchronized (this) {
                 if (transformedSubject != null) {
@@ -198,15 +169,7 @@ private Try<TransformStepSubject> finalizeValue() {
                 }
             }
 
-            Deferrable<Try<TransformStepSubject>> invocation;
-            synchronized (this) {
-                invocation = this.invocation;
-            }
-
-            if (invocation == null) {
-                invocation = createInvocation();
-            }
-            Try<TransformStepSubject> result = invocation.completeAndGet();
+            Try<TransformStepSubject> result = createInvocation().completeAndGet();
             synchronized (this) {
                 transformedSubject = result;
                 return result;
@@ -19,8 +19,15 @@
 import org.gradle.api.Action;
 import org.gradle.api.attributes.CompatibilityCheckDetails;
 import org.gradle.api.attributes.MultipleCandidatesDetails;
+import org.gradle.internal.action.ConfigurableRule;
+import org.gradle.internal.action.InstantiatingAction;
 
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 
 public abstract class AttributeMatchingRules {
     public static <T> Action<? super CompatibilityCheckDetails<T>> orderedCompatibility(Comparator<? super T> comparator, boolean reverse) {
@@ -30,4 +37,48 @@ public static <T> Action<? super CompatibilityCheckDetails<T>> orderedCompatibil
     public static <T> Action<? super MultipleCandidatesDetails<T>> orderedDisambiguation(Comparator<? super T> comparator, boolean pickFirst) {
         return new DefaultOrderedDisambiguationRule<>(comparator, pickFirst);
     }
+
+    /**
+     * Returns a value that is equal for rules that make the same decisions. Rules implemented by a class are compared by class and parameters,
+     * ordered rules by their comparator. Any other rule is only equal to itself.
+     */
+    public static Object ruleKey(Action<?> rule) {
+        if (rule instanceof InstantiatingAction) {
+            return ((InstantiatingAction<?>) rule).getRules().getConfigurableRules();
+        }
+        return rule;
+    }
+
+    /**
+     * Returns values that can be snapshotted to identify the rule across builds, or null when the rule cannot be identified.
+     * Rules implemented by a class are identified by class and parameters, ordered rules by their serializable comparator.
+     */
+    @Nullable
+    public static Object ruleInputs(Action<?> rule) {
+        if (rule instanceof InstantiatingAction) {
+            List<Object> inputs = new ArrayList<>();
+            for (ConfigurableRule<?> configurableRule : ((InstantiatingAction<?>) rule).getRules().getConfigurableRules()) {
+                inputs.add(configurableRule.getRuleClass());
+                inputs.add(configurableRule.getRuleParams());
+            }
+            return inputs;
+        }
+        if (rule instanceof DefaultOrderedCompatibilityRule) {
+            DefaultOrderedCompatibilityRule<?> orderedRule = (DefaultOrderedCompatibilityRule<?>) rule;
+            return orderedRuleInputs(rule, orderedRule.getComparator(), orderedRule.isReverse());
+        }
+        if (rule instanceof DefaultOrderedDisambiguationRule) {
+            DefaultOrderedDisambiguationRule<?> orderedRule = (DefaultOrderedDisambiguationRule<?>) rule;
+            return orderedRuleInputs(rule, orderedRule.getComparator(), orderedRule.isPickFirst());
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Object orderedRuleInputs(Action<?> rule, Comparator<?> comparator, boolean flag) {
+        if (!(comparator instanceof Serializable)) {
+            return null;
+        }
+        return Arrays.asList(rule.getClass(), comparator, flag);
+    }
 }
@@ -42,6 +42,20 @@ public interface AttributesSchemaInternal extends AttributesSchemaWithDescribers
     @Nullable
     Attribute<?> getAttributeByName(String name);
 
+    /**
+     * Returns a snapshot of the rules this schema uses to match attributes as a consumer. Two schemas with equal keys select the same variants
+     * for the same request. Rules that cannot be compared, such as rules using different comparator instances, make the keys different.
+     */
+    Object getMatchingRulesKey();
+
+    /**
+     * Returns values that can be snapshotted to identify the rules this schema uses to match attributes as a consumer across builds:
+     * the attributes, with their names and types, and the implementation classes and parameters of their rules. Returns null when
+     * some rule cannot be identified, such as a rule implemented by a closure or by a comparator that is not serializable.
+     */
+    @Nullable
+    List<Object> getMatchingRulesInputs();
+
     /**
      * Adds a {@link ResolutionFailureDescriber} for the given failure type to the custom describers
      * registered on this schema.
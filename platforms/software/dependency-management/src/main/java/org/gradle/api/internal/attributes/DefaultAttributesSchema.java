@@ -39,6 +39,7 @@
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -174,6 +175,38 @@ public Attribute<?> getAttributeByName(String name) {
         return attributesByName.get(name);
     }
 
+    @Override
+    public Object getMatchingRulesKey() {
+        Map<Attribute<?>, Object> rulesByAttribute = new HashMap<>();
+        strategies.forEach((attribute, strategy) -> {
+            DefaultCompatibilityRuleChain<?> compatibilityRules = (DefaultCompatibilityRuleChain<?>) strategy.getCompatibilityRules();
+            DefaultDisambiguationRuleChain<?> disambiguationRules = (DefaultDisambiguationRuleChain<?>) strategy.getDisambiguationRules();
+            rulesByAttribute.put(attribute, Arrays.asList(compatibilityRules.getRulesKey(), disambiguationRules.getRulesKey()));
+        });
+        return Arrays.asList(new ArrayList<>(precedence), rulesByAttribute);
+    }
+
+    @Nullable
+    @Override
+    public List<Object> getMatchingRulesInputs() {
+        List<Object> inputs = new ArrayList<>();
+        inputs.add(new ArrayList<>(precedence));
+        List<Attribute<?>> attributes = new ArrayList<>(strategies.keySet());
+        attributes.sort(Comparator.comparing(Attribute::getName));
+        for (Attribute<?> attribute : attributes) {
+            AttributeMatchingStrategy<?> strategy = strategies.get(attribute);
+            List<Object> compatibilityRules = ((DefaultCompatibilityRuleChain<?>) strategy.getCompatibilityRules()).getRulesInputs();
+            List<Object> disambiguationRules = ((DefaultDisambiguationRuleChain<?>) strategy.getDisambiguationRules()).getRulesInputs();
+            if (compatibilityRules == null || disambiguationRules == null) {
+                return null;
+            }
+            inputs.add(attribute);
+            inputs.add(compatibilityRules);
+            inputs.add(disambiguationRules);
+        }
+        return inputs;
+    }
+
     @Override
     public <FAILURE extends ResolutionFailure> void addFailureDescriber(Class<FAILURE> failureType, Class<? extends ResolutionFailureDescriber<FAILURE>> describerType) {
         failureDescriberRegistry.registerDescriber(failureType, describerType);
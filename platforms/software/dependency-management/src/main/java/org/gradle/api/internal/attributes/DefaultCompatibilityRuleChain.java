@@ -27,9 +27,11 @@
 import org.gradle.internal.reflect.Instantiator;
 import org.gradle.model.internal.type.ModelType;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class DefaultCompatibilityRuleChain<T> implements CompatibilityRuleChain<T>, CompatibilityRule<T> {
     private final List<Action<? super CompatibilityCheckDetails<T>>> rules = new ArrayList<>();
@@ -80,6 +82,29 @@ public boolean doesSomething() {
         return !rules.isEmpty();
     }
 
+    /**
+     * Returns a value that is equal for chains that make the same decisions. See {@link AttributeMatchingRules#ruleKey(Action)}.
+     */
+    public Object getRulesKey() {
+        return rules.stream().map(AttributeMatchingRules::ruleKey).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns values that identify the rules of this chain across builds, or null when some rule cannot be identified. See {@link AttributeMatchingRules#ruleInputs(Action)}.
+     */
+    @Nullable
+    public List<Object> getRulesInputs() {
+        List<Object> inputs = new ArrayList<>(rules.size());
+        for (Action<?> rule : rules) {
+            Object ruleInputs = AttributeMatchingRules.ruleInputs(rule);
+            if (ruleInputs == null) {
+                return null;
+            }
+            inputs.add(ruleInputs);
+        }
+        return inputs;
+    }
+
     private static class ExceptionHandler<T> implements InstantiatingAction.ExceptionHandler<CompatibilityCheckDetails<T>> {
 
         private final Class<? extends AttributeCompatibilityRule<T>> rule;
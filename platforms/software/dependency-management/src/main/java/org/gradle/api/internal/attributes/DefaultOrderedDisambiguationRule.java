@@ -30,6 +30,14 @@ public DefaultOrderedDisambiguationRule(Comparator<? super T> comparator, boolea
         this.pickFirst = pickFirst;
     }
 
+    public Comparator<? super T> getComparator() {
+        return comparator;
+    }
+
+    public boolean isPickFirst() {
+        return pickFirst;
+    }
+
     @Override
     public void execute(MultipleCandidatesDetails<T> details) {
         Set<T> candidateValues = details.getCandidateValues();
@@ -52,4 +60,21 @@ public void execute(MultipleCandidatesDetails<T> details) {
             }
         }
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DefaultOrderedDisambiguationRule<?> that = (DefaultOrderedDisambiguationRule<?>) o;
+        return pickFirst == that.pickFirst && comparator.equals(that.comparator);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * comparator.hashCode() + Boolean.hashCode(pickFirst);
+    }
 }
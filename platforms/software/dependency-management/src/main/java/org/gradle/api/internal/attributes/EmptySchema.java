@@ -113,6 +113,16 @@ public Attribute<?> getAttributeByName(String name) {
         return null;
     }
 
+    @Override
+    public Object getMatchingRulesKey() {
+        return this;
+    }
+
+    @Override
+    public List<Object> getMatchingRulesInputs() {
+        return Collections.emptyList();
+    }
+
     @Override
     public <FAILURE extends ResolutionFailure> void addFailureDescriber(Class<FAILURE> failureType, Class<? extends ResolutionFailureDescriber<FAILURE>> describerType) {
         throw new UnsupportedOperationException();
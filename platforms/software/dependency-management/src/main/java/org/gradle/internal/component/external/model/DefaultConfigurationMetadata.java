@@ -35,7 +35,8 @@ public class DefaultConfigurationMetadata extends AbstractConfigurationMetadata
 
     private final VariantMetadataRules componentMetadataRules;
 
-    private List<? extends ModuleDependencyMetadata> calculatedDependencies;
+    // The dependencies may be computed ahead of visiting the graph node on another thread, so they are published safely
+    private volatile List<? extends ModuleDependencyMetadata> calculatedDependencies;
     private ImmutableList<? extends ModuleComponentArtifactMetadata> calculatedArtifacts;
 
     // Could be precomputed, but we avoid doing so if attributes are never requested
@@ -47,7 +48,7 @@ public class DefaultConfigurationMetadata extends AbstractConfigurationMetadata
     // to compute them eagerly when those filtering methods are called. We cannot use a dedicated, lazy wrapper over configuration metadata
     // because we need the attributes to be computes lazily too, because of component metadata rules.
     private final DependencyFilter dependencyFilter;
-    private ImmutableList<ModuleDependencyMetadata> filteredConfigDependencies;
+    private volatile ImmutableList<ModuleDependencyMetadata> filteredConfigDependencies;
 
     public DefaultConfigurationMetadata(
             ModuleComponentIdentifier componentId, String name, boolean transitive, boolean visible,
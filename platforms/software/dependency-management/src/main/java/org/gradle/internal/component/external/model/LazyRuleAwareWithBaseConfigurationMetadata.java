@@ -49,7 +49,7 @@ class LazyRuleAwareWithBaseConfigurationMetadata implements ModuleConfigurationM
     private final ImmutableList<ExcludeMetadata> excludes;
     private final boolean externalVariant;
 
-    private List<? extends ModuleDependencyMetadata> computedDependencies;
+    private volatile List<? extends ModuleDependencyMetadata> computedDependencies;
     private ImmutableAttributes computedAttributes;
     private ImmutableCapabilities computedCapabilities;
     private ImmutableList<? extends ComponentArtifactMetadata> computedArtifacts;
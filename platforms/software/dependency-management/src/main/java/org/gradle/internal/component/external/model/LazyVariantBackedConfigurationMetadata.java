@@ -33,7 +33,7 @@
 class LazyVariantBackedConfigurationMetadata extends AbstractVariantBackedConfigurationMetadata {
     private final VariantMetadataRules variantMetadataRules;
 
-    private List<? extends ModuleDependencyMetadata> calculatedDependencies;
+    private volatile List<? extends ModuleDependencyMetadata> calculatedDependencies;
 
     LazyVariantBackedConfigurationMetadata(ModuleComponentIdentifier componentId, ComponentVariant variant, ImmutableAttributes componentLevelAttributes, ImmutableAttributesFactory attributesFactory, VariantMetadataRules variantMetadataRules) {
         super(componentId, new RuleAwareVariant(componentId, variant, attributesFactory, componentLevelAttributes, variantMetadataRules));
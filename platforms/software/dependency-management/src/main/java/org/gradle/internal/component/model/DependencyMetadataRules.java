@@ -75,7 +75,12 @@ public void addDependencyConstraintAction(VariantMetadataRules.VariantAction<? s
         dependencyConstraintActions.add(action);
     }
 
-    public <T extends ModuleDependencyMetadata> List<? extends ModuleDependencyMetadata> execute(VariantResolveMetadata variant, List<T> dependencies) {
+    /**
+     * Applies the rules to the dependencies of the given variant.
+     * The dependencies of several variants can be computed concurrently, so the rules of a component, which are user code, are applied to one variant at a time.
+     * Each component has its own rules instance, so the rules of different components are still applied concurrently.
+     */
+    public synchronized <T extends ModuleDependencyMetadata> List<? extends ModuleDependencyMetadata> execute(VariantResolveMetadata variant, List<T> dependencies) {
         ImmutableList.Builder<ModuleDependencyMetadata> calculatedDependencies = new ImmutableList.Builder<>();
         calculatedDependencies.addAll(executeDependencyRules(variant, dependencies));
         calculatedDependencies.addAll(executeDependencyConstraintRules(variant, dependencies));
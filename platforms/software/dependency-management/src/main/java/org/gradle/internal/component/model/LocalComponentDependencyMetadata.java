@@ -91,6 +91,14 @@ public ComponentSelector getSelector() {
         return selector;
     }
 
+    /**
+     * The name of the target configuration, when this dependency selects a configuration by name rather than a variant by attributes.
+     */
+    @Nullable
+    public String getDependencyConfiguration() {
+        return dependencyConfiguration;
+    }
+
     @Override
     public GraphVariantSelectionResult selectVariants(
         GraphVariantSelector variantSelector,
@@ -26,6 +26,7 @@
 import org.gradle.cache.internal.ProducerGuard;
 import org.gradle.internal.hash.ChecksumService;
 import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.HashFunction;
 import org.gradle.internal.hash.Hashing;
 import org.gradle.internal.resource.ExternalResource;
 import org.gradle.internal.resource.ExternalResourceName;
@@ -47,6 +48,9 @@
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 
 public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExternalResourceAccessor {
 
@@ -61,8 +65,9 @@ public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExte
     private final ProducerGuard<ExternalResourceName> producerGuard;
     private final FileResourceRepository fileResourceRepository;
     private final ChecksumService checksumService;
+    private final Collection<HashFunction> downloadChecksums;
 
-    public DefaultCacheAwareExternalResourceAccessor(ExternalResourceRepository delegate, CachedExternalResourceIndex<String> cachedExternalResourceIndex, BuildCommencedTimeProvider timeProvider, TemporaryFileProvider temporaryFileProvider, ArtifactCacheLockingAccessCoordinator cacheAccessCoordinator, ExternalResourceCachePolicy externalResourceCachePolicy, ProducerGuard<ExternalResourceName> producerGuard, FileResourceRepository fileResourceRepository, ChecksumService checksumService) {
+    public DefaultCacheAwareExternalResourceAccessor(ExternalResourceRepository delegate, CachedExternalResourceIndex<String> cachedExternalResourceIndex, BuildCommencedTimeProvider timeProvider, TemporaryFileProvider temporaryFileProvider, ArtifactCacheLockingAccessCoordinator cacheAccessCoordinator, ExternalResourceCachePolicy externalResourceCachePolicy, ProducerGuard<ExternalResourceName> producerGuard, FileResourceRepository fileResourceRepository, ChecksumService checksumService, Collection<HashFunction> downloadChecksums) {
         this.delegate = delegate;
         this.cachedExternalResourceIndex = cachedExternalResourceIndex;
         this.timeProvider = timeProvider;
@@ -72,6 +77,7 @@ public DefaultCacheAwareExternalResourceAccessor(ExternalResourceRepository dele
         this.producerGuard = producerGuard;
         this.fileResourceRepository = fileResourceRepository;
         this.checksumService = checksumService;
+        this.downloadChecksums = downloadChecksums;
     }
 
     @Nullable
@@ -91,6 +97,13 @@ public LocallyAvailableExternalResource getResource(final ExternalResourceName l
                 return fileResourceRepository.resource(cached.getCachedFile(), location.getUri(), cached.getExternalResourceMetaData());
             }
 
+            // We have a cached version, but it might be out of date. Without local candidates to compare checksums with,
+            // a conditional request revalidates the cached version and downloads the resource when it has changed
+            boolean hasLocalCandidates = additionalCandidates != null && !additionalCandidates.isNone();
+            if (cached != null && cached.getExternalResourceMetaData() != null && !hasLocalCandidates) {
+                return revalidateCached(location, fileStore, cached);
+            }
+
             // We have a cached version, but it might be out of date, so we tell the upstreams to revalidate too
             final boolean revalidate = true;
 
@@ -116,7 +129,6 @@ public LocallyAvailableExternalResource getResource(final ExternalResourceName l
             }
 
             // Either no cached, or it's changed. See if we can find something local with the same checksum
-            boolean hasLocalCandidates = additionalCandidates != null && !additionalCandidates.isNone();
             if (hasLocalCandidates) {
                 // The “remote” may have already given us the checksum
                 HashCode remoteChecksum = remoteMetaData.getSha1();
@@ -148,6 +160,35 @@ public LocallyAvailableExternalResource getResource(final ExternalResourceName l
         });
     }
 
+    @Nullable
+    /**
+     * Revalidates the cached resource with a single conditional request, which downloads the content only when it has changed.
+     *
+     * <p>Revalidations are not batched per repository: each one runs on the thread that needs the resource. Concurrent revalidation
+     * comes from the callers, such as parallel metadata download and metadata prefetching, which share the connection pool of the repository.</p>
+     */
+    private LocallyAvailableExternalResource revalidateCached(ExternalResourceName location, ResourceFileStore fileStore, CachedExternalResource cached) {
+        DownloadAction downloadAction = new DownloadAction(location, temporaryFileProvider, LOGGER, downloadChecksums);
+        ExternalResourceMetaData remoteMetaData = delegate.withProgressLogging().resource(location, true).withContentIfModified(cached.getExternalResourceMetaData(), downloadAction);
+        if (remoteMetaData == null) {
+            return null;
+        }
+
+        if (downloadAction.getMetaData() == null) {
+            LOGGER.info("Cached resource {} is up-to-date (lastModified: {}).", location, cached.getExternalLastModified());
+            // Update the cache entry in the index: this resets the age of the cached entry to zero
+            cachedExternalResourceIndex.store(location.toString(), cached.getCachedFile(), cached.getExternalResourceMetaData());
+            return fileResourceRepository.resource(cached.getCachedFile(), location.getUri(), cached.getExternalResourceMetaData());
+        }
+
+        try {
+            checksumService.rememberChecksums(downloadAction.getDestination(), downloadAction.getChecksums());
+            return moveIntoCache(location, downloadAction.getDestination(), fileStore, downloadAction.getMetaData(), downloadAction.getChecksums());
+        } finally {
+            downloadAction.getDestination().delete();
+        }
+    }
+
     @Nullable
     private HashCode getResourceSha1(ExternalResourceName location, boolean revalidate) {
         try {
@@ -175,7 +216,7 @@ private LocallyAvailableExternalResource copyCandidateToCache(ExternalResourceNa
             if (!localChecksum.equals(remoteChecksum)) {
                 return null;
             }
-            return moveIntoCache(source, destination, fileStore, remoteMetaData);
+            return moveIntoCache(source, destination, fileStore, remoteMetaData, Collections.emptyMap());
         } finally {
             destination.delete();
         }
@@ -184,24 +225,28 @@ private LocallyAvailableExternalResource copyCandidateToCache(ExternalResourceNa
     @Nullable
     private LocallyAvailableExternalResource copyToCache(final ExternalResourceName source, final ResourceFileStore fileStore, final ExternalResource resource) {
         // Download to temporary location
-        DownloadAction downloadAction = new DownloadAction(source, temporaryFileProvider, LOGGER);
+        DownloadAction downloadAction = new DownloadAction(source, temporaryFileProvider, LOGGER, downloadChecksums);
         resource.withContentIfPresent(downloadAction);
         if (downloadAction.getMetaData() == null) {
             return null;
         }
 
-        // Move into cache
+        // Move into cache, reusing the checksums calculated while downloading
         try {
-            return moveIntoCache(source, downloadAction.getDestination(), fileStore, downloadAction.getMetaData());
+            checksumService.rememberChecksums(downloadAction.getDestination(), downloadAction.getChecksums());
+            return moveIntoCache(source, downloadAction.getDestination(), fileStore, downloadAction.getMetaData(), downloadAction.getChecksums());
         } finally {
             downloadAction.getDestination().delete();
         }
     }
 
-    private LocallyAvailableExternalResource moveIntoCache(final ExternalResourceName source, final File destination, final ResourceFileStore fileStore, final ExternalResourceMetaData metaData) {
+    private LocallyAvailableExternalResource moveIntoCache(final ExternalResourceName source, final File destination, final ResourceFileStore fileStore, final ExternalResourceMetaData metaData, Map<String, HashCode> checksums) {
         return cacheAccessCoordinator.useCache(() -> {
             LocallyAvailableResource cachedResource = fileStore.moveIntoCache(destination);
             File fileInFileStore = cachedResource.getFile();
+            if (!checksums.isEmpty()) {
+                checksumService.rememberChecksums(fileInFileStore, checksums);
+            }
             cachedExternalResourceIndex.store(source.toString(), fileInFileStore, metaData);
             return fileResourceRepository.resource(fileInFileStore, source.getUri(), metaData);
         });
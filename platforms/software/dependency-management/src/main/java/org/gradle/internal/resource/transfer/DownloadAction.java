@@ -16,8 +16,12 @@
 
 package org.gradle.internal.resource.transfer;
 
+import com.google.common.collect.ImmutableMap;
 import org.apache.commons.io.IOUtils;
 import org.gradle.api.internal.file.temp.TemporaryFileProvider;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.HashFunction;
+import org.gradle.internal.hash.HashingOutputStream;
 import org.gradle.internal.resource.ExternalResource;
 import org.gradle.internal.resource.ExternalResourceName;
 import org.gradle.internal.resource.metadata.ExternalResourceMetaData;
@@ -30,19 +34,31 @@
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * Downloads a resource to a temporary file.
+ * <p>
+ * The given checksums of the content are calculated while it is written, so that the file does not need to be read again to calculate them.
+ */
 public class DownloadAction implements ExternalResource.ContentAndMetadataAction<Object> {
     private File destination;
     private ExternalResourceMetaData metaData;
+    private Map<String, HashCode> checksums = ImmutableMap.of();
     private final ExternalResourceName source;
     private final TemporaryFileProvider temporaryFileProvider;
     @Nullable
     private final Logger logger;
+    private final Collection<HashFunction> checksumFunctions;
 
-    public DownloadAction(ExternalResourceName source, TemporaryFileProvider temporaryFileProvider, @Nullable Logger logger) {
+    public DownloadAction(ExternalResourceName source, TemporaryFileProvider temporaryFileProvider, @Nullable Logger logger, Collection<HashFunction> checksumFunctions) {
         this.source = source;
         this.temporaryFileProvider = temporaryFileProvider;
         this.logger = logger;
+        this.checksumFunctions = checksumFunctions;
     }
 
     @Override
@@ -55,9 +71,19 @@ public Object execute(InputStream inputStream, ExternalResourceMetaData metaData
         if (destination.getParentFile() != null) {
             GFileUtils.mkdirs(destination.getParentFile());
         }
-        try (FileOutputStream outputStream = new FileOutputStream(destination)) {
-            IOUtils.copyLarge(inputStream, outputStream);
+        Map<String, HashingOutputStream> hashingStreams = new LinkedHashMap<>();
+        OutputStream outputStream = new FileOutputStream(destination);
+        for (HashFunction checksumFunction : checksumFunctions) {
+            HashingOutputStream hashingStream = new HashingOutputStream(checksumFunction, outputStream);
+            hashingStreams.put(checksumFunction.getAlgorithm(), hashingStream);
+            outputStream = hashingStream;
+        }
+        try (OutputStream out = outputStream) {
+            IOUtils.copyLarge(inputStream, out);
         }
+        ImmutableMap.Builder<String, HashCode> checksums = ImmutableMap.builder();
+        hashingStreams.forEach((algorithm, hashingStream) -> checksums.put(algorithm, hashingStream.hash()));
+        this.checksums = checksums.build();
         return null;
     }
 
@@ -70,4 +96,11 @@ public File getDestination() {
     public ExternalResourceMetaData getMetaData() {
         return metaData;
     }
+
+    /**
+     * Returns the checksums of the downloaded content, keyed by algorithm name.
+     */
+    public Map<String, HashCode> getChecksums() {
+        return checksums;
+    }
 }
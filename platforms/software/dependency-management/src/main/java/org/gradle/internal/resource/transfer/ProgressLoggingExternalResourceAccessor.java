@@ -52,6 +52,12 @@ public ExternalResourceMetaData getMetaData(ExternalResourceName location, boole
         return buildOperationRunner.call(new MetadataOperation(location, revalidate));
     }
 
+    @Nullable
+    @Override
+    public ExternalResourceMetaData withContentIfModified(ExternalResourceName location, ExternalResourceMetaData cached, ExternalResource.ContentAndMetadataAction<?> action) throws ResourceException {
+        return buildOperationRunner.call(new ConditionalDownloadOperation(location, cached, action));
+    }
+
     private BuildOperationDescriptor.Builder createBuildOperationDetails(ExternalResourceName resourceName) {
         ExternalResourceReadBuildOperationType.Details operationDetails = new ReadOperationDetails(resourceName.getUri());
         return BuildOperationDescriptor
@@ -140,6 +146,41 @@ public BuildOperationDescriptor.Builder description() {
         }
     }
 
+    private class ConditionalDownloadOperation implements CallableBuildOperation<ExternalResourceMetaData> {
+        private final ExternalResourceName location;
+        private final ExternalResourceMetaData cached;
+        private final ExternalResource.ContentAndMetadataAction<?> action;
+
+        public ConditionalDownloadOperation(ExternalResourceName location, ExternalResourceMetaData cached, ExternalResource.ContentAndMetadataAction<?> action) {
+            this.location = location;
+            this.cached = cached;
+            this.action = action;
+        }
+
+        @Override
+        public ExternalResourceMetaData call(BuildOperationContext context) {
+            ResourceOperation downloadOperation = createResourceOperation(context, ResourceOperation.Type.download);
+            try {
+                ExternalResourceMetaData metaData = delegate.withContentIfModified(location, cached, (inputStream, remoteMetaData) -> {
+                    downloadOperation.setContentLength(remoteMetaData.getContentLength());
+                    ProgressLoggingInputStream stream = new ProgressLoggingInputStream(inputStream, downloadOperation);
+                    return action.execute(stream, remoteMetaData);
+                });
+                if (metaData == null) {
+                    context.failed(ResourceExceptions.getMissing(location.getUri()));
+                }
+                return metaData;
+            } finally {
+                context.setResult(new ReadOperationResult(downloadOperation.getTotalProcessedBytes()));
+            }
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return createBuildOperationDetails(location);
+        }
+    }
+
     private class MetadataOperation implements CallableBuildOperation<ExternalResourceMetaData> {
         private final ExternalResourceName location;
         private final boolean revalidate;
@@ -72,6 +72,28 @@ class ConnectionFailureRepositoryDisablerTest extends Specification {
         'HttpErrorStatusCodeException with status ' | createUnauthorizedException()
     }
 
+    def "does not disable repository for critical exception [#exception] when running speculatively"() {
+        when:
+        boolean disabled = true
+        ConnectionFailureRepositoryDisabler.runSpeculatively {
+            disabled = disabler.tryDisableRepository('abc', exception)
+        }
+
+        then:
+        !disabled
+        disabler.disabledRepositories.empty
+
+        when:
+        disabled = disabler.tryDisableRepository('abc', exception)
+
+        then:
+        disabled
+        disabler.disabledRepositories.contains('abc')
+
+        where:
+        exception << [createTimeoutException(), createInternalServerException()]
+    }
+
     static RuntimeException createInternalServerException() {
         createHttpErrorStatusCodeException(500)
     }
@@ -55,6 +55,7 @@ import org.gradle.internal.resource.local.FileResourceListener
 import org.gradle.internal.resource.local.FileStore
 import org.gradle.internal.resource.local.LocallyAvailableResourceFinder
 import org.gradle.internal.resource.transfer.CacheAwareExternalResourceAccessor
+import org.gradle.test.fixtures.work.TestWorkerLeaseService
 import org.gradle.util.AttributeTestUtil
 import org.gradle.util.TestUtil
 import org.gradle.util.internal.BuildCommencedTimeProvider
@@ -102,7 +103,8 @@ class ExternalModuleComponentResolverFactoryTest extends Specification {
             resolveStateFactory,
             Stub(CalculatedValueContainerFactory),
             AttributeTestUtil.attributesFactory(),
-            Stub(ComponentMetadataSupplierRuleExecutor)
+            Stub(ComponentMetadataSupplierRuleExecutor),
+            new TestWorkerLeaseService()
         )
     }
 
@@ -1144,4 +1144,86 @@ class PomReaderTest extends AbstractPomReaderTest {
         then:
         pomReader.dependencies[keyGroupTwo].optional
     }
+
+    def "ignores dependencies declared outside of the dependency elements of the project and its profiles"() {
+        when:
+        pomFile << """
+<project>
+    <modelVersion>4.0.0</modelVersion>
+    <groupId>group</groupId>
+    <artifactId>artifact</artifactId>
+    <version>version</version>
+
+    <dependencies>
+        <dependency>
+            <groupId>group-two</groupId>
+            <artifactId>artifact-two</artifactId>
+            <version>version-two</version>
+        </dependency>
+    </dependencies>
+    <build>
+        <plugins>
+            <plugin>
+                <artifactId>some-plugin</artifactId>
+                <dependencies>
+                    <dependency>
+                        <groupId>group-three</groupId>
+                        <artifactId>artifact-three</artifactId>
+                        <version>version-three</version>
+                    </dependency>
+                </dependencies>
+            </plugin>
+        </plugins>
+    </build>
+    <profiles>
+        <profile>
+            <id>profile-1</id>
+            <activation>
+                <activeByDefault>true</activeByDefault>
+            </activation>
+            <build>
+                <plugins>
+                    <plugin>
+                        <artifactId>some-plugin</artifactId>
+                        <dependencies>
+                            <dependency>
+                                <groupId>group-four</groupId>
+                                <artifactId>artifact-four</artifactId>
+                                <version>version-four</version>
+                            </dependency>
+                        </dependencies>
+                    </plugin>
+                </plugins>
+            </build>
+        </profile>
+    </profiles>
+</project>
+"""
+        pomReader = new PomReader(locallyAvailableExternalResource, moduleIdentifierFactory)
+
+        then:
+        pomReader.dependencies.keySet() == [new MavenDependencyKey('group-two', 'artifact-two', 'jar', null)] as Set
+    }
+
+    def "resolves Maven 2 entities and keeps property values as written"() {
+        when:
+        pomFile << """
+<project>
+    <modelVersion>4.0.0</modelVersion>
+    <groupId>group</groupId>
+    <artifactId>artifact</artifactId>
+    <version>version</version>
+    <name>Artifact&nbsp;&copy;</name>
+    <properties>
+        <spaced> some value </spaced>
+        <cdata><![CDATA[a<b]]>&amp;c</cdata>
+    </properties>
+</project>
+"""
+        pomReader = new PomReader(locallyAvailableExternalResource, moduleIdentifierFactory)
+
+        then:
+        pomReader.properties['spaced'] == ' some value '
+        pomReader.properties['cdata'] == 'a<b&c'
+    }
 }
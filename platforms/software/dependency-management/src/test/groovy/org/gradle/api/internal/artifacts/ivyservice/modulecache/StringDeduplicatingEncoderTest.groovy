@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache
+
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder
+import org.gradle.util.internal.SimpleMapInterner
+import spock.lang.Specification
+
+class StringDeduplicatingEncoderTest extends Specification {
+
+    def "round trips strings mixed with other values"() {
+        given:
+        def bytes = new ByteArrayOutputStream()
+        new StringDeduplicatingEncoder(new KryoBackedEncoder(bytes)).withCloseable { encoder ->
+            encoder.writeString("org.test")
+            encoder.writeSmallInt(12)
+            encoder.writeNullableString(null)
+            encoder.writeString(new StringBuilder("org.test"))
+            encoder.writeNullableString("1.0")
+            encoder.writeBoolean(true)
+            encoder.writeString("1.0")
+        }
+
+        when:
+        def decoder = new StringDeduplicatingDecoder(new KryoBackedDecoder(new ByteArrayInputStream(bytes.toByteArray())), SimpleMapInterner.notThreadSafe())
+        def first = decoder.readString()
+
+        then:
+        first == "org.test"
+        decoder.readSmallInt() == 12
+        decoder.readNullableString() == null
+        decoder.readString().is(first)
+        decoder.readNullableString() == "1.0"
+        decoder.readBoolean()
+        decoder.readString() == "1.0"
+    }
+
+    def "writes repeated strings only once"() {
+        given:
+        def value = "org.gradle.jvm.environment"
+
+        when:
+        def plain = new ByteArrayOutputStream()
+        new KryoBackedEncoder(plain).withCloseable { encoder ->
+            10.times { encoder.writeString(value) }
+        }
+        def deduplicated = new ByteArrayOutputStream()
+        new StringDeduplicatingEncoder(new KryoBackedEncoder(deduplicated)).withCloseable { encoder ->
+            10.times { encoder.writeString(value) }
+        }
+
+        then:
+        deduplicated.size() < plain.size() / 5
+    }
+}
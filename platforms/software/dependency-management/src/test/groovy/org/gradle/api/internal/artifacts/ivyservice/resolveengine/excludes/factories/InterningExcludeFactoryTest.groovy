@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.factories
+
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.ModuleExclusions
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.simple.DefaultExcludeFactory
+import spock.lang.Specification
+
+class InterningExcludeFactoryTest extends Specification implements ExcludeTestSupport {
+
+    def setup() {
+        factory = new InterningExcludeFactory(new DefaultExcludeFactory())
+    }
+
+    def "equal specs are the same instance"() {
+        expect:
+        group("org").is(group("org"))
+        moduleId("org", "foo").is(moduleId("org", "foo"))
+        moduleIdSet("org:foo", "org:bar").is(moduleIdSet("org:bar", "org:foo"))
+        anyOf(group("org"), module("foo")).is(anyOf(module("foo"), group("org")))
+        allOf(group("org"), moduleSet("foo", "bar"), module("baz")).is(allOf(module("baz"), group("org"), moduleSet("bar", "foo")))
+        ivy("org", "foo", artifact("foo"), "exact").is(ivy("org", "foo", artifact("foo"), "exact"))
+        !group("org").is(group("com"))
+    }
+
+    def "merges yielding equal specs return the same instance"() {
+        given:
+        def exclusions = new ModuleExclusions()
+        def a = moduleId("org", "a")
+        def b = moduleId("org", "b")
+        def c = moduleId("org", "c")
+
+        when:
+        def one = exclusions.excludeAny(exclusions.excludeAny(a, b), c)
+        def two = exclusions.excludeAny(a, exclusions.excludeAny(b, c))
+
+        then:
+        one == moduleIdSet("org:a", "org:b", "org:c")
+        one.is(two)
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder
+
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.DependencySubstitutionInternal
+import org.gradle.api.internal.artifacts.ivyservice.dependencysubstitution.DependencySubstitutionApplicator
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.ModuleExclusions
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.specs.ExcludeSpec
+import org.gradle.initialization.BuildCancellationToken
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
+import org.gradle.internal.component.external.model.DefaultModuleComponentSelector
+import org.gradle.internal.component.model.ComponentGraphResolveState
+import org.gradle.internal.component.model.ComponentGraphSpecificResolveState
+import org.gradle.internal.component.model.DependencyMetadata
+import org.gradle.internal.component.model.ExcludeMetadata
+import org.gradle.internal.component.model.GraphSelectionCandidates
+import org.gradle.internal.component.model.VariantGraphResolveMetadata
+import org.gradle.internal.component.model.VariantGraphResolveState
+import org.gradle.internal.concurrent.ExecutorFactory
+import org.gradle.internal.concurrent.ManagedExecutor
+import org.gradle.internal.operations.TestBuildOperationRunner
+import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver
+import org.gradle.test.fixtures.work.TestWorkerLeaseService
+import spock.lang.Specification
+
+class MetadataPrefetcherTest extends Specification {
+    def versionParser = new VersionParser()
+    def versionComparator = new DefaultVersionComparator()
+    def resolver = Mock(ComponentMetaDataResolver)
+    def moduleExclusions = new ModuleExclusions()
+    def resolveState = Stub(ResolveState) {
+        getModuleExclusions() >> moduleExclusions
+        getDependencySubstitutionApplicator() >> DependencySubstitutionApplicator.NO_OP
+    }
+    def cancellationToken = Stub(BuildCancellationToken)
+    // Runs the fetches on the calling thread, so that they all complete before prefetch() returns
+    def executorFactory = Stub(ExecutorFactory) {
+        create(_, _) >> Stub(ManagedExecutor) {
+            execute(_) >> { Runnable action -> action.run() }
+        }
+    }
+    def prefetcher = new MetadataPrefetcher(resolver, new DefaultVersionSelectorScheme(versionComparator, versionParser), versionComparator, versionParser, new TestBuildOperationRunner(), executorFactory, new TestWorkerLeaseService(), cancellationToken)
+
+    def "prefetches fixed versions requested by the frontier and their dependencies"() {
+        given:
+        def node = node(dependency("org", "a", "1.0"), dependency("org", "b", "[1.0,2.0)"), dependency("org", "c", "1.0", true))
+        def a = component(dependency("org", "d", "2.0"))
+        resolveState.findModule(_) >> null
+
+        when:
+        prefetcher.prefetch([node], resolveState)
+
+        then:
+        1 * resolver.resolve(id("org", "a", "1.0"), _, _) >> { args -> args[2].resolved(a, Stub(ComponentGraphSpecificResolveState)) }
+        1 * resolver.resolve(id("org", "d", "2.0"), _, _)
+        0 * resolver._
+    }
+
+    def "does not prefetch versions superseded by a version already selected or scheduled"() {
+        given:
+        def node = node(dependency("org", "a", "1.0"), dependency("org", "a", "1.1"), dependency("org", "a", "0.9"), dependency("org", "b", "1.0"))
+        def selected = Stub(ComponentState) {
+            getVersion() >> "1.5"
+        }
+        resolveState.findModule(DefaultModuleIdentifier.newId("org", "b")) >> Stub(ModuleResolveState) {
+            getSelected() >> selected
+        }
+        resolveState.findModule(_) >> null
+
+        when:
+        prefetcher.prefetch([node], resolveState)
+
+        then:
+        1 * resolver.resolve(id("org", "a", "1.0"), _, _)
+        1 * resolver.resolve(id("org", "a", "1.1"), _, _)
+        0 * resolver._
+    }
+
+    def "does not prefetch dependencies that may be excluded, nor the dependencies of the others"() {
+        given:
+        def excluded = Stub(ExcludeSpec) {
+            excludes(DefaultModuleIdentifier.newId("org", "a")) >> true
+        }
+        def node = node(excluded, dependency("org", "a", "1.0"), dependency("org", "b", "1.0"))
+        def b = component(dependency("org", "d", "2.0"))
+        resolveState.findModule(_) >> null
+
+        when:
+        prefetcher.prefetch([node], resolveState)
+
+        then:
+        1 * resolver.resolve(id("org", "b", "1.0"), _, _) >> { args -> args[2].resolved(b, Stub(ComponentGraphSpecificResolveState)) }
+        0 * resolver._
+    }
+
+    def "does not prefetch dependencies that substitution rules change, nor the dependencies of the others"() {
+        given:
+        def substituted = dependency("org", "a", "1.0")
+        def unchanged = dependency("org", "b", "1.0")
+        def applicator = Stub(DependencySubstitutionApplicator) {
+            apply(substituted) >> DependencySubstitutionApplicator.SubstitutionResult.of(Stub(DependencySubstitutionInternal) {
+                isUpdated() >> true
+            })
+            apply(unchanged) >> DependencySubstitutionApplicator.NO_OP_SUBSTITUTION_RESULT
+        }
+        def substitutingState = Stub(ResolveState) {
+            getModuleExclusions() >> moduleExclusions
+            getDependencySubstitutionApplicator() >> applicator
+            findModule(_) >> null
+        }
+        def node = node(substituted, unchanged)
+        def b = component(dependency("org", "d", "2.0"))
+
+        when:
+        prefetcher.prefetch([node], substitutingState)
+
+        then:
+        1 * resolver.resolve(id("org", "b", "1.0"), _, _) >> { args -> args[2].resolved(b, Stub(ComponentGraphSpecificResolveState)) }
+        0 * resolver._
+    }
+
+    def "does not prefetch the dependencies of a dependency with excludes"() {
+        given:
+        def node = node(dependency("org", "a", "1.0", false, [Stub(ExcludeMetadata)]), dependency("org", "b", "1.0"))
+        def a = component(dependency("org", "d", "2.0"))
+        def b = component(dependency("org", "e", "2.0"))
+        resolveState.findModule(_) >> null
+
+        when:
+        prefetcher.prefetch([node], resolveState)
+
+        then:
+        1 * resolver.resolve(id("org", "a", "1.0"), _, _) >> { args -> args[2].resolved(a, Stub(ComponentGraphSpecificResolveState)) }
+        1 * resolver.resolve(id("org", "b", "1.0"), _, _) >> { args -> args[2].resolved(b, Stub(ComponentGraphSpecificResolveState)) }
+        1 * resolver.resolve(id("org", "e", "2.0"), _, _)
+        0 * resolver._
+    }
+
+    def "does not prefetch once stopped"() {
+        given:
+        def node = node(dependency("org", "a", "1.0"))
+        resolveState.findModule(_) >> null
+
+        when:
+        prefetcher.stop()
+        prefetcher.prefetch([node], resolveState)
+
+        then:
+        0 * resolver._
+    }
+
+    def "does not prefetch once the build is cancelled"() {
+        given:
+        def node = node(dependency("org", "a", "1.0"))
+        resolveState.findModule(_) >> null
+        cancellationToken.isCancellationRequested() >> true
+
+        when:
+        prefetcher.prefetch([node], resolveState)
+
+        then:
+        0 * resolver._
+    }
+
+    def id(String group, String module, String version) {
+        DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId(group, module), version)
+    }
+
+    def dependency(String group, String module, String version, boolean constraint = false, List<ExcludeMetadata> excludes = []) {
+        Stub(DependencyMetadata) {
+            getSelector() >> DefaultModuleComponentSelector.newSelector(DefaultModuleIdentifier.newId(group, module), version)
+            isConstraint() >> constraint
+            isTransitive() >> true
+            getExcludes() >> excludes
+            getArtifacts() >> []
+        }
+    }
+
+    def node(DependencyMetadata... dependencies) {
+        node(moduleExclusions.nothing(), dependencies)
+    }
+
+    def node(ExcludeSpec exclusions, DependencyMetadata... dependencies) {
+        def metadata = Stub(VariantGraphResolveMetadata) {
+            getDependencies() >> (dependencies as List)
+        }
+        def component = Stub(ComponentState) {
+            isSelected() >> true
+        }
+        Stub(NodeState) {
+            getComponent() >> component
+            getMetadata() >> metadata
+            getPossibleExclusions() >> exclusions
+        }
+    }
+
+    def component(DependencyMetadata... dependencies) {
+        def variant = Stub(VariantGraphResolveState) {
+            getMetadata() >> Stub(VariantGraphResolveMetadata) {
+                getDependencies() >> (dependencies as List)
+                getExcludes() >> []
+            }
+        }
+        Stub(ComponentGraphResolveState) {
+            getCandidatesForGraphVariantSelection() >> Stub(GraphSelectionCandidates) {
+                getVariantsForAttributeMatching() >> [variant]
+            }
+        }
+    }
+}
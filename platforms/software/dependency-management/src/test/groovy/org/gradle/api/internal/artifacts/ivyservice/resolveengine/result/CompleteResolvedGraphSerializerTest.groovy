@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.result
+
+import org.gradle.api.artifacts.result.ResolvedComponentResult
+import org.gradle.api.artifacts.result.ResolvedDependencyResult
+import org.gradle.api.attributes.Attribute
+import org.gradle.api.internal.artifacts.DefaultImmutableModuleIdentifierFactory
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.DependencyManagementTestUtil
+import org.gradle.api.internal.artifacts.result.DefaultResolvedVariantResult
+import org.gradle.internal.Describables
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
+import org.gradle.internal.component.external.model.DefaultModuleComponentSelector
+import org.gradle.internal.component.external.model.ImmutableCapabilities
+import org.gradle.internal.resolve.ModuleVersionResolveException
+import org.gradle.internal.serialize.SerializerSpec
+import org.gradle.util.AttributeTestUtil
+import org.gradle.util.TestUtil
+
+import static org.gradle.api.internal.artifacts.DefaultModuleVersionIdentifier.newId
+import static org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.ResolutionResultPrinter.printGraph
+
+class CompleteResolvedGraphSerializerTest extends SerializerSpec {
+
+    def serializer = new CompleteResolvedGraphSerializer(
+        DependencyManagementTestUtil.componentSelectionDescriptorFactory(),
+        new DefaultImmutableModuleIdentifierFactory(),
+        AttributeTestUtil.attributesFactory(),
+        TestUtil.objectInstantiator(),
+        new DesugaredAttributeContainerSerializer(AttributeTestUtil.attributesFactory(), TestUtil.objectInstantiator())
+    )
+    def builder = new ResolutionResultGraphBuilder()
+
+    def "round trips a graph with shared dependencies and constraints"() {
+        given:
+        component(0, "root", 10)
+        component(1, "a", 11)
+        component(2, "b", 12)
+        builder.visitOutgoingEdges(0, [dep(10, "a", 1, 11), dep(10, "b", 2, 12)])
+        builder.visitOutgoingEdges(1, [dep(11, "b", 2, 12), dep(11, "b", 2, 12, true)])
+        def root = builder.getRoot(0)
+
+        when:
+        def result = serialize(root, serializer)
+
+        then:
+        printGraph(result) == printGraph(root)
+        result.moduleVersion == newId("org", "root", "1.0")
+
+        def a = selected(result, "a")
+        a.selectionReason == ComponentSelectionReasons.requested()
+        a.repositoryId == "repo"
+        a.variants.size() == 1
+        a.variants[0].displayName == "a-runtime"
+        a.variants[0].attributes.getAttribute(Attribute.of("usage", String)) == "runtime"
+
+        def aDependencies = a.getDependenciesForVariant(a.variants[0])
+        aDependencies*.constraint == [false, true]
+        aDependencies.every { it.selected.is(selected(result, "b")) }
+        selected(result, "b").dependents.size() == selected(root, "b").dependents.size()
+    }
+
+    def "fails to write a graph with unresolved dependencies"() {
+        given:
+        component(0, "root", 10)
+        builder.visitOutgoingEdges(0, [new DetachedResolvedGraphDependency(selector("missing"), null, ComponentSelectionReasons.requested(), new ModuleVersionResolveException(selector("missing"), { "broken" }), false, 10, null)])
+
+        when:
+        toBytes(builder.getRoot(0), serializer)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message == "Cannot serialize a graph with unresolved dependency org:missing:1.0."
+    }
+
+    private static ResolvedComponentResult selected(ResolvedComponentResult from, String module) {
+        (from.dependencies.find { it.requested.displayName == "org:${module}:1.0" } as ResolvedDependencyResult).selected
+    }
+
+    private void component(long id, String module, long variantId) {
+        def componentId = DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("org", module), "1.0")
+        def attributes = AttributeTestUtil.attributesFactory().mutable()
+        attributes.attribute(Attribute.of("usage", String), "runtime")
+        builder.startVisitComponent(id, id == 0 ? ComponentSelectionReasons.root() : ComponentSelectionReasons.requested(), id == 0 ? null : "repo")
+        builder.visitComponentDetails(componentId, newId("org", module, "1.0"))
+        builder.visitComponentVariants([])
+        builder.visitSelectedVariant(variantId, new DefaultResolvedVariantResult(componentId, Describables.of("${module}-runtime"), attributes, ImmutableCapabilities.EMPTY, null))
+        builder.endVisitComponent()
+    }
+
+    private static DetachedResolvedGraphDependency dep(long fromVariant, String module, long selected, long selectedVariant, boolean constraint = false) {
+        new DetachedResolvedGraphDependency(selector(module), selected, null, null, constraint, fromVariant, selectedVariant)
+    }
+
+    private static selector(String module) {
+        DefaultModuleComponentSelector.newSelector(DefaultModuleIdentifier.newId("org", module), "1.0")
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.result
+
+import org.gradle.api.artifacts.result.ResolvedDependencyResult
+import spock.lang.Specification
+
+import static org.gradle.api.internal.artifacts.DefaultModuleVersionIdentifier.newId
+import static org.gradle.api.internal.artifacts.result.ResolutionResultDataBuilder.*
+
+class ResolvedGraphCopierTest extends Specification {
+
+    def "copies graph for a different root and shares immutable parts"() {
+        given:
+        def root = newModule("org", "root", "1")
+        def a = newModule("org", "a", "1")
+        def b = newModule("org", "b", "1")
+        dependency(root, a)
+        dependency(root, b)
+        dependency(a, b)
+        def newRootVariant = newVariant("runtimeClasspath")
+        def newRootId = newId("org", "other", "2")
+
+        when:
+        def copy = ResolvedGraphCopier.copyWithRoot(root, newRootId, newModule("org", "other", "2").id, newRootVariant)
+
+        then:
+        copy.moduleVersion == newRootId
+        copy.variants == [newRootVariant]
+        copy.dependencies*.requested == root.dependencies*.requested
+        copy.getDependenciesForVariant(newRootVariant).size() == 2
+        copy.dependencies.every { it.from.is(copy) }
+
+        def copiedA = (copy.dependencies[0] as ResolvedDependencyResult).selected
+        def copiedB = (copy.dependencies[1] as ResolvedDependencyResult).selected
+        !copiedA.is(a)
+        copiedA.id.is(a.id)
+        copiedA.variants == a.variants
+        (copiedA.dependencies[0] as ResolvedDependencyResult).selected.is(copiedB)
+        copiedB.dependents*.from as Set == [copy, copiedA] as Set
+
+        and:
+        root.dependencies.every { it.from.is(root) }
+        b.dependents*.from as Set == [root, a] as Set
+    }
+
+    def "does not copy graph with unresolved dependencies"() {
+        given:
+        def root = newModule("org", "root", "1")
+        def unresolved = newUnresolvedDependency()
+        root.addDependency(unresolved)
+        root.associateDependencyToVariant(unresolved, root.variants[0])
+
+        expect:
+        ResolvedGraphCopier.copyWithRoot(root, newId("org", "other", "2"), root.id, newVariant()) == null
+    }
+
+    def dependency(DefaultResolvedComponentResult from, DefaultResolvedComponentResult to) {
+        def dependency = new DefaultResolvedDependencyResult(newSelector(to.moduleVersion.group, to.moduleVersion.name, to.moduleVersion.version), false, to, to.variants[0], from)
+        from.addDependency(dependency)
+        from.associateDependencyToVariant(dependency, from.variants[0])
+        to.addDependent(dependency)
+    }
+}
@@ -28,6 +28,7 @@ import org.gradle.internal.component.external.model.ImmutableCapabilities
 import org.gradle.internal.model.CalculatedValue
 import org.gradle.internal.operations.BuildOperation
 import org.gradle.internal.operations.BuildOperationQueue
+import org.gradle.internal.operations.RunnableBuildOperation
 import spock.lang.Specification
 
 class TransformingAsyncArtifactListenerTest extends Specification {
@@ -51,7 +52,7 @@ class TransformingAsyncArtifactListenerTest extends Specification {
     }
     def artifacts = Mock(ResolvedArtifactSet.Artifacts)
 
-    def "adds expensive artifact transformations to the build operation queue"() {
+    def "adds artifact transformations to the build operation queue without identifying them"() {
         when:
         listener.visitArtifacts(artifacts)
         def artifacts = result.build()
@@ -65,27 +66,40 @@ class TransformingAsyncArtifactListenerTest extends Specification {
         artifacts[0].startFinalization(operationQueue, true)
 
         then:
-        1 * transformStep.createInvocation(_, _, _) >> invocation
-        1 * invocation.getCompleted() >> Optional.empty()
+        0 * transformStep.createInvocation(_, _, _)
         1 * operationQueue.add(_ as BuildOperation)
+
+        when:
+        (artifacts[0] as RunnableBuildOperation).run(null)
+
+        then:
+        1 * transformStep.createInvocation({ it.files == [this.artifactFile] }, _ as TransformUpstreamDependencies, _) >> invocation
+        1 * invocation.completeAndGet() >> Try.successful(TransformStepSubject.initial(artifact))
     }
 
-    def "runs cheap artifact transformations immediately when not scheduled"() {
+    def "does not queue artifact transformations that have already run"() {
+        def visitor = Mock(ArtifactVisitor)
+
         when:
         listener.visitArtifacts(artifacts)
         def artifacts = result.build()
 
         then:
-        artifacts.size() == 1
         1 * artifacts.visit(_) >> { ArtifactVisitor visitor -> visitor.visitArtifact(null, null, ImmutableCapabilities.EMPTY, artifact) }
-        0 * _
+
+        when:
+        artifacts[0].visit(visitor)
+
+        then:
+        1 * transformStep.createInvocation(_, _, _) >> invocation
+        1 * invocation.completeAndGet() >> Try.successful(TransformStepSubject.initial(artifact))
+        1 * visitor.visitArtifact(_, _, _, _)
 
         when:
         artifacts[0].startFinalization(operationQueue, true)
 
         then:
-        1 * transformStep.createInvocation({ it.files == [this.artifactFile] }, _ as TransformUpstreamDependencies, _) >> invocation
-        2 * invocation.getCompleted() >> Optional.of(Try.successful(TransformStepSubject.initial(artifact)))
+        0 * transformStep.createInvocation(_, _, _)
         0 * operationQueue._
     }
 }
@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.attributes
 
+import com.google.common.collect.Ordering
 import org.gradle.api.Named
 import org.gradle.api.attributes.Attribute
 import org.gradle.api.attributes.AttributeCompatibilityRule
@@ -299,6 +300,29 @@ class DefaultAttributesSchemaTest extends Specification {
         best == [value1] as Set
     }
 
+    def "schemas with the same rules have equal matching rules keys"() {
+        def other = new DefaultAttributesSchema(TestUtil.instantiatorFactory(), SnapshotTestUtil.isolatableFactory())
+        def flavor = Attribute.of("flavor", Flavor)
+        def version = Attribute.of("version", Integer)
+
+        given:
+        [schema, other].each {
+            it.attribute(flavor).compatibilityRules.add(CustomCompatibilityRule)
+            it.attribute(flavor).disambiguationRules.add(CustomSelectionRule)
+            it.attribute(version).ordered(Ordering.natural())
+            it.attributeDisambiguationPrecedence(flavor)
+        }
+
+        expect:
+        schema.matchingRulesKey == other.matchingRulesKey
+
+        when:
+        other.attribute(version).compatibilityRules.ordered({ a, b -> a <=> b } as Comparator)
+
+        then:
+        schema.matchingRulesKey != other.matchingRulesKey
+    }
+
     def "merging creates schema with additional attributes defined by producer"() {
         def producer = new DefaultAttributesSchema(TestUtil.instantiatorFactory(), SnapshotTestUtil.isolatableFactory())
 
@@ -49,7 +49,8 @@ class ModuleSpec {
                         module.rootMetaData.expectGet()
                         break
                     case InteractionExpectation.HEAD:
-                        module.rootMetaData.expectHead()
+                        // The cached metadata is revalidated with a conditional request
+                        module.rootMetaData.expectGetNotModified()
                         break
                     case InteractionExpectation.MAYBE:
                         module.rootMetaData.allowAll()
@@ -63,7 +64,8 @@ class ModuleSpec {
                         directoryList.expectGet()
                         break
                     case InteractionExpectation.HEAD:
-                        directoryList.expectHead()
+                        // Directory listings are not cached, so they are always fetched
+                        directoryList.expectGet()
                         break
                     case InteractionExpectation.MAYBE:
                         directoryList.allowAll()
@@ -65,6 +65,20 @@ public void close() {
         }
     }
 
+    /**
+     * Closes the response without reading the rest of its content. The connection is discarded rather than returned to the pool.
+     */
+    void abort() {
+        if (!closed) {
+            closed = true;
+            try {
+                httpResponse.close();
+            } catch (IOException e) {
+                // Ignore, as the connection is discarded anyway
+            }
+        }
+    }
+
     String getMethod() {
         return method;
     }
@@ -82,4 +96,8 @@ boolean wasMissing() {
         int statusCode = getStatusLine().getStatusCode();
         return statusCode == 404;
     }
+
+    boolean wasNotModified() {
+        return getStatusLine().getStatusCode() == 304;
+    }
 }
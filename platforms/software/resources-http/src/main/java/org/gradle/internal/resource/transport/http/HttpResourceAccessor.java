@@ -16,15 +16,21 @@
 
 package org.gradle.internal.resource.transport.http;
 
+import org.gradle.api.resources.ResourceException;
 import org.gradle.internal.IoActions;
+import org.gradle.internal.resource.ExternalResource;
 import org.gradle.internal.resource.ExternalResourceName;
+import org.gradle.internal.resource.ResourceExceptions;
 import org.gradle.internal.resource.metadata.ExternalResourceMetaData;
+import org.gradle.internal.resource.metadata.ExternalResourceMetaDataCompare;
 import org.gradle.internal.resource.transfer.AbstractExternalResourceAccessor;
 import org.gradle.internal.resource.transfer.ExternalResourceAccessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 
 public class HttpResourceAccessor extends AbstractExternalResourceAccessor implements ExternalResourceAccessor {
@@ -57,6 +63,37 @@ public HttpResponseResource getRawResource(final URI uri, boolean revalidate) {
         return wrapResponse(uri, response);
     }
 
+    /**
+     * Uses a conditional GET, so that an unchanged resource costs a single request without a body.
+     * When the server ignores the condition but its response headers show that the resource is unchanged, the body is not read.
+     */
+    @Nullable
+    @Override
+    public ExternalResourceMetaData withContentIfModified(ExternalResourceName location, ExternalResourceMetaData cached, ExternalResource.ContentAndMetadataAction<?> action) throws ResourceException {
+        String uri = location.getUri().toString();
+        LOGGER.debug("Revalidating external resource: {}", location);
+        HttpClientResponse response = http.performConditionalGet(uri, cached.getEtag(), cached.getLastModified());
+        if (response.wasMissing() || response.wasNotModified()) {
+            response.close();
+            return response.wasMissing() ? null : cached;
+        }
+
+        try (HttpResponseResource resource = wrapResponse(location.getUri(), response)) {
+            ExternalResourceMetaData metaData = resource.getMetaData();
+            if (ExternalResourceMetaDataCompare.isDefinitelyUnchanged(cached, () -> metaData)) {
+                LOGGER.debug("External resource {} is unchanged, not reading the response body.", location);
+                response.abort();
+                return cached;
+            }
+            try (InputStream inputStream = resource.openStream()) {
+                action.execute(inputStream, metaData);
+                return metaData;
+            }
+        } catch (IOException e) {
+            throw ResourceExceptions.getFailed(location.getUri(), e);
+        }
+    }
+
     @Override
     public ExternalResourceMetaData getMetaData(ExternalResourceName location, boolean revalidate) {
         String uri = location.getUri().toString();
@@ -16,9 +16,14 @@
 
 package org.gradle.internal.resource.transport.http
 
+import org.apache.http.HttpHeaders
 import org.apache.http.StatusLine
 import org.apache.http.client.methods.CloseableHttpResponse
+import org.apache.http.entity.StringEntity
+import org.apache.http.message.BasicHeader
+import org.gradle.internal.resource.ExternalResource
 import org.gradle.internal.resource.ExternalResourceName
+import org.gradle.internal.resource.metadata.DefaultExternalResourceMetaData
 import spock.lang.Specification
 
 class HttpResourceAccessorTest extends Specification {
@@ -38,6 +43,43 @@ class HttpResourceAccessorTest extends Specification {
         1 * response.close()
     }
 
+    def "does not read the body of an unchanged resource when the server ignores the conditional request"() {
+        def response = mockHttpResponse()
+        response.getFirstHeader(HttpHeaders.ETAG) >> new BasicHeader(HttpHeaders.ETAG, '"abc"')
+        def http = Mock(HttpClientHelper) {
+            performConditionalGet(uri.toString(), '"abc"', null) >> new HttpClientResponse("GET", uri, response)
+        }
+        def cached = new DefaultExternalResourceMetaData(uri, 0, 10, null, '"abc"', null)
+        def action = Mock(ExternalResource.ContentAndMetadataAction)
+
+        when:
+        def result = new HttpResourceAccessor(http).withContentIfModified(name, cached, action)
+
+        then:
+        result == cached
+        0 * action._
+        0 * response.getEntity()
+        1 * response.close()
+    }
+
+    def "reads the body of a changed resource"() {
+        def response = mockHttpResponse()
+        response.getFirstHeader(HttpHeaders.ETAG) >> new BasicHeader(HttpHeaders.ETAG, '"def"')
+        response.getEntity() >> new StringEntity("content")
+        def http = Mock(HttpClientHelper) {
+            performConditionalGet(uri.toString(), '"abc"', null) >> new HttpClientResponse("GET", uri, response)
+        }
+        def cached = new DefaultExternalResourceMetaData(uri, 0, 10, null, '"abc"', null)
+        def action = Mock(ExternalResource.ContentAndMetadataAction)
+
+        when:
+        def result = new HttpResourceAccessor(http).withContentIfModified(name, cached, action)
+
+        then:
+        result.etag == '"def"'
+        1 * action.execute(_, _)
+    }
+
     private CloseableHttpResponse mockHttpResponse() {
         def response = Mock(CloseableHttpResponse)
         def statusLine = Mock(StatusLine)
@@ -18,6 +18,7 @@
 import org.gradle.api.Action;
 import org.gradle.api.resources.ResourceException;
 import org.gradle.internal.resource.metadata.ExternalResourceMetaData;
+import org.gradle.internal.resource.metadata.ExternalResourceMetaDataCompare;
 
 import javax.annotation.Nullable;
 import java.io.File;
@@ -134,6 +135,28 @@ public interface ExternalResource extends Resource {
     @Nullable
     ExternalResourceMetaData getMetaData();
 
+    /**
+     * Executes the given action against the binary contents and meta-data of this resource, unless the resource is unchanged compared to a copy with the given meta-data.
+     *
+     * @return the meta-data of the resource, which is the given meta-data when the resource is unchanged, or null when the resource does not exist.
+     * @throws ResourceException on failure to read the content.
+     */
+    @Nullable
+    default ExternalResourceMetaData withContentIfModified(ExternalResourceMetaData cached, ContentAndMetadataAction<?> readAction) throws ResourceException {
+        ExternalResourceMetaData remoteMetaData = getMetaData();
+        if (remoteMetaData == null) {
+            return null;
+        }
+        if (ExternalResourceMetaDataCompare.isDefinitelyUnchanged(cached, () -> remoteMetaData)) {
+            return cached;
+        }
+        ExternalResourceReadResult<ExternalResourceMetaData> result = withContentIfPresent((inputStream, metaData) -> {
+            readAction.execute(inputStream, metaData);
+            return metaData;
+        });
+        return result == null ? null : result.getResult();
+    }
+
     interface ContentAndMetadataAction<T> {
         T execute(InputStream inputStream, ExternalResourceMetaData metaData) throws IOException;
     }
@@ -156,6 +156,12 @@ public ExternalResourceMetaData getMetaData() {
         return accessor.getMetaData(name, revalidate);
     }
 
+    @Nullable
+    @Override
+    public ExternalResourceMetaData withContentIfModified(ExternalResourceMetaData cached, ContentAndMetadataAction<?> readAction) throws ResourceException {
+        return accessor.withContentIfModified(name, cached, readAction);
+    }
+
     private static class CountingReadableContent implements ReadableContent {
         private final ReadableContent source;
         private CountingInputStream instr;
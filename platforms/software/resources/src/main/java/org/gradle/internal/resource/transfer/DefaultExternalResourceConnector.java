@@ -66,6 +66,13 @@ public ExternalResourceMetaData getMetaData(ExternalResourceName location, boole
         return accessor.getMetaData(location, revalidate);
     }
 
+    @Nullable
+    @Override
+    public ExternalResourceMetaData withContentIfModified(ExternalResourceName location, ExternalResourceMetaData cached, ExternalResource.ContentAndMetadataAction<?> action) throws ResourceException {
+        STATS.resource(location.getUri());
+        return accessor.withContentIfModified(location, cached, action);
+    }
+
     @Nullable
     @Override
     public List<String> list(ExternalResourceName parent) {
@@ -20,6 +20,7 @@
 import org.gradle.internal.resource.ExternalResource;
 import org.gradle.internal.resource.ExternalResourceName;
 import org.gradle.internal.resource.metadata.ExternalResourceMetaData;
+import org.gradle.internal.resource.metadata.ExternalResourceMetaDataCompare;
 
 import javax.annotation.Nullable;
 
@@ -78,4 +79,31 @@ default <T> T withContent(ExternalResourceName location, boolean revalidate, Ext
      */
     @Nullable
     ExternalResourceMetaData getMetaData(ExternalResourceName location, boolean revalidate) throws ResourceException;
+
+    /**
+     * Reads the resource at the given location, unless it is unchanged compared to a copy with the given meta-data. The resource is always revalidated.
+     *
+     * If the resource does not exist, this method should return null. If the resource is unchanged, the action is not called and the given meta-data
+     * is returned. Otherwise, the action is applied to the content of the resource and its meta-data is returned.
+     *
+     * @param location The address of the resource to obtain
+     * @param cached The meta-data of the copy of the resource that the caller has
+     * @param action The action to apply to the content of the resource, when it has changed.
+     * @return The meta-data of the resource, or null if the resource does not exist.
+     * @throws ResourceException If the resource may exist, but not could be obtained for some reason.
+     */
+    @Nullable
+    default ExternalResourceMetaData withContentIfModified(ExternalResourceName location, ExternalResourceMetaData cached, ExternalResource.ContentAndMetadataAction<?> action) throws ResourceException {
+        ExternalResourceMetaData remoteMetaData = getMetaData(location, true);
+        if (remoteMetaData == null) {
+            return null;
+        }
+        if (ExternalResourceMetaDataCompare.isDefinitelyUnchanged(cached, () -> remoteMetaData)) {
+            return cached;
+        }
+        return withContent(location, true, (inputStream, metaData) -> {
+            action.execute(inputStream, metaData);
+            return metaData;
+        });
+    }
 }
@@ -1,6 +1,7 @@
 plugins {
     id("gradlebuild.distribution.api-java")
     id("gradlebuild.instrumented-java-project")
+    id("gradlebuild.jmh")
 }
 
 description = "Public and internal 'core' Gradle APIs with implementation"
@@ -298,6 +299,8 @@ dependencies {
     testInterceptorsImplementation(platform(projects.distributionsDependencies))
     "testInterceptorsAnnotationProcessor"(projects.internalInstrumentationProcessor)
     "testInterceptorsAnnotationProcessor"(platform(projects.distributionsDependencies))
+
+    jmhImplementation(platform(projects.distributionsDependencies))
 }
 
 strictCompile {
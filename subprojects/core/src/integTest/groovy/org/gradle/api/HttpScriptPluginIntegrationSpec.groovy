@@ -313,7 +313,7 @@ class HttpScriptPluginIntegrationSpec extends AbstractHttpScriptPluginIntegratio
 
         when:
         server.resetExpectations()
-        server.expectHead('/' + scriptName, scriptFile)
+        server.expectGetNotModified('/' + scriptName, scriptFile)
         args('-I', 'init.gradle')
 
         then:
@@ -340,7 +340,6 @@ class HttpScriptPluginIntegrationSpec extends AbstractHttpScriptPluginIntegratio
 
         when:
         scriptFile.setText("""println 'loaded external script 2'""", "UTF-8")
-        server.expectHead('/' + scriptName, scriptFile)
         server.expectGet('/' + scriptName, scriptFile)
 
         then:
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.classpath.transforms;
+
+import org.apache.commons.io.FileUtils;
+import org.gradle.api.Project;
+import org.gradle.api.file.RelativePath;
+import org.gradle.internal.Pair;
+import org.gradle.internal.classpath.ClassData;
+import org.gradle.internal.classpath.ClasspathEntryVisitor;
+import org.gradle.internal.classpath.ClasspathWalker;
+import org.gradle.internal.classpath.InPlaceClasspathBuilder;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.nativeintegration.services.FileSystems;
+import org.gradle.internal.nativeintegration.services.NativeServices;
+import org.gradle.internal.nativeintegration.services.NativeServices.NativeServicesMode;
+import org.gradle.internal.resources.DefaultResourceLockCoordinationService;
+import org.gradle.internal.work.DefaultWorkerLeaseService;
+import org.gradle.internal.work.DefaultWorkerLimits;
+import org.gradle.internal.work.WorkerLeaseService;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link InstrumentingClassTransform} in classes per second,
+ * for single classes and for a JAR transformed with and without parallel class transformation.
+ * <p>
+ * The classes are taken from the Gradle API on the classpath of the benchmark.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InstrumentingClassTransformBenchmark {
+
+    private static final int CLASS_COUNT = 1000;
+
+    @State(Scope.Benchmark)
+    public static class Classes {
+        File tempRootDir;
+        File jar;
+        ClasspathWalker classpathWalker;
+        final List<ClassEntry> entries = new ArrayList<>(CLASS_COUNT);
+        final ClassTransform transform = new InstrumentingClassTransform();
+        int next;
+
+        @Setup(Level.Trial)
+        public void setupTrial() throws IOException {
+            tempRootDir = Files.createTempDirectory("instrumentation-benchmark").toFile();
+            NativeServices.initializeOnDaemon(tempRootDir, NativeServicesMode.fromSystemProperties());
+            classpathWalker = new ClasspathWalker(FileSystems.getDefault());
+
+            File source = new File(Project.class.getProtectionDomain().getCodeSource().getLocation().getPath());
+            classpathWalker.visit(source, entry -> {
+                if (entries.size() < CLASS_COUNT && entry.getName().startsWith("org/gradle/") && entry.getName().endsWith(".class")) {
+                    entries.add(new ClassEntry(entry.getName(), entry.getContent()));
+                }
+            });
+            if (entries.size() < CLASS_COUNT) {
+                throw new IllegalStateException("Expected at least " + CLASS_COUNT + " classes in " + source + ", found " + entries.size());
+            }
+
+            jar = new File(tempRootDir, "classes.jar");
+            new InPlaceClasspathBuilder().jar(jar, builder -> {
+                for (ClassEntry entry : entries) {
+                    builder.put(entry.getName(), entry.content, ClasspathEntryVisitor.Entry.CompressionMethod.DEFLATED);
+                }
+            });
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDownTrial() throws IOException {
+            FileUtils.forceDelete(tempRootDir);
+        }
+
+        ClassEntry nextEntry() {
+            ClassEntry entry = entries.get(next);
+            next = (next + 1) % entries.size();
+            return entry;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Jar {
+        @Param({"sequential", "parallel"})
+        String execution;
+
+        ClassTransformExecutor classTransformExecutor;
+        ClasspathElementTransformFactory transformFactory;
+
+        @Setup(Level.Trial)
+        public void setupTrial(Classes classes) {
+            classTransformExecutor = execution.equals("parallel")
+                ? new ClassTransformExecutor(new DefaultExecutorFactory(), workerLeaseService())
+                : ClassTransformExecutor.sequential();
+            transformFactory = new ClasspathElementTransformFactoryForLegacy(new InPlaceClasspathBuilder(), classes.classpathWalker, classTransformExecutor);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDownTrial() {
+            classTransformExecutor.close();
+        }
+
+        private static WorkerLeaseService workerLeaseService() {
+            DefaultWorkerLeaseService workerLeaseService = new DefaultWorkerLeaseService(
+                new DefaultResourceLockCoordinationService(),
+                new DefaultWorkerLimits(Runtime.getRuntime().availableProcessors())
+            );
+            workerLeaseService.startProjectExecution(true);
+            return workerLeaseService;
+        }
+    }
+
+    @Benchmark
+    public byte[] transformClass(Classes classes) throws IOException {
+        ClassEntry entry = classes.nextEntry();
+        ClassReader reader = new ClassReader(entry.content);
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        Pair<RelativePath, ClassVisitor> chain = classes.transform.apply(entry, classWriter, new ClassData(reader, entry.content));
+        reader.accept(chain.right, 0);
+        return classWriter.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLASS_COUNT)
+    public long transformJar(Classes classes, Jar jar) {
+        File destination = new File(classes.tempRootDir, "instrumented.jar");
+        jar.transformFactory.createTransformer(classes.jar, classes.transform).transform(destination);
+        return destination.length();
+    }
+
+    private static class ClassEntry implements ClasspathEntryVisitor.Entry {
+        private final String name;
+        private final byte[] content;
+
+        ClassEntry(String name, byte[] content) {
+            this.name = name;
+            this.content = content;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public RelativePath getPath() {
+            return RelativePath.parse(true, name);
+        }
+
+        @Override
+        public CompressionMethod getCompressionMethod() {
+            return CompressionMethod.DEFLATED;
+        }
+
+        @Override
+        public byte[] getContent() {
+            return content;
+        }
+    }
+}
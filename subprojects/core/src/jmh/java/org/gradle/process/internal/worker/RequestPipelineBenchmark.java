@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.process.internal.worker;
+
+import org.gradle.internal.logging.events.OutputEventListener;
+import org.gradle.internal.operations.BuildOperationRef;
+import org.gradle.internal.operations.DefaultBuildOperationRef;
+import org.gradle.internal.operations.OperationIdentifier;
+import org.gradle.process.internal.worker.request.Receiver;
+import org.gradle.process.internal.worker.request.Request;
+import org.gradle.process.internal.worker.request.RequestProtocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the throughput of {@link RequestPipeline} in work items per second, for 10k small work items sent by a number of callers
+ * to a single worker.
+ * <p>
+ * The worker is simulated by a thread that answers each request after a fixed delay, standing for the round trip to a worker process.
+ * With a single caller, each item waits for the result of the previous one, as without pipelining.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RequestPipelineBenchmark {
+
+    private static final int ITEM_COUNT = 10_000;
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @State(Scope.Benchmark)
+    public static class Worker {
+        @Param({"1", "4", "16"})
+        int callers;
+
+        final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+        Receiver receiver;
+        RequestPipeline pipeline;
+        RequestProtocol protocol;
+        BuildOperationRef buildOperation;
+        Thread worker;
+        ExecutorService callerThreads;
+
+        @Setup(Level.Trial)
+        public void setupTrial() {
+            receiver = new Receiver("worker", OutputEventListener.NO_OP);
+            pipeline = new RequestPipeline(receiver);
+            protocol = new QueueingRequestProtocol(requests);
+            buildOperation = new DefaultBuildOperationRef(new OperationIdentifier(1), null);
+            worker = new Thread(() -> {
+                try {
+                    while (true) {
+                        Request request = requests.take();
+                        LockSupport.parkNanos(ROUND_TRIP_NANOS);
+                        receiver.completed(request.getArg());
+                    }
+                } catch (InterruptedException e) {
+                    // Stopped
+                }
+            }, "simulated worker");
+            worker.start();
+            callerThreads = Executors.newFixedThreadPool(callers);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDownTrial() throws InterruptedException {
+            callerThreads.shutdownNow();
+            worker.interrupt();
+            worker.join();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public int runItems(Worker worker) throws Exception {
+        List<Future<Integer>> results = new ArrayList<>(worker.callers);
+        for (int caller = 0; caller < worker.callers; caller++) {
+            int first = caller;
+            results.add(worker.callerThreads.submit(() -> {
+                int count = 0;
+                for (int item = first; item < ITEM_COUNT; item += worker.callers) {
+                    RequestPipeline.PendingResult pendingResult = worker.pipeline.send(worker.protocol, new Request(item, worker.buildOperation));
+                    worker.pipeline.await(pendingResult, () -> new IllegalStateException("Worker finished."));
+                    count++;
+                }
+                return count;
+            }));
+        }
+        int count = 0;
+        for (Future<Integer> result : results) {
+            count += result.get();
+        }
+        return count;
+    }
+
+    private static class QueueingRequestProtocol implements RequestProtocol {
+        private final BlockingQueue<Request> requests;
+
+        QueueingRequestProtocol(BlockingQueue<Request> requests) {
+            this.requests = requests;
+        }
+
+        @Override
+        public void run(Request request) {
+            requests.add(request);
+        }
+
+        @Override
+        public void runThenStop(Request request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void stop() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
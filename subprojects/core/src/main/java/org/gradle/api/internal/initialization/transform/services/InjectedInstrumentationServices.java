@@ -20,6 +20,7 @@
 import org.gradle.cache.GlobalCacheLocations;
 import org.gradle.internal.classpath.ClasspathWalker;
 import org.gradle.internal.classpath.InPlaceClasspathBuilder;
+import org.gradle.internal.classpath.transforms.ClassTransformExecutor;
 import org.gradle.internal.classpath.transforms.ClasspathElementTransformFactory;
 import org.gradle.internal.classpath.transforms.ClasspathElementTransformFactoryForAgent;
 import org.gradle.internal.classpath.transforms.ClasspathElementTransformFactoryForLegacy;
@@ -31,10 +32,10 @@
 
 public abstract class InjectedInstrumentationServices {
     private final Lazy<ClasspathElementTransformFactoryForAgent> transformFactory = Lazy.locking().of(
-        () -> new ClasspathElementTransformFactoryForAgent(new InPlaceClasspathBuilder(), getClasspathWalker())
+        () -> new ClasspathElementTransformFactoryForAgent(new InPlaceClasspathBuilder(), getClasspathWalker(), getClassTransformExecutor())
     );
     private final Lazy<ClasspathElementTransformFactoryForLegacy> legacyTransformFactory = Lazy.locking().of(
-        () -> new ClasspathElementTransformFactoryForLegacy(new InPlaceClasspathBuilder(), getClasspathWalker())
+        () -> new ClasspathElementTransformFactoryForLegacy(new InPlaceClasspathBuilder(), getClasspathWalker(), getClassTransformExecutor())
     );
 
     public InjectedInstrumentationServices() {
@@ -44,6 +45,9 @@ public InjectedInstrumentationServices() {
     @Inject
     public abstract ClasspathWalker getClasspathWalker();
 
+    @Inject
+    public abstract ClassTransformExecutor getClassTransformExecutor();
+
     @Inject
     public abstract FileSystemAccess getFileSystemAccess();
 
@@ -128,6 +128,14 @@ protected MutableStateAccessAwareProject(ProjectInternal delegate, ProjectIntern
 
     protected abstract void onMutableStateAccess(String what);
 
+    /**
+     * Called when the mutable state of the project is read without being changed.
+     * By default, this is handled as any other access to the mutable state.
+     */
+    protected void onMutableStateRead(String what) {
+        onMutableStateAccess(what);
+    }
+
     @Override
     public abstract boolean equals(Object obj);
 
@@ -150,7 +158,7 @@ protected void propertyMissing(String name, Object args) {
 
     // used by Groovy dynamic dispatch
     protected boolean hasPropertyMissing(String name) {
-        onMutableStateAccess("hasProperty");
+        onMutableStateRead("hasProperty");
         return delegate.hasProperty(name);
     }
 
@@ -177,7 +185,7 @@ public IsolatedProject getIsolated() {
     @Nullable
     @Override
     public String getDescription() {
-        onMutableStateAccess("description");
+        onMutableStateRead("description");
         return delegate.getDescription();
     }
 
@@ -189,7 +197,7 @@ public void setDescription(@Nullable String description) {
 
     @Override
     public Object getGroup() {
-        onMutableStateAccess("group");
+        onMutableStateRead("group");
         return delegate.getGroup();
     }
 
@@ -201,7 +209,7 @@ public void setGroup(Object group) {
 
     @Override
     public Object getVersion() {
-        onMutableStateAccess("version");
+        onMutableStateRead("version");
         return delegate.getVersion();
     }
 
@@ -213,7 +221,7 @@ public void setVersion(Object version) {
 
     @Override
     public Object getStatus() {
-        onMutableStateAccess("status");
+        onMutableStateRead("status");
         return delegate.getStatus();
     }
 
@@ -252,7 +260,7 @@ public ProjectIdentity getProjectIdentity() {
     @Override
     @Deprecated
     public File getBuildDir() {
-        onMutableStateAccess("buildDir");
+        onMutableStateRead("buildDir");
         return delegate.getBuildDir();
     }
 
@@ -450,27 +458,27 @@ public void afterEvaluate(Closure closure) {
 
     @Override
     public boolean hasProperty(String propertyName) {
-        onMutableStateAccess("hasProperty");
+        onMutableStateRead("hasProperty");
         return delegate.hasProperty(propertyName);
     }
 
     @Override
     public Map<String, ?> getProperties() {
-        onMutableStateAccess("properties");
+        onMutableStateRead("properties");
         return delegate.getProperties();
     }
 
     @Nullable
     @Override
     public Object property(String propertyName) throws MissingPropertyException {
-        onMutableStateAccess("property");
+        onMutableStateRead("property");
         return delegate.property(propertyName);
     }
 
     @Nullable
     @Override
     public Object findProperty(String propertyName) {
-        onMutableStateAccess("findProperty");
+        onMutableStateRead("findProperty");
         return delegate.findProperty(propertyName);
     }
 
@@ -853,7 +861,7 @@ public StandardOutputCapture getStandardOutputCapture() {
 
     @Override
     public ProjectStateInternal getState() {
-        onMutableStateAccess("state");
+        onMutableStateRead("state");
         return delegate.getState();
     }
 
@@ -27,11 +27,13 @@
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -46,6 +48,7 @@
 @ThreadSafe
 public class DefaultCrossBuildInMemoryCacheFactory implements CrossBuildInMemoryCacheFactory {
     private final ListenerManager listenerManager;
+    private final List<RetainsValuesFromPreviousSession> cachesRetainingValues = new CopyOnWriteArrayList<>();
 
     public DefaultCrossBuildInMemoryCacheFactory(ListenerManager listenerManager) {
         this.listenerManager = listenerManager;
@@ -55,6 +58,7 @@ public DefaultCrossBuildInMemoryCacheFactory(ListenerManager listenerManager) {
     public <K, V> CrossBuildInMemoryCache<K, V> newCache() {
         DefaultCrossBuildInMemoryCache<K, V> cache = new DefaultCrossBuildInMemoryCache<>(new HashMap<>());
         listenerManager.addListener(cache);
+        cachesRetainingValues.add(cache);
         return cache;
     }
 
@@ -62,6 +66,7 @@ public <K, V> CrossBuildInMemoryCache<K, V> newCache() {
     public <K, V> CrossBuildInMemoryCache<K, V> newCacheRetainingDataFromPreviousBuild(Predicate<V> retentionFilter) {
         CrossBuildCacheRetainingDataFromPreviousBuild<K, V> cache = new CrossBuildCacheRetainingDataFromPreviousBuild<>(retentionFilter);
         listenerManager.addListener(cache);
+        cachesRetainingValues.add(cache);
         return cache;
     }
 
@@ -71,6 +76,7 @@ public <V> CrossBuildInMemoryCache<Class<?>, V> newClassCache() {
         // for the entry's key is discarded, which is unnecessary because we won't attempt to locate the entry again once the ClassLoader has been discarded
         DefaultCrossBuildInMemoryCache<Class<?>, V> cache = new DefaultCrossBuildInMemoryCache<>(new WeakHashMap<>());
         listenerManager.addListener(cache);
+        cachesRetainingValues.add(cache);
         return cache;
     }
 
@@ -81,8 +87,19 @@ public <V> CrossBuildInMemoryCache<Class<?>, V> newClassMap() {
         return map;
     }
 
+    @Override
+    public void discardValuesRetainedFromPreviousSession() {
+        for (RetainsValuesFromPreviousSession cache : cachesRetainingValues) {
+            cache.discardValuesFromPreviousSession();
+        }
+    }
+
+    private interface RetainsValuesFromPreviousSession {
+        void discardValuesFromPreviousSession();
+    }
+
     private abstract static class AbstractCrossBuildInMemoryCache<K, V> implements CrossBuildInMemoryCache<K, V>, BuildSessionLifecycleListener {
-        private final Object lock = new Object();
+        protected final Object lock = new Object();
         private final Map<K, V> valuesForThisSession = new HashMap<>();
 
         @Override
@@ -164,7 +181,7 @@ private V getIfPresentWithoutLock(K key) {
         }
     }
 
-    private static class DefaultCrossBuildInMemoryCache<K, V> extends AbstractCrossBuildInMemoryCache<K, V> {
+    private static class DefaultCrossBuildInMemoryCache<K, V> extends AbstractCrossBuildInMemoryCache<K, V> implements RetainsValuesFromPreviousSession {
         // This is used only to retain strong references to the values
         private final Set<V> valuesForPreviousSession = new HashSet<>();
         private final Map<K, SoftReference<V>> allValues;
@@ -180,6 +197,14 @@ protected void retainValuesFromCurrentSession(Collection<V> values) {
             valuesForPreviousSession.addAll(values);
         }
 
+        @Override
+        public void discardValuesFromPreviousSession() {
+            synchronized (lock) {
+                // Values are still reachable through their soft references until they are collected
+                valuesForPreviousSession.clear();
+            }
+        }
+
         @Override
         protected void discardRetainedValues() {
             valuesForPreviousSession.clear();
@@ -240,7 +265,7 @@ private Map<Class<?>, V> getCacheScope(Class<?> type) {
         }
     }
 
-    private static class CrossBuildCacheRetainingDataFromPreviousBuild<K, V> implements CrossBuildInMemoryCache<K, V>, BuildSessionLifecycleListener {
+    private static class CrossBuildCacheRetainingDataFromPreviousBuild<K, V> implements CrossBuildInMemoryCache<K, V>, BuildSessionLifecycleListener, RetainsValuesFromPreviousSession {
         private final ManualEvictionInMemoryCache<K, V> delegate = new ManualEvictionInMemoryCache<>();
         private final ConcurrentMap<K, Boolean> keysFromPreviousBuild = new ConcurrentHashMap<>();
         private final ConcurrentMap<K, Boolean> keysFromCurrentBuild = new ConcurrentHashMap<>();
@@ -295,5 +320,11 @@ public void beforeComplete() {
             keysFromPreviousBuild.putAll(keysFromCurrentBuild);
             keysFromCurrentBuild.clear();
         }
+
+        @Override
+        public void discardValuesFromPreviousSession() {
+            delegate.retainAll(new HashSet<>(keysFromCurrentBuild.keySet()));
+            keysFromPreviousBuild.clear();
+        }
     }
 }
@@ -46,11 +46,12 @@ public void prepareProjects(GradleInternal gradle) {
             return;
         }
 
-        if (buildModelParameters.isIsolatedProjects()) {
-            if (buildType != BuildType.TASKS && gradle.isRootBuild()) {
-                // Keep it incremental if we are not running tasks
-                return;
-            }
+        if (buildModelParameters.isIsolatedProjects() && buildType != BuildType.TASKS && gradle.isRootBuild()) {
+            // Keep it incremental if we are not running tasks
+            return;
+        }
+
+        if (buildModelParameters.isParallelProjectConfiguration()) {
             projectConfigurer.configureHierarchyInParallel(gradle.getRootProject());
         } else {
             projectConfigurer.configureHierarchy(gradle.getRootProject());
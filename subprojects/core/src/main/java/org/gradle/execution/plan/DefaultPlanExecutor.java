@@ -32,6 +32,7 @@
 import org.gradle.internal.concurrent.ManagedExecutor;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.logging.text.TreeFormatter;
+import org.gradle.internal.operations.ExecutionTimeline;
 import org.gradle.internal.resources.ResourceLockCoordinationService;
 import org.gradle.internal.work.WorkerLeaseRegistry.WorkerLease;
 import org.gradle.internal.work.WorkerLeaseService;
@@ -70,6 +71,7 @@ public class DefaultPlanExecutor implements PlanExecutor, Stoppable {
     private final MergedQueues queue;
     private final ExecutorState state = new ExecutorState();
     private final ExecutorStats stats;
+    private final ExecutionTimeline timeline;
 
     public DefaultPlanExecutor(
         WorkerLimits workerLimits,
@@ -77,9 +79,11 @@ public DefaultPlanExecutor(
         WorkerLeaseService workerLeaseService,
         BuildCancellationToken cancellationToken,
         ResourceLockCoordinationService coordinationService,
-        InternalOptions internalOptions
+        InternalOptions internalOptions,
+        ExecutionTimeline timeline
     ) {
         this.workerLimits = workerLimits;
+        this.timeline = timeline;
         this.cancellationToken = cancellationToken;
         this.coordinationService = coordinationService;
         this.workerLeaseService = workerLeaseService;
@@ -108,7 +112,7 @@ public <T> ExecutionResult<Void> process(WorkSource<T> workSource, Action<T> wor
         WorkerLease currentWorkerLease = workerLeaseService.getCurrentWorkerLease();
         MergedQueues thisPlanOnly = new MergedQueues(coordinationService, true);
         thisPlanOnly.add(planDetails);
-        new ExecutorWorker(thisPlanOnly, currentWorkerLease, cancellationToken, coordinationService, workerLeaseService, stats).run();
+        new ExecutorWorker(thisPlanOnly, currentWorkerLease, cancellationToken, coordinationService, workerLeaseService, stats, timeline).run();
 
         List<Throwable> failures = new ArrayList<>();
         awaitCompletion(workSource, currentWorkerLease, failures);
@@ -178,7 +182,7 @@ private void maybeStartWorkers(MergedQueues queue, Executor executor) {
         state.maybeStartWorkers(() -> {
             LOGGER.debug("Using {} parallel executor threads", executorCount);
             for (int i = 1; i < executorCount; i++) {
-                executor.execute(new ExecutorWorker(queue, null, cancellationToken, coordinationService, workerLeaseService, stats));
+                executor.execute(new ExecutorWorker(queue, null, cancellationToken, coordinationService, workerLeaseService, stats, timeline));
             }
         });
     }
@@ -338,6 +342,8 @@ private static class ExecutorWorker implements Runnable {
         private final ResourceLockCoordinationService coordinationService;
         private final WorkerLeaseService workerLeaseService;
         private final WorkerStats stats;
+        private final ExecutionTimeline timeline;
+        private boolean waitedForWorkerLease;
 
         private ExecutorWorker(
             MergedQueues queue,
@@ -345,7 +351,8 @@ private ExecutorWorker(
             BuildCancellationToken cancellationToken,
             ResourceLockCoordinationService coordinationService,
             WorkerLeaseService workerLeaseService,
-            ExecutorStats executorStats
+            ExecutorStats executorStats,
+            ExecutionTimeline timeline
         ) {
             this.queue = queue;
             this.workerLease = workerLease;
@@ -353,6 +360,7 @@ private ExecutorWorker(
             this.coordinationService = coordinationService;
             this.workerLeaseService = workerLeaseService;
             this.stats = executorStats.startWorker();
+            this.timeline = timeline;
         }
 
         @Override
@@ -393,6 +401,8 @@ public void run() {
         @Nullable
         private WorkItem getNextItem(final WorkerLease workerLease) {
             final MutableReference<WorkItem> selected;
+            long startWaiting = System.nanoTime();
+            waitedForWorkerLease = false;
             stats.startSelect();
             try {
                 selected = MutableReference.empty();
@@ -408,6 +418,7 @@ private WorkItem getNextItem(final WorkerLease workerLease) {
                     }
 
                     if (!workerLease.tryLock()) {
+                        waitedForWorkerLease = true;
                         // Cannot get a lease to run work
                         // Do not call `startWaitingForNextItem()` as there may be work available but this worker cannot start it, and so should not be considered "waiting for work".
                         // The health monitoring is currently only concerned with whether work can be started.
@@ -446,6 +457,7 @@ private WorkItem getNextItem(final WorkerLease workerLease) {
                 });
             } finally {
                 stats.finishSelect();
+                timeline.waited(waitedForWorkerLease ? ExecutionTimeline.Wait.WORKER_LEASE : ExecutionTimeline.Wait.WORK, startWaiting);
             }
 
             return selected.get();
@@ -468,6 +480,7 @@ private void execute(Object selected, WorkSource<Object> executionPlan, Action<O
         }
 
         private void markFinished(Object selected, WorkSource<Object> executionPlan, @Nullable Throwable failure) {
+            long startWaiting = System.nanoTime();
             stats.startMarkFinished();
             try {
                 coordinationService.withStateLock(() -> {
@@ -482,6 +495,7 @@ private void markFinished(Object selected, WorkSource<Object> executionPlan, @Nu
                 });
             } finally {
                 stats.finishMarkFinished();
+                timeline.waited(ExecutionTimeline.Wait.STATE_LOCK, startWaiting);
             }
         }
     }
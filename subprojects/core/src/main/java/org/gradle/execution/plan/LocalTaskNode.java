@@ -50,6 +50,8 @@ public class LocalTaskNode extends TaskNode {
     private List<? extends ResourceLock> resourceLocks;
     private TaskProperties taskProperties;
     private ProjectInternal taskProject;
+    @Nullable
+    private volatile Runnable stateLoader;
 
     public LocalTaskNode(TaskInternal task, WorkValidationContext workValidationContext, Function<LocalTaskNode, ResolveMutationsNode> resolveNodeFactory) {
         this.task = task;
@@ -65,6 +67,22 @@ public void isolated() {
         isolated = true;
     }
 
+    /**
+     * Defers restoring the state of the task until its mutations are resolved, right before the task is executed.
+     * The state is discarded without being restored when the task does not execute.
+     */
+    public void restoreStateBeforeExecution(Runnable stateLoader) {
+        this.stateLoader = stateLoader;
+    }
+
+    private void restoreState() {
+        Runnable loader = stateLoader;
+        if (loader != null) {
+            stateLoader = null;
+            loader.run();
+        }
+    }
+
     public WorkValidationContext getValidationContext() {
         return validationContext;
     }
@@ -90,6 +108,10 @@ public ProjectInternal getOwningProject() {
     @Override
     public List<? extends ResourceLock> getResourcesToLock() {
         if (resourceLocks == null) {
+            if (stateLoader != null) {
+                // The state is restored when the mutations are resolved, which happens before the task is selected to execute
+                throw new IllegalStateException("The state of " + this + " has not been restored.");
+            }
             resourceLocks = task.getSharedResources();
         }
         return resourceLocks;
@@ -208,6 +230,7 @@ public Node getPrepareNode() {
     public void markFailedDueToDependencies(Consumer<Node> completionAction) {
         super.markFailedDueToDependencies(completionAction);
         if (!resolveMutationsNode.isComplete()) {
+            stateLoader = null;
             resolveMutationsNode.markFailedDueToDependencies(completionAction);
         }
     }
@@ -216,6 +239,7 @@ public void markFailedDueToDependencies(Consumer<Node> completionAction) {
     public void cancelExecution(Consumer<Node> completionAction) {
         super.cancelExecution(completionAction);
         if (resolveMutationsNode.isRequired()) {
+            stateLoader = null;
             resolveMutationsNode.cancelExecution(completionAction);
         }
     }
@@ -228,6 +252,7 @@ public void resolveMutations() {
         final FileCollectionFactory fileCollectionFactory = serviceRegistry.get(FileCollectionFactory.class);
         PropertyWalker propertyWalker = serviceRegistry.get(PropertyWalker.class);
         try {
+            restoreState();
             taskProperties = DefaultTaskProperties.resolve(propertyWalker, fileCollectionFactory, task);
 
             addOutputFilesToMutations(taskProperties.getOutputFileProperties());
@@ -39,7 +39,6 @@
 import java.io.File;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -49,7 +48,8 @@
 
 @ServiceScope(Scope.Build.class)
 public class TaskNodeFactory {
-    private final Map<Task, TaskNode> nodes = new HashMap<>();
+    // Nodes can be created concurrently when the configuration cache loads the tasks of several projects in parallel
+    private final Map<Task, TaskNode> nodes = new ConcurrentHashMap<>();
     private final BuildTreeWorkGraphController workGraphController;
     private final GradleInternal thisBuild;
     private final DefaultTypeOriginInspectorFactory typeOriginInspectorFactory;
@@ -78,16 +78,15 @@ public TaskNode getNode(Task task) {
     }
 
     public TaskNode getOrCreateNode(Task task) {
-        TaskNode node = nodes.get(task);
-        if (node == null) {
-            if (((ProjectInternal) task.getProject()).getGradle().getIdentityPath().equals(thisBuild.getIdentityPath())) {
-                node = new LocalTaskNode((TaskInternal) task, new DefaultWorkValidationContext(typeOriginInspectorFactory.forTask(task)), resolveMutationsNodeFactory);
-            } else {
-                node = TaskInAnotherBuild.of((TaskInternal) task, workGraphController);
-            }
-            nodes.put(task, node);
+        return nodes.computeIfAbsent(task, this::createNode);
+    }
+
+    private TaskNode createNode(Task task) {
+        if (((ProjectInternal) task.getProject()).getGradle().getIdentityPath().equals(thisBuild.getIdentityPath())) {
+            return new LocalTaskNode((TaskInternal) task, new DefaultWorkValidationContext(typeOriginInspectorFactory.forTask(task)), resolveMutationsNodeFactory);
+        } else {
+            return TaskInAnotherBuild.of((TaskInternal) task, workGraphController);
         }
-        return node;
     }
 
     public void resetState() {
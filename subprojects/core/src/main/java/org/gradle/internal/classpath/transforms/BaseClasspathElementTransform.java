@@ -36,6 +36,7 @@
 
 /**
  * Base class for the transformations. Note that the order in which entries are visited is not defined.
+ * Classes may be transformed in parallel, but the transformed entries are written in the order they are visited.
  */
 class BaseClasspathElementTransform implements ClasspathElementTransform {
 
@@ -45,17 +46,20 @@ class BaseClasspathElementTransform implements ClasspathElementTransform {
     private final ClasspathBuilder classpathBuilder;
     private final ClasspathWalker classpathWalker;
     private final ClassTransform transform;
+    private final ClassTransformExecutor classTransformExecutor;
 
     BaseClasspathElementTransform(
         File source,
         ClasspathBuilder classpathBuilder,
         ClasspathWalker classpathWalker,
-        ClassTransform transform
+        ClassTransform transform,
+        ClassTransformExecutor classTransformExecutor
     ) {
         this.source = source;
         this.classpathBuilder = classpathBuilder;
         this.classpathWalker = classpathWalker;
         this.transform = transform;
+        this.classTransformExecutor = classTransformExecutor;
     }
 
     @Override
@@ -78,13 +82,24 @@ private BiConsumer<File, ClasspathBuilder.Action> resultBuilder() {
     }
 
     private void visitEntries(ClasspathBuilder.EntryBuilder builder) throws IOException, FileException {
-        classpathWalker.visit(source, entry -> {
-            visitEntry(builder, entry);
-        });
-        finishProcessing(builder);
+        OrderedEntryBuilder orderedBuilder = new OrderedEntryBuilder(
+            builder,
+            classTransformExecutor.poolFor(transform),
+            classTransformExecutor.getMaxPendingClasses()
+        );
+        try {
+            classpathWalker.visit(source, entry -> {
+                visitEntry(orderedBuilder, entry);
+                orderedBuilder.writeCompleted();
+            });
+            finishProcessing(orderedBuilder);
+            orderedBuilder.finish();
+        } finally {
+            orderedBuilder.discard();
+        }
     }
 
-    private void visitEntry(ClasspathBuilder.EntryBuilder builder, ClasspathEntryVisitor.Entry entry) throws IOException {
+    private void visitEntry(OrderedEntryBuilder builder, ClasspathEntryVisitor.Entry entry) throws IOException {
         try {
             if (isClassFile(entry)) {
                 processClassFile(builder, entry);
@@ -100,20 +115,31 @@ private void visitEntry(ClasspathBuilder.EntryBuilder builder, ClasspathEntryVis
 
     /**
      * Processes a class file. The type of file is determined solely by name, so it may not be a well-formed class file.
-     * Base class implementation applies the {@link ClassTransform} to the code.
+     * Base class implementation applies the {@link ClassTransform} to the code, in the background when the transform allows it.
      *
      * @param builder the builder for the transformed output
      * @param classEntry the entry to process
      * @throws IOException if reading or writing entry fails
      */
-    protected void processClassFile(ClasspathBuilder.EntryBuilder builder, ClasspathEntryVisitor.Entry classEntry) throws IOException {
+    protected void processClassFile(OrderedEntryBuilder builder, ClasspathEntryVisitor.Entry classEntry) throws IOException {
+        // The content is read by the visiting thread, as the entries of a JAR are read sequentially
         byte[] content = classEntry.getContent();
+        builder.putLater(() -> {
+            try {
+                return transformClass(classEntry, content);
+            } catch (Throwable e) {
+                throw new IOException("Failed to process the entry '" + classEntry.getName() + "' from '" + source + "'", e);
+            }
+        });
+    }
+
+    private OrderedEntryBuilder.Entry transformClass(ClasspathEntryVisitor.Entry classEntry, byte[] content) throws IOException {
         ClassReader reader = new ClassReader(content);
         ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
         Pair<RelativePath, ClassVisitor> chain = transform.apply(classEntry, classWriter, new ClassData(reader, content));
         reader.accept(chain.right, 0);
         byte[] bytes = classWriter.toByteArray();
-        builder.put(chain.left.getPathString(), bytes, classEntry.getCompressionMethod());
+        return new OrderedEntryBuilder.Entry(chain.left.getPathString(), bytes, classEntry.getCompressionMethod());
     }
 
     /**
@@ -32,4 +32,11 @@ public interface ClassTransform {
     void applyConfigurationTo(Hasher hasher);
 
     Pair<RelativePath, ClassVisitor> apply(ClasspathEntryVisitor.Entry entry, ClassVisitor visitor, ClassData classData) throws IOException;
+
+    /**
+     * Whether this transform can be applied to several classes at the same time, from different threads.
+     */
+    default boolean isParallelizable() {
+        return false;
+    }
 }
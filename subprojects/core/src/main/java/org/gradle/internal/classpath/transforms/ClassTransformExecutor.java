@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.classpath.transforms;
+
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+import org.gradle.internal.work.WorkerLeaseService;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the transformation of the classes of a classpath element on a shared pool, so the classes of a single large JAR are transformed in parallel.
+ * The transformed entries are still written in the order they were visited, so the result does not depend on scheduling.
+ * <p>
+ * The pool is sized to the maximum number of workers, and each class is transformed while holding a worker lease, so class transforms
+ * compete with the rest of the build for the same workers. The JARs of a classpath are transformed on threads of their own, which
+ * release their worker lease while they wait for the classes they submitted to this pool.
+ * The tasks of this pool never wait for other tasks, so sharing it between all JARs cannot deadlock.
+ * <p>
+ * Only the classpath transforms of the build, such as the instrumentation artifact transforms, use this pool.
+ * The classpath transforms shared by the builds of a Gradle user home are {@link #sequential()}.
+ */
+@ServiceScope(Scope.BuildSession.class)
+public class ClassTransformExecutor implements Closeable {
+
+    /**
+     * The number of classes that may be waiting to be written for each thread of the pool.
+     * This limits the memory used by the transformed classes that are held back to keep the entries in order.
+     */
+    private static final int PENDING_CLASSES_PER_THREAD = 4;
+
+    private static final ClassTransformExecutor SEQUENTIAL = new ClassTransformExecutor(null, null, 0);
+
+    @Nullable
+    private final ManagedExecutor executor;
+    @Nullable
+    private final Pool pool;
+    private final int maxPendingClasses;
+
+    public ClassTransformExecutor(ExecutorFactory executorFactory, WorkerLeaseService workerLeaseService) {
+        this(executorFactory, workerLeaseService, workerLeaseService.getMaxWorkerCount());
+    }
+
+    private ClassTransformExecutor(ExecutorFactory executorFactory, WorkerLeaseService workerLeaseService, int parallelism) {
+        this(executorFactory.create("class transforms", parallelism), workerLeaseService, parallelism * PENDING_CLASSES_PER_THREAD);
+    }
+
+    private ClassTransformExecutor(@Nullable ManagedExecutor executor, @Nullable WorkerLeaseService workerLeaseService, int maxPendingClasses) {
+        this.executor = executor;
+        this.pool = executor != null && workerLeaseService != null ? new Pool(executor, workerLeaseService) : null;
+        this.maxPendingClasses = maxPendingClasses;
+    }
+
+    /**
+     * Returns an executor that transforms the classes on the thread that visits the classpath element.
+     */
+    public static ClassTransformExecutor sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Returns the pool for the classes of a classpath element transformed with the given transform,
+     * or {@code null} when the classes must be transformed on the thread that visits the element.
+     */
+    @Nullable
+    Pool poolFor(ClassTransform transform) {
+        return transform.isParallelizable() ? pool : null;
+    }
+
+    int getMaxPendingClasses() {
+        return maxPendingClasses;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.stop();
+        }
+    }
+
+    /**
+     * Transforms classes on the threads of the pool, each holding a worker lease.
+     */
+    static class Pool implements Executor {
+        private final Executor executor;
+        private final WorkerLeaseService workerLeaseService;
+
+        private Pool(Executor executor, WorkerLeaseService workerLeaseService) {
+            this.executor = executor;
+            this.workerLeaseService = workerLeaseService;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            executor.execute(() -> workerLeaseService.runAsWorkerThread(task));
+        }
+
+        /**
+         * Waits for the given class to be transformed. The visiting thread releases its worker lease meanwhile, so that the pool can use it.
+         * A failure of the transformation is left for the caller to report.
+         */
+        void await(Future<?> transformed) {
+            if (transformed.isDone()) {
+                return;
+            }
+            workerLeaseService.blocking(() -> {
+                try {
+                    transformed.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    // Reported by the caller
+                }
+            });
+        }
+    }
+}
@@ -31,10 +31,12 @@ public class ClasspathElementTransformFactoryForAgent implements ClasspathElemen
 
     private final ClasspathBuilder classpathBuilder;
     private final ClasspathWalker classpathWalker;
+    private final ClassTransformExecutor classTransformExecutor;
 
-    public ClasspathElementTransformFactoryForAgent(ClasspathBuilder classpathBuilder, ClasspathWalker classpathWalker) {
+    public ClasspathElementTransformFactoryForAgent(ClasspathBuilder classpathBuilder, ClasspathWalker classpathWalker, ClassTransformExecutor classTransformExecutor) {
         this.classpathBuilder = classpathBuilder;
         this.classpathWalker = classpathWalker;
+        this.classTransformExecutor = classTransformExecutor;
     }
 
     @Override
@@ -44,7 +46,7 @@ public void applyConfigurationTo(Hasher hasher) {
 
     @Override
     public ClasspathElementTransform createTransformer(File file, ClassTransform classTransform) {
-        return new ClasspathElementTransformForAgent(file, classpathBuilder, classpathWalker, classTransform);
+        return new ClasspathElementTransformForAgent(file, classpathBuilder, classpathWalker, classTransform, classTransformExecutor);
     }
 
     @Override
@@ -39,10 +39,12 @@ public class ClasspathElementTransformFactoryForLegacy implements ClasspathEleme
 
     private final ClasspathBuilder classpathBuilder;
     private final ClasspathWalker classpathWalker;
+    private final ClassTransformExecutor classTransformExecutor;
 
-    public ClasspathElementTransformFactoryForLegacy(ClasspathBuilder classpathBuilder, ClasspathWalker classpathWalker) {
+    public ClasspathElementTransformFactoryForLegacy(ClasspathBuilder classpathBuilder, ClasspathWalker classpathWalker, ClassTransformExecutor classTransformExecutor) {
         this.classpathBuilder = classpathBuilder;
         this.classpathWalker = classpathWalker;
+        this.classTransformExecutor = classTransformExecutor;
     }
 
     @Override
@@ -76,9 +78,9 @@ public ClasspathElementTransform createTransformer(File source, ClassTransform c
             }
         }
         if (isMultiReleaseJar != null && isMultiReleaseJar) {
-            return new MultiReleaseClasspathElementTransformForLegacy(source, classpathBuilder, classpathWalker, classTransform);
+            return new MultiReleaseClasspathElementTransformForLegacy(source, classpathBuilder, classpathWalker, classTransform, classTransformExecutor);
         }
-        return new BaseClasspathElementTransform(source, classpathBuilder, classpathWalker, classTransform);
+        return new BaseClasspathElementTransform(source, classpathBuilder, classpathWalker, classTransform, classTransformExecutor);
     }
 
     private boolean isJarSignatureFile(String entryName) {
@@ -43,12 +43,12 @@ class ClasspathElementTransformForAgent extends BaseClasspathElementTransform {
     private int lowestUnsupportedVersionInJar = Integer.MAX_VALUE;
     private boolean isMultiReleaseJar;
 
-    ClasspathElementTransformForAgent(File source, ClasspathBuilder classpathBuilder, ClasspathWalker classpathWalker, ClassTransform transform) {
-        super(source, classpathBuilder, classpathWalker, transform);
+    ClasspathElementTransformForAgent(File source, ClasspathBuilder classpathBuilder, ClasspathWalker classpathWalker, ClassTransform transform, ClassTransformExecutor classTransformExecutor) {
+        super(source, classpathBuilder, classpathWalker, transform, classTransformExecutor);
     }
 
     @Override
-    protected void processClassFile(ClasspathBuilder.EntryBuilder builder, ClasspathEntryVisitor.Entry classEntry) throws IOException {
+    protected void processClassFile(OrderedEntryBuilder builder, ClasspathEntryVisitor.Entry classEntry) throws IOException {
         // We can filter out "unsupported" classes without checking the manifest beforehand.
         // Even if this JAR isn't multi-release per manifest, classes in META-INF/ cannot be loaded, so they are just weird resources.
         // The agent-based instrumentation doesn't load resources from the instrumented JAR, but from the original.
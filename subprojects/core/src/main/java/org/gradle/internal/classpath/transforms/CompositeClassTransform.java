@@ -44,4 +44,9 @@ public void applyConfigurationTo(Hasher hasher) {
     public Pair<RelativePath, ClassVisitor> apply(ClasspathEntryVisitor.Entry entry, ClassVisitor visitor, ClassData classData) throws IOException {
         return first.apply(entry, second.apply(entry, visitor, classData).right, classData);
     }
+
+    @Override
+    public boolean isParallelizable() {
+        return first.isParallelizable() && second.isParallelizable();
+    }
 }
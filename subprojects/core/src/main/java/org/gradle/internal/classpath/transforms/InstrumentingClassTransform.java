@@ -117,6 +117,12 @@ public InstrumentingClassTransform(BytecodeInterceptorFilter interceptorFilter,
         this.instrumentationMetadata = (type, superType) -> typeRegistry.getSuperTypes(type).contains(superType);
     }
 
+    @Override
+    public boolean isParallelizable() {
+        // Reporting listeners write the intercepted calls in the order the classes are instrumented
+        return methodInterceptionListener == MethodInterceptionListener.NO_OP;
+    }
+
     private BytecodeInterceptorFilter interceptorFilter() {
         return externalInterceptors.getOriginalFilter();
     }
@@ -32,12 +32,12 @@
  * This transformation filters out not yet supported versioned directories of the multi-release JARs.
  */
 class MultiReleaseClasspathElementTransformForLegacy extends BaseClasspathElementTransform {
-    MultiReleaseClasspathElementTransformForLegacy(File source, ClasspathBuilder classpathBuilder, ClasspathWalker classpathWalker, ClassTransform transform) {
-        super(source, classpathBuilder, classpathWalker, transform);
+    MultiReleaseClasspathElementTransformForLegacy(File source, ClasspathBuilder classpathBuilder, ClasspathWalker classpathWalker, ClassTransform transform, ClassTransformExecutor classTransformExecutor) {
+        super(source, classpathBuilder, classpathWalker, transform, classTransformExecutor);
     }
 
     @Override
-    protected void processClassFile(ClasspathBuilder.EntryBuilder builder, ClasspathEntryVisitor.Entry classEntry) throws IOException {
+    protected void processClassFile(OrderedEntryBuilder builder, ClasspathEntryVisitor.Entry classEntry) throws IOException {
         if (!isInUnsupportedMrJarVersionedDirectory(classEntry)) {
             super.processClassFile(builder, classEntry);
         }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.classpath.transforms;
+
+import org.gradle.internal.classpath.ClasspathBuilder;
+import org.gradle.internal.classpath.ClasspathEntryVisitor;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Writes entries to a {@link ClasspathBuilder.EntryBuilder} in the order they are put, while the content of some entries is produced in the background.
+ * <p>
+ * Entries are held back while an earlier entry is still being produced. At most {@code maxPending} entries are held back
+ * before {@link #writeCompleted()} waits for the oldest one.
+ */
+class OrderedEntryBuilder implements ClasspathBuilder.EntryBuilder {
+
+    private final ClasspathBuilder.EntryBuilder delegate;
+    @Nullable
+    private final ClassTransformExecutor.Pool pool;
+    private final int maxPending;
+    private final Deque<Future<Entry>> pending = new ArrayDeque<>();
+
+    OrderedEntryBuilder(ClasspathBuilder.EntryBuilder delegate, @Nullable ClassTransformExecutor.Pool pool, int maxPending) {
+        this.delegate = delegate;
+        this.pool = pool;
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public void put(String name, byte[] content, ClasspathEntryVisitor.Entry.CompressionMethod compressionMethod) throws IOException {
+        if (pending.isEmpty()) {
+            delegate.put(name, content, compressionMethod);
+        } else {
+            pending.add(CompletableFuture.completedFuture(new Entry(name, content, compressionMethod)));
+        }
+    }
+
+    /**
+     * Puts an entry whose name and content are produced by the given action, in the background when a pool is available.
+     * A failure of the action is reported when the entry is written.
+     */
+    void putLater(Callable<Entry> producer) throws IOException {
+        if (pool == null) {
+            Entry entry = call(producer);
+            put(entry.name, entry.content, entry.compressionMethod);
+            return;
+        }
+        FutureTask<Entry> entry = new FutureTask<>(producer);
+        pending.add(entry);
+        pool.execute(entry);
+    }
+
+    /**
+     * Writes the entries that have been produced so far, waiting for the oldest entries when too many are held back.
+     */
+    void writeCompleted() throws IOException {
+        while (!pending.isEmpty() && (pending.size() > maxPending || pending.peekFirst().isDone())) {
+            writeNext();
+        }
+    }
+
+    /**
+     * Waits for all entries and writes them.
+     */
+    void finish() throws IOException {
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+    }
+
+    /**
+     * Cancels the entries that have not been produced yet, after a failure.
+     */
+    void discard() {
+        for (Future<Entry> entry : pending) {
+            entry.cancel(false);
+        }
+        pending.clear();
+    }
+
+    private void writeNext() throws IOException {
+        Future<Entry> next = pending.removeFirst();
+        if (pool != null) {
+            pool.await(next);
+        }
+        Entry entry = get(next);
+        delegate.put(entry.name, entry.content, entry.compressionMethod);
+    }
+
+    private static Entry call(Callable<Entry> producer) throws IOException {
+        try {
+            return producer.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static Entry get(Future<Entry> entry) throws IOException {
+        try {
+            return entry.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    static class Entry {
+        private final String name;
+        private final byte[] content;
+        private final ClasspathEntryVisitor.Entry.CompressionMethod compressionMethod;
+
+        Entry(String name, byte[] content, ClasspathEntryVisitor.Entry.CompressionMethod compressionMethod) {
+            this.name = name;
+            this.content = content;
+            this.compressionMethod = compressionMethod;
+        }
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.gradle.internal.hash;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.api.internal.changedetection.state.CachingFileHasher;
 import org.gradle.api.internal.changedetection.state.CrossBuildFileHashCache;
@@ -22,14 +24,19 @@
 import org.gradle.api.internal.changedetection.state.FileTimeStampInspector;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 public class DefaultChecksumService implements ChecksumService {
     private final CachingFileHasher md5;
     private final CachingFileHasher sha1;
     private final CachingFileHasher sha256;
     private final CachingFileHasher sha512;
+    // Checksums calculated while writing files, such as downloaded artifacts, keyed by absolute path
+    private final Cache<String, RememberedChecksums> rememberedChecksums = CacheBuilder.newBuilder().maximumSize(10000).build();
 
     public DefaultChecksumService(
         StringInterner stringInterner,
@@ -58,22 +65,22 @@ private CachingFileHasher createCache(
 
     @Override
     public HashCode md5(File file) {
-        return doHash(file, md5);
+        return doHash(file, "md5", md5);
     }
 
     @Override
     public HashCode sha1(File file) {
-        return doHash(file, sha1);
+        return doHash(file, "sha1", sha1);
     }
 
     @Override
     public HashCode sha256(File file) {
-        return doHash(file, sha256);
+        return doHash(file, "sha256", sha256);
     }
 
     @Override
     public HashCode sha512(File file) {
-        return doHash(file, sha512);
+        return doHash(file, "sha512", sha512);
     }
 
     @Override
@@ -94,8 +101,48 @@ public HashCode hash(File src, String algorithm) {
         throw new UnsupportedOperationException("Cannot hash with algorith " + algorithm);
     }
 
-    private HashCode doHash(File file, CachingFileHasher hasher) {
+    @Override
+    public void rememberChecksums(File file, Map<String, HashCode> checksums) {
+        Map<String, HashCode> byAlgorithm = new HashMap<>();
+        for (Map.Entry<String, HashCode> entry : checksums.entrySet()) {
+            byAlgorithm.put(normalize(entry.getKey()), entry.getValue());
+        }
+        rememberedChecksums.put(file.getAbsolutePath(), new RememberedChecksums(file.length(), file.lastModified(), byAlgorithm));
+    }
+
+    private static String normalize(String algorithm) {
+        return algorithm.toLowerCase(Locale.ROOT).replace("-", "");
+    }
+
+    private HashCode doHash(File file, String algorithm, CachingFileHasher hasher) {
+        RememberedChecksums remembered = rememberedChecksums.getIfPresent(file.getAbsolutePath());
+        if (remembered != null) {
+            HashCode hash = remembered.get(file, algorithm);
+            if (hash != null) {
+                return hash;
+            }
+        }
         return hasher.hash(file);
     }
 
+    private static class RememberedChecksums {
+        private final long length;
+        private final long lastModified;
+        private final Map<String, HashCode> checksums;
+
+        RememberedChecksums(long length, long lastModified, Map<String, HashCode> checksums) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.checksums = checksums;
+        }
+
+        @Nullable
+        HashCode get(File file, String algorithm) {
+            HashCode hash = checksums.get(algorithm);
+            if (hash == null || file.length() != length || file.lastModified() != lastModified) {
+                return null;
+            }
+            return hash;
+        }
+    }
 }
@@ -20,4 +20,10 @@
 
 public interface BuildOperationQueueFactory {
     <T extends BuildOperation> BuildOperationQueue<T> create(ManagedExecutor executor, boolean allowAccessToProjectState, BuildOperationQueue.QueueWorker<T> worker);
+
+    /**
+     * Creates a queue whose operations run without holding a worker lease, for operations that spend most of their time blocked on I/O.
+     * The operations must not access project state.
+     */
+    <T extends BuildOperation> BuildOperationQueue<T> createWithoutWorkerLeases(ManagedExecutor executor, BuildOperationQueue.QueueWorker<T> worker);
 }
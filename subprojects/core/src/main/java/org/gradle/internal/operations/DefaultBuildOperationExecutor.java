@@ -29,17 +29,25 @@
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 public class DefaultBuildOperationExecutor implements BuildOperationExecutor, Stoppable {
+    /**
+     * Opt-in to running {@link BuildOperationConstraint#IO_BOUND} operations on virtual threads without holding a worker lease, on JVMs that support virtual threads.
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "org.gradle.internal.operations.io.virtual-threads";
+
     private static final String LINE_SEPARATOR = SystemProperties.getInstance().getLineSeparator();
 
     private final BuildOperationRunner runner;
     private final BuildOperationQueueFactory buildOperationQueueFactory;
     private final Map<BuildOperationConstraint, ManagedExecutor> managedExecutors = new HashMap<>();
     private final CurrentBuildOperationRef currentBuildOperationRef;
+    @Nullable
+    private final ManagedExecutor virtualThreadExecutor;
 
     public DefaultBuildOperationExecutor(
         BuildOperationRunner buildOperationRunner,
@@ -47,12 +55,27 @@ public DefaultBuildOperationExecutor(
         BuildOperationQueueFactory buildOperationQueueFactory,
         ExecutorFactory executorFactory,
         WorkerLimits workerLimits
+    ) {
+        this(buildOperationRunner, currentBuildOperationRef, buildOperationQueueFactory, executorFactory, workerLimits, Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY));
+    }
+
+    public DefaultBuildOperationExecutor(
+        BuildOperationRunner buildOperationRunner,
+        CurrentBuildOperationRef currentBuildOperationRef,
+        BuildOperationQueueFactory buildOperationQueueFactory,
+        ExecutorFactory executorFactory,
+        WorkerLimits workerLimits,
+        boolean useVirtualThreadsForIo
     ) {
         this.runner = buildOperationRunner;
         this.currentBuildOperationRef = currentBuildOperationRef;
         this.buildOperationQueueFactory = buildOperationQueueFactory;
         managedExecutors.put(BuildOperationConstraint.MAX_WORKERS, executorFactory.create("Build operations", workerLimits.getMaxWorkerCount()));
-        managedExecutors.put(BuildOperationConstraint.UNCONSTRAINED, executorFactory.create("Unconstrained build operations", workerLimits.getMaxWorkerCount() * 10));
+        ManagedExecutor unconstrainedExecutor = executorFactory.create("Unconstrained build operations", workerLimits.getMaxWorkerCount() * 10);
+        managedExecutors.put(BuildOperationConstraint.UNCONSTRAINED, unconstrainedExecutor);
+        // Used when virtual threads are disabled or unavailable, or when operations need access to project state
+        managedExecutors.put(BuildOperationConstraint.IO_BOUND, unconstrainedExecutor);
+        this.virtualThreadExecutor = useVirtualThreadsForIo ? executorFactory.createVirtualThreadExecutor("I/O build operations") : null;
     }
 
     @Override
@@ -91,8 +114,7 @@ private BuildOperationState getCurrentBuildOperation() {
     }
 
     private <O extends BuildOperation> void executeInParallel(boolean allowAccessToProjectState, BuildOperationQueue.QueueWorker<O> worker, Action<BuildOperationQueue<O>> queueAction, BuildOperationConstraint buildOperationConstraint) {
-        ManagedExecutor executor = managedExecutors.get(buildOperationConstraint);
-        BuildOperationQueue<O> queue = buildOperationQueueFactory.create(executor, allowAccessToProjectState, worker);
+        BuildOperationQueue<O> queue = createQueue(allowAccessToProjectState, worker, buildOperationConstraint);
 
         List<GradleException> failures = new ArrayList<>();
         try {
@@ -115,6 +137,13 @@ private <O extends BuildOperation> void executeInParallel(boolean allowAccessToP
         }
     }
 
+    private <O extends BuildOperation> BuildOperationQueue<O> createQueue(boolean allowAccessToProjectState, BuildOperationQueue.QueueWorker<O> worker, BuildOperationConstraint buildOperationConstraint) {
+        if (buildOperationConstraint == BuildOperationConstraint.IO_BOUND && virtualThreadExecutor != null && !allowAccessToProjectState) {
+            return buildOperationQueueFactory.createWithoutWorkerLeases(virtualThreadExecutor, worker);
+        }
+        return buildOperationQueueFactory.create(managedExecutors.get(buildOperationConstraint), allowAccessToProjectState, worker);
+    }
+
     private static String formatMultipleFailureMessage(List<GradleException> failures) {
         return failures.stream()
             .map(Throwable::getMessage)
@@ -123,9 +152,12 @@ private static String formatMultipleFailureMessage(List<GradleException> failure
 
     @Override
     public void stop() {
-        for (ManagedExecutor pool : managedExecutors.values()) {
+        for (ManagedExecutor pool : new HashSet<>(managedExecutors.values())) {
             pool.stop();
         }
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.stop();
+        }
     }
 
     @Deprecated
@@ -31,7 +31,13 @@ private enum QueueState {
         Working, Finishing, Cancelled, Done
     }
 
+    /**
+     * The maximum number of threads per configured worker that a queue without worker leases will start.
+     */
+    private static final int UNLEASED_THREADS_PER_WORKER = 10;
+
     private final boolean allowAccessToProjectState;
+    private final boolean runAsWorkerThread;
     private final WorkerLeaseService workerLeases;
     private final Executor executor;
     private final QueueWorker<T> queueWorker;
@@ -48,7 +54,16 @@ private enum QueueState {
     private final LinkedList<Throwable> failures = new LinkedList<>();
 
     DefaultBuildOperationQueue(boolean allowAccessToProjectState, WorkerLeaseService workerLeases, Executor executor, QueueWorker<T> queueWorker) {
+        this(allowAccessToProjectState, true, workerLeases, executor, queueWorker);
+    }
+
+    /**
+     * @param runAsWorkerThread whether threads started by this queue acquire a worker lease before running operations.
+     * When false, the executor is expected to be cheap to block, for example backed by virtual threads.
+     */
+    DefaultBuildOperationQueue(boolean allowAccessToProjectState, boolean runAsWorkerThread, WorkerLeaseService workerLeases, Executor executor, QueueWorker<T> queueWorker) {
         this.allowAccessToProjectState = allowAccessToProjectState;
+        this.runAsWorkerThread = runAsWorkerThread;
         this.workerLeases = workerLeases;
         this.executor = executor;
         this.queueWorker = queueWorker;
@@ -67,7 +82,7 @@ public void add(final T operation) {
             workQueue.add(operation);
             pendingOperations++;
             workAvailable.signalAll();
-            if (workerCount == 0 || workerCount < workerLeases.getMaxWorkerCount() - 1) {
+            if (workerCount == 0 || workerCount < getMaxWorkerThreads()) {
                 // `getMaxWorkerCount() - 1` because main thread executes work as well. See https://github.com/gradle/gradle/issues/3273
                 // TODO This could be more efficient, so that we only start a worker when there are none idle _and_ there is a worker lease available
                 executor.execute(new WorkerRunnable());
@@ -78,6 +93,13 @@ public void add(final T operation) {
         }
     }
 
+    private int getMaxWorkerThreads() {
+        if (runAsWorkerThread) {
+            return workerLeases.getMaxWorkerCount() - 1;
+        }
+        return workerLeases.getMaxWorkerCount() * UNLEASED_THREADS_PER_WORKER;
+    }
+
     @Override
     public void cancel() {
         lock.lock();
@@ -216,6 +238,11 @@ private T waitForNextOperation() {
         }
 
         private void runBatch(final T firstOperation) {
+            if (!runAsWorkerThread) {
+                // Operations in this queue do not access project state and spend most of their time blocked, so run them without a worker lease
+                completeOperations(workerLeases.whileDisallowingProjectLockChanges(() -> doRunBatch(firstOperation)));
+                return;
+            }
             // We need to update pending count outside of withLocks() so that we don't have a race
             // condition where the pending count is 0, but a child worker lease is still held when
             // the parent lease is released.
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import org.gradle.StartParameter;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.operations.ExecutionTimeline;
+import org.gradle.internal.service.scopes.Scope;
+import org.gradle.internal.service.scopes.ServiceScope;
+import org.gradle.util.internal.GFileUtils;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Records an {@link ExecutionTimeline} while a build session runs, and writes it as a Chrome trace when the session ends.
+ * Can be enabled for any build with `-Dorg.gradle.internal.operations.timeline=«path»`.
+ * <p>
+ * Unlike {@link BuildOperationTrace}, the overhead is small enough to leave enabled for every build.
+ * The recording keeps the most recent events only, see {@link #CAPACITY_SYSPROP}.
+ * <p>
+ * The «path» param is optional.
+ * If invoked as `-Dorg.gradle.internal.operations.timeline`, the file "timeline.json" will be used.
+ * The file can be opened with Perfetto or {@code chrome://tracing}.
+ */
+@ServiceScope(Scope.CrossBuildSession.class)
+public class ExecutionTimelineTrace implements Stoppable {
+
+    public static final String SYSPROP = "org.gradle.internal.operations.timeline";
+
+    /**
+     * The number of events to keep. Defaults to {@link #DEFAULT_CAPACITY}.
+     */
+    public static final String CAPACITY_SYSPROP = SYSPROP + ".capacity";
+
+    private static final int DEFAULT_CAPACITY = 1 << 17;
+    private static final String DEFAULT_PATH = "timeline.json";
+
+    private final ExecutionTimeline timeline;
+    @Nullable
+    private final File traceFile;
+    @Nullable
+    private final ExecutionTimeline.Recording recording;
+
+    public ExecutionTimelineTrace(StartParameter startParameter, ExecutionTimeline timeline) {
+        this.timeline = timeline;
+
+        String path = getProperty(startParameter, SYSPROP);
+        if (path == null || path.equals(Boolean.FALSE.toString())) {
+            this.traceFile = null;
+            this.recording = null;
+            return;
+        }
+
+        if (path.isEmpty() || path.equals(Boolean.TRUE.toString())) {
+            path = DEFAULT_PATH;
+        }
+        String capacity = getProperty(startParameter, CAPACITY_SYSPROP);
+        this.traceFile = new File(path).getAbsoluteFile();
+        this.recording = timeline.startRecording(capacity == null ? DEFAULT_CAPACITY : Integer.parseInt(capacity));
+    }
+
+    @Nullable
+    private static String getProperty(StartParameter startParameter, String property) {
+        String value = startParameter.getSystemPropertiesArgs().get(property);
+        if (value == null) {
+            value = System.getProperty(property);
+        }
+        return value;
+    }
+
+    @Override
+    public void stop() {
+        if (recording == null) {
+            return;
+        }
+        timeline.stopRecording(recording);
+        GFileUtils.mkdirs(traceFile.getParentFile());
+        try (Writer writer = Files.newBufferedWriter(traceFile.toPath(), StandardCharsets.UTF_8)) {
+            recording.writeChromeTrace(writer);
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+}
@@ -34,10 +34,12 @@
 import org.gradle.internal.operations.CurrentBuildOperationRef;
 import org.gradle.internal.operations.DefaultBuildOperationExecutor;
 import org.gradle.internal.operations.DefaultBuildOperationQueueFactory;
+import org.gradle.internal.operations.ExecutionTimeline;
 import org.gradle.internal.operations.logging.LoggingBuildOperationProgressBroadcaster;
 import org.gradle.internal.operations.notify.BuildOperationNotificationBridge;
 import org.gradle.internal.operations.notify.BuildOperationNotificationValve;
 import org.gradle.internal.operations.trace.BuildOperationTrace;
+import org.gradle.internal.operations.trace.ExecutionTimelineTrace;
 import org.gradle.internal.resources.DefaultResourceLockCoordinationService;
 import org.gradle.internal.resources.ResourceLockCoordinationService;
 import org.gradle.internal.service.Provides;
@@ -105,6 +107,11 @@ BuildOperationTrace createBuildOperationTrace(BuildOperationListenerManager buil
         return new BuildOperationTrace(buildSessionParameters.getStartParameter(), buildOperationListenerManager);
     }
 
+    @Provides
+    ExecutionTimelineTrace createExecutionTimelineTrace(ExecutionTimeline executionTimeline, CrossBuildSessionParameters buildSessionParameters) {
+        return new ExecutionTimelineTrace(buildSessionParameters.getStartParameter(), executionTimeline);
+    }
+
     @Provides
     BuildOperationNotificationBridge createBuildOperationNotificationBridge(BuildOperationListenerManager buildOperationListenerManager, ListenerManager generalListenerManager) {
         return new BuildOperationNotificationBridge(buildOperationListenerManager, generalListenerManager);
@@ -61,10 +61,12 @@
 import org.gradle.internal.classloader.ClasspathHasher;
 import org.gradle.internal.classloader.DefaultHashingClassLoaderFactory;
 import org.gradle.internal.classloader.HashingClassLoaderFactory;
+import org.gradle.internal.classpath.ClasspathBuilder;
 import org.gradle.internal.classpath.ClasspathWalker;
 import org.gradle.internal.classpath.DefaultCachedClasspathTransformer;
 import org.gradle.internal.classpath.DefaultClasspathBuilder;
 import org.gradle.internal.classpath.DefaultClasspathTransformerCacheFactory;
+import org.gradle.internal.classpath.transforms.ClassTransformExecutor;
 import org.gradle.internal.classpath.transforms.ClasspathElementTransformFactoryForAgent;
 import org.gradle.internal.classpath.transforms.ClasspathElementTransformFactoryForLegacy;
 import org.gradle.internal.classpath.types.GradleCoreInstrumentationTypeRegistry;
@@ -118,14 +120,23 @@ public void configure(ServiceRegistration registration) {
         registration.add(DefaultClasspathTransformerCacheFactory.class);
         registration.add(GradleUserHomeScopeFileTimeStampInspector.class);
         registration.add(GradleCoreInstrumentationTypeRegistry.class);
-        registration.add(ClasspathElementTransformFactoryForAgent.class);
-        registration.add(ClasspathElementTransformFactoryForLegacy.class);
         registration.add(DefaultCachedClasspathTransformer.class);
         for (GradleModuleServices services : globalServices.getAll(GradleModuleServices.class)) {
             services.registerGradleUserHomeServices(registration);
         }
     }
 
+    @Provides
+    ClasspathElementTransformFactoryForAgent createClasspathElementTransformFactoryForAgent(ClasspathBuilder classpathBuilder, ClasspathWalker classpathWalker) {
+        // Shared by the builds of this user home, so it cannot use the worker leases of a build
+        return new ClasspathElementTransformFactoryForAgent(classpathBuilder, classpathWalker, ClassTransformExecutor.sequential());
+    }
+
+    @Provides
+    ClasspathElementTransformFactoryForLegacy createClasspathElementTransformFactoryForLegacy(ClasspathBuilder classpathBuilder, ClasspathWalker classpathWalker) {
+        return new ClasspathElementTransformFactoryForLegacy(classpathBuilder, classpathWalker, ClassTransformExecutor.sequential());
+    }
+
     @Provides
     ToPlannedNodeConverterRegistry createToPlannedNodeConverterRegistry(List<ToPlannedNodeConverter> converters) {
         return new ToPlannedNodeConverterRegistry(converters);
@@ -63,6 +63,7 @@
 import org.gradle.internal.operations.DefaultBuildOperationIdFactory;
 import org.gradle.internal.operations.DefaultBuildOperationListenerManager;
 import org.gradle.internal.operations.DefaultBuildOperationRunner;
+import org.gradle.internal.operations.ExecutionTimeline;
 import org.gradle.internal.os.OperatingSystem;
 import org.gradle.internal.service.Provides;
 import org.gradle.internal.state.DefaultManagedFactoryRegistry;
@@ -197,20 +198,27 @@ CurrentBuildOperationRef createCurrentBuildOperationRef() {
         return CurrentBuildOperationRef.instance();
     }
 
+    @Provides
+    ExecutionTimeline createExecutionTimeline() {
+        return new ExecutionTimeline();
+    }
+
     @Provides
     BuildOperationRunner createBuildOperationRunner(
         Clock clock,
         CurrentBuildOperationRef currentBuildOperationRef,
         ProgressLoggerFactory progressLoggerFactory,
         BuildOperationIdFactory buildOperationIdFactory,
-        BuildOperationListenerManager buildOperationListenerManager
+        BuildOperationListenerManager buildOperationListenerManager,
+        ExecutionTimeline executionTimeline
     ) {
         BuildOperationListener listener = buildOperationListenerManager.getBroadcaster();
         return new DefaultBuildOperationRunner(
             currentBuildOperationRef,
             clock::getCurrentTime,
             buildOperationIdFactory,
-            () -> new BuildOperationProgressEventListenerAdapter(listener, progressLoggerFactory, clock)
+            () -> new BuildOperationProgressEventListenerAdapter(listener, progressLoggerFactory, clock),
+            executionTimeline
         );
     }
 }
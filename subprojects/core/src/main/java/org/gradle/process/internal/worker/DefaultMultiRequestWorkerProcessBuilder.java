@@ -136,8 +136,9 @@ public MultiRequestClient<IN, OUT> build() {
         final WorkerProcess workerProcess = workerProcessBuilder.build();
 
         return new MultiRequestClient<IN, OUT>() {
-            private Receiver receiver = new Receiver(getBaseName(), outputEventListener);
-            private RequestProtocol requestProtocol;
+            private final Receiver receiver = new Receiver(getBaseName(), outputEventListener);
+            private final RequestPipeline pipeline = new RequestPipeline(receiver);
+            private volatile RequestProtocol requestProtocol;
 
             @Override
             public WorkerProcess start() {
@@ -179,20 +180,24 @@ public void stopNow() {
 
             @Override
             public OUT run(IN request) {
-                requestProtocol.run(new Request(request, CurrentBuildOperationRef.instance().get()));
-                boolean hasResult = receiver.awaitNextResult();
-                if (!hasResult) {
-                    try {
-                        // Reached the end of input, worker has crashed or exited
-                        requestProtocol = null;
-                        workerProcess.waitForStop();
-                        // Worker didn't crash
-                        throw new IllegalStateException(String.format("No response was received from %s but the worker process has finished.", getBaseName()));
-                    } catch (Exception e) {
-                        throw WorkerProcessException.runFailed(getBaseName(), e);
-                    }
+                RequestProtocol requestProtocol = this.requestProtocol;
+                if (requestProtocol == null) {
+                    throw WorkerProcessException.runFailed(getBaseName(), new IllegalStateException(String.format("%s is not running.", getBaseName())));
+                }
+                RequestPipeline.PendingResult pendingResult = pipeline.send(requestProtocol, new Request(request, CurrentBuildOperationRef.instance().get()));
+                return Cast.uncheckedNonnullCast(pipeline.await(pendingResult, this::workerFinished));
+            }
+
+            private RuntimeException workerFinished() {
+                try {
+                    // Reached the end of input, worker has crashed or exited
+                    requestProtocol = null;
+                    workerProcess.waitForStop();
+                    // Worker didn't crash
+                    return WorkerProcessException.runFailed(getBaseName(), new IllegalStateException(String.format("No response was received from %s but the worker process has finished.", getBaseName())));
+                } catch (Exception e) {
+                    return WorkerProcessException.runFailed(getBaseName(), e);
                 }
-                return Cast.uncheckedNonnullCast(receiver.getNextResult());
             }
         };
     }
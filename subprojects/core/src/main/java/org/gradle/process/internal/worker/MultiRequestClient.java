@@ -16,5 +16,11 @@
 
 package org.gradle.process.internal.worker;
 
+/**
+ * A client for a worker process that can handle multiple requests.
+ *
+ * <p>{@link #run(Object)} can be called concurrently from multiple threads. Requests are pipelined to the worker process,
+ * which handles them one at a time in the order they were sent, and each caller receives the result of its own request.</p>
+ */
 public interface MultiRequestClient<IN, OUT> extends RequestHandler<IN, OUT>, WorkerControl {
 }
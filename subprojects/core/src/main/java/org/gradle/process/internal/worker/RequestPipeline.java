@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.process.internal.worker;
+
+import org.gradle.internal.UncheckedException;
+import org.gradle.process.internal.worker.request.Receiver;
+import org.gradle.process.internal.worker.request.Request;
+import org.gradle.process.internal.worker.request.RequestProtocol;
+
+import javax.annotation.Nullable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Sends requests to a worker process from several threads and hands the results back to each caller.
+ * <p>
+ * A request is sent as soon as the caller asks for it, regardless of the results still expected for earlier requests.
+ * The worker handles the requests in the order they were sent and responds once to each of them, even when it could not start,
+ * so the results arrive in that order.
+ * One caller at a time reads the results from the worker and completes the result of each caller it reads,
+ * while the other callers wait for their own result. When the reader gets its own result, another waiting caller takes over.
+ * No lock is held while waiting for the worker.
+ */
+class RequestPipeline {
+    private final Receiver receiver;
+    private final Object sendLock = new Object();
+    private final Object resultsLock = new Object();
+    private final Queue<PendingResult> pendingResults = new ConcurrentLinkedQueue<PendingResult>();
+    // Guarded by resultsLock
+    private boolean reading;
+
+    RequestPipeline(Receiver receiver) {
+        this.receiver = receiver;
+    }
+
+    /**
+     * Sends the given request to the worker without waiting for the results of earlier requests.
+     */
+    PendingResult send(RequestProtocol requestProtocol, Request request) {
+        PendingResult pendingResult = new PendingResult();
+        synchronized (sendLock) {
+            // Keep the pending results in the order the requests are sent
+            pendingResults.add(pendingResult);
+            requestProtocol.run(request);
+        }
+        return pendingResult;
+    }
+
+    /**
+     * Waits for the result of a request that has been sent, reading the results of other callers on the way when no other caller is reading.
+     *
+     * @param workerFinished creates the failure to report to every pending caller when the worker stops sending results.
+     */
+    @Nullable
+    Object await(PendingResult pendingResult, Supplier<RuntimeException> workerFinished) {
+        while (becomeReaderUnlessDone(pendingResult)) {
+            try {
+                while (!pendingResult.isDone()) {
+                    readNextResult(workerFinished);
+                }
+            } finally {
+                synchronized (resultsLock) {
+                    reading = false;
+                    resultsLock.notifyAll();
+                }
+            }
+        }
+        return pendingResult.get();
+    }
+
+    private boolean becomeReaderUnlessDone(PendingResult pendingResult) {
+        synchronized (resultsLock) {
+            while (!pendingResult.isDone() && reading) {
+                try {
+                    resultsLock.wait();
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            }
+            if (pendingResult.isDone()) {
+                return false;
+            }
+            reading = true;
+            return true;
+        }
+    }
+
+    private void readNextResult(Supplier<RuntimeException> workerFinished) {
+        PendingResult next = pendingResults.remove();
+        if (!receiver.awaitNextResult()) {
+            // Reached the end of input, worker has crashed or exited
+            RuntimeException failure = workerFinished.get();
+            synchronized (resultsLock) {
+                next.failed(failure);
+                PendingResult remaining;
+                while ((remaining = pendingResults.poll()) != null) {
+                    remaining.failed(failure);
+                }
+                resultsLock.notifyAll();
+            }
+            return;
+        }
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = receiver.getNextResult();
+        } catch (Throwable t) {
+            failure = t;
+        }
+        synchronized (resultsLock) {
+            if (failure != null) {
+                next.failed(failure);
+            } else {
+                next.completed(result);
+            }
+            resultsLock.notifyAll();
+        }
+    }
+
+    /**
+     * The result of a request that has been sent to the worker process.
+     */
+    static class PendingResult {
+        private volatile boolean done;
+        private Object result;
+        private Throwable failure;
+
+        boolean isDone() {
+            return done;
+        }
+
+        void completed(@Nullable Object result) {
+            this.result = result;
+            done = true;
+        }
+
+        void failed(Throwable failure) {
+            this.failure = failure;
+            done = true;
+        }
+
+        @Nullable
+        Object get() {
+            if (failure != null) {
+                throw UncheckedException.throwAsUncheckedException(failure);
+            }
+            return result;
+        }
+    }
+}
@@ -97,8 +97,6 @@ public void execute(WorkerProcessContext workerProcessContext) {
         } else {
             // Discard incoming requests, as the serializers may not have been configured
             connection.useParameterSerializers(RequestSerializerRegistry.createDiscardRequestArg());
-            // Notify the client
-            responder.infrastructureFailed(failure);
         }
 
         connection.connect();
@@ -135,7 +133,8 @@ public void runThenStop(Request request) {
     @Override
     public void run(Request request) {
         if (failure != null) {
-            // Ignore
+            // Notify the client for every request, as the client may have sent several requests before receiving any response
+            responder.infrastructureFailed(failure);
             return;
         }
         CurrentBuildOperationRef.instance().with(request.getBuildOperation(), () -> {
@@ -50,6 +50,25 @@ class DefaultCrossBuildInMemoryCacheFactoryTest extends AbstractCrossBuildInMemo
         0 * function._
     }
 
+    def "discards values retained from the previous session but keeps values used in the current session"() {
+        def function = Mock(Function)
+
+        given:
+        def cache = factory.newCacheRetainingDataFromPreviousBuild { true }
+        cache.get("a") { new Object() }
+        listenerManager.getBroadcaster(BuildSessionLifecycleListener).beforeComplete()
+        cache.get("b") { new Object() }
+
+        when:
+        factory.discardValuesRetainedFromPreviousSession()
+        cache.get("a", function)
+        cache.get("b", function)
+
+        then:
+        1 * function.apply("a") >> new Object()
+        0 * function._
+    }
+
     def "creates a cache whose keys are classes"() {
         def a = new Object()
         def b = new Object()
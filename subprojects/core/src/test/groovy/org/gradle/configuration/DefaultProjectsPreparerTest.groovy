@@ -64,4 +64,14 @@ class DefaultProjectsPreparerTest extends Specification {
         modelParameters.configureOnDemand >> true
         1 * projectConfigurer.configureHierarchy(rootProject)
     }
+
+    def "configures build in parallel when parallel project configuration is enabled"() {
+        when:
+        configurer.prepareProjects(gradle)
+
+        then:
+        modelParameters.parallelProjectConfiguration >> true
+        1 * projectConfigurer.configureHierarchyInParallel(rootProject)
+        0 * projectConfigurer.configureHierarchy(_)
+    }
 }
@@ -26,6 +26,7 @@ import org.gradle.cache.internal.UsedGradleVersions
 import org.gradle.cache.scopes.GlobalScopedCacheBuilderFactory
 import org.gradle.internal.Pair
 import org.gradle.internal.classpath.transforms.ClassTransform
+import org.gradle.internal.classpath.transforms.ClassTransformExecutor
 import org.gradle.internal.classpath.transforms.ClasspathElementTransformFactoryForLegacy
 import org.gradle.internal.file.FileAccessTimeJournal
 import org.gradle.internal.fingerprint.CurrentFileCollectionFingerprint
@@ -77,7 +78,7 @@ class DefaultCachedClasspathTransformerTest extends ConcurrentSpec {
             }
         }
     }
-    def classpathElementTransformFactoryForLegacy = new ClasspathElementTransformFactoryForLegacy(classpathBuilder, classpathWalker)
+    def classpathElementTransformFactoryForLegacy = new ClasspathElementTransformFactoryForLegacy(classpathBuilder, classpathWalker, ClassTransformExecutor.sequential())
     def noOpCustomTransform = new ClassTransform() {
         @Override
         void applyConfigurationTo(Hasher hasher) {
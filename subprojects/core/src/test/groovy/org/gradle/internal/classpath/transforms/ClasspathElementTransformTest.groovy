@@ -16,6 +16,7 @@
 
 package org.gradle.internal.classpath.transforms
 
+import org.gradle.api.GradleException
 import org.gradle.api.file.RelativePath
 import org.gradle.api.internal.file.TestFiles
 import org.gradle.internal.Pair
@@ -28,7 +29,12 @@ import org.gradle.internal.classpath.ClasspathWalker
 import org.gradle.internal.classpath.DefaultClasspathBuilder
 import org.gradle.internal.classpath.SystemPropertyAccessingThing
 import org.gradle.internal.classpath.types.GradleCoreInstrumentationTypeRegistry
+import org.gradle.internal.concurrent.DefaultExecutorFactory
 import org.gradle.internal.hash.Hasher
+import org.gradle.internal.resources.DefaultResourceLockCoordinationService
+import org.gradle.internal.work.DefaultWorkerLeaseService
+import org.gradle.internal.work.DefaultWorkerLimits
+import org.gradle.internal.work.WorkerLeaseService
 import org.gradle.test.fixtures.archive.JarTestFixture
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
@@ -37,7 +43,6 @@ import org.objectweb.asm.ClassVisitor
 import spock.lang.Specification
 
 import java.nio.charset.StandardCharsets
-import java.util.function.BiFunction
 import java.util.jar.JarFile
 
 import static org.gradle.internal.classpath.transforms.ClasspathElementTransformTest.TransformFactoryType.AGENT
@@ -50,11 +55,17 @@ class ClasspathElementTransformTest extends Specification {
     def testDir = testDirectoryProvider.testDirectory
     def classpathBuilder = new DefaultClasspathBuilder(TestFiles.tmpDirTemporaryFileProvider(testDirectoryProvider.createDir("tmp")))
     def classpathWalker = new ClasspathWalker(TestFiles.fileSystem())
+    def workerLeaseService = workerLeaseService(2)
+    def classTransformExecutor = new ClassTransformExecutor(new DefaultExecutorFactory(), workerLeaseService)
     def gradleCoreInstrumentingRegistry = Stub(GradleCoreInstrumentationTypeRegistry) {
         getInstrumentedTypesHash() >> Optional.empty()
         getUpgradedPropertiesHash() >> Optional.empty()
     }
 
+    def cleanup() {
+        classTransformExecutor.close()
+    }
+
     def "instrumentation for #factory preserves classes"() {
         given:
         def testFile = jar(testDir.file("thing.jar")) {
@@ -312,18 +323,93 @@ class ClasspathElementTransformTest extends Specification {
         factory << [AGENT, LEGACY]
     }
 
+    def "instrumentation for #factory writes entries in the original order when classes are transformed in parallel"() {
+        given:
+        def names = (0..<200).collect { "org/test/Class${it}.class" }
+        def testFile = jar(testDir.file("thing.jar")) {
+            withoutManifest()
+            names.each { entry(it, classOne()) }
+        }
+
+        expect:
+        transformJar(factory, testFile, new NoOpTransformer(true))
+        entryNames(testDir.file("transformed.jar")) == names
+
+        where:
+        factory << [AGENT, LEGACY]
+    }
+
+    def "legacy instrumentation keeps resources between transformed classes in the original order"() {
+        given:
+        def names = (0..<100).collectMany { ["org/test/Class${it}.class", "org/test/resource${it}.txt"] }
+        def testFile = jar(testDir.file("thing.jar")) {
+            withoutManifest()
+            names.each { name -> name.endsWith(".class") ? entry(name, classOne()) : entry(name, "body of $name") }
+        }
+
+        expect:
+        transformJar(LEGACY, testFile, new NoOpTransformer(true))
+        entryNames(testDir.file("transformed.jar")) == names
+    }
+
+    def "failure to transform a class in parallel is reported for its entry"() {
+        given:
+        def testFile = jar(testDir.file("thing.jar")) {
+            withoutManifest()
+            entry("org/test/Good.class", classOne())
+            entry("org/test/Bad.class", "not a class")
+            entry("org/test/Other.class", classOne())
+        }
+
+        when:
+        transformJar(LEGACY, testFile, new NoOpTransformer(true))
+
+        then:
+        def e = thrown(GradleException)
+        causeMessages(e).contains("Failed to process the entry 'org/test/Bad.class' from '$testFile'".toString())
+    }
+
+    def "classes are transformed in parallel while the visiting thread holds the only worker lease"() {
+        given:
+        def singleWorker = workerLeaseService(1)
+        def executor = new ClassTransformExecutor(new DefaultExecutorFactory(), singleWorker)
+        def names = (0..<50).collect { "org/test/Class${it}.class" }
+        def testFile = jar(testDir.file("thing.jar")) {
+            withoutManifest()
+            names.each { entry(it, classOne()) }
+        }
+        def factory = LEGACY.createFactory(classpathBuilder, classpathWalker, executor)
+
+        when:
+        singleWorker.runAsWorkerThread({
+            factory.createTransformer(testFile, new NoOpTransformer(true)).transform(testDir.file("transformed.jar"))
+        } as Runnable)
+
+        then:
+        entryNames(testDir.file("transformed.jar")) == names
+
+        cleanup:
+        executor.close()
+    }
+
+    private static WorkerLeaseService workerLeaseService(int maxWorkers) {
+        def service = new DefaultWorkerLeaseService(new DefaultResourceLockCoordinationService(), new DefaultWorkerLimits(maxWorkers))
+        service.startProjectExecution(true)
+        return service
+    }
+
     private enum TransformFactoryType {
         AGENT(ClasspathElementTransformFactoryForAgent::new),
         LEGACY(ClasspathElementTransformFactoryForLegacy::new);
 
-        private final BiFunction<ClasspathBuilder, ClasspathWalker, ClasspathElementTransformFactory> factoryMaker
+        private final TransformFactoryMaker factoryMaker
 
-        TransformFactoryType(BiFunction<ClasspathBuilder, ClasspathWalker, ClasspathElementTransformFactory> factoryMaker) {
+        TransformFactoryType(TransformFactoryMaker factoryMaker) {
             this.factoryMaker = factoryMaker
         }
 
-        ClasspathElementTransformFactory createFactory(ClasspathBuilder builder, ClasspathWalker walker) {
-            return factoryMaker.apply(builder, walker)
+        ClasspathElementTransformFactory createFactory(ClasspathBuilder builder, ClasspathWalker walker, ClassTransformExecutor executor) {
+            return factoryMaker.create(builder, walker, executor)
         }
 
         @Override
@@ -332,9 +418,27 @@ class ClasspathElementTransformTest extends Specification {
         }
     }
 
-    private JarTestFixture transformJar(TransformFactoryType factory, File originalJar) {
+    private interface TransformFactoryMaker {
+        ClasspathElementTransformFactory create(ClasspathBuilder builder, ClasspathWalker walker, ClassTransformExecutor executor)
+    }
+
+    private JarTestFixture transformJar(TransformFactoryType factory, File originalJar, ClassTransform classTransform = new NoOpTransformer(false)) {
         def outputJar = testDir.file("transformed.jar")
-        return new JarTestFixture(transform(factory, originalJar, outputJar), 'UTF-8', null, /* checkManifest */ false)
+        return new JarTestFixture(transform(factory, originalJar, outputJar, classTransform), 'UTF-8', null, /* checkManifest */ false)
+    }
+
+    private static List<String> causeMessages(Throwable failure) {
+        def messages = []
+        for (def cause = failure; cause != null; cause = cause.cause) {
+            messages << cause.message
+        }
+        return messages
+    }
+
+    private static List<String> entryNames(File jarFile) {
+        try (def jar = new JarFile(jarFile)) {
+            return jar.entries().toList().findAll { !it.directory }*.name
+        }
     }
 
     private TestFile transformDirectory(TransformFactoryType factory, File originalDir) {
@@ -342,12 +446,18 @@ class ClasspathElementTransformTest extends Specification {
         return new TestFile(transform(factory, originalDir, outputDir))
     }
 
-    private File transform(TransformFactoryType factory, File original, File target) {
-        factory.createFactory(classpathBuilder, classpathWalker).createTransformer(original, new NoOpTransformer()).transform(target)
+    private File transform(TransformFactoryType factory, File original, File target, ClassTransform classTransform = new NoOpTransformer(false)) {
+        factory.createFactory(classpathBuilder, classpathWalker, classTransformExecutor).createTransformer(original, classTransform).transform(target)
         return target
     }
 
     private static class NoOpTransformer implements ClassTransform {
+        private final boolean parallelizable
+
+        NoOpTransformer(boolean parallelizable) {
+            this.parallelizable = parallelizable
+        }
+
         @Override
         void applyConfigurationTo(Hasher hasher) {
         }
@@ -356,6 +466,11 @@ class ClasspathElementTransformTest extends Specification {
         Pair<RelativePath, ClassVisitor> apply(ClasspathEntryVisitor.Entry entry, ClassVisitor visitor, ClassData classData) {
             return Pair.of(entry.path, visitor)
         }
+
+        @Override
+        boolean isParallelizable() {
+            return parallelizable
+        }
     }
 
     private byte[] classOne() {
@@ -25,6 +25,12 @@ import org.gradle.internal.work.NoAvailableWorkerLeaseException
 import org.gradle.internal.work.WorkerLeaseRegistry
 import org.gradle.internal.work.WorkerLeaseService
 import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+import org.gradle.test.precondition.Requires
+import org.gradle.test.preconditions.UnitTestPreconditions
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 
 class DefaultBuildOperationExecutorParallelExecutionTest extends ConcurrentSpec {
     WorkerLeaseService workerRegistry
@@ -32,11 +38,15 @@ class DefaultBuildOperationExecutorParallelExecutionTest extends ConcurrentSpec
     WorkerLeaseRegistry.WorkerLeaseCompletion outerOperationCompletion
     WorkerLeaseRegistry.WorkerLease outerOperation
 
-    def setupBuildOperationExecutor(int maxThreads) {
+    def setupBuildOperationExecutor(int maxThreads, boolean useVirtualThreadsForIo = false) {
         def workerLimits = new DefaultWorkerLimits(maxThreads)
         workerRegistry = new DefaultWorkerLeaseService(new DefaultResourceLockCoordinationService(), workerLimits)
         workerRegistry.startProjectExecution(true)
-        buildOperationExecutor = BuildOperationExecutorSupport.builder(workerLimits).withWorkerLeaseService(workerRegistry).build()
+        def builder = BuildOperationExecutorSupport.builder(workerLimits).withWorkerLeaseService(workerRegistry)
+        if (useVirtualThreadsForIo) {
+            builder.withVirtualThreadsForIo()
+        }
+        buildOperationExecutor = builder.build()
         outerOperationCompletion = workerRegistry.startWorker()
         outerOperation = workerRegistry.getCurrentWorkerLease()
     }
@@ -252,6 +262,44 @@ class DefaultBuildOperationExecutorParallelExecutionTest extends ConcurrentSpec
         5 * operation.run(_)
     }
 
+    @Requires(UnitTestPreconditions.Jdk21OrLater)
+    def "runs I/O-bound operations on virtual threads without worker leases, and acquires a lease to run other work"() {
+        given:
+        setupBuildOperationExecutor(1, true)
+        def operations = 5
+        def allStarted = new CountDownLatch(operations)
+        def virtualThreads = new AtomicInteger()
+        def withLease = new AtomicInteger()
+        def maxWithLease = new AtomicInteger()
+        def operation = new DefaultBuildOperationQueueTest.TestBuildOperation() {
+            @Override
+            void run(BuildOperationContext context) {
+                if (Thread.currentThread().isVirtual()) {
+                    virtualThreads.incrementAndGet()
+                }
+                // Only possible when the operations do not wait for the single worker lease
+                allStarted.countDown()
+                assert allStarted.await(30, TimeUnit.SECONDS)
+                workerRegistry.runAsWorkerThread {
+                    def current = withLease.incrementAndGet()
+                    maxWithLease.accumulateAndGet(current, { a, b -> Math.max(a, b) })
+                    Thread.sleep(20)
+                    withLease.decrementAndGet()
+                }
+            }
+        }
+
+        when:
+        buildOperationExecutor.runAll({ queue ->
+            operations.times { queue.add(operation) }
+        }, BuildOperationConstraint.IO_BOUND)
+
+        then:
+        // The calling thread may run one of the operations
+        virtualThreads.get() >= operations - 1
+        maxWithLease.get() == 1
+    }
+
     def "cannot be used on unmanaged threads"() {
         given:
         setupBuildOperationExecutor(2)
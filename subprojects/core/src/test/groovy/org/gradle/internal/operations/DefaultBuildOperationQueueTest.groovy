@@ -262,6 +262,31 @@ class DefaultBuildOperationQueueTest extends Specification {
         5    | 10
     }
 
+    def "queue without worker leases runs more operations concurrently than there are worker leases"() {
+        def runs = 5
+        CountDownLatch startedLatch = new CountDownLatch(runs)
+        CountDownLatch releaseLatch = new CountDownLatch(1)
+        def operationAction = Mock(Runnable)
+
+        given:
+        setupQueue(1)
+        operationQueue = new DefaultBuildOperationQueue(false, false, workerRegistry, Executors.newCachedThreadPool(), new SimpleWorker())
+
+        when:
+        runs.times { operationQueue.add(new SynchronizedBuildOperation(operationAction, startedLatch, releaseLatch)) }
+
+        then:
+        // The only worker lease is held by this thread, so the operations can only start if they do not require a lease
+        startedLatch.await(30, TimeUnit.SECONDS)
+
+        when:
+        releaseLatch.countDown()
+        operationQueue.waitForCompletion()
+
+        then:
+        runs * operationAction.run()
+    }
+
     static class SynchronizedBuildOperation extends TestBuildOperation {
         final Runnable operationAction
         final CountDownLatch startedLatch
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.process.internal.worker
+
+import org.gradle.internal.logging.events.OutputEventListener
+import org.gradle.internal.operations.BuildOperationRef
+import org.gradle.process.internal.worker.request.Receiver
+import org.gradle.process.internal.worker.request.Request
+import org.gradle.process.internal.worker.request.RequestProtocol
+import org.gradle.test.fixtures.ConcurrentTestUtil
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+class RequestPipelineTest extends ConcurrentSpec {
+    def receiver = new Receiver("worker", Stub(OutputEventListener))
+    def pipeline = new RequestPipeline(receiver)
+    def protocol = new RecordingRequestProtocol()
+    def buildOperation = Stub(BuildOperationRef)
+
+    def "sends a request while the result of an earlier request is still expected"() {
+        when:
+        async {
+            start {
+                assert run("first") == "first result"
+                instant.firstDone
+            }
+            start {
+                ConcurrentTestUtil.poll { assert protocol.sent == ["first"] }
+                assert run("second") == "second result"
+                instant.secondDone
+            }
+            ConcurrentTestUtil.poll { assert protocol.sent == ["first", "second"] }
+            instant.bothSent
+            receiver.completed("first result")
+            receiver.completed("second result")
+        }
+
+        then:
+        instant.bothSent < instant.firstDone
+        instant.bothSent < instant.secondDone
+    }
+
+    def "hands each result back to the caller that sent the request"() {
+        when:
+        async {
+            3.times { i ->
+                start {
+                    assert run("request $i") == "request $i result"
+                }
+            }
+            ConcurrentTestUtil.poll { assert protocol.sent.size() == 3 }
+            protocol.sent.each { receiver.completed("$it result".toString()) }
+        }
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "fails every pending request when the worker stops"() {
+        def failures = new CopyOnWriteArrayList<String>()
+
+        when:
+        async {
+            2.times { i ->
+                start {
+                    try {
+                        run("request $i")
+                    } catch (RuntimeException e) {
+                        failures << e.message
+                    }
+                }
+            }
+            ConcurrentTestUtil.poll { assert protocol.sent.size() == 2 }
+            receiver.endStream()
+        }
+
+        then:
+        failures == ["worker finished", "worker finished"]
+    }
+
+    def "fails every pipelined request when the worker could not start"() {
+        def failures = new CopyOnWriteArrayList<String>()
+
+        when:
+        async {
+            3.times { i ->
+                start {
+                    try {
+                        run("request $i")
+                    } catch (WorkerProcessException e) {
+                        failures << e.cause.message
+                    }
+                }
+            }
+            ConcurrentTestUtil.poll { assert protocol.sent.size() == 3 }
+            // The worker responds to each request with its startup failure
+            3.times { receiver.infrastructureFailed(new IllegalStateException("could not start")) }
+        }
+
+        then:
+        failures == ["could not start"] * 3
+    }
+
+    private Object run(Object request) {
+        def pendingResult = pipeline.send(protocol, new Request(request.toString(), buildOperation))
+        return pipeline.await(pendingResult, { new RuntimeException("worker finished") })
+    }
+
+    private static class RecordingRequestProtocol implements RequestProtocol {
+        final List<Object> sent = new CopyOnWriteArrayList<>()
+
+        @Override
+        void run(Request request) {
+            sent << request.arg
+        }
+
+        @Override
+        void runThenStop(Request request) {
+            throw new UnsupportedOperationException()
+        }
+
+        @Override
+        void stop() {
+            throw new UnsupportedOperationException()
+        }
+    }
+}
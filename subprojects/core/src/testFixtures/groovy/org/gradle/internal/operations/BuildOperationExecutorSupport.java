@@ -41,6 +41,7 @@ public static class Builder {
         private BuildOperationQueueFactory queueFactory;
         private DefaultBuildOperationRunner.BuildOperationExecutionListenerFactory executionListenerFactory;
         private ExecutorFactory executorFactory;
+        private boolean useVirtualThreadsForIo;
 
         private Builder(WorkerLimits workerLimits) {
             this.workerLimits = workerLimits;
@@ -76,6 +77,11 @@ public Builder withExecutorFactory(ExecutorFactory executorFactory) {
             return this;
         }
 
+        public Builder withVirtualThreadsForIo() {
+            this.useVirtualThreadsForIo = true;
+            return this;
+        }
+
         public BuildOperationExecutor build() {
             WorkerLeaseService workerLeaseService = this.workerLeaseService != null
                 ? this.workerLeaseService
@@ -92,7 +98,8 @@ public BuildOperationExecutor build() {
                 CurrentBuildOperationRef.instance(),
                 queueFactory,
                 executorFactory,
-                workerLimits);
+                workerLimits,
+                useVirtualThreadsForIo);
         }
 
         private BuildOperationRunner buildRunner() {
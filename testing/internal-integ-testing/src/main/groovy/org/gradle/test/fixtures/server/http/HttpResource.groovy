@@ -66,6 +66,14 @@ abstract class HttpResource extends AbstractHttpResource {
         server.expectHead(getPath(), file)
     }
 
+    void expectGetNotModified() {
+        server.expectGetNotModified(getPath(), file)
+    }
+
+    void expectGetRevalidateNotModified() {
+        server.expectGetRevalidateNotModified(getPath(), file)
+    }
+
     void expectHeadMissing() {
         server.expectHeadMissing(getPath())
     }
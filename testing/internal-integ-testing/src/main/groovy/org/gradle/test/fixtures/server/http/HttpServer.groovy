@@ -22,6 +22,7 @@ import groovy.transform.CompileStatic
 import groovy.xml.MarkupBuilder
 import org.gradle.api.credentials.PasswordCredentials
 import org.gradle.internal.credentials.DefaultPasswordCredentials
+import org.gradle.internal.hash.HashCode
 import org.gradle.internal.hash.Hashing
 import org.gradle.test.fixtures.server.ExpectOne
 import org.gradle.test.fixtures.server.ForbidOne
@@ -40,9 +41,11 @@ import org.eclipse.jetty.server.handler.AbstractHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 
+import javax.annotation.Nullable
 import javax.servlet.ServletException
 import javax.servlet.http.HttpServletRequest
 import javax.servlet.http.HttpServletResponse
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.TimeUnit
 import java.util.zip.GZIPOutputStream
@@ -89,6 +92,10 @@ class HttpServer extends ServerWithExpectations implements HttpServerFixture {
     boolean sendLastModified = true
     boolean sendSha1Header = false
 
+    // The hash of the content last sent for each file. A conditional request is only answered with 304 Not Modified when the content
+    // has not changed since, so that a file republished within the same second as its last modification date is not reported as unchanged
+    private final Map<File, HashCode> sentContent = new ConcurrentHashMap<>()
+
     // by default, all hashes are supported
     Set<SupportedHash> supportedHashes = EnumSet.allOf(SupportedHash)
 
@@ -188,6 +195,10 @@ class HttpServer extends ServerWithExpectations implements HttpServerFixture {
         return new SendFileAction(path, srcFile, true)
     }
 
+    private Action notModifiedFileHandler(String path, File srcFile, boolean revalidate) {
+        return new SendFileAction(path, srcFile, revalidate, true)
+    }
+
     static class ServiceUnavailableAction extends ActionSupport {
         ServiceUnavailableAction(String displayName) {
             super(displayName)
@@ -203,12 +214,14 @@ class HttpServer extends ServerWithExpectations implements HttpServerFixture {
         private final String path
         private final File srcFile
         private final boolean revalidate
+        private final boolean expectNotModified
 
-        SendFileAction(String path, File srcFile, boolean revalidate) {
-            super("return contents of $srcFile.name")
+        SendFileAction(String path, File srcFile, boolean revalidate, boolean expectNotModified = false) {
+            super(expectNotModified ? "return 304 not modified for $srcFile.name" : "return contents of $srcFile.name")
             this.srcFile = srcFile
             this.path = path
             this.revalidate = revalidate
+            this.expectNotModified = expectNotModified
         }
 
         void handle(HttpServletRequest request, HttpServletResponse response) {
@@ -238,7 +251,13 @@ class HttpServer extends ServerWithExpectations implements HttpServerFixture {
                     file = new File(srcFile, relativePath)
                 }
                 if (file.isFile()) {
-                    sendFile(response, file, null, null, interaction.contentType)
+                    if (isNotModified(request, file)) {
+                        sendNotModified(response, file)
+                    } else if (expectNotModified) {
+                        response.sendError(412, String.format("Precondition Failed: Expected a conditional request for unchanged '%s'", request.pathInfo))
+                    } else {
+                        sendFile(response, file, null, null, interaction.contentType)
+                    }
                 } else if (file.isDirectory()) {
                     sendDirectoryListing(response, file)
                 } else {
@@ -366,6 +385,20 @@ class HttpServer extends ServerWithExpectations implements HttpServerFixture {
         expect(path, false, ['HEAD'], revalidateFileHandler(path, srcFile))
     }
 
+    /**
+     * Expects one conditional GET request for the given URL, which returns a 304 status code as the file has not changed since it was last sent.
+     */
+    void expectGetNotModified(String path, File srcFile) {
+        expect(path, false, ['GET'], notModifiedFileHandler(path, srcFile, false))
+    }
+
+    /**
+     * Expects one conditional GET request for the given URL, asserting that the request is revalidated, which returns a 304 status code as the file has not changed since it was last sent.
+     */
+    void expectGetRevalidateNotModified(String path, File srcFile) {
+        expect(path, false, ['GET'], notModifiedFileHandler(path, srcFile, true))
+    }
+
     /**
      * Allows one HEAD request for the given URL with http authentication.
      */
@@ -561,23 +594,59 @@ class HttpServer extends ServerWithExpectations implements HttpServerFixture {
         }
 
         addEtag(response, content, etags)
+        sentContent.put(file, Hashing.sha1().hashBytes(content))
         response.outputStream << content
     }
 
+    /**
+     * Returns true when the request carries an If-None-Match or If-Modified-Since header which matches the file, and the content of the file has not changed since it was last sent.
+     */
+    private boolean isNotModified(HttpServletRequest request, File file) {
+        if (request.method != 'GET') {
+            return false
+        }
+        String ifNoneMatch = request.getHeader(HttpHeader.IF_NONE_MATCH.asString())
+        long ifModifiedSince = request.getDateHeader(HttpHeader.IF_MODIFIED_SINCE.asString())
+        if (ifNoneMatch == null && ifModifiedSince < 0) {
+            return false
+        }
+        def content = file.bytes
+        if (sentContent.get(file) != Hashing.sha1().hashBytes(content)) {
+            return false
+        }
+        if (ifNoneMatch != null) {
+            return ifNoneMatch == etagFor(content, etags)
+        }
+        // HTTP dates have a precision of one second
+        return sendLastModified && file.lastModified().intdiv(1000) <= ifModifiedSince.intdiv(1000)
+    }
+
+    private sendNotModified(HttpServletResponse response, File file) {
+        response.setStatus(HttpStatus.NOT_MODIFIED_304)
+        if (sendLastModified) {
+            response.setDateHeader(HttpHeader.LAST_MODIFIED.asString(), file.lastModified())
+        }
+        addEtag(response, file.bytes, etags)
+    }
+
     private addEtag(HttpServletResponse response, byte[] bytes, etagStrategy) {
-        if (etagStrategy != null) {
-            String value
-            if (etags instanceof EtagStrategy) {
-                value = etags.generate(bytes)
-            } else if (etagStrategy instanceof Closure) {
-                value = etagStrategy.call(bytes)
-            } else {
-                value = etagStrategy.toString()
-            }
+        String value = etagFor(bytes, etagStrategy)
+        if (value != null) {
+            response.addHeader(HttpHeader.ETAG.asString(), value)
+        }
+    }
 
-            if (value != null) {
-                response.addHeader(HttpHeader.ETAG.asString(), value)
-            }
+    @Nullable
+    private String etagFor(byte[] bytes, etagStrategy) {
+        if (etagStrategy == null) {
+            return null
+        }
+        if (etags instanceof EtagStrategy) {
+            return etags.generate(bytes)
+        } else if (etagStrategy instanceof Closure) {
+            return etagStrategy.call(bytes)
+        } else {
+            return etagStrategy.toString()
         }
     }
 
@@ -129,6 +129,11 @@ class ConcurrentTestUtil extends ExternalResource {
                 throw new UnsupportedOperationException()
             }
 
+            @Override
+            ManagedExecutor createVirtualThreadExecutor(String displayName) {
+                return new ManagedExecutorStub(ConcurrentTestUtil.this)
+            }
+
             @Override
             ManagedScheduledExecutor createScheduled(String displayName, int fixedSize) {
                 throw new UnsupportedOperationException()
@@ -46,6 +46,11 @@ class TestExecutorFactory implements ExecutorFactory {
         throw new UnsupportedOperationException()
     }
 
+    @Override
+    ManagedExecutor createVirtualThreadExecutor(String displayName) {
+        return new TestManagedExecutor(executor)
+    }
+
     @Override
     ManagedScheduledExecutor createScheduled(String displayName, int fixedSize) {
         throw new UnsupportedOperationException()
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.performance.regression.corefeature
+
+import org.gradle.performance.AbstractCrossVersionPerformanceTest
+import org.gradle.performance.annotations.RunFor
+import org.gradle.performance.annotations.Scenario
+import org.gradle.profiler.BuildContext
+import org.gradle.profiler.BuildMutator
+import org.gradle.profiler.InvocationSettings
+import org.gradle.test.fixtures.file.TestFile
+
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+import static org.gradle.performance.annotations.ScenarioType.PER_DAY
+import static org.gradle.performance.results.OperatingSystem.LINUX
+
+/**
+ * Resolves a chain of two transforms on 2000 jars when a task executes, rather than from scheduled transform nodes.
+ */
+class ArtifactTransformPerformanceTest extends AbstractCrossVersionPerformanceTest {
+    private static final int JAR_COUNT = 2000
+    private static final int ENTRIES_PER_JAR = 20
+
+    private static TestFile libsDir
+
+    def setupSpec() {
+        libsDir = new TestFile("build/tmp/tmp-transform-performance/libs")
+        if (!libsDir.exists()) {
+            generateJars(libsDir)
+        }
+    }
+
+    def setup() {
+        runner.minimumBaseVersion = "8.0"
+        runner.tasksToRun = ["resolveTransformedLazily"]
+        runner.addBuildMutator { linkToLibs(it) }
+    }
+
+    @RunFor(
+        @Scenario(type = PER_DAY, operatingSystems = [LINUX], testProjects = ["transformPerformanceProject"])
+    )
+    def "lazily transform 2000 jars"() {
+        given:
+        runner.addBuildMutator { changeTransformSeed(it) }
+
+        when:
+        def result = runner.run()
+
+        then:
+        result.assertCurrentVersionHasNotRegressed()
+    }
+
+    @RunFor(
+        @Scenario(type = PER_DAY, operatingSystems = [LINUX], testProjects = ["transformPerformanceProject"])
+    )
+    def "lazily resolve 2000 already transformed jars"() {
+        when:
+        def result = runner.run()
+
+        then:
+        result.assertCurrentVersionHasNotRegressed()
+    }
+
+    private static BuildMutator linkToLibs(InvocationSettings invocationSettings) {
+        new BuildMutator() {
+            @Override
+            void beforeBuild(BuildContext context) {
+                TestFile target = new TestFile(invocationSettings.projectDir, "libs")
+                if (!target.exists()) {
+                    target.createLink(libsDir)
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes a parameter of the first transform, so that every build executes all the transforms.
+     */
+    private static BuildMutator changeTransformSeed(InvocationSettings invocationSettings) {
+        new BuildMutator() {
+            @Override
+            void beforeBuild(BuildContext context) {
+                def properties = new File(invocationSettings.projectDir, "gradle.properties")
+                def lines = properties.readLines().findAll { !it.startsWith("transformSeed=") }
+                properties.text = (lines + "transformSeed=${context.uniqueBuildId}").join("\n")
+            }
+        }
+    }
+
+    private static void generateJars(File target) {
+        target.mkdirs()
+        def random = new Random(42)
+        (1..JAR_COUNT).each { i ->
+            new ZipOutputStream(new File(target, "lib${i}.jar").newOutputStream()).withCloseable { out ->
+                (1..ENTRIES_PER_JAR).each { j ->
+                    def bytes = new byte[2048]
+                    random.nextBytes(bytes)
+                    out.putNextEntry(new ZipEntry("org/example/lib${i}/Class${j}.class"))
+                    out.write(bytes)
+                    out.closeEntry()
+                }
+            }
+        }
+    }
+}